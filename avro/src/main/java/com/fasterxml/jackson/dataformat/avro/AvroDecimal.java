@@ -0,0 +1,27 @@
+package com.fasterxml.jackson.dataformat.avro;
+
+import java.lang.annotation.*;
+
+/**
+ * Only used during Avro schema generation; has no effect on data (de)serialization.
+ * <p>
+ * Instructs the {@link com.fasterxml.jackson.dataformat.avro.schema.AvroSchemaGenerator AvroSchemaGenerator}
+ * to declare the annotated {@link java.math.BigDecimal} property as type "bytes"
+ * with logical type "decimal" (or, if also annotated with {@link AvroFixedSize},
+ * as type "fixed" with logical type "decimal").
+ *
+ * @since 3.0
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.FIELD})
+public @interface AvroDecimal {
+    /**
+     * Maximum number of digits of values of this field
+     */
+    int precision();
+
+    /**
+     * Number of digits to the right of the decimal point
+     */
+    int scale() default 0;
+}
@@ -1,12 +1,19 @@
 package com.fasterxml.jackson.dataformat.avro;
 
 import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.avro.io.BinaryEncoder;
 
 import com.fasterxml.jackson.core.*;
 import com.fasterxml.jackson.core.base.BinaryTSFactory;
 import com.fasterxml.jackson.core.io.IOContext;
 import com.fasterxml.jackson.dataformat.avro.apacheimpl.ApacheAvroParserImpl;
+import com.fasterxml.jackson.dataformat.avro.apacheimpl.ApacheCodecRecycler;
+import com.fasterxml.jackson.dataformat.avro.async.NonBlockingByteArrayParser;
 import com.fasterxml.jackson.dataformat.avro.deser.*;
+import com.fasterxml.jackson.dataformat.avro.ser.JacksonAvroEncoder;
 
 /**
  * Default {@link TokenStreamFactory} implementation for encoding/decoding Avro
@@ -43,6 +50,20 @@ public class AvroFactory
      * `false` to use Jackson native Avro decoder.
      */
     protected boolean _useApacheLibDecoder;
+
+    /**
+     * Flag that is set if Apache Avro lib's encoder is to be used for encoding;
+     * `false` to use Jackson native Avro encoder.
+     */
+    protected boolean _useApacheLibEncoder;
+
+    /**
+     * Settings for container file output: codec name, compression level
+     * and block size.
+     */
+    protected String _fileCodec;
+    protected int _fileCompressionLevel;
+    protected int _fileBlockSize;
     
     /*
     /**********************************************************
@@ -64,13 +85,17 @@ public class AvroFactory
     {
         // 09-Jan-2017, tatu: We must actually create and pass builder to be able to change
         //    one of JsonGenerator.Featuers (See builder for details)
-        super(new AvroFactoryBuilder());
+        this(new AvroFactoryBuilder());
     }
 
     protected AvroFactory(AvroFactory src)
     {
         super(src);
         _useApacheLibDecoder = src._useApacheLibDecoder;
+        _useApacheLibEncoder = src._useApacheLibEncoder;
+        _fileCodec = src._fileCodec;
+        _fileCompressionLevel = src._fileCompressionLevel;
+        _fileBlockSize = src._fileBlockSize;
     }
 
     /**
@@ -82,6 +107,10 @@ public class AvroFactory
     {
         super(b);
         _useApacheLibDecoder = b.useApacheLibDecoder();
+        _useApacheLibEncoder = b.useApacheLibEncoder();
+        _fileCodec = b.fileCodec();
+        _fileCompressionLevel = b.fileCompressionLevel();
+        _fileBlockSize = b.fileBlockSize();
     }
 
     @Override
@@ -118,6 +147,26 @@ public class AvroFactory
     public static AvroFactoryBuilder builderWithNativeDecoder() {
         return new AvroFactoryBuilder(false);
     }
+
+    /**
+     * Main factory method to use for constructing a builder for creating
+     * {@link AvroFactory} instances with different configuration,
+     * initialized to use Apache Avro library codec for encoding content
+     * (instead of Jackson native encoder).
+     */
+    public static AvroFactoryBuilder builderWithApacheEncoder() {
+        return new AvroFactoryBuilder().withApacheEncoder();
+    }
+
+    /**
+     * Main factory method to use for constructing a builder for creating
+     * {@link AvroFactory} instances with different configuration,
+     * initialized to use Jackson native codec for encoding content
+     * (instead of Apache Avro library encoder).
+     */
+    public static AvroFactoryBuilder builderWithNativeEncoder() {
+        return new AvroFactoryBuilder().withNativeEncoder();
+    }
     
     @Override
     public AvroFactory copy() {
@@ -164,10 +213,13 @@ public class AvroFactory
         return true;
     }
 
+    /**
+     * Avro content can be parsed using non-blocking parsers (see
+     * {@link #createNonBlockingByteArrayParser}).
+     */
     @Override
     public boolean canParseAsync() {
-        // 30-Sep-2017, tatu: No async implementation exists yet
-        return false;
+        return true;
     }
 
     /**
@@ -210,6 +262,31 @@ public class AvroFactory
         return AvroGenerator.Feature.class;
     }
 
+    /*
+    /**********************************************************
+    /* Extended API: async
+    /**********************************************************
+     */
+
+    /**
+     * Non-blocking parser always uses Jackson native decoder, regardless of
+     * whether Apache Avro library decoder is used for blocking parsers.
+     *<p>
+     * Tokens are returned as soon as their content has been fed; content of
+     * a partially fed token is buffered until it is complete. Length of
+     * buffered content is limited, see
+     * {@link NonBlockingByteArrayParser#setMaxValueLength}.
+     */
+    @Override
+    public NonBlockingByteArrayParser createNonBlockingByteArrayParser(ObjectReadContext readCtxt)
+            throws IOException
+    {
+        return new NonBlockingByteArrayParser(readCtxt, _createContext(null, false),
+                readCtxt.getStreamReadFeatures(_streamReadFeatures),
+                readCtxt.getFormatReadFeatures(_formatReadFeatures),
+                (AvroSchema) readCtxt.getSchema());
+    }
+
     /*
 
     /******************************************************
@@ -217,6 +294,47 @@ public class AvroFactory
     /******************************************************
      */
 
+    /**
+     * Overridden to construct parser that reads memory-mapped file content, if
+     * {@link AvroParser.Feature#AVRO_MAPPED_FILE_INPUT} is enabled (and native
+     * decoder is used).
+     */
+    @Override
+    public JsonParser createParser(ObjectReadContext readCtxt, File f) throws IOException
+    {
+        final int formatFeatures = readCtxt.getFormatReadFeatures(_formatReadFeatures);
+        if (_useApacheLibDecoder || (_inputDecorator != null)
+                || !AvroParser.Feature.AVRO_MAPPED_FILE_INPUT.enabledIn(formatFeatures)) {
+            return super.createParser(readCtxt, f);
+        }
+        // true, since we open the channel
+        IOContext ioCtxt = _createContext(f, true);
+        FileChannel ch = FileChannel.open(f.toPath(), StandardOpenOption.READ);
+        try {
+            return new JacksonAvroMappedParserImpl(readCtxt, ioCtxt,
+                    readCtxt.getStreamReadFeatures(_streamReadFeatures), formatFeatures,
+                    (AvroSchema) readCtxt.getSchema(), ch);
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Factory method for constructing parser that reads memory-mapped content
+     * of given channel, starting from its current position. Channel is only closed
+     * when parser is closed if {@link StreamReadFeature#AUTO_CLOSE_SOURCE} is enabled.
+     *
+     * @since 3.0
+     */
+    public AvroParser createParser(ObjectReadContext readCtxt, FileChannel ch) throws IOException
+    {
+        return new JacksonAvroMappedParserImpl(readCtxt, _createContext(ch, false),
+                readCtxt.getStreamReadFeatures(_streamReadFeatures),
+                readCtxt.getFormatReadFeatures(_formatReadFeatures),
+                (AvroSchema) readCtxt.getSchema(), ch);
+    }
+
     /**
      * Overridable factory method that actually instantiates desired
      * parser.
@@ -275,10 +393,21 @@ public class AvroFactory
     protected JsonGenerator _createGenerator(ObjectWriteContext writeCtxt,
             IOContext ioCtxt, OutputStream out) throws IOException
     {
-        return new AvroGenerator(writeCtxt, ioCtxt,
+        final int formatFeatures = writeCtxt.getFormatWriteFeatures(_formatWriteFeatures);
+        BinaryEncoder encoder;
+        if (_useApacheLibEncoder) {
+            encoder = ApacheCodecRecycler.encoder(out,
+                    AvroGenerator.Feature.AVRO_BUFFERING.enabledIn(formatFeatures));
+        } else {
+            encoder = new JacksonAvroEncoder(ioCtxt, out);
+        }
+        AvroGenerator gen = new AvroGenerator(writeCtxt, ioCtxt,
                 writeCtxt.getStreamWriteFeatures(_streamWriteFeatures),
-                writeCtxt.getFormatWriteFeatures(_formatWriteFeatures),
+                formatFeatures,
                 out,
-                (AvroSchema) writeCtxt.getSchema());
+                (AvroSchema) writeCtxt.getSchema(),
+                encoder);
+        gen.setFileOutputSettings(_fileCodec, _fileCompressionLevel, _fileBlockSize);
+        return gen;
     }
 }
@@ -1,8 +1,11 @@
 package com.fasterxml.jackson.dataformat.avro;
 
+import java.util.zip.Deflater;
+
 import com.fasterxml.jackson.core.StreamWriteFeature;
 import com.fasterxml.jackson.core.base.DecorableTSFactory.DecorableTSFBuilder;
 import com.fasterxml.jackson.dataformat.avro.AvroFactoryBuilder;
+import com.fasterxml.jackson.dataformat.avro.ser.AvroFileWriter;
 
 /**
  * {@link com.fasterxml.jackson.core.TokenStreamFactory.TSFBuilder}
@@ -29,6 +32,28 @@ public class AvroFactoryBuilder extends DecorableTSFBuilder<AvroFactory, AvroFac
      */
     protected boolean _useApacheLibDecoder;
 
+    /**
+     * Flag that is set if Apache Avro lib's encoder is to be used for encoding;
+     * `false` to use Jackson native Avro encoder.
+     */
+    protected boolean _useApacheLibEncoder;
+
+    /**
+     * Name of compression codec to use for container file output
+     * (see {@link AvroGenerator.Feature#AVRO_FILE_OUTPUT}).
+     */
+    protected String _fileCodec = AvroFileWriter.CODEC_NULL;
+
+    /**
+     * Compression level to use for container file output with "deflate" codec.
+     */
+    protected int _fileCompressionLevel = Deflater.DEFAULT_COMPRESSION;
+
+    /**
+     * Size (in bytes, before compression) of blocks of container file output.
+     */
+    protected int _fileBlockSize = AvroFileWriter.DEFAULT_BLOCK_SIZE;
+
     /*
     /**********************************************************
     /* Life cycle
@@ -55,6 +80,11 @@ public class AvroFactoryBuilder extends DecorableTSFBuilder<AvroFactory, AvroFac
 
     public AvroFactoryBuilder(AvroFactory base) {
         super(base);
+        _useApacheLibDecoder = base._useApacheLibDecoder;
+        _useApacheLibEncoder = base._useApacheLibEncoder;
+        _fileCodec = base._fileCodec;
+        _fileCompressionLevel = base._fileCompressionLevel;
+        _fileBlockSize = base._fileBlockSize;
     }
 
     @Override
@@ -71,12 +101,79 @@ public class AvroFactoryBuilder extends DecorableTSFBuilder<AvroFactory, AvroFac
 
     public boolean useApacheLibDecoder() { return _useApacheLibDecoder; }
 
+    public boolean useApacheLibEncoder() { return _useApacheLibEncoder; }
+
+    public String fileCodec() { return _fileCodec; }
+
+    public int fileCompressionLevel() { return _fileCompressionLevel; }
+
+    public int fileBlockSize() { return _fileBlockSize; }
+
     /*
     /**********************************************************
     /* Mutators
     /**********************************************************
      */
 
+    // // // Codec selection
+
+    /**
+     * Method for configuring factory to use Apache Avro library codec for encoding
+     * content (instead of Jackson native encoder).
+     */
+    public AvroFactoryBuilder withApacheEncoder() {
+        _useApacheLibEncoder = true;
+        return _this();
+    }
+
+    /**
+     * Method for configuring factory to use Jackson native codec for encoding
+     * content (instead of Apache Avro library encoder). This is the default.
+     */
+    public AvroFactoryBuilder withNativeEncoder() {
+        _useApacheLibEncoder = false;
+        return _this();
+    }
+
+    // // // Container file output
+
+    /**
+     * Method for specifying compression codec to use for blocks of container
+     * file output (see {@link AvroGenerator.Feature#AVRO_FILE_OUTPUT}):
+     * either "null" (no compression; default) or "deflate".
+     */
+    public AvroFactoryBuilder fileCodec(String codec) {
+        _fileCodec = AvroFileWriter.verifyCodec(codec);
+        return _this();
+    }
+
+    /**
+     * Method for specifying compression level (0 - 9; or -1 for default)
+     * to use with "deflate" codec.
+     */
+    public AvroFactoryBuilder fileCompressionLevel(int level) {
+        if (level < -1 || level > 9) {
+            throw new IllegalArgumentException("Invalid compression level ("+level+"): must be between -1 and 9");
+        }
+        _fileCompressionLevel = level;
+        return _this();
+    }
+
+    /**
+     * Method for specifying minimum size (in bytes, before compression) of blocks
+     * of container file output: values are buffered until their encoded size
+     * reaches this size, at which point block is written out. Smaller blocks
+     * reduce latency and memory usage; bigger ones improve throughput and
+     * compression ratio. Default value is 64000 bytes.
+     */
+    public AvroFactoryBuilder fileBlockSize(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Invalid block size ("+size+"): must be positive");
+        }
+        _fileBlockSize = size;
+        return _this();
+    }
+
     // // // Parser features
 
     public AvroFactoryBuilder enable(AvroParser.Feature f) {
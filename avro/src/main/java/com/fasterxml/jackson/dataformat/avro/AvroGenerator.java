@@ -5,6 +5,7 @@ import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.nio.ByteBuffer;
+import java.util.zip.Deflater;
 
 import org.apache.avro.io.BinaryEncoder;
 
@@ -12,8 +13,11 @@ import com.fasterxml.jackson.core.*;
 import com.fasterxml.jackson.core.base.GeneratorBase;
 import com.fasterxml.jackson.core.io.IOContext;
 import com.fasterxml.jackson.dataformat.avro.apacheimpl.ApacheCodecRecycler;
+import com.fasterxml.jackson.dataformat.avro.ser.AvroFileWriter;
 import com.fasterxml.jackson.dataformat.avro.ser.AvroWriteContext;
 import com.fasterxml.jackson.dataformat.avro.ser.EncodedDatum;
+import com.fasterxml.jackson.dataformat.avro.ser.JacksonAvroEncoder;
+import com.fasterxml.jackson.dataformat.avro.ser.PrimitiveArrayDatum;
 
 public class AvroGenerator extends GeneratorBase
 {
@@ -30,8 +34,13 @@ public class AvroGenerator extends GeneratorBase
          * Note that disabling buffer is likely to reduce performance if the underlying
          * input/output is unbuffered.
          *<p>
+         * NOTE: only affects Apache Avro lib encoder (see
+         * {@link AvroFactoryBuilder#withApacheEncoder}); ignored by Jackson native
+         * encoder (the default), which always uses a (recycled) output buffer.
+         * Native encoder writes out buffered content at the end of each root
+         * value, as well as when {@link AvroGenerator#flush} is called.
+         *<p>
          * Enabled by default to preserve the existing behavior.
-
          */
         AVRO_BUFFERING(true),
 
@@ -42,8 +51,65 @@ public class AvroGenerator extends GeneratorBase
          * NOTE: reader-side will have to be aware of distinction as well, since possible inclusion
          * of this header is not 100% reliably auto-detectable (while header has distinct marker,
          * "raw" Avro content has no limitations and could theoretically have same pre-amble from data).
+         *<p>
+         * File header is written once, before the first root value; root values are
+         * then written in blocks (see {@link AvroFactoryBuilder#fileBlockSize(int)} and
+         * {@link AvroFactoryBuilder#fileCodec(String)}), so that sequences of values
+         * (written using {@link com.fasterxml.jackson.databind.SequenceWriter}) result
+         * in a single container file. Header is written lazily, so if no values are
+         * written, closing the generator produces no output at all.
+         */
+        AVRO_FILE_OUTPUT(false),
+
+        /**
+         * Feature that tells generator to encode content directly as it is being written,
+         * instead of first building an in-memory representation
+         * ({@link org.apache.avro.generic.GenericRecord}s, arrays and maps) of the whole
+         * root value and then encoding it using Avro lib datum writer.
+         * Direct encoding avoids construction of the intermediate objects and is
+         * typically faster, but content of Arrays and Maps (as well as Record properties
+         * written in order that differs from schema order) still need to be buffered
+         * before being written out.
+         *<p>
+         * Disabled by default to preserve the existing behavior.
+         */
+        AVRO_DIRECT_ENCODING(false),
+
+        /**
+         * Feature that determines whether underlying output is flushed after each
+         * block of file output (see {@link #AVRO_FILE_OUTPUT}) has been written.
+         * Enabling this reduces latency of making values available to readers, at
+         * the cost of throughput; block size (see
+         * {@link AvroFactoryBuilder#fileBlockSize(int)}) has similar effect.
+         *<p>
+         * Disabled by default.
          */
-        AVRO_FILE_OUTPUT(false)
+        AVRO_FILE_FLUSH_BLOCKS(false),
+
+        /**
+         * Feature that determines whether root-level values are written using
+         * Avro single-object encoding: that is, each value is preceded by
+         * 2-byte marker and 8-byte fingerprint of the schema (see
+         * {@link AvroSingleObjectSchema}). Not used with file output (see
+         * {@link #AVRO_FILE_OUTPUT}) which contains schema in file header.
+         *<p>
+         * Disabled by default.
+         */
+        AVRO_SINGLE_OBJECT_ENCODING(false),
+
+        /**
+         * Feature that determines whether blocks of Avro arrays and maps are written
+         * with their byte size: that is, element count is written as negative number,
+         * followed by size of the block content in bytes (as allowed by the Avro
+         * specification). This allows readers to skip arrays and maps without
+         * decoding their contents, at the cost of having to buffer contents
+         * of all blocks when writing.
+         *<p>
+         * Disabled by default.
+         *
+         * @since 3.0
+         */
+        AVRO_SIZED_BLOCKS(false)
         ;
 
         protected final boolean _defaultState;
@@ -125,6 +191,24 @@ public class AvroGenerator extends GeneratorBase
      */
     protected boolean _complete;
 
+    /**
+     * Writer used for container file output, if {@link Feature#AVRO_FILE_OUTPUT}
+     * is enabled; lazily constructed when first needed.
+     */
+    protected AvroFileWriter _fileWriter;
+
+    protected String _fileCodec = AvroFileWriter.CODEC_NULL;
+
+    protected int _fileCompressionLevel = Deflater.DEFAULT_COMPRESSION;
+
+    protected int _fileBlockSize = AvroFileWriter.DEFAULT_BLOCK_SIZE;
+
+    /**
+     * Lazily constructed header for single-object encoding, if
+     * {@link Feature#AVRO_SINGLE_OBJECT_ENCODING} is enabled.
+     */
+    protected byte[] _singleObjectHeader;
+
     /*
     /**********************************************************
     /* Life-cycle
@@ -136,13 +220,29 @@ public class AvroGenerator extends GeneratorBase
             OutputStream output,
             AvroSchema schema)
         throws IOException
+    {
+        this(writeCtxt, ctxt, jsonFeatures, avroFeatures, output, schema,
+                ApacheCodecRecycler.encoder(output, Feature.AVRO_BUFFERING.enabledIn(avroFeatures)));
+    }
+
+    /**
+     * @param encoder Encoder to use for writing content: either Jackson native
+     *    {@link JacksonAvroEncoder} or one from Apache Avro lib
+     *
+     * @since 3.0
+     */
+    public AvroGenerator(ObjectWriteContext writeCtxt, IOContext ctxt,
+            int jsonFeatures, int avroFeatures,
+            OutputStream output,
+            AvroSchema schema, BinaryEncoder encoder)
+        throws IOException
     {
         super(writeCtxt, jsonFeatures);
         _ioContext = ctxt;
         _formatFeatures = avroFeatures;
         _output = output;
         _avroContext = AvroWriteContext.nullContext();
-        _encoder = ApacheCodecRecycler.encoder(_output, isEnabled(Feature.AVRO_BUFFERING));
+        _encoder = encoder;
         setSchema(schema);
     }
 
@@ -151,7 +251,12 @@ public class AvroGenerator extends GeneratorBase
         if (_rootSchema == schema) {
             return;
         }
+        // Container file may only contain values of one schema
+        if ((_fileWriter != null) && !_fileWriter.getSchema().equals(schema.getAvroSchema())) {
+            throw new IllegalStateException("Can not change schema after Avro file header has been written");
+        }
         _rootSchema = schema;
+        _singleObjectHeader = null;
         // start with temporary root...
         _avroContext = _rootContext = AvroWriteContext.createRootContext(this,
                 schema.getAvroSchema(), _encoder);
@@ -197,11 +302,17 @@ public class AvroGenerator extends GeneratorBase
     }
 
     /**
-     * Unfortunately we have no visibility into buffering Avro codec does;
+     * Unfortunately we have no visibility into buffering Apache Avro codec does;
      * and need to return <code>-1</code> to reflect that lack of knowledge.
+     * With Jackson native encoder, amount of encoded but not yet flushed content
+     * is returned; but note that content of the current root value may not yet
+     * have been encoded.
      */
     @Override
     public int getOutputBuffered() {
+        if (_encoder instanceof JacksonAvroEncoder) {
+            return _encoder.bytesBuffered();
+        }
         return -1;
     }
 
@@ -253,6 +364,65 @@ public class AvroGenerator extends GeneratorBase
         return this;
     }
 
+    /**
+     * Method for changing settings used for container file output (see
+     * {@link Feature#AVRO_FILE_OUTPUT}); must be called before any content
+     * is written.
+     *
+     * @param codec Name of compression codec to use for blocks ("null" or "deflate")
+     * @param compressionLevel Compression level to use with "deflate" codec
+     * @param blockSize Size (in bytes) of uncompressed content after which a block
+     *    is written out
+     *
+     * @since 3.0
+     */
+    public AvroGenerator setFileOutputSettings(String codec, int compressionLevel, int blockSize) {
+        if (_fileWriter != null) {
+            throw new IllegalStateException("Can not change file output settings after content has been written");
+        }
+        _fileCodec = AvroFileWriter.verifyCodec(codec);
+        _fileCompressionLevel = compressionLevel;
+        _fileBlockSize = blockSize;
+        return this;
+    }
+
+    /**
+     * Accessor for writer used for container file output: constructed (using
+     * settings from {@link #setFileOutputSettings}) on first call.
+     *
+     * @since 3.0
+     */
+    public AvroFileWriter getFileWriter()
+    {
+        AvroFileWriter w = _fileWriter;
+        if (w == null) {
+            _fileWriter = w = new AvroFileWriter(_encoder, _rootSchema.getAvroSchema(),
+                    _fileCodec, _fileCompressionLevel, _fileBlockSize,
+                    isEnabled(Feature.AVRO_FILE_FLUSH_BLOCKS));
+        }
+        return w;
+    }
+
+    /**
+     * Accessor for header to write before each root value, if single-object
+     * encoding (see {@link Feature#AVRO_SINGLE_OBJECT_ENCODING}) is used;
+     * or `null` if not.
+     *
+     * @since 3.0
+     */
+    public byte[] getSingleObjectHeader()
+    {
+        if (!isEnabled(Feature.AVRO_SINGLE_OBJECT_ENCODING)
+                || isEnabled(Feature.AVRO_FILE_OUTPUT)) {
+            return null;
+        }
+        byte[] header = _singleObjectHeader;
+        if (header == null) {
+            _singleObjectHeader = header = AvroSingleObjectSchema.headerFor(_rootSchema.getFingerprint());
+        }
+        return header;
+    }
+
     /*
     /**********************************************************************
     /* Overridden methods; writing field names
@@ -290,11 +460,44 @@ public class AvroGenerator extends GeneratorBase
     /**********************************************************
      */
 
+    /**
+     * Flushes content encoded so far, buffered by the encoder, as well as
+     * the underlying output stream (if
+     * {@link StreamWriteFeature#FLUSH_PASSED_TO_STREAM} is enabled).
+     * Note that content of an incomplete root value may not yet have been
+     * encoded; and with container file output, blocks are only written
+     * once complete.
+     */
     @Override
     public final void flush() throws IOException {
         if (isEnabled(StreamWriteFeature.FLUSH_PASSED_TO_STREAM)) {
-            _output.flush();
+            // encoders flush the underlying stream as well
+            if (_encoder != null) {
+                _encoder.flush();
+            } else {
+                _output.flush();
+            }
+        }
+    }
+
+    /**
+     * Method that may be called after writing a root-level value to make sure
+     * that it is fully encoded and written to the underlying output, without
+     * closing the generator: this is needed for root-level scalars, as well as
+     * values for which encoder may buffer content. Generator may then be used
+     * for writing the next root-level value, reusing its contexts and buffers.
+     *
+     * @throws JsonGenerationException If called while a root-level Array or
+     *   Object is still open
+     *
+     * @since 3.0
+     */
+    public void finishValue() throws IOException
+    {
+        if (!_avroContext.inRoot()) {
+            _reportError("Can not finish value: current context not root but "+_avroContext.typeDesc());
         }
+        _complete();
     }
 
     @Override
@@ -330,6 +533,11 @@ public class AvroGenerator extends GeneratorBase
                         +e.getClass().getName()+"): "+e.getMessage(), e, this);
             }
         }
+        // File output: need to write out the last block; but if nothing was
+        // written, no file writer was created, and nothing (not even header) is output
+        if (_fileWriter != null) {
+            _fileWriter.close();
+        }
         if (_output != null) {
             if (_ioContext.isResourceManaged() || isEnabled(StreamWriteFeature.AUTO_CLOSE_TARGET)) {
                 _output.close();
@@ -366,12 +574,46 @@ public class AvroGenerator extends GeneratorBase
         if (!_avroContext.inArray()) {
             _reportError("Current context not Array but "+_avroContext.typeDesc());
         }
+        _avroContext.writeEnd();
         _avroContext = _avroContext.getParent();
         if (_avroContext.inRoot() && !_complete) {
             _complete();
         }
     }
 
+    /**
+     * Overridden to encode the whole array as a single Avro array block, instead
+     * of going through per-element array context and boxing.
+     *
+     * @since 3.0
+     */
+    @Override
+    public void writeArray(int[] array, int offset, int length) throws IOException
+    {
+        _verifyOffsets(array.length, offset, length);
+        _avroContext.writeValue(PrimitiveArrayDatum.of(array, offset, length));
+    }
+
+    /**
+     * @since 3.0
+     */
+    @Override
+    public void writeArray(long[] array, int offset, int length) throws IOException
+    {
+        _verifyOffsets(array.length, offset, length);
+        _avroContext.writeValue(PrimitiveArrayDatum.of(array, offset, length));
+    }
+
+    /**
+     * @since 3.0
+     */
+    @Override
+    public void writeArray(double[] array, int offset, int length) throws IOException
+    {
+        _verifyOffsets(array.length, offset, length);
+        _avroContext.writeValue(PrimitiveArrayDatum.of(array, offset, length));
+    }
+
     @Override
     public final void writeStartObject() throws IOException {
         _avroContext = _avroContext.createChildObjectContext();
@@ -393,6 +635,7 @@ public class AvroGenerator extends GeneratorBase
         if (!_avroContext.canClose()) {
             _reportError("Can not write END_OBJECT after writing FIELD_NAME but not value");
         }
+        _avroContext.writeEnd();
         _avroContext = _avroContext.getParent();
 
         if (_avroContext.inRoot() && !_complete) {
@@ -588,7 +831,11 @@ public class AvroGenerator extends GeneratorBase
         BinaryEncoder e = _encoder;
         if (e != null) {
             _encoder = null;
-            ApacheCodecRecycler.release(e);
+            if (e instanceof JacksonAvroEncoder) {
+                ((JacksonAvroEncoder) e).release();
+            } else {
+                ApacheCodecRecycler.release(e);
+            }
         }
     }
 
@@ -3,6 +3,7 @@ package com.fasterxml.jackson.dataformat.avro;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.avro.Schema;
 
@@ -22,6 +23,14 @@ public class AvroMapper extends ObjectMapper
 {
     private static final long serialVersionUID = 3L;
 
+    /**
+     * Default maximum number of schemas generated by {@link #schemaFor}
+     * cached by a mapper
+     *
+     * @since 3.0
+     */
+    public final static int DEFAULT_SCHEMA_CACHE_SIZE = 500;
+
     /**
      * Base implementation for "Vanilla" {@link ObjectMapper}, used with
      * Avro backend.
@@ -30,6 +39,13 @@ public class AvroMapper extends ObjectMapper
      */
     public static class Builder extends MapperBuilder<AvroMapper, Builder>
     {
+        /**
+         * Maximum number of generated schemas to cache; 0 to disable caching.
+         *
+         * @since 3.0
+         */
+        protected int _schemaCacheSize = DEFAULT_SCHEMA_CACHE_SIZE;
+
         public Builder(AvroFactory f) {
             super(f);
             addModule(new AvroModule());
@@ -38,6 +54,7 @@ public class AvroMapper extends ObjectMapper
         public Builder(StateImpl state) {
             super(state);
             // no need to add module, should come by default
+            _schemaCacheSize = state._schemaCacheSize;
         }
         
         @Override
@@ -47,9 +64,38 @@ public class AvroMapper extends ObjectMapper
 
         @Override
         protected MapperBuilderState _saveState() {
-            // nothing extra, just format features
+            // format features, schema cache size
             return new StateImpl(this);
         }
+
+        /*
+        /******************************************************************
+        /* Schema generation
+        /******************************************************************
+         */
+
+        /**
+         * Method for specifying maximum number of schemas generated by
+         * {@link AvroMapper#schemaFor} to cache: if limit is reached, cache
+         * is cleared. Setting size to 0 disables caching, in which case
+         * each call generates a new schema, which caller may then modify freely;
+         * cached schemas are shared and must not be modified.
+         *<p>
+         * Default size is {@link AvroMapper#DEFAULT_SCHEMA_CACHE_SIZE}.
+         *
+         * @since 3.0
+         */
+        public Builder schemaCacheSize(int maxEntries) {
+            if (maxEntries < 0) {
+                throw new IllegalArgumentException("Invalid schema cache size ("+maxEntries+"): can not be negative");
+            }
+            _schemaCacheSize = maxEntries;
+            return this;
+        }
+
+        public int schemaCacheSize() {
+            return _schemaCacheSize;
+        }
         
         /*
         /******************************************************************
@@ -109,9 +155,12 @@ public class AvroMapper extends ObjectMapper
             implements java.io.Serializable // important!
         {
             private static final long serialVersionUID = 3L;
-    
+
+            protected final int _schemaCacheSize;
+
             public StateImpl(Builder src) {
                 super(src);
+                _schemaCacheSize = src._schemaCacheSize;
             }
     
             // We also need actual instance of state as base class can not implement logic
@@ -145,8 +194,25 @@ public class AvroMapper extends ObjectMapper
         this(new Builder(f));
     }
 
+    /**
+     * Maximum number of generated schemas to cache; 0 if caching disabled
+     *
+     * @since 3.0
+     */
+    protected final int _schemaCacheSize;
+
+    /**
+     * Schemas generated by {@link #schemaFor}, keyed by type; lazily constructed.
+     * Since mappers can not be reconfigured, cache is scoped to this mapper
+     * instance: mappers built using {@link #rebuild()} start with empty cache.
+     *
+     * @since 3.0
+     */
+    protected transient volatile ConcurrentHashMap<JavaType, AvroSchema> _schemaCache;
+
     public AvroMapper(Builder b) {
         super(b);
+        _schemaCacheSize = b._schemaCacheSize;
     }
 
     public static Builder builder() {
@@ -206,12 +272,15 @@ public class AvroMapper extends ObjectMapper
      * POJO type and building schema that contains specified properties.
      *<p>
      * Resulting schema object does not use separate reader/writer schemas.
+     *<p>
+     * Unless disabled (see {@link Builder#schemaCacheSize}), generated schemas
+     * are cached, so that the same instance (along with reader it lazily builds)
+     * is returned for subsequent calls for the same type: see
+     * {@link #schemaFor(JavaType)} for restrictions this imposes on callers.
      */
     public AvroSchema schemaFor(Class<?> type) throws JsonMappingException
     {
-        AvroSchemaGenerator gen = new AvroSchemaGenerator();
-        acceptJsonFormatVisitor(type, gen);
-        return gen.getGeneratedSchema();
+        return schemaFor(constructType(type));
     }
 
     /**
@@ -219,14 +288,120 @@ public class AvroMapper extends ObjectMapper
      * POJO type and building schema that contains specified properties.
      *<p>
      * Resulting schema object does not use separate reader/writer schemas.
+     *<p>
+     * Unless disabled (see {@link Builder#schemaCacheSize}), generated schemas
+     * are cached, so that the same instance (along with reader it lazily builds)
+     * is returned for subsequent calls for the same type.
+     *<p>
+     * NOTE: since cached instances are shared by all callers (across threads),
+     * returned schema -- including the underlying Avro {@link org.apache.avro.Schema}
+     * accessed with {@link AvroSchema#getAvroSchema()} -- MUST NOT be modified
+     * (for example by adding properties to it). Callers that need to modify
+     * schema should either copy it first (for example by re-parsing its JSON
+     * representation) or disable caching by setting cache size to 0.
      */
     public AvroSchema schemaFor(JavaType type) throws JsonMappingException
+    {
+        if (_schemaCacheSize == 0) {
+            return _generateSchema(type);
+        }
+        ConcurrentHashMap<JavaType, AvroSchema> cache = _schemaCache();
+        AvroSchema schema = cache.get(type);
+        if (schema == null) {
+            schema = _generateSchema(type);
+            // Simple bounding, similar to that of databind caches: flush when full
+            if (cache.size() >= _schemaCacheSize) {
+                cache.clear();
+            }
+            AvroSchema old = cache.putIfAbsent(type, schema);
+            if (old != null) {
+                schema = old;
+            }
+        }
+        return schema;
+    }
+
+    /**
+     * Method that may be called to generate (and cache) schemas for given types
+     * eagerly, along with readers for them, to avoid the cost on first use.
+     *
+     * @since 3.0
+     */
+    public void pregenerateSchemas(Class<?>... types) throws JsonMappingException
+    {
+        for (Class<?> type : types) {
+            schemaFor(type).getReader();
+        }
+    }
+
+    /**
+     * Method for removing all cached schemas generated by {@link #schemaFor}.
+     *
+     * @since 3.0
+     */
+    public void clearSchemaCache() {
+        ConcurrentHashMap<JavaType, AvroSchema> cache = _schemaCache;
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * @since 3.0
+     */
+    public int cachedSchemaCount() {
+        ConcurrentHashMap<JavaType, AvroSchema> cache = _schemaCache;
+        return (cache == null) ? 0 : cache.size();
+    }
+
+    /*
+    /**********************************************************************
+    /* Message writers
+    /**********************************************************************
+     */
+
+    /**
+     * Factory method for constructing a reusable {@link AvroMessageWriter}
+     * for writing values of given type as separate messages, using schema
+     * generated for the type (see {@link #schemaFor(Class)}).
+     *
+     * @since 3.0
+     */
+    public AvroMessageWriter messageWriterFor(Class<?> type) throws JsonMappingException {
+        return AvroMessageWriter.forType(this, type, schemaFor(type));
+    }
+
+    /**
+     * Factory method for constructing a reusable {@link AvroMessageWriter}
+     * for writing values of given type as separate messages, using given schema.
+     *
+     * @since 3.0
+     */
+    public AvroMessageWriter messageWriterFor(Class<?> type, AvroSchema schema) {
+        return AvroMessageWriter.forType(this, type, schema);
+    }
+
+    protected AvroSchema _generateSchema(JavaType type) throws JsonMappingException
     {
         AvroSchemaGenerator gen = new AvroSchemaGenerator();
         acceptJsonFormatVisitor(type, gen);
         return gen.getGeneratedSchema();
     }
 
+    private ConcurrentHashMap<JavaType, AvroSchema> _schemaCache()
+    {
+        ConcurrentHashMap<JavaType, AvroSchema> cache = _schemaCache;
+        if (cache == null) {
+            synchronized (this) {
+                cache = _schemaCache;
+                if (cache == null) {
+                    _schemaCache = cache = new ConcurrentHashMap<JavaType, AvroSchema>();
+                }
+            }
+        }
+        return cache;
+    }
+
     /**
      * Method for reading an Avro Schema from given {@link InputStream},
      * and once done (successfully or not), closing the stream.
@@ -0,0 +1,146 @@
+package com.fasterxml.jackson.dataformat.avro;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Reusable handle for writing values as separate (small) Avro messages,
+ * for use cases where each value is encoded on its own -- for example
+ * as a message payload -- at high rates. Instead of constructing a new
+ * {@link AvroGenerator} (along with its root context, datum writer and
+ * encoder) for each value, as {@link ObjectWriter#writeValueAsBytes} does,
+ * handle keeps a single generator bound to the schema and writes values
+ * as a root-level value sequence into an internal buffer that is reset
+ * between messages; so per-message cost is mostly just that of encoding.
+ *<p>
+ * Instances are NOT thread-safe: they are meant to be used by one thread
+ * at a time, and either pooled (for example by holding one per thread in a
+ * {@link ThreadLocal}) or kept by whatever owns the message stream.
+ * If writing of a value fails, generator is discarded and a new one
+ * is constructed for the next value, so handle remains usable.
+ * Handle should be closed when no longer needed, to release recycled
+ * buffers generator holds.
+ *<p>
+ * Note that {@link AvroGenerator.Feature#AVRO_FILE_OUTPUT} can not be
+ * used with message writers, since values are not written as separate
+ * messages with it.
+ *
+ * @since 3.0
+ */
+public class AvroMessageWriter implements Closeable
+{
+    protected final AvroMapper _mapper;
+
+    protected final ObjectWriter _writer;
+
+    protected final AvroSchema _schema;
+
+    /**
+     * Buffer that each message is written in; reset before writing
+     * each value.
+     */
+    protected final ByteArrayOutputStream _buffer;
+
+    /**
+     * Generator used for writing messages; lazily constructed, and
+     * dropped if writing of a value fails.
+     */
+    protected AvroGenerator _generator;
+
+    protected AvroMessageWriter(AvroMapper mapper, ObjectWriter w, AvroSchema schema)
+    {
+        if (mapper.tokenStreamFactory().isEnabled(AvroGenerator.Feature.AVRO_FILE_OUTPUT)) {
+            throw new IllegalArgumentException("Can not construct AvroMessageWriter: `AvroGenerator.Feature.AVRO_FILE_OUTPUT` enabled");
+        }
+        _mapper = mapper;
+        _writer = w;
+        _schema = schema;
+        _buffer = new ByteArrayOutputStream(200);
+    }
+
+    /**
+     * Factory method for constructing message writer for writing values of any
+     * type using given schema.
+     */
+    public static AvroMessageWriter construct(AvroMapper mapper, AvroSchema schema) {
+        return new AvroMessageWriter(mapper, mapper.writer(schema), schema);
+    }
+
+    /**
+     * Factory method for constructing message writer for writing values of
+     * specified type using given schema; using type allows serializer to be
+     * located just once, and not for each value.
+     */
+    public static AvroMessageWriter forType(AvroMapper mapper, Class<?> type, AvroSchema schema) {
+        return new AvroMessageWriter(mapper, mapper.writerFor(type).with(schema), schema);
+    }
+
+    public AvroSchema getSchema() {
+        return _schema;
+    }
+
+    /*
+    /**********************************************************
+    /* Public API
+    /**********************************************************
+     */
+
+    /**
+     * Method for encoding given value as a message, returned as a newly
+     * allocated byte array.
+     */
+    public byte[] writeValueAsBytes(Object value) throws IOException
+    {
+        _writeMessage(value);
+        return _buffer.toByteArray();
+    }
+
+    /**
+     * Method for encoding given value as a message, and writing it to
+     * given {@link OutputStream} (which is neither flushed nor closed).
+     *
+     * @return Length of message written, in bytes
+     */
+    public int writeValue(OutputStream out, Object value) throws IOException
+    {
+        _writeMessage(value);
+        _buffer.writeTo(out);
+        return _buffer.size();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        AvroGenerator g = _generator;
+        if (g != null) {
+            _generator = null;
+            g.close();
+        }
+    }
+
+    /*
+    /**********************************************************
+    /* Internal methods
+    /**********************************************************
+     */
+
+    protected void _writeMessage(Object value) throws IOException
+    {
+        _buffer.reset();
+        AvroGenerator g = _generator;
+        if (g == null) {
+            g = (AvroGenerator) _mapper.createGenerator(_buffer);
+            g.setSchema(_schema);
+        }
+        // Generator only remains usable if value is completely written; if not,
+        // state of contexts (and content encoder may buffer) is unknown
+        _generator = null;
+        _writer.writeValue(g, value);
+        g.finishValue();
+        _generator = g;
+    }
+}
@@ -15,6 +15,7 @@ import com.fasterxml.jackson.databind.module.SimpleDeserializers;
 import com.fasterxml.jackson.databind.module.SimpleSerializers;
 import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import com.fasterxml.jackson.dataformat.avro.deser.AvroPrimitiveArrayDeserializer;
 import com.fasterxml.jackson.dataformat.avro.deser.AvroUntypedDeserializer;
 
 /**
@@ -96,6 +97,11 @@ public class AvroModule extends Module
         // Override untyped deserializer to one that checks for type information in the schema before going to default handling
         SimpleDeserializers desers = new SimpleDeserializers();
         desers.addDeserializer(Object.class, AvroUntypedDeserializer.construct(context.typeFactory()));
+        // Bulk decoding of arrays of numbers, for primitive arrays
+        desers.addDeserializer(int[].class, AvroPrimitiveArrayDeserializer.construct(int[].class));
+        desers.addDeserializer(long[].class, AvroPrimitiveArrayDeserializer.construct(long[].class));
+        desers.addDeserializer(float[].class, AvroPrimitiveArrayDeserializer.construct(float[].class));
+        desers.addDeserializer(double[].class, AvroPrimitiveArrayDeserializer.construct(double[].class));
         context.addDeserializers(desers);
     }
 
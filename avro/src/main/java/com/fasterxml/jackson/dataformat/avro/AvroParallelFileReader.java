@@ -0,0 +1,782 @@
+package com.fasterxml.jackson.dataformat.avro;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.apache.avro.Schema;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * Reader for Avro Object Container Files that splits file into ranges of
+ * blocks that can be decoded independently, and in parallel.
+ *<p>
+ * On first access, block headers of the file are scanned (without decoding
+ * contents) and sync markers that follow blocks are verified; blocks are then
+ * grouped into splits of (at least) configured size. Contents of splits are
+ * decoded using given {@link ObjectReader}: with default {@link AvroFactory}
+ * settings this means that Jackson native decoder is used.
+ *<p>
+ * Results are exposed either as a {@link Stream} (backed by a {@link Spliterator}
+ * that splits at split boundaries, so that parallel streams decode splits in
+ * parallel; if terminal operation is invoked from within a {@link ForkJoinPool}
+ * task, that pool is used), or as an {@link Iterator} that decodes splits using
+ * configured {@link ForkJoinPool} (common pool by default), keeping a bounded
+ * number of splits in flight.
+ * Whether values are returned in file order is configurable with
+ * {@link #withPreserveOrder}: if not required, values are returned in order
+ * their splits get decoded.
+ *<p>
+ * Instances are created using {@link #forFile} or {@link #forBytes}; and
+ * differently configured instances using "mutant factory" methods (which share
+ * the input and scanned block index). Instances should be closed after use to
+ * close the underlying file.
+ *
+ * @since 3.0
+ */
+public class AvroParallelFileReader<T> implements Closeable
+{
+    /**
+     * Default minimum size (in bytes, before decompression) of a split.
+     */
+    public final static int DEFAULT_SPLIT_SIZE = 4 * 1024 * 1024;
+
+    private final static byte[] MAGIC = new byte[] { 'O', 'b', 'j', 1 };
+
+    private final static int SYNC_SIZE = 16;
+
+    /*
+    /**********************************************************
+    /* Configuration
+    /**********************************************************
+     */
+
+    protected final ObjectReader _reader;
+
+    protected final Input _input;
+
+    protected final Header _header;
+
+    /**
+     * Schema used for decoding values: writer schema from file header,
+     * possibly combined with reader schema.
+     */
+    protected final AvroSchema _schema;
+
+    protected final boolean _preserveOrder;
+
+    protected final int _splitSize;
+
+    protected final ForkJoinPool _pool;
+
+    /**
+     * Lazily constructed index of splits of the file
+     */
+    protected volatile List<Split> _splits;
+
+    /*
+    /**********************************************************
+    /* Life-cycle
+    /**********************************************************
+     */
+
+    protected AvroParallelFileReader(ObjectReader r, Input input, Header header,
+            AvroSchema schema, boolean preserveOrder, int splitSize, ForkJoinPool pool,
+            List<Split> splits)
+    {
+        _reader = r.with(schema);
+        _input = input;
+        _header = header;
+        _schema = schema;
+        _preserveOrder = preserveOrder;
+        _splitSize = splitSize;
+        _pool = pool;
+        _splits = splits;
+    }
+
+    /**
+     * Factory method for constructing a reader for given container file.
+     *
+     * @param r Reader to use for decoding values; must be configured with the
+     *   value type and use {@link AvroFactory}
+     */
+    public static <T> AvroParallelFileReader<T> forFile(ObjectReader r, File f)
+        throws IOException
+    {
+        return _construct(r, new ChannelInput(FileChannel.open(f.toPath(), StandardOpenOption.READ)));
+    }
+
+    /**
+     * Factory method for constructing a reader for given container file contents.
+     *
+     * @param r Reader to use for decoding values; must be configured with the
+     *   value type and use {@link AvroFactory}
+     */
+    public static <T> AvroParallelFileReader<T> forBytes(ObjectReader r, byte[] data)
+        throws IOException
+    {
+        return _construct(r, new ByteArrayInput(data));
+    }
+
+    protected static <T> AvroParallelFileReader<T> _construct(ObjectReader r, Input input)
+        throws IOException
+    {
+        Header h;
+        try {
+            h = Header.read(input);
+        } catch (IOException | RuntimeException e) {
+            input.close();
+            throw e;
+        }
+        return new AvroParallelFileReader<T>(r, input, h, new AvroSchema(h.schema),
+                true, DEFAULT_SPLIT_SIZE, ForkJoinPool.commonPool(), null);
+    }
+
+    /**
+     * Mutant factory for constructing instance that uses given schema as the
+     * "Reader Schema" (see {@link AvroSchema#withReaderSchema}).
+     */
+    public AvroParallelFileReader<T> withReaderSchema(AvroSchema readerSchema)
+        throws IOException
+    {
+        AvroSchema s = new AvroSchema(_header.schema).withReaderSchema(readerSchema);
+        return new AvroParallelFileReader<T>(_reader, _input, _header, s,
+                _preserveOrder, _splitSize, _pool, _splits);
+    }
+
+    /**
+     * Mutant factory for constructing instance that either does (true)
+     * or does not (false) return values in the order they are in the file.
+     * Default is to preserve order.
+     */
+    public AvroParallelFileReader<T> withPreserveOrder(boolean state) {
+        if (state == _preserveOrder) {
+            return this;
+        }
+        return new AvroParallelFileReader<T>(_reader, _input, _header, _schema,
+                state, _splitSize, _pool, _splits);
+    }
+
+    /**
+     * Mutant factory for constructing instance that uses given minimum split size (in bytes).
+     */
+    public AvroParallelFileReader<T> withSplitSize(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Invalid split size ("+size+"): must be positive");
+        }
+        if (size == _splitSize) {
+            return this;
+        }
+        return new AvroParallelFileReader<T>(_reader, _input, _header, _schema,
+                _preserveOrder, size, _pool, null);
+    }
+
+    /**
+     * Mutant factory for constructing instance that uses given pool for decoding
+     * splits with {@link #iterator()}.
+     */
+    public AvroParallelFileReader<T> withPool(ForkJoinPool pool) {
+        return new AvroParallelFileReader<T>(_reader, _input, _header, _schema,
+                _preserveOrder, _splitSize, pool, _splits);
+    }
+
+    @Override
+    public void close() throws IOException {
+        _input.close();
+    }
+
+    /*
+    /**********************************************************
+    /* Public API
+    /**********************************************************
+     */
+
+    /**
+     * Accessor for "writer schema" from the file header.
+     */
+    public Schema getFileSchema() { return _header.schema; }
+
+    /**
+     * Accessor for name of the codec from the file header.
+     */
+    public String getCodec() { return _header.codec; }
+
+    /**
+     * Accessor for total number of values in the file (from block headers).
+     */
+    public long getValueCount() throws IOException {
+        long count = 0L;
+        for (Split s : splits()) {
+            count += s.valueCount;
+        }
+        return count;
+    }
+
+    /**
+     * Accessor for number of independently decodable splits file has.
+     */
+    public int getSplitCount() throws IOException {
+        return splits().size();
+    }
+
+    /**
+     * Method for constructing a {@link Stream} of values of the file: stream is
+     * parallel, with splits of file being the unit of parallelism.
+     */
+    public Stream<T> stream() throws IOException {
+        List<Split> splits = splits();
+        return StreamSupport.stream(new SplitSpliterator(splits, 0, splits.size()), true);
+    }
+
+    /**
+     * Method for constructing an {@link Iterator} of values of the file:
+     * splits are decoded using configured {@link ForkJoinPool}.
+     * Problems are reported as {@link UncheckedIOException}s.
+     */
+    public Iterator<T> iterator() throws IOException {
+        return new PooledIterator(splits());
+    }
+
+    /**
+     * Method for decoding all values of given split.
+     */
+    public List<T> readSplit(int index) throws IOException {
+        return _decode(splits().get(index));
+    }
+
+    /*
+    /**********************************************************
+    /* Internal methods
+    /**********************************************************
+     */
+
+    protected List<Split> splits() throws IOException
+    {
+        List<Split> splits = _splits;
+        if (splits == null) {
+            _splits = splits = _scanBlocks();
+        }
+        return splits;
+    }
+
+    /**
+     * Method that walks through all block headers of the file, verifying
+     * sync markers, and groups blocks into splits.
+     */
+    protected List<Split> _scanBlocks() throws IOException
+    {
+        final List<Split> splits = new ArrayList<Split>();
+        final long end = _input.length();
+        final Cursor c = new Cursor(_input, _header.dataOffset);
+        final byte[] sync = new byte[SYNC_SIZE];
+
+        long splitStart = c.position();
+        int blocks = 0;
+        long values = 0L;
+
+        while (c.position() < end) {
+            long count = c.readLong();
+            long size = c.readLong();
+            if (count < 0L || size < 0L) {
+                throw new JsonParseException((JsonParser) null, String.format(
+                        "Invalid Avro file block at offset %d: count %d, size %d",
+                        c.position(), count, size));
+            }
+            c.skip(size);
+            c.read(sync, 0, SYNC_SIZE);
+            if (!Arrays.equals(sync, _header.sync)) {
+                throw new JsonParseException((JsonParser) null, String.format(
+                        "Invalid sync marker after Avro file block ending at offset %d", c.position()));
+            }
+            ++blocks;
+            values += count;
+            if ((c.position() - splitStart) >= _splitSize) {
+                splits.add(new Split(splitStart, c.position(), blocks, values));
+                splitStart = c.position();
+                blocks = 0;
+                values = 0L;
+            }
+        }
+        if (blocks > 0) {
+            splits.add(new Split(splitStart, c.position(), blocks, values));
+        }
+        return splits;
+    }
+
+    /**
+     * Method for decoding all values of given split
+     */
+    protected List<T> _decode(Split split) throws IOException
+    {
+        final long len = split.end - split.start;
+        if (len > Integer.MAX_VALUE) {
+            throw new IOException("Split too big to decode ("+len+" bytes)");
+        }
+        final byte[] data = new byte[(int) len];
+        _input.read(split.start, data, 0, data.length);
+
+        final ArrayList<T> result = new ArrayList<T>((int) Math.min(split.valueCount, 100000L));
+        final Cursor c = new Cursor(new ByteArrayInput(data), 0L);
+        Inflater inflater = null;
+        byte[] inflated = null;
+        try {
+            for (int i = 0; i < split.blockCount; ++i) {
+                final long count = c.readLong();
+                final int size = (int) c.readLong();
+                final int offset = (int) c.position();
+                c.skip(size + SYNC_SIZE);
+
+                byte[] content = data;
+                int contentOffset = offset;
+                int contentLength = size;
+                if (_header.deflate) {
+                    if (inflater == null) {
+                        inflater = new Inflater(true);
+                        inflated = new byte[Math.max(1000, size * 4)];
+                    } else {
+                        inflater.reset();
+                    }
+                    inflater.setInput(data, offset, size);
+                    contentLength = 0;
+                    while (!inflater.finished() && !inflater.needsInput()) {
+                        if (contentLength == inflated.length) {
+                            inflated = Arrays.copyOf(inflated, inflated.length << 1);
+                        }
+                        contentLength += inflater.inflate(inflated, contentLength, inflated.length - contentLength);
+                    }
+                    content = inflated;
+                    contentOffset = 0;
+                }
+                long read = 0L;
+                try (MappingIterator<T> it = _reader.readValues(content, contentOffset, contentLength)) {
+                    while (it.hasNextValue()) {
+                        result.add(it.nextValue());
+                        ++read;
+                    }
+                }
+                if (read != count) {
+                    throw new JsonParseException((JsonParser) null, String.format(
+                            "Avro file block at offset %d should have %d values, decoded %d",
+                            split.start + offset, count, read));
+                }
+            }
+        } catch (DataFormatException e) {
+            throw new JsonParseException((JsonParser) null, "Failed to inflate Avro file block: "+e.getMessage(), e);
+        } finally {
+            if (inflater != null) {
+                inflater.end();
+            }
+        }
+        return result;
+    }
+
+    /*
+    /**********************************************************
+    /* Helper classes: input access
+    /**********************************************************
+     */
+
+    /**
+     * Abstraction of random-access input
+     */
+    protected abstract static class Input implements Closeable
+    {
+        public abstract long length() throws IOException;
+
+        /**
+         * Method for reading exactly specified number of bytes starting at given
+         * position.
+         */
+        public abstract void read(long pos, byte[] buf, int offset, int len) throws IOException;
+
+        /**
+         * Method for reading up to specified number of bytes starting at given
+         * position.
+         *
+         * @return Number of bytes read
+         */
+        public int readSome(long pos, byte[] buf, int offset, int len) throws IOException {
+            int max = (int) Math.min((long) len, length() - pos);
+            if (max <= 0) {
+                throw new EOFException("Unexpected end of Avro file at offset "+pos);
+            }
+            read(pos, buf, offset, max);
+            return max;
+        }
+    }
+
+    protected final static class ByteArrayInput extends Input
+    {
+        private final byte[] _data;
+
+        public ByteArrayInput(byte[] data) { _data = data; }
+
+        @Override
+        public long length() { return _data.length; }
+
+        @Override
+        public void read(long pos, byte[] buf, int offset, int len) throws IOException {
+            if ((pos + len) > _data.length) {
+                throw new EOFException("Unexpected end of Avro file at offset "+_data.length);
+            }
+            System.arraycopy(_data, (int) pos, buf, offset, len);
+        }
+
+        @Override
+        public void close() { }
+    }
+
+    protected final static class ChannelInput extends Input
+    {
+        private final FileChannel _channel;
+
+        public ChannelInput(FileChannel ch) { _channel = ch; }
+
+        @Override
+        public long length() throws IOException { return _channel.size(); }
+
+        @Override
+        public void read(long pos, byte[] buf, int offset, int len) throws IOException {
+            ByteBuffer bb = ByteBuffer.wrap(buf, offset, len);
+            while (bb.hasRemaining()) {
+                // positional reads are safe to do concurrently
+                int count = _channel.read(bb, pos);
+                if (count < 0) {
+                    throw new EOFException("Unexpected end of Avro file at offset "+pos);
+                }
+                pos += count;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            _channel.close();
+        }
+    }
+
+    /**
+     * Simple buffered sequential reader over {@link Input}, used for decoding
+     * file header and block headers.
+     */
+    protected final static class Cursor
+    {
+        private final Input _input;
+        private final byte[] _buffer = new byte[4000];
+        private long _bufferStart;
+        private int _ptr, _end;
+
+        public Cursor(Input input, long pos) {
+            _input = input;
+            _bufferStart = pos;
+        }
+
+        public long position() { return _bufferStart + _ptr; }
+
+        public int readByte() throws IOException {
+            if (_ptr >= _end) {
+                _bufferStart += _end;
+                _ptr = 0;
+                _end = 0;
+                _end = _input.readSome(_bufferStart, _buffer, 0, _buffer.length);
+            }
+            return _buffer[_ptr++] & 0xFF;
+        }
+
+        public long readLong() throws IOException {
+            long l = 0L;
+            int shift = 0;
+            int b;
+            do {
+                if (shift > 63) {
+                    throw new JsonParseException((JsonParser) null, "Invalid Avro long value at offset "+position());
+                }
+                b = readByte();
+                l |= ((long) (b & 0x7F)) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return (l >>> 1) ^ -(l & 1); // zig-zag
+        }
+
+        public void read(byte[] buf, int offset, int len) throws IOException {
+            while (len > 0) {
+                if (_ptr >= _end) {
+                    readByte();
+                    --_ptr;
+                }
+                int count = Math.min(len, _end - _ptr);
+                System.arraycopy(_buffer, _ptr, buf, offset, count);
+                _ptr += count;
+                offset += count;
+                len -= count;
+            }
+        }
+
+        public byte[] readBytes() throws IOException {
+            long len = readLong();
+            if (len < 0L || len > Integer.MAX_VALUE) {
+                throw new JsonParseException((JsonParser) null, "Invalid Avro bytes length ("+len+") at offset "+position());
+            }
+            byte[] b = new byte[(int) len];
+            read(b, 0, b.length);
+            return b;
+        }
+
+        public void skip(long amount) {
+            long pos = position() + amount;
+            if (pos < (_bufferStart + _end)) {
+                _ptr = (int) (pos - _bufferStart);
+            } else {
+                _bufferStart = pos;
+                _ptr = 0;
+                _end = 0;
+            }
+        }
+    }
+
+    /*
+    /**********************************************************
+    /* Helper classes: file structure
+    /**********************************************************
+     */
+
+    protected final static class Header
+    {
+        public final Schema schema;
+        public final String codec;
+        public final boolean deflate;
+        public final byte[] sync;
+        public final long dataOffset;
+
+        protected Header(Schema sch, String codec, byte[] sync, long offset) {
+            schema = sch;
+            this.codec = codec;
+            deflate = "deflate".equals(codec);
+            this.sync = sync;
+            dataOffset = offset;
+        }
+
+        public static Header read(Input input) throws IOException
+        {
+            Cursor c = new Cursor(input, 0L);
+            byte[] magic = new byte[MAGIC.length];
+            c.read(magic, 0, magic.length);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new JsonParseException((JsonParser) null, "Not an Avro Object Container File: invalid header");
+            }
+            String schemaJson = null;
+            String codec = "null";
+            long count;
+            while ((count = c.readLong()) != 0L) {
+                if (count < 0L) { // block with size
+                    count = -count;
+                    c.readLong();
+                }
+                for (; count > 0L; --count) {
+                    String key = new String(c.readBytes(), StandardCharsets.UTF_8);
+                    byte[] value = c.readBytes();
+                    if ("avro.schema".equals(key)) {
+                        schemaJson = new String(value, StandardCharsets.UTF_8);
+                    } else if ("avro.codec".equals(key)) {
+                        codec = new String(value, StandardCharsets.UTF_8);
+                    }
+                }
+            }
+            if (schemaJson == null) {
+                throw new JsonParseException((JsonParser) null, "Invalid Avro Object Container File: no schema in header");
+            }
+            if (!"null".equals(codec) && !"deflate".equals(codec)) {
+                throw new JsonParseException((JsonParser) null, "Unsupported Avro file codec '"+codec
+                        +"': only 'null' and 'deflate' supported");
+            }
+            byte[] sync = new byte[SYNC_SIZE];
+            c.read(sync, 0, SYNC_SIZE);
+            return new Header(new Schema.Parser().setValidate(true).parse(schemaJson),
+                    codec, sync, c.position());
+        }
+    }
+
+    /**
+     * Range of consecutive blocks of file
+     */
+    protected final static class Split
+    {
+        public final long start, end;
+        public final int blockCount;
+        public final long valueCount;
+
+        public Split(long start, long end, int blockCount, long valueCount) {
+            this.start = start;
+            this.end = end;
+            this.blockCount = blockCount;
+            this.valueCount = valueCount;
+        }
+    }
+
+    /*
+    /**********************************************************
+    /* Helper classes: result access
+    /**********************************************************
+     */
+
+    protected final class SplitSpliterator implements Spliterator<T>
+    {
+        private final List<Split> _all;
+        private int _next, _end;
+        private Iterator<T> _current;
+
+        public SplitSpliterator(List<Split> splits, int from, int to) {
+            _all = splits;
+            _next = from;
+            _end = to;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            while ((_current == null) || !_current.hasNext()) {
+                if (_next >= _end) {
+                    _current = null;
+                    return false;
+                }
+                _current = _decodeUnchecked(_all.get(_next++)).iterator();
+            }
+            action.accept(_current.next());
+            return true;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            // Can only split at split boundaries, and if no split is partially consumed
+            if ((_current != null && _current.hasNext()) || (_end - _next) < 2) {
+                return null;
+            }
+            final int mid = (_next + _end) >>> 1;
+            SplitSpliterator prefix = new SplitSpliterator(_all, _next, mid);
+            _next = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            long count = 0L;
+            for (int i = _next; i < _end; ++i) {
+                count += _all.get(i).valueCount;
+            }
+            return count;
+        }
+
+        @Override
+        public int characteristics() {
+            int ch = Spliterator.IMMUTABLE | Spliterator.NONNULL;
+            if (_preserveOrder) {
+                ch |= Spliterator.ORDERED;
+            }
+            return ch;
+        }
+    }
+
+    protected final class PooledIterator implements Iterator<T>
+    {
+        private final List<Split> _all;
+        private final int _maxInFlight;
+
+        private final ArrayDeque<Future<List<T>>> _ordered;
+        private final ExecutorCompletionService<List<T>> _unordered;
+
+        private int _nextToSubmit;
+        private int _inFlight;
+        private Iterator<T> _current;
+
+        public PooledIterator(List<Split> splits) {
+            _all = splits;
+            _maxInFlight = Math.max(2, _pool.getParallelism() * 2);
+            if (_preserveOrder) {
+                _ordered = new ArrayDeque<Future<List<T>>>();
+                _unordered = null;
+            } else {
+                _ordered = null;
+                _unordered = new ExecutorCompletionService<List<T>>(_pool);
+            }
+            _submitMore();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while ((_current == null) || !_current.hasNext()) {
+                if (_inFlight == 0) {
+                    return false;
+                }
+                Future<List<T>> f;
+                try {
+                    f = _preserveOrder ? _ordered.removeFirst() : _unordered.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new UncheckedIOException(new InterruptedIOException("Interrupted while waiting for Avro file split"));
+                }
+                --_inFlight;
+                _current = _result(f).iterator();
+                _submitMore();
+            }
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return _current.next();
+        }
+
+        private void _submitMore() {
+            while ((_inFlight < _maxInFlight) && (_nextToSubmit < _all.size())) {
+                final Split split = _all.get(_nextToSubmit++);
+                Callable<List<T>> task = () -> _decode(split);
+                if (_preserveOrder) {
+                    _ordered.addLast(_pool.submit(task));
+                } else {
+                    _unordered.submit(task);
+                }
+                ++_inFlight;
+            }
+        }
+
+        private List<T> _result(Future<List<T>> f) {
+            try {
+                return f.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new UncheckedIOException(new InterruptedIOException("Interrupted while waiting for Avro file split"));
+            } catch (ExecutionException e) {
+                Throwable t = e.getCause();
+                if (t instanceof IOException) {
+                    throw new UncheckedIOException((IOException) t);
+                }
+                if (t instanceof RuntimeException) {
+                    throw (RuntimeException) t;
+                }
+                throw new RuntimeException(t);
+            }
+        }
+    }
+
+    protected List<T> _decodeUnchecked(Split split) {
+        try {
+            return _decode(split);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
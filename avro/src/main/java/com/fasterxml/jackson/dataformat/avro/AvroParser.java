@@ -1,7 +1,13 @@
 package com.fasterxml.jackson.dataformat.avro;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
 
 import com.fasterxml.jackson.core.*;
 import com.fasterxml.jackson.core.base.ParserBase;
@@ -11,6 +17,7 @@ import com.fasterxml.jackson.core.util.ByteArrayBuilder;
 
 import com.fasterxml.jackson.dataformat.avro.deser.AvroReadContext;
 import com.fasterxml.jackson.dataformat.avro.deser.MissingReader;
+import com.fasterxml.jackson.dataformat.avro.schema.AvroSchemaHelper;
 
 /**
  * {@link JsonParser} implementation for decoding Avro content and
@@ -31,7 +38,55 @@ public abstract class AvroParser extends ParserBase
          *<p>
          * Enabled by default to preserve the existing behavior.
          */
-        AVRO_BUFFERING(true)
+        AVRO_BUFFERING(true),
+
+        /**
+         * Feature that, when enabled, makes parsers constructed for {@link java.io.File}
+         * sources read content from memory-mapped file, instead of reading it
+         * into heap buffers via {@link java.io.InputStream}. Only used with
+         * Jackson native decoder, and only if no input decorator is configured.
+         *<p>
+         * Disabled by default.
+         *
+         * @since 3.0
+         */
+        AVRO_MAPPED_FILE_INPUT(false),
+
+        /**
+         * Feature that, when enabled, makes parser use readers for Avro records
+         * that are generated (as Java source, compiled using JDK compiler) at
+         * runtime for each record schema, instead of generic interpreting readers.
+         * Generated readers unroll iteration over fields and inline decoding
+         * of scalar values; this can speed up reading of hot schemas, at the
+         * cost of one-time compilation, done synchronously when a schema is first
+         * used for reading. If no compiler is available (as is the case
+         * with a JRE without {@code java.compiler} module), or compilation
+         * fails (for example when classes are not accessible from file-system
+         * class path, as with "fat jar" packaging), interpreting readers are used
+         * instead and a warning is logged using {@link java.util.logging}.
+         *<p>
+         * Disabled by default; should only be enabled for deployments where
+         * compilation is known to work.
+         *
+         * @since 3.0
+         */
+        AVRO_COMPILED_READERS(false),
+
+        /**
+         * Feature that, when enabled, makes parser expose values of logical type
+         * <code>decimal</code> (with underlying type of <code>bytes</code> or
+         * <code>fixed</code>) as {@link JsonToken#VALUE_NUMBER_FLOAT}s with
+         * {@link java.math.BigDecimal} value, so they can be bound to
+         * {@link java.math.BigDecimal}s (and other numeric types).
+         * When disabled, they are exposed as values of the underlying type,
+         * that is, as binary values.
+         *<p>
+         * Disabled by default for backwards compatibility (to allow binding of
+         * such values as <code>byte[]</code>).
+         *
+         * @since 3.0
+         */
+        AVRO_DECIMALS_AS_NUMBERS(false)
         ;
 
         final boolean _defaultState;
@@ -235,6 +290,140 @@ public abstract class AvroParser extends ParserBase
     @Override
     public abstract JsonToken nextToken() throws IOException;
 
+    /**
+     * Method similar to {@link #nextIntValue(int)}, but for floating-point values:
+     * if the next token is {@link JsonToken#VALUE_NUMBER_FLOAT}, returns its value
+     * as <code>double</code>; otherwise returns <code>defaultValue</code>.
+     * As with {@link #nextIntValue(int)}, values of Record fields and Array elements
+     * that schema declares to be of matching Avro type (<code>double</code> here)
+     * are decoded directly, without regular token dispatch.
+     *
+     * @since 3.0
+     */
+    public double nextDoubleValue(double defaultValue) throws IOException {
+        return (nextToken() == JsonToken.VALUE_NUMBER_FLOAT) ? getDoubleValue() : defaultValue;
+    }
+
+    /*
+    /**********************************************************
+    /* Bulk reading of primitive arrays
+    /**********************************************************
+     */
+
+    /**
+     * Method that may be called when current token is {@link JsonToken#START_ARRAY},
+     * for Avro array with <code>int</code> elements, to decode all elements of the
+     * array into a Java array without exposing them as separate tokens.
+     * If successful, parser will point to the matching {@link JsonToken#END_ARRAY}.
+     *
+     * @return Elements of the array, if parser points to {@link JsonToken#START_ARRAY}
+     *   of an array with compatible element type; `null` otherwise (in which case
+     *   parser state is not changed)
+     *
+     * @since 3.0
+     */
+    public abstract int[] readIntArray() throws IOException;
+
+    /**
+     * Method similar to {@link #readIntArray}, but for Avro arrays with
+     * <code>long</code> (or <code>int</code>) elements.
+     *
+     * @since 3.0
+     */
+    public abstract long[] readLongArray() throws IOException;
+
+    /**
+     * Method similar to {@link #readIntArray}, but for Avro arrays with
+     * <code>float</code> elements.
+     *
+     * @since 3.0
+     */
+    public abstract float[] readFloatArray() throws IOException;
+
+    /**
+     * Method similar to {@link #readIntArray}, but for Avro arrays with
+     * <code>double</code> (or <code>float</code>) elements.
+     *
+     * @since 3.0
+     */
+    public abstract double[] readDoubleArray() throws IOException;
+
+    /*
+    /**********************************************************
+    /* Logical types
+    /**********************************************************
+     */
+
+    /**
+     * Accessor for name of the Avro logical type (like <code>"timestamp-millis"</code>)
+     * declared by schema for the current scalar value, if any.
+     *<p>
+     * Note that values of logical type <code>decimal</code> are exposed as
+     * {@link JsonToken#VALUE_NUMBER_FLOAT}s (with {@link java.math.BigDecimal} value),
+     * and other logical types using their underlying type: numeric ones as
+     * {@link JsonToken#VALUE_NUMBER_INT}s, accessible using {@link #getIntValue()} and
+     * {@link #getLongValue()} (or as <code>java.time</code> values, see
+     * {@link #getInstantValue()}, {@link #getLocalDateValue()} and {@link #getLocalTimeValue()}).
+     *
+     * @return Name of the logical type of the current value, if any; `null` if none
+     *
+     * @since 3.0
+     */
+    public String currentLogicalType() {
+        return null;
+    }
+
+    /**
+     * Method for accessing value of the current token, which must be a
+     * {@link JsonToken#VALUE_NUMBER_INT}, as an {@link Instant}: value is
+     * considered to be microseconds since epoch if logical type of value is
+     * <code>timestamp-micros</code>, and milliseconds otherwise.
+     *
+     * @since 3.0
+     */
+    public Instant getInstantValue() throws IOException
+    {
+        final long value = getLongValue();
+        if (AvroSchemaHelper.LOGICAL_TYPE_TIMESTAMP_MICROS.equals(currentLogicalType())) {
+            return Instant.ofEpochSecond(Math.floorDiv(value, 1_000_000L),
+                    Math.floorMod(value, 1_000_000L) * 1_000L);
+        }
+        return Instant.ofEpochMilli(value);
+    }
+
+    /**
+     * Method for accessing value of the current token, which must be a
+     * {@link JsonToken#VALUE_NUMBER_INT}, as a {@link LocalDate}: value is
+     * considered to be days since epoch (as with logical type <code>date</code>).
+     *
+     * @since 3.0
+     */
+    public LocalDate getLocalDateValue() throws IOException {
+        return LocalDate.ofEpochDay(getLongValue());
+    }
+
+    /**
+     * Method for accessing value of the current token, which must be a
+     * {@link JsonToken#VALUE_NUMBER_INT}, as a {@link LocalTime}: value is
+     * considered to be microseconds after midnight if logical type of value is
+     * <code>time-micros</code>, and milliseconds otherwise.
+     *
+     * @since 3.0
+     */
+    public LocalTime getLocalTimeValue() throws IOException
+    {
+        final long value = getLongValue();
+        try {
+            if (AvroSchemaHelper.LOGICAL_TYPE_TIME_MICROS.equals(currentLogicalType())) {
+                return LocalTime.ofNanoOfDay(value * 1_000L);
+            }
+            return LocalTime.ofNanoOfDay(value * 1_000_000L);
+        } catch (DateTimeException e) {
+            _reportError("Invalid time value ("+value+"): "+e.getMessage());
+            return null; // never gets here
+        }
+    }
+
     /*
     /**********************************************************
     /* String value handling
@@ -298,12 +487,18 @@ public abstract class AvroParser extends ParserBase
 
     @Override
     public Object getEmbeddedObject() throws IOException {
+        if ((_binaryValue == null) && (_currToken == JsonToken.VALUE_EMBEDDED_OBJECT)) {
+            _finishBinaryValue();
+        }
         return _binaryValue;
     }
     
     @Override
     public byte[] getBinaryValue(Base64Variant variant) throws IOException
     {
+        if ((_binaryValue == null) && (_currToken == JsonToken.VALUE_EMBEDDED_OBJECT)) {
+            _finishBinaryValue();
+        }
         if (_binaryValue == null) {
             if (_currToken != JsonToken.VALUE_STRING) {
                 _reportError("Current token ("+_currToken+") not VALUE_STRING, can not access as binary");
@@ -315,4 +510,55 @@ public abstract class AvroParser extends ParserBase
         }
         return _binaryValue;
     }
+
+    @Override
+    public int readBinaryValue(Base64Variant b64variant, OutputStream out) throws IOException
+    {
+        byte[] b = getBinaryValue(b64variant);
+        out.write(b);
+        return b.length;
+    }
+
+    /**
+     * Method for accessing Avro <code>bytes</code> or <code>fixed</code> value of
+     * the current token (which must be {@link JsonToken#VALUE_EMBEDDED_OBJECT})
+     * as a read-only {@link ByteBuffer}. If possible, buffer is a view
+     * of the input buffer of the parser, in which case no copy is made; but
+     * it is then only valid until parser is advanced to the next token
+     * (see {@link #canRetainBinaryValueBuffer()}).
+     *
+     * @since 3.0
+     */
+    public ByteBuffer getBinaryValueAsBuffer() throws IOException
+    {
+        if (_currToken != JsonToken.VALUE_EMBEDDED_OBJECT) {
+            _reportError("Current token ("+_currToken+") not VALUE_EMBEDDED_OBJECT, can not access as ByteBuffer");
+        }
+        if (_binaryValue == null) {
+            _finishBinaryValue();
+        }
+        return ByteBuffer.wrap(_binaryValue).asReadOnlyBuffer();
+    }
+
+    /**
+     * Method that can be called to check whether {@link ByteBuffer} returned by
+     * {@link #getBinaryValueAsBuffer()} for the current token remains valid after
+     * parser is advanced: this is the case if content is not stored in a buffer
+     * that parser reuses (for example, when reading from a caller-provided
+     * <code>byte[]</code>, or a memory-mapped file), or if value had to be copied.
+     *
+     * @since 3.0
+     */
+    public boolean canRetainBinaryValueBuffer() {
+        return true;
+    }
+
+    /**
+     * Method called to materialize <code>byte[]</code> of the binary value
+     * of the current token, for parsers that decode binary values lazily.
+     * Default implementation does nothing.
+     *
+     * @since 3.0
+     */
+    protected void _finishBinaryValue() throws IOException { }
 }
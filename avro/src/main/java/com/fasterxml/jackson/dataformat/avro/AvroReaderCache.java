@@ -0,0 +1,136 @@
+package com.fasterxml.jackson.dataformat.avro;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.avro.Schema;
+
+/**
+ * Size-bounded cache of resolving {@link AvroSchema} instances, keyed by
+ * (writer schema, reader schema) pair, used by {@link AvroSchema#withReaderSchema}
+ * and {@link AvroSchema#withUnsafeReaderSchema}. Since resolving instances
+ * lazily build (and then retain) their reader, cached instances share the
+ * fully built, thread-safe reader tree, and neither schema compatibility
+ * checks nor reader construction is repeated for cached pairs.
+ *<p>
+ * Cache is lock-free for lookups; bounding is simple, similar to that of
+ * databind caches: all entries are flushed when the maximum size is reached.
+ *<p>
+ * By default a single global instance (see {@link #shared()}) is used, but
+ * callers may also pass their own (scoped) instance, or `null` to disable caching.
+ * Cache keeps simple hit and miss counts for monitoring.
+ *
+ * @since 3.0
+ */
+public class AvroReaderCache
+{
+    public final static int DEFAULT_MAX_ENTRIES = 200;
+
+    private final static AvroReaderCache SHARED = new AvroReaderCache(DEFAULT_MAX_ENTRIES);
+
+    protected final int _maxEntries;
+
+    protected final ConcurrentHashMap<Key, AvroSchema> _entries;
+
+    protected final LongAdder _hits = new LongAdder();
+
+    protected final LongAdder _misses = new LongAdder();
+
+    public AvroReaderCache(int maxEntries)
+    {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Invalid maximum entry count ("+maxEntries+"): must be positive");
+        }
+        _maxEntries = maxEntries;
+        _entries = new ConcurrentHashMap<Key, AvroSchema>(Math.min(maxEntries, 64), 0.8f, 4);
+    }
+
+    /**
+     * Accessor for the global cache instance used by default.
+     */
+    public static AvroReaderCache shared() {
+        return SHARED;
+    }
+
+    /*
+    /**********************************************************************
+    /* Public API: metrics
+    /**********************************************************************
+     */
+
+    public int getMaxEntries() { return _maxEntries; }
+
+    public int size() { return _entries.size(); }
+
+    public long getHitCount() { return _hits.sum(); }
+
+    public long getMissCount() { return _misses.sum(); }
+
+    /**
+     * Method for removing all entries, and resetting hit and miss counts.
+     */
+    public void clear() {
+        _entries.clear();
+        _hits.reset();
+        _misses.reset();
+    }
+
+    /*
+    /**********************************************************************
+    /* Internal API, used by AvroSchema
+    /**********************************************************************
+     */
+
+    /**
+     * @param validated Whether compatibility of schemas is (to be) validated
+     */
+    protected AvroSchema find(Schema writer, Schema reader, boolean validated)
+    {
+        AvroSchema s = _entries.get(new Key(writer, reader, validated));
+        if (s == null) {
+            _misses.increment();
+        } else {
+            _hits.increment();
+        }
+        return s;
+    }
+
+    protected void add(Schema writer, Schema reader, boolean validated,
+            AvroSchema resolved)
+    {
+        // Simple bounding: flush when full (bound is approximate under concurrent use)
+        if (_entries.size() >= _maxEntries) {
+            _entries.clear();
+        }
+        _entries.put(new Key(writer, reader, validated), resolved);
+    }
+
+    protected final static class Key
+    {
+        private final Schema _writer, _reader;
+        private final boolean _validated;
+        private final int _hashCode;
+
+        public Key(Schema w, Schema r, boolean validated) {
+            _writer = w;
+            _reader = r;
+            _validated = validated;
+            // Schema caches its hash code, so this is cheap
+            _hashCode = (w.hashCode() * 31 + r.hashCode()) ^ (validated ? 1 : 0);
+        }
+
+        @Override
+        public int hashCode() { return _hashCode; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o == this) return true;
+            if ((o == null) || o.getClass() != getClass()) return false;
+            Key other = (Key) o;
+            return (_hashCode == other._hashCode)
+                    && (_validated == other._validated)
+                    && _writer.equals(other._writer)
+                    && _reader.equals(other._reader);
+        }
+    }
+}
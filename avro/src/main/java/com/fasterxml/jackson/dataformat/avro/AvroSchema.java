@@ -1,18 +1,24 @@
 package com.fasterxml.jackson.dataformat.avro;
 
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.avro.Schema;
 import org.apache.avro.SchemaCompatibility;
 import org.apache.avro.SchemaCompatibility.SchemaCompatibilityType;
 import org.apache.avro.SchemaCompatibility.SchemaPairCompatibility;
+import org.apache.avro.SchemaNormalization;
 
 import com.fasterxml.jackson.core.FormatSchema;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.dataformat.avro.deser.AvroReaderFactory;
 import com.fasterxml.jackson.dataformat.avro.deser.AvroStructureReader;
+import com.fasterxml.jackson.dataformat.avro.deser.RecordReaderCompiler;
+import com.fasterxml.jackson.dataformat.avro.ser.UnionIndexCache;
 
 /**
  * Wrapper for Schema information needed to encode and decode Avro-format
@@ -36,6 +42,45 @@ public class AvroSchema implements FormatSchema
      */
     protected final AtomicReference<AvroStructureReader> _reader = new AtomicReference<AvroStructureReader>();
 
+    /**
+     * Lazily instantiated compiled value reader for this schema, if
+     * {@link AvroParser.Feature#AVRO_COMPILED_READERS} is enabled.
+     *
+     * @since 3.0
+     */
+    protected final AtomicReference<AvroStructureReader> _compiledReader = new AtomicReference<AvroStructureReader>();
+
+    /**
+     * Maximum number of projected schema instances (see {@link #withProjection})
+     * to cache per schema instance; cache is cleared if exceeded.
+     *
+     * @since 3.0
+     */
+    protected final static int MAX_CACHED_PROJECTIONS = 100;
+
+    /**
+     * Lazily constructed cache of projected schema instances, keyed by
+     * sets of field paths.
+     *
+     * @since 3.0
+     */
+    protected volatile ConcurrentHashMap<Set<String>, AvroSchema> _projections;
+
+    /**
+     * Lazily calculated fingerprint of the writer schema
+     *
+     * @since 3.0
+     */
+    protected volatile Long _fingerprint;
+
+    /**
+     * Lazily constructed cache of union branches resolved for classes of values
+     * written using this schema.
+     *
+     * @since 3.0
+     */
+    protected volatile UnionIndexCache _unionIndexes;
+
     public AvroSchema(Schema asch)
     {
         _writerSchema = asch;
@@ -52,7 +97,9 @@ public class AvroSchema implements FormatSchema
      *<p>
      * NOTE: this is a relatively expensive operation due to validation (although significant
      *  part of cost is deferred until the first call to {@link #getReader}) so it is recommended
-     *  that these instances are reused whenever possible.
+     *  that these instances are reused whenever possible. To reduce the cost for
+     *  callers that can not easily do that, resolved instances are cached in the
+     *  shared {@link AvroReaderCache} (see {@link #withReaderSchema(AvroSchema, AvroReaderCache)}).
      *
      * @param readerSchema "Reader Schema" to use (in Avro terms): schema that specified how
      *    reader wants to see the data; specifies part of translation needed along with this
@@ -65,6 +112,20 @@ public class AvroSchema implements FormatSchema
      */
     public AvroSchema withReaderSchema(AvroSchema readerSchema)
         throws JsonProcessingException
+    {
+        return withReaderSchema(readerSchema, AvroReaderCache.shared());
+    }
+
+    /**
+     * Alternative to {@link #withReaderSchema(AvroSchema)} that uses given cache
+     * for looking up (and storing) resolved schema instances.
+     *
+     * @param cache Cache to use; `null` to not use caching
+     *
+     * @since 3.0
+     */
+    public AvroSchema withReaderSchema(AvroSchema readerSchema, AvroReaderCache cache)
+        throws JsonProcessingException
     {
         Schema w = _writerSchema;
         Schema r = readerSchema.getAvroSchema();
@@ -72,6 +133,20 @@ public class AvroSchema implements FormatSchema
         if (r.equals(w)) {
             return this;
         }
+        if (cache != null) {
+            AvroSchema cached = cache.find(w, r, true);
+            if (cached != null) {
+                return cached;
+            }
+            AvroSchema resolved = _resolve(w, r);
+            cache.add(w, r, true, resolved);
+            return resolved;
+        }
+        return _resolve(w, r);
+    }
+
+    private AvroSchema _resolve(Schema w, Schema r) throws JsonProcessingException
+    {
         // First: apply simple renamings:
         w = Schema.applyAliases(w, r);
 
@@ -131,6 +206,20 @@ r.getType().getName(), w.getFullName(), r.getFullName()));
      */
     public AvroSchema withUnsafeReaderSchema(AvroSchema readerSchema)
         throws JsonProcessingException
+    {
+        return withUnsafeReaderSchema(readerSchema, AvroReaderCache.shared());
+    }
+
+    /**
+     * Alternative to {@link #withUnsafeReaderSchema(AvroSchema)} that uses given cache
+     * for looking up (and storing) resolved schema instances.
+     *
+     * @param cache Cache to use; `null` to not use caching
+     *
+     * @since 3.0
+     */
+    public AvroSchema withUnsafeReaderSchema(AvroSchema readerSchema, AvroReaderCache cache)
+        throws JsonProcessingException
     {
         Schema w = _writerSchema;
         Schema r = readerSchema.getAvroSchema();
@@ -138,8 +227,56 @@ r.getType().getName(), w.getFullName(), r.getFullName()));
         if (r.equals(w)) {
             return this;
         }
-        w = Schema.applyAliases(w, r);
-        return Resolving.create(w, r);
+        AvroSchema resolved = (cache == null) ? null : cache.find(w, r, false);
+        if (resolved == null) {
+            resolved = Resolving.create(Schema.applyAliases(w, r), r);
+            if (cache != null) {
+                cache.add(w, r, false, resolved);
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * Method for constructing a schema instance that reads content written using
+     * this schema, but only exposes specified fields of records: other fields
+     * are skipped without decoding them into tokens (or, when possible, without
+     * decoding them at all). Callers typically use this when only a small number
+     * of fields of big records are needed.
+     *<p>
+     * Fields are specified as paths, which are either names of fields of the
+     * root-level record, or dot-separated names of fields of nested records
+     * (like <code>"address.city"</code>). Arrays, Maps and Unions are transparent
+     * so that paths refer to fields of their element (value, branch) records.
+     * Including a field includes all of its contents; paths that match no
+     * fields are ignored.
+     *<p>
+     * Projected instances are cached by this instance, so calling this method
+     * repeatedly with the same paths is cheap.
+     *
+     * @param fieldPaths Paths of fields to include
+     *
+     * @since 3.0
+     */
+    public AvroSchema withProjection(Set<String> fieldPaths)
+    {
+        ConcurrentHashMap<Set<String>, AvroSchema> projections = _projections;
+        if (projections == null) {
+            _projections = projections = new ConcurrentHashMap<Set<String>, AvroSchema>();
+        } else {
+            AvroSchema schema = projections.get(fieldPaths);
+            if (schema != null) {
+                return schema;
+            }
+        }
+        // copy to ensure key does not change
+        Set<String> paths = Collections.unmodifiableSet(new HashSet<String>(fieldPaths));
+        AvroSchema schema = new Projected(_writerSchema, paths);
+        if (projections.size() >= MAX_CACHED_PROJECTIONS) {
+            projections.clear();
+        }
+        projections.put(paths, schema);
+        return schema;
     }
 
     @Override
@@ -152,6 +289,35 @@ r.getType().getName(), w.getFullName(), r.getFullName()));
      */
     public Schema getAvroSchema() { return _writerSchema; }
 
+    /**
+     * Accessor for CRC-64-AVRO fingerprint of the Parsing Canonical Form
+     * of the "writer schema", as used by single-object encoding
+     * (see {@link AvroSingleObjectSchema}).
+     *
+     * @since 3.0
+     */
+    public long getFingerprint() {
+        Long fp = _fingerprint;
+        if (fp == null) {
+            _fingerprint = fp = SchemaNormalization.parsingFingerprint64(_writerSchema);
+        }
+        return fp.longValue();
+    }
+
+    /**
+     * Accessor for cache of union branch indexes resolved when writing values
+     * using this schema; shared by all generators that use this instance.
+     *
+     * @since 3.0
+     */
+    public UnionIndexCache getUnionIndexCache() {
+        UnionIndexCache cache = _unionIndexes;
+        if (cache == null) {
+            _unionIndexes = cache = new UnionIndexCache();
+        }
+        return cache;
+    }
+
     /*
     /**********************************************************************
     /* Factory methods
@@ -172,6 +338,30 @@ r.getType().getName(), w.getFullName(), r.getFullName()));
         return AvroReaderFactory.createFor(_writerSchema);
     }
 
+    /**
+     * Accessor for reader that uses code generated at runtime for reading
+     * the root-level record, if possible; or, if not (root value not a record,
+     * or compilation not possible), same as {@link #getReader()}.
+     *
+     * @since 3.0
+     */
+    public AvroStructureReader getCompiledReader()
+    {
+        AvroStructureReader r = _compiledReader.get();
+        if (r == null) {
+            r = _compileReader(getReader());
+            _compiledReader.set(r);
+        }
+        return r;
+    }
+
+    /**
+     * @since 3.0
+     */
+    protected AvroStructureReader _compileReader(AvroStructureReader reader) {
+        return RecordReaderCompiler.compile(reader, _writerSchema);
+    }
+
     /*
     /**********************************************************************
     /* Standard method overrides
@@ -226,6 +416,18 @@ r.getType().getName(), w.getFullName(), r.getFullName()));
             return AvroReaderFactory.createFor(_writerSchema, _readerSchema);
         }
 
+        @Override
+        protected AvroStructureReader _compileReader(AvroStructureReader reader) {
+            // field readers do resolution, so no direct decoding based on schema
+            return RecordReaderCompiler.compile(reader, null);
+        }
+
+        @Override
+        public AvroSchema withProjection(Set<String> fieldPaths) {
+            throw new UnsupportedOperationException(
+                    "Can not use projection with schema that has separate reader schema");
+        }
+
         /*
         /**********************************************************************
         /* Standard method overrides
@@ -251,4 +453,58 @@ r.getType().getName(), w.getFullName(), r.getFullName()));
                     && _readerSchema.equals(other._readerSchema);
         }
     }
+
+    /**
+     * Sub-class used for reading only some of the fields of records, as specified
+     * by paths of fields to include.
+     *
+     * @since 3.0
+     */
+    private final static class Projected extends AvroSchema
+    {
+        private final Set<String> _fieldPaths;
+
+        public Projected(Schema writer, Set<String> fieldPaths)
+        {
+            super(writer);
+            _fieldPaths = fieldPaths;
+        }
+
+        @Override
+        protected AvroStructureReader _constructReader() {
+            return AvroReaderFactory.createProjectedFor(_writerSchema, _fieldPaths);
+        }
+
+        @Override
+        protected AvroStructureReader _compileReader(AvroStructureReader reader) {
+            // some fields are skipped, so no direct decoding based on schema
+            return RecordReaderCompiler.compile(reader, null);
+        }
+
+        /*
+        /**********************************************************************
+        /* Standard method overrides
+        /**********************************************************************
+         */
+
+        @Override
+        public String toString() {
+            return String.format("{AvroSchema.Projected: name=%s, fields=%s}",
+                    _writerSchema.getFullName(), _fieldPaths);
+        }
+
+        @Override
+        public int hashCode() {
+            return super.hashCode() ^ _fieldPaths.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o == this) return true;
+            if ((o == null) || o.getClass() != getClass()) return false;
+            Projected other = (Projected) o;
+            return _writerSchema.equals(other._writerSchema)
+                    && _fieldPaths.equals(other._fieldPaths);
+        }
+    }
 }
@@ -0,0 +1,29 @@
+package com.fasterxml.jackson.dataformat.avro;
+
+import java.io.IOException;
+
+import org.apache.avro.Schema;
+
+/**
+ * Interface for components that can find (writer) schemas by their
+ * CRC-64-AVRO fingerprint, as needed for decoding content that uses Avro
+ * single-object encoding (see {@link AvroSingleObjectSchema}).
+ * Implementations may keep schemas in memory (like {@link SimpleAvroSchemaStore}),
+ * or fetch them from an external registry; in latter case it is usually a good
+ * idea to cache results, although {@link AvroSingleObjectSchema} also caches
+ * readers it builds.
+ *
+ * @since 3.0
+ */
+public interface AvroSchemaStore
+{
+    /**
+     * Method for finding schema with given fingerprint.
+     *
+     * @param fingerprint CRC-64-AVRO fingerprint of Parsing Canonical Form of
+     *   the schema (see {@link AvroSchema#getFingerprint()})
+     *
+     * @return Schema with the fingerprint, if known; null if not
+     */
+    public Schema findSchema(long fingerprint) throws IOException;
+}
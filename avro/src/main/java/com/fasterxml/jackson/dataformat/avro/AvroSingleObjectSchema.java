@@ -0,0 +1,167 @@
+package com.fasterxml.jackson.dataformat.avro;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.avro.Schema;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.dataformat.avro.deser.AvroStructureReader;
+
+/**
+ * {@link AvroSchema} used for reading content that uses Avro single-object
+ * encoding: each (root-level) value is prefixed by a two-byte marker
+ * (<code>0xC3 0x01</code>) and 8-byte little-endian CRC-64-AVRO fingerprint
+ * of the schema it was written with. Writer schemas are located using
+ * configured {@link AvroSchemaStore}, and values are exposed using the
+ * reader schema this instance was constructed with, so a single reader
+ * can handle messages written with different (compatible) schema versions.
+ *<p>
+ * Fully built readers are cached per (writer, reader) schema fingerprint pair,
+ * so that after the first message with given writer schema, selecting the
+ * reader only takes a single lookup. Instances are thread-safe and should be
+ * reused.
+ *<p>
+ * Content with single-object encoding is produced by enabling
+ * {@link AvroGenerator.Feature#AVRO_SINGLE_OBJECT_ENCODING}.
+ *
+ * @since 3.0
+ */
+public class AvroSingleObjectSchema extends AvroSchema
+{
+    public final static byte MARKER_BYTE_1 = (byte) 0xC3;
+
+    public final static byte MARKER_BYTE_2 = (byte) 0x01;
+
+    /**
+     * Length of single-object encoding header: marker and fingerprint
+     */
+    public final static int HEADER_LENGTH = 10;
+
+    protected final AvroSchemaStore _store;
+
+    protected final AvroSchema _readerSchema;
+
+    /**
+     * Readers for content written with known writer schemas, keyed by
+     * writer schema fingerprint (reader schema being the same for all)
+     */
+    protected final ConcurrentHashMap<Long, AvroStructureReader> _readers
+        = new ConcurrentHashMap<Long, AvroStructureReader>();
+
+    /**
+     * @param store Store used for locating writer schemas
+     * @param readerSchema Schema that specifies how content is to be exposed
+     */
+    public AvroSingleObjectSchema(AvroSchemaStore store, AvroSchema readerSchema)
+    {
+        super(readerSchema.getAvroSchema());
+        _store = store;
+        _readerSchema = readerSchema;
+    }
+
+    /**
+     * Helper method for constructing single-object encoding header for
+     * schema with given fingerprint.
+     */
+    public static byte[] headerFor(long fingerprint)
+    {
+        byte[] header = new byte[HEADER_LENGTH];
+        header[0] = MARKER_BYTE_1;
+        header[1] = MARKER_BYTE_2;
+        for (int i = 2; i < HEADER_LENGTH; ++i) {
+            header[i] = (byte) fingerprint;
+            fingerprint >>>= 8;
+        }
+        return header;
+    }
+
+    /*
+    /**********************************************************************
+    /* Public API
+    /**********************************************************************
+     */
+
+    public AvroSchemaStore getSchemaStore() { return _store; }
+
+    public AvroSchema getReaderSchema() { return _readerSchema; }
+
+    /**
+     * Method for finding reader to use for content written using schema with
+     * given fingerprint.
+     *
+     * @throws JsonMappingException If no schema with given fingerprint is
+     *    known by the schema store, or if it is not compatible with the
+     *    reader schema
+     */
+    public AvroStructureReader findReader(long writerFingerprint) throws IOException
+    {
+        AvroStructureReader r = _readers.get(writerFingerprint);
+        if (r == null) {
+            r = _constructReader(writerFingerprint);
+            AvroStructureReader old = _readers.putIfAbsent(writerFingerprint, r);
+            if (old != null) {
+                r = old;
+            }
+        }
+        return r;
+    }
+
+    /**
+     * Not applicable for single-object encoded content, since reader depends on
+     * the writer schema of each value: use {@link #findReader(long)} instead.
+     */
+    @Override
+    public AvroStructureReader getReader() {
+        throw new IllegalStateException("No fixed reader for single-object encoded content: use `findReader(long)`");
+    }
+
+    /**
+     * Not supported for single-object encoded content, since readers depend on
+     * the writer schema of each value.
+     */
+    @Override
+    public AvroSchema withProjection(Set<String> fieldPaths) {
+        throw new UnsupportedOperationException(
+                "Can not use projection with single-object encoded content");
+    }
+
+    protected AvroStructureReader _constructReader(long writerFingerprint) throws IOException
+    {
+        if (writerFingerprint == _readerSchema.getFingerprint()) {
+            return _readerSchema.getReader();
+        }
+        Schema w = _store.findSchema(writerFingerprint);
+        if (w == null) {
+            throw new JsonMappingException(null, String.format(
+                    "Unknown writer schema fingerprint 0x%016X: not found in schema store", writerFingerprint));
+        }
+        return new AvroSchema(w).withReaderSchema(_readerSchema).getReader();
+    }
+
+    /*
+    /**********************************************************************
+    /* Standard method overrides
+    /**********************************************************************
+     */
+
+    @Override
+    public String toString() {
+        return String.format("{AvroSingleObjectSchema: name=%s}", _writerSchema.getFullName());
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() ^ _store.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) return true;
+        if ((o == null) || o.getClass() != getClass()) return false;
+        AvroSingleObjectSchema other = (AvroSingleObjectSchema) o;
+        return _readerSchema.equals(other._readerSchema)
+                && _store.equals(other._store);
+    }
+}
@@ -1,6 +1,7 @@
 package com.fasterxml.jackson.dataformat.avro;
 
 import java.io.IOException;
+import java.util.Arrays;
 
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.core.JsonParser;
@@ -17,13 +18,44 @@ public class AvroTypeDeserializer extends TypeDeserializerBase
 {
     private static final long serialVersionUID = 1L;
 
+    private final static Object[] NO_RESOLVED = new Object[0];
+
+    /**
+     * Maximum number of type ids for which deserializers are kept in
+     * {@link #_resolved}; ones beyond are looked up by name.
+     *
+     * @since 3.0
+     */
+    protected final static int MAX_RESOLVED = 16;
+
+    /**
+     * Type id used for values with no type id in schema.
+     *
+     * @since 3.0
+     */
+    protected final String _baseTypeId;
+
+    /**
+     * Deserializers resolved so far, as alternating type id, deserializer entries.
+     * Type ids are matched by identity: ids come from readers of union branches
+     * (which hold them), so that each branch maps to its deserializer with a short
+     * array scan instead of hashing id, let alone resolving class it refers to.
+     * Array is replaced (never modified) when adding entries.
+     *
+     * @since 3.0
+     */
+    protected transient volatile Object[] _resolved = NO_RESOLVED;
+
     protected AvroTypeDeserializer(JavaType baseType, TypeIdResolver idRes, String typePropertyName, boolean typeIdVisible,
                                    JavaType defaultImpl) {
         super(baseType, idRes, typePropertyName, typeIdVisible, defaultImpl);
+        _baseTypeId = AvroSchemaHelper.getTypeId(baseType);
     }
 
-    protected AvroTypeDeserializer(TypeDeserializerBase src, BeanProperty property) {
+    protected AvroTypeDeserializer(AvroTypeDeserializer src, BeanProperty property) {
         super(src, property);
+        // NOTE: resolved deserializers are contextual, so can not be shared
+        _baseTypeId = src._baseTypeId;
     }
 
     @Override
@@ -54,15 +86,52 @@ public class AvroTypeDeserializer extends TypeDeserializerBase
 
     @Override
     public Object deserializeTypedFromAny(JsonParser p, DeserializationContext ctxt) throws IOException {
-        if (p.getTypeId() == null && getDefaultImpl() == null) {
-            JsonDeserializer<Object> deser = _findDeserializer(ctxt, AvroSchemaHelper.getTypeId(_baseType));
-            if (deser == null) {
-                ctxt.reportInputMismatch(_baseType, "No (native) type id found when one was expected for polymorphic type handling");
-                return null;
+        Object typeId = p.getTypeId();
+        if (typeId == null) {
+            if (getDefaultImpl() != null) {
+                return _deserializeWithNativeTypeId(p, ctxt, null);
+            }
+            typeId = _baseTypeId;
+        }
+        JsonDeserializer<Object> deser = _findResolvedDeserializer(ctxt, typeId);
+        if (deser == null) {
+            ctxt.reportInputMismatch(_baseType, "No (native) type id found when one was expected for polymorphic type handling");
+            return null;
+        }
+        return deser.deserialize(p, ctxt);
+    }
+
+    /**
+     * Method for finding deserializer for given type id: either one already
+     * resolved for the same id instance, or one found by
+     * {@link #_findDeserializer}.
+     *
+     * @since 3.0
+     */
+    protected JsonDeserializer<Object> _findResolvedDeserializer(DeserializationContext ctxt,
+            Object typeId) throws IOException
+    {
+        Object[] resolved = _resolved;
+        if (resolved == null) { // after JDK deserialization
+            resolved = NO_RESOLVED;
+        }
+        final int len = resolved.length;
+        for (int i = 0; i < len; i += 2) {
+            if (resolved[i] == typeId) {
+                @SuppressWarnings("unchecked")
+                JsonDeserializer<Object> deser = (JsonDeserializer<Object>) resolved[i+1];
+                return deser;
             }
-            return deser.deserialize(p, ctxt);
         }
-        return _deserializeWithNativeTypeId(p, ctxt, p.getTypeId());
+        JsonDeserializer<Object> deser = _findDeserializer(ctxt, typeId.toString());
+        if ((deser != null) && (len < (MAX_RESOLVED * 2))) {
+            // may lose entries added concurrently, but that is fine: will just be added again
+            Object[] newResolved = Arrays.copyOf(resolved, len + 2);
+            newResolved[len] = typeId;
+            newResolved[len+1] = deser;
+            _resolved = newResolved;
+        }
+        return deser;
     }
 
     @Override
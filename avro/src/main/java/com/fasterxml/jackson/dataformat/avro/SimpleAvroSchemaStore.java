@@ -0,0 +1,44 @@
+package com.fasterxml.jackson.dataformat.avro;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+
+/**
+ * Simple in-memory {@link AvroSchemaStore} implementation: schemas are
+ * explicitly registered, and kept in a concurrent map keyed by fingerprint.
+ *
+ * @since 3.0
+ */
+public class SimpleAvroSchemaStore implements AvroSchemaStore
+{
+    protected final ConcurrentHashMap<Long, Schema> _schemas = new ConcurrentHashMap<Long, Schema>();
+
+    /**
+     * Method for registering given schema.
+     *
+     * @return Fingerprint of the schema
+     */
+    public long addSchema(Schema schema) {
+        long fp = SchemaNormalization.parsingFingerprint64(schema);
+        _schemas.put(fp, schema);
+        return fp;
+    }
+
+    /**
+     * Method for registering given schema.
+     *
+     * @return Fingerprint of the schema
+     */
+    public long addSchema(AvroSchema schema) {
+        long fp = schema.getFingerprint();
+        _schemas.put(fp, schema.getAvroSchema());
+        return fp;
+    }
+
+    @Override
+    public Schema findSchema(long fingerprint) {
+        return _schemas.get(fingerprint);
+    }
+}
@@ -0,0 +1,385 @@
+package com.fasterxml.jackson.dataformat.avro.async;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.ObjectReadContext;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.core.io.IOContext;
+import com.fasterxml.jackson.core.sym.FieldNameMatcher;
+import com.fasterxml.jackson.dataformat.avro.AvroSchema;
+import com.fasterxml.jackson.dataformat.avro.deser.AvroReadContext;
+import com.fasterxml.jackson.dataformat.avro.deser.JacksonAvroParserImpl;
+
+/**
+ * Non-blocking Avro parser: content is fed using {@link #feedInput(byte[], int, int)}
+ * (or {@link #feedInput(ByteBuffer)}), and {@link JsonToken#NOT_AVAILABLE} is
+ * returned by {@link #nextToken()} if not enough content has been fed to
+ * return the next token.
+ *<p>
+ * Tokens are decoded by the same {@link com.fasterxml.jackson.dataformat.avro.deser.AvroStructureReader}s
+ * as with blocking parsers, as soon as content for the token has been fed, so
+ * tokens of a root value are returned while rest of the value is still
+ * arriving. If content of a token is only partially available, state of the
+ * reader (see {@link AvroReadContext#snapshot}) and input pointer are restored
+ * to where they were before the token, and decoding of the token is retried
+ * once enough content has been fed: for Strings and binary values, length of
+ * which is known once the length prefix has been decoded, retry is postponed
+ * until all of the content is available. Only content of the incomplete token
+ * (if any) is retained between feeds; amount of it is limited (see
+ * {@link #setMaxValueLength}), exceeding the limit results in a
+ * {@link JsonParseException}.
+ *<p>
+ * As with other non-blocking parsers, more content may only be fed when
+ * {@link #needMoreInput()} returns true. Fed content is copied, so caller is
+ * free to reuse its buffer once <code>feedInput</code> returns.
+ *
+ * @since 3.0
+ */
+public class NonBlockingByteArrayParser
+    extends JacksonAvroParserImpl
+    implements ByteArrayFeeder
+{
+    private final static int MIN_BUFFER_LENGTH = 4000;
+
+    /**
+     * Default maximum length of a single value, in bytes: 64 megabytes.
+     */
+    public final static int DEFAULT_MAX_VALUE_LENGTH = 64 * 1024 * 1024;
+
+    /**
+     * Exception used for signaling that content of the token being decoded
+     * has not (yet) been fully fed: caught by {@link #nextToken()}, which
+     * then returns {@link JsonToken#NOT_AVAILABLE}. Only exposed to callers
+     * of operations that can not be resumed, like {@link #skipValue()}.
+     */
+    private final static IncompleteContentException INCOMPLETE_CONTENT = new IncompleteContentException();
+
+    /*
+    /**********************************************************************
+    /* Configuration
+    /**********************************************************************
+     */
+
+    /**
+     * Maximum number of bytes a single incomplete value (or other token)
+     * may need to be buffered.
+     */
+    protected int _maxValueLength = DEFAULT_MAX_VALUE_LENGTH;
+
+    /*
+    /**********************************************************************
+    /* Input state
+    /**********************************************************************
+     */
+
+    // And from JacksonAvroParserImpl:
+    // _inputBuffer: contains content fed and not yet decoded
+    // _inputPtr: pointer to next byte to decode
+    // _inputEnd: end of content fed so far
+
+    /**
+     * Flag that indicates that all content has been fed
+     */
+    protected boolean _endOfInput;
+
+    /**
+     * If decoding of the latest token failed due to incomplete content, end
+     * offset of content (within input buffer) needed before decoding is
+     * worth retrying; 0 if not.
+     */
+    protected int _requiredEnd;
+
+    /*
+    /**********************************************************************
+    /* Life-cycle
+    /**********************************************************************
+     */
+
+    public NonBlockingByteArrayParser(ObjectReadContext readCtxt, IOContext ioCtxt,
+            int parserFeatures, int avroFeatures, AvroSchema schema)
+    {
+        super(readCtxt, ioCtxt, parserFeatures, avroFeatures, schema, NO_BYTES, 0, 0);
+    }
+
+    /**
+     * Method for changing maximum length (in bytes) of content that decoding
+     * of a single token (usually a String or binary value) may need to have
+     * buffered: if exceeded, decoding results in an exception.
+     * Default value is {@link #DEFAULT_MAX_VALUE_LENGTH}.
+     */
+    public NonBlockingByteArrayParser setMaxValueLength(int maxLength) {
+        if (maxLength <= 0) {
+            throw new IllegalArgumentException("Maximum value length must be positive, was: "+maxLength);
+        }
+        _maxValueLength = maxLength;
+        return this;
+    }
+
+    public int getMaxValueLength() {
+        return _maxValueLength;
+    }
+
+    /*
+    /**********************************************************************
+    /* AsyncInputFeeder impl
+    /**********************************************************************
+     */
+
+    @Override
+    public ByteArrayFeeder getNonBlockingInputFeeder() {
+        return this;
+    }
+
+    @Override
+    public boolean canParseAsync() { return true; }
+
+    @Override
+    public final boolean needMoreInput() {
+        // all content decoded, or remaining content known not to be enough for the next token
+        return ((_inputPtr >= _inputEnd) || (_inputEnd < _requiredEnd)) && !_endOfInput;
+    }
+
+    @Override
+    public void feedInput(byte[] buf, int start, int end) throws IOException
+    {
+        _verifyFeed();
+        if (end < start) {
+            _reportError("Input end (%d) may not be before start (%d)", end, start);
+        }
+        final int len = end - start;
+        _prepareFeed(len);
+        System.arraycopy(buf, start, _inputBuffer, _inputEnd, len);
+        _inputEnd += len;
+    }
+
+    /**
+     * Alternative to {@link #feedInput(byte[], int, int)} for feeding all remaining
+     * content of given buffer; position of the buffer is advanced to its limit.
+     */
+    public void feedInput(ByteBuffer buf) throws IOException
+    {
+        _verifyFeed();
+        final int len = buf.remaining();
+        _prepareFeed(len);
+        buf.get(_inputBuffer, _inputEnd, len);
+        _inputEnd += len;
+    }
+
+    @Override
+    public void endOfInput() {
+        _endOfInput = true;
+    }
+
+    /*
+    /**********************************************************************
+    /* Abstract methods/overrides from JsonParser
+    /**********************************************************************
+     */
+
+    @Override
+    public int releaseBuffered(OutputStream out) throws IOException {
+        int avail = _inputEnd - _inputPtr;
+        if (avail > 0) {
+            out.write(_inputBuffer, _inputPtr, avail);
+        }
+        return avail;
+    }
+
+    /**
+     * Overridden since content of input buffer is moved when more input is fed
+     */
+    @Override
+    public boolean canRetainBinaryValueBuffer() {
+        return (_binaryState != BINARY_BUFFERED);
+    }
+
+    /*
+    /**********************************************************************
+    /* Main-level decoding
+    /**********************************************************************
+     */
+
+    @Override
+    public JsonToken nextToken() throws IOException
+    {
+        // If all content has been fed, nothing to retry: incomplete content is an error
+        if (_closed || _endOfInput) {
+            return super.nextToken();
+        }
+        // note: if so, do not even bother changing state
+        if (_inputEnd < _requiredEnd) {
+            return (_currToken = JsonToken.NOT_AVAILABLE);
+        }
+        final int startPtr = _inputPtr;
+        final AvroReadContext snapshot = _avroContext.snapshot();
+        try {
+            JsonToken t = super.nextToken();
+            _requiredEnd = 0;
+            return t;
+        } catch (IncompleteContentException e) {
+            _inputPtr = startPtr;
+            _avroContext = snapshot;
+            return (_currToken = JsonToken.NOT_AVAILABLE);
+        }
+    }
+
+    /* Optimized variants of these methods decode content without going
+     * through nextToken(), and would need to be able to restore state the same
+     * way; so for now let's just use non-optimized implementations
+     */
+
+    @Override
+    public String nextFieldName() throws IOException {
+        return (nextToken() == JsonToken.FIELD_NAME) ? currentName() : null;
+    }
+
+    @Override
+    public boolean nextFieldName(SerializableString sstr) throws IOException {
+        return (nextToken() == JsonToken.FIELD_NAME) && sstr.getValue().equals(currentName());
+    }
+
+    @Override
+    public int nextFieldName(FieldNameMatcher matcher) throws IOException {
+        String name = nextFieldName();
+        if (name != null) {
+            return matcher.matchName(name);
+        }
+        if (_currToken == JsonToken.END_OBJECT) {
+            return FieldNameMatcher.MATCH_END_OBJECT;
+        }
+        return FieldNameMatcher.MATCH_ODD_TOKEN;
+    }
+
+    @Override
+    protected JsonToken _nextNumber(NumberType type) throws IOException {
+        return nextToken();
+    }
+
+    @Override
+    public int[] readIntArray() throws IOException { return null; }
+
+    @Override
+    public long[] readLongArray() throws IOException { return null; }
+
+    @Override
+    public float[] readFloatArray() throws IOException { return null; }
+
+    @Override
+    public double[] readDoubleArray() throws IOException { return null; }
+
+    /**
+     * Overridden to skip contents token by token, as contents may not have been
+     * fully fed yet; if not, an exception is thrown.
+     */
+    @Override
+    public JsonParser skipChildren() throws IOException
+    {
+        if ((_currToken != JsonToken.START_OBJECT) && (_currToken != JsonToken.START_ARRAY)) {
+            return this;
+        }
+        int open = 1;
+        while (true) {
+            JsonToken t = nextToken();
+            if (t == null) {
+                return this;
+            }
+            if (t.isStructStart()) {
+                ++open;
+            } else if (t.isStructEnd()) {
+                if (--open == 0) {
+                    return this;
+                }
+            } else if (t == JsonToken.NOT_AVAILABLE) {
+                _reportError("Not enough content available for `skipChildren()`: more content needs to be fed to %s",
+                        getClass().getName());
+            }
+        }
+    }
+
+    /*
+    /**********************************************************************
+    /* Internal methods
+    /**********************************************************************
+     */
+
+    @Override
+    protected void _handleMissingContent(long minAvailable) throws IOException
+    {
+        // if all content fed, caller reports unexpected end-of-input
+        if (_endOfInput) {
+            return;
+        }
+        if (minAvailable > _maxValueLength) {
+            _reportError("Value too long: %d bytes needed to decode it (maximum %d)",
+                    minAvailable, _maxValueLength);
+        }
+        _requiredEnd = (int) (_inputPtr + minAvailable);
+        throw INCOMPLETE_CONTENT;
+    }
+
+    /**
+     * Helper method for verifying that more content may be fed: as with other
+     * non-blocking parsers, only once content fed earlier has been decoded
+     * (or is known not to be enough for decoding the next token).
+     */
+    protected void _verifyFeed() throws IOException
+    {
+        if ((_inputPtr < _inputEnd) && (_inputEnd >= _requiredEnd)) {
+            _reportError("Still have %d undecoded bytes, should not call 'feedInput'", _inputEnd - _inputPtr);
+        }
+        if (_endOfInput) {
+            _reportError("Already closed, can not feed more input");
+        }
+    }
+
+    /**
+     * Helper method called to ensure there is room for specified amount of
+     * new content in the input buffer; content already decoded is dropped
+     * and remaining content moved to the beginning of the buffer, if necessary.
+     */
+    protected void _prepareFeed(int len) throws IOException
+    {
+        if ((_inputEnd + len) <= _inputBuffer.length) {
+            return;
+        }
+        // Binary value of the current token may refer to content to be dropped
+        if (_binaryState == BINARY_BUFFERED) {
+            _finishBinaryValue();
+        }
+        final int offset = _inputPtr;
+        final int keep = _inputEnd - offset;
+        byte[] buf = _inputBuffer;
+        if ((keep + len) > buf.length) {
+            buf = new byte[Math.max(keep + len, Math.max(buf.length << 1, MIN_BUFFER_LENGTH))];
+        }
+        System.arraycopy(_inputBuffer, offset, buf, 0, keep);
+        _inputBuffer = buf;
+        _currInputProcessed += offset;
+        _inputPtr = 0;
+        _inputEnd = keep;
+        if (_requiredEnd > 0) {
+            _requiredEnd -= offset;
+        }
+    }
+
+    private final static class IncompleteContentException extends JsonParseException
+    {
+        private static final long serialVersionUID = 1L;
+
+        IncompleteContentException() {
+            super((JsonParser) null, "Not enough content available: more content needs to be fed to non-blocking parser");
+        }
+
+        // only used for signaling, no need for stack trace
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.fasterxml.jackson.dataformat.avro.deser;
 
 import java.io.IOException;
+import java.util.Arrays;
 
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.sym.FieldNameMatcher;
 
@@ -72,6 +75,93 @@ public abstract class ArrayReader extends AvroStructureReader
         return _currToken != JsonToken.START_ARRAY && _currToken != JsonToken.END_ARRAY ? _elementTypeId : super.getTypeId();
     }
 
+    /*
+    /**********************************************************************
+    /* Skipping (since 3.0)
+    /**********************************************************************
+     */
+
+    @Override
+    protected boolean skipRemaining() throws IOException
+    {
+        switch (_state) {
+        case STATE_ELEMENTS:
+            // Contents of the first block may be skipped as a whole, if size known
+            if ((_currToken != JsonToken.START_ARRAY) || !_parser.skipBlockContents()) {
+                for (long l = _count - _index; l > 0L; --l) {
+                    _skipElement();
+                }
+            }
+            // and for the rest, same as with skipping of the whole array
+            long l;
+            while ((l = _parser.skipArray()) > 0L) {
+                while (--l >= 0) {
+                    _skipElement();
+                }
+            }
+            // fall through
+        case STATE_END:
+            _arrayDone();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Method for skipping a single element of the array
+     *
+     * @since 3.0
+     */
+    protected abstract void _skipElement() throws IOException;
+
+    /**
+     * Helper method called when the rest of the array has been read (or skipped)
+     * without returning tokens.
+     *
+     * @since 3.0
+     */
+    protected final void _arrayDone() {
+        _index = 0;
+        _count = 0L;
+        _state = STATE_DONE;
+        _parser.setAvroContext(getParent());
+        _currToken = JsonToken.END_ARRAY;
+    }
+
+    /*
+    /**********************************************************************
+    /* Bulk reading of primitive arrays (since 3.0)
+    /**********************************************************************
+     */
+
+    /**
+     * Method called by parser to read all remaining elements of an Avro array
+     * of ints into a Java array, without exposing individual elements as tokens.
+     * If successful, reader is left in state where it has returned
+     * {@link JsonToken#END_ARRAY}.
+     *
+     * @return Elements read, if this reader reads array of compatible element
+     *   type; `null` if not (in which case state is not changed)
+     *
+     * @since 3.0
+     */
+    protected int[] readIntArray() throws IOException { return null; }
+
+    /**
+     * @since 3.0
+     */
+    protected long[] readLongArray() throws IOException { return null; }
+
+    /**
+     * @since 3.0
+     */
+    protected float[] readFloatArray() throws IOException { return null; }
+
+    /**
+     * @since 3.0
+     */
+    protected double[] readDoubleArray() throws IOException { return null; }
+
     /*
     /**********************************************************************
     /* Reader implementations for Avro arrays
@@ -80,8 +170,24 @@ public abstract class ArrayReader extends AvroStructureReader
 
     private final static class Scalar extends ArrayReader
     {
+        private final static int BULK_NONE = 0;
+        private final static int BULK_INT = 1;
+        private final static int BULK_LONG = 2;
+        private final static int BULK_FLOAT = 3;
+        private final static int BULK_DOUBLE = 4;
+
+        private final static int[] NO_INTS = new int[0];
+        private final static long[] NO_LONGS = new long[0];
+        private final static float[] NO_FLOATS = new float[0];
+        private final static double[] NO_DOUBLES = new double[0];
+
         private final ScalarDecoder _elementReader;
-        
+
+        /**
+         * Type of elements, for purposes of bulk reading into primitive arrays
+         */
+        private final int _bulkType;
+
         public Scalar(ScalarDecoder reader, String typeId, String elementTypeId) {
             this(null, reader, null, typeId, elementTypeId != null ? elementTypeId : reader.getTypeId());
         }
@@ -90,6 +196,24 @@ public abstract class ArrayReader extends AvroStructureReader
                 AvroParserImpl parser, String typeId, String elementTypeId) {
             super(parent, parser, typeId, elementTypeId != null ? elementTypeId : reader.getTypeId());
             _elementReader = reader;
+            _bulkType = _bulkType(reader);
+        }
+
+        private static int _bulkType(ScalarDecoder reader) {
+            if (reader instanceof ScalarDecoder.IntReader) {
+                // chars are exposed as Strings, can not bulk read
+                return Character.class.getName().equals(reader.getTypeId()) ? BULK_NONE : BULK_INT;
+            }
+            if (reader instanceof ScalarDecoder.LongReader) {
+                return BULK_LONG;
+            }
+            if (reader instanceof ScalarDecoder.FloatReader) {
+                return BULK_FLOAT;
+            }
+            if (reader instanceof ScalarDecoder.DoubleReader) {
+                return BULK_DOUBLE;
+            }
+            return BULK_NONE;
         }
         
         @Override
@@ -143,6 +267,146 @@ public abstract class ArrayReader extends AvroStructureReader
                 }
             }
         }
+
+        @Override
+        public JsonToken nextNumber(JsonParser.NumberType type) throws IOException
+        {
+            // only within a block: start of the next block (or end of array) via nextToken()
+            if ((_state == STATE_ELEMENTS) && (_index < _count) && (_numberType(_bulkType) == type)) {
+                ++_index;
+                return (_currToken = _elementReader.decodeValue(_parser));
+            }
+            return null;
+        }
+
+        private static JsonParser.NumberType _numberType(int bulkType) {
+            switch (bulkType) {
+            case BULK_INT:
+                return JsonParser.NumberType.INT;
+            case BULK_LONG:
+                return JsonParser.NumberType.LONG;
+            case BULK_FLOAT:
+                return JsonParser.NumberType.FLOAT;
+            case BULK_DOUBLE:
+                return JsonParser.NumberType.DOUBLE;
+            }
+            return null;
+        }
+
+        @Override
+        protected void _skipElement() throws IOException {
+            _elementReader.skipValue(_parser);
+        }
+
+        @Override
+        protected int[] readIntArray() throws IOException
+        {
+            if ((_bulkType != BULK_INT) || !_canReadBulk()) {
+                return null;
+            }
+            final AvroParserImpl p = _parser;
+            int[] result = NO_INTS;
+            int len = 0;
+            for (long count = _remainingInBlock(); count > 0L; count = p.decodeArrayNext()) {
+                result = Arrays.copyOf(result, _arrayLength(len, count));
+                for (final int end = result.length; len < end; ++len) {
+                    result[len] = p.decodeInt();
+                }
+            }
+            _arrayDone();
+            return result;
+        }
+
+        @Override
+        protected long[] readLongArray() throws IOException
+        {
+            if (((_bulkType != BULK_LONG) && (_bulkType != BULK_INT)) || !_canReadBulk()) {
+                return null;
+            }
+            final AvroParserImpl p = _parser;
+            final boolean ints = (_bulkType == BULK_INT);
+            long[] result = NO_LONGS;
+            int len = 0;
+            for (long count = _remainingInBlock(); count > 0L; count = p.decodeArrayNext()) {
+                result = Arrays.copyOf(result, _arrayLength(len, count));
+                for (final int end = result.length; len < end; ++len) {
+                    result[len] = ints ? p.decodeInt() : p.decodeLong();
+                }
+            }
+            _arrayDone();
+            return result;
+        }
+
+        @Override
+        protected float[] readFloatArray() throws IOException
+        {
+            if ((_bulkType != BULK_FLOAT) || !_canReadBulk()) {
+                return null;
+            }
+            final AvroParserImpl p = _parser;
+            float[] result = NO_FLOATS;
+            int len = 0;
+            for (long count = _remainingInBlock(); count > 0L; count = p.decodeArrayNext()) {
+                result = Arrays.copyOf(result, _arrayLength(len, count));
+                for (final int end = result.length; len < end; ++len) {
+                    p.decodeFloat();
+                    result[len] = p._numberFloat;
+                }
+            }
+            _arrayDone();
+            return result;
+        }
+
+        @Override
+        protected double[] readDoubleArray() throws IOException
+        {
+            if (((_bulkType != BULK_DOUBLE) && (_bulkType != BULK_FLOAT)) || !_canReadBulk()) {
+                return null;
+            }
+            final AvroParserImpl p = _parser;
+            final boolean floats = (_bulkType == BULK_FLOAT);
+            double[] result = NO_DOUBLES;
+            int len = 0;
+            for (long count = _remainingInBlock(); count > 0L; count = p.decodeArrayNext()) {
+                result = Arrays.copyOf(result, _arrayLength(len, count));
+                for (final int end = result.length; len < end; ++len) {
+                    if (floats) {
+                        p.decodeFloat();
+                        result[len] = p._numberFloat;
+                    } else {
+                        p.decodeDouble();
+                        result[len] = p.getDoubleValue();
+                    }
+                }
+            }
+            _arrayDone();
+            return result;
+        }
+
+        private boolean _canReadBulk() {
+            return (_state == STATE_ELEMENTS) || (_state == STATE_END);
+        }
+
+        /**
+         * Helper method for finding number of elements remaining in the current
+         * block; reading header of the next block if current one is exhausted.
+         */
+        private long _remainingInBlock() throws IOException {
+            if (_state != STATE_ELEMENTS) {
+                return 0L;
+            }
+            long count = _count - _index;
+            return (count > 0L) ? count : _parser.decodeArrayNext();
+        }
+
+        private int _arrayLength(int len, long count) throws IOException {
+            long total = len + count;
+            if (total > (Integer.MAX_VALUE - 8)) {
+                throw new JsonParseException((JsonParser) _parser,
+                        "Avro array too long ("+total+" elements) to read into a Java array");
+            }
+            return (int) total;
+        }
     }
 
     private final static class NonScalar extends ArrayReader
@@ -208,5 +472,10 @@ public abstract class ArrayReader extends AvroStructureReader
                 }
             }
         }
+
+        @Override
+        protected void _skipElement() throws IOException {
+            _elementReader.skipValue(_parser);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.fasterxml.jackson.dataformat.avro.deser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.dataformat.avro.AvroParser;
+
+/**
+ * Deserializer for {@link ByteBuffer} values that avoids copying Avro
+ * <code>bytes</code> and <code>fixed</code> values where possible: if
+ * {@link AvroParser#getBinaryValueAsBuffer()} returns a view that remains
+ * valid after parser advances (content read from a caller-provided
+ * <code>byte[]</code> or a memory-mapped file), that view is returned as is;
+ * otherwise content is copied into a new buffer.
+ *<p>
+ * NOTE: buffers returned without copying are read-only, which is why this
+ * deserializer is not registered by default; it may be registered for
+ * {@link ByteBuffer} type (or specific properties) explicitly.
+ *
+ * @since 3.0
+ */
+public class AvroByteBufferDeserializer extends StdDeserializer<ByteBuffer>
+{
+    private static final long serialVersionUID = 1L;
+
+    public AvroByteBufferDeserializer() {
+        super(ByteBuffer.class);
+    }
+
+    @Override
+    public ByteBuffer deserialize(JsonParser p, DeserializationContext ctxt) throws IOException
+    {
+        if ((p instanceof AvroParser) && (p.currentToken() == JsonToken.VALUE_EMBEDDED_OBJECT)) {
+            AvroParser ap = (AvroParser) p;
+            ByteBuffer view = ap.getBinaryValueAsBuffer();
+            if (ap.canRetainBinaryValueBuffer()) {
+                return view;
+            }
+            ByteBuffer copy = ByteBuffer.allocate(view.remaining());
+            copy.put(view);
+            copy.flip();
+            return copy;
+        }
+        return ByteBuffer.wrap(p.getBinaryValue());
+    }
+}
@@ -1,14 +1,66 @@
 package com.fasterxml.jackson.dataformat.avro.deser;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
+import org.apache.avro.Schema;
 import org.codehaus.jackson.JsonNode;
 
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.dataformat.avro.schema.AvroSchemaHelper;
+
 /**
  * Factory class for various default providers
  */
 public class AvroFieldDefaulters
 {
+    /**
+     * Maximum nesting of structured default values; deeper ones would
+     * only be possible with recursive types
+     */
+    private final static int MAX_NESTING = 100;
+
+    /**
+     * Factory method for constructing default provider for field with given schema;
+     * default value is converted to the type schema indicates (so that, for example,
+     * default of <code>long</code> field is exposed as <code>long</code>), and
+     * structured default values are precompiled into sequences of tokens to replay,
+     * so that no work is needed per record beyond exposing those.
+     *
+     * @since 3.0
+     */
+    public static AvroFieldReader createDefaulter(String name, Schema schema,
+            JsonNode defaultAsNode)
+    {
+        schema = _defaultType(schema);
+        switch (schema.getType()) {
+        case RECORD:
+        case MAP:
+        case ARRAY:
+            {
+                StructDefaults.Builder b = new StructDefaults.Builder();
+                if (_appendStructured(b, schema, defaultAsNode, 0)) {
+                    return b.build(name);
+                }
+            }
+            break;
+        default:
+            ScalarDefaults.DefaultsBase r = _createScalarDefaulter(name, schema, defaultAsNode);
+            if (r != null) {
+                return r;
+            }
+        }
+        // Default does not match schema; fall back to exposing it as is
+        return createDefaulter(name, defaultAsNode);
+    }
+
+    /**
+     * Factory method for constructing default provider for given default
+     * value, without schema to indicate its type: so value is exposed
+     * as closely matching JSON representation as possible.
+     */
     public static AvroFieldReader createDefaulter(String name,
             JsonNode defaultAsNode) {
         switch (defaultAsNode.asToken()) {
@@ -30,35 +82,238 @@ public class AvroFieldDefaulters
         case VALUE_NUMBER_INT:
             switch (defaultAsNode.getNumberType()) {
             case INT:
-                return new ScalarDefaults.FloatDefaults(name, defaultAsNode.asInt());
+                return new ScalarDefaults.IntDefaults(name, defaultAsNode.asInt());
             case BIG_INTEGER: // TODO: maybe support separately?
             case LONG:
             default:
-                return new ScalarDefaults.FloatDefaults(name, defaultAsNode.asLong());
+                return new ScalarDefaults.LongDefaults(name, defaultAsNode.asLong());
             }
         case VALUE_STRING:
             return new ScalarDefaults.StringDefaults(name, defaultAsNode.asText());
         case START_OBJECT:
+        case START_ARRAY:
             {
-                Iterator<Map.Entry<String,JsonNode>> it = defaultAsNode.getFields();
-                List<AvroFieldReader> readers = new ArrayList<AvroFieldReader>();
-                while (it.hasNext()) {
-                    Map.Entry<String,JsonNode> entry = it.next();
-                    String propName = entry.getKey();
-                    readers.add(createDefaulter(propName, entry.getValue()));
+                StructDefaults.Builder b = new StructDefaults.Builder();
+                _appendUntyped(b, defaultAsNode, 0);
+                return b.build(name);
+            }
+        default:
+        }
+        return null;
+    }
+
+    /**
+     * Accessor for default value of given field, if any, as exposed by
+     * Avro library.
+     *
+     * @return Default value of the field, if it has one; {@code null} if not
+     *
+     * @since 3.0
+     */
+    @SuppressWarnings("deprecation")
+    public static JsonNode fieldDefault(Schema.Field field) {
+        return field.defaultValue();
+    }
+
+    /*
+    /**********************************************************************
+    /* Internal methods, typed defaults
+    /**********************************************************************
+     */
+
+    /**
+     * Helper method for finding type of default value for given schema: for
+     * unions, as per Avro specification, it is the first type of the union.
+     */
+    private static Schema _defaultType(Schema schema) {
+        if (schema.getType() == Schema.Type.UNION) {
+            return schema.getTypes().get(0);
+        }
+        return schema;
+    }
+
+    /**
+     * @return True if default value matched the schema and was appended; false if not
+     *    (in which case builder state is not valid)
+     */
+    private static boolean _appendStructured(StructDefaults.Builder b, Schema schema,
+            JsonNode node, int nesting)
+    {
+        if (++nesting > MAX_NESTING) {
+            throw new IllegalArgumentException("Default value of type "+schema.getFullName()
+                +" nested too deep (over "+MAX_NESTING+" levels)");
+        }
+        switch (schema.getType()) {
+        case RECORD:
+            if (!node.isObject()) {
+                return false;
+            }
+            b.startObject(AvroSchemaHelper.getTypeId(schema));
+            for (Schema.Field field : schema.getFields()) {
+                JsonNode value = node.get(field.name());
+                if (value == null) { // not included; use default of the field itself, if any
+                    value = fieldDefault(field);
+                    if (value == null) {
+                        continue;
+                    }
+                }
+                b.fieldName(field.name());
+                if (!_appendValue(b, field.schema(), value, nesting)) {
+                    return false;
                 }
-                return StructDefaults.createObjectDefaults(name, readers);
             }
-        case START_ARRAY:
-        {
-            List<AvroFieldReader> readers = new ArrayList<AvroFieldReader>();
-            for (JsonNode value : defaultAsNode) {
-                readers.add(createDefaulter("", value));
+            b.end(JsonToken.END_OBJECT);
+            return true;
+        case MAP:
+            if (!node.isObject()) {
+                return false;
+            }
+            b.startObject(AvroSchemaHelper.getTypeId(schema));
+            for (Iterator<Map.Entry<String,JsonNode>> it = node.getFields(); it.hasNext(); ) {
+                Map.Entry<String,JsonNode> entry = it.next();
+                b.fieldName(entry.getKey());
+                if (!_appendValue(b, schema.getValueType(), entry.getValue(), nesting)) {
+                    return false;
+                }
             }
-            return StructDefaults.createArrayDefaults(name, readers);
+            b.end(JsonToken.END_OBJECT);
+            return true;
+        case ARRAY:
+            if (!node.isArray()) {
+                return false;
+            }
+            b.startArray(AvroSchemaHelper.getTypeId(schema));
+            for (JsonNode value : node) {
+                if (!_appendValue(b, schema.getElementType(), value, nesting)) {
+                    return false;
+                }
+            }
+            b.end(JsonToken.END_ARRAY);
+            return true;
+        default:
+            return false;
         }
+    }
+
+    private static boolean _appendValue(StructDefaults.Builder b, Schema schema,
+            JsonNode node, int nesting)
+    {
+        schema = _defaultType(schema);
+        switch (schema.getType()) {
+        case RECORD:
+        case MAP:
+        case ARRAY:
+            return _appendStructured(b, schema, node, nesting);
         default:
+            ScalarDefaults.DefaultsBase r = _createScalarDefaulter("", schema, node);
+            if (r == null) {
+                return false;
+            }
+            b.scalar(r);
+            return true;
+        }
+    }
+
+    /**
+     * @return Default provider for scalar value of given type, if default value
+     *    is valid for the type; null if not
+     */
+    private static ScalarDefaults.DefaultsBase _createScalarDefaulter(String name,
+            Schema schema, JsonNode node)
+    {
+        switch (schema.getType()) {
+        case NULL:
+            return node.isNull() ? new ScalarDefaults.NullDefaults(name) : null;
+        case BOOLEAN:
+            return node.isBoolean() ? new ScalarDefaults.BooleanDefaults(name, node.asBoolean()) : null;
+        case INT:
+            if (!node.isNumber()) {
+                return null;
+            }
+            _verifyIntegral(schema, node, Integer.MIN_VALUE, Integer.MAX_VALUE);
+            return new ScalarDefaults.IntDefaults(name, node.asInt());
+        case LONG:
+            if (!node.isNumber()) {
+                return null;
+            }
+            _verifyIntegral(schema, node, Long.MIN_VALUE, Long.MAX_VALUE);
+            return new ScalarDefaults.LongDefaults(name, node.asLong());
+        case FLOAT:
+            return node.isNumber() ? new ScalarDefaults.FloatDefaults(name, (float) node.asDouble()) : null;
+        case DOUBLE:
+            return node.isNumber() ? new ScalarDefaults.DoubleDefaults(name, node.asDouble()) : null;
+        case STRING:
+        case ENUM:
+            return node.isTextual() ? new ScalarDefaults.StringDefaults(name, node.asText()) : null;
+        case BYTES:
+        case FIXED:
+            if (!node.isTextual()) {
+                return null;
+            }
+            // as per Avro specification, code points 0-255 of String are the bytes
+            byte[] b = node.asText().getBytes(StandardCharsets.ISO_8859_1);
+            if (AvroSchemaHelper.isDecimal(schema)) {
+                BigDecimal dec = (b.length == 0) ? BigDecimal.ZERO.setScale(AvroSchemaHelper.getDecimalScale(schema))
+                        : new BigDecimal(new BigInteger(b), AvroSchemaHelper.getDecimalScale(schema));
+                return new ScalarDefaults.DecimalDefaults(name, b, dec,
+                        AvroReaderFactory._decimalTypeId(schema));
+            }
+            return new ScalarDefaults.BytesDefaults(name, b);
+        default:
+            return null;
+        }
+    }
+
+    /**
+     * Helper method for verifying that numeric default value for an integral
+     * type is an integer within range of that type: conversion would otherwise
+     * silently truncate it.
+     */
+    private static void _verifyIntegral(Schema schema, JsonNode node, long min, long max)
+    {
+        if (node.isIntegralNumber()) {
+            BigInteger value = node.getBigIntegerValue();
+            if ((value.compareTo(BigInteger.valueOf(min)) >= 0)
+                    && (value.compareTo(BigInteger.valueOf(max)) <= 0)) {
+                return;
+            }
+        }
+        throw new IllegalArgumentException(String.format(
+                "Invalid default value for type '%s': %s (not an integer within range of the type)",
+                schema.getType().getName(), node));
+    }
+
+    /*
+    /**********************************************************************
+    /* Internal methods, untyped defaults
+    /**********************************************************************
+     */
+
+    private static void _appendUntyped(StructDefaults.Builder b, JsonNode node, int nesting)
+    {
+        if (++nesting > MAX_NESTING) {
+            throw new IllegalArgumentException("Default value nested too deep (over "+MAX_NESTING+" levels)");
+        }
+        if (node.isObject()) {
+            b.startObject(null);
+            for (Iterator<Map.Entry<String,JsonNode>> it = node.getFields(); it.hasNext(); ) {
+                Map.Entry<String,JsonNode> entry = it.next();
+                b.fieldName(entry.getKey());
+                _appendUntyped(b, entry.getValue(), nesting);
+            }
+            b.end(JsonToken.END_OBJECT);
+        } else if (node.isArray()) {
+            b.startArray(null);
+            for (JsonNode value : node) {
+                _appendUntyped(b, value, nesting);
+            }
+            b.end(JsonToken.END_ARRAY);
+        } else {
+            AvroFieldReader r = createDefaulter("", node);
+            if (r == null) {
+                throw new IllegalArgumentException("Unsupported default value: "+node);
+            }
+            b.scalar((ScalarDefaults.DefaultsBase) r);
         }
-        return null;
     }
 }
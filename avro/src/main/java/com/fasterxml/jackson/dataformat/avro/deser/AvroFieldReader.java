@@ -2,6 +2,7 @@ package com.fasterxml.jackson.dataformat.avro.deser;
 
 import java.io.IOException;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.util.InternCache;
 
@@ -34,6 +35,16 @@ public abstract class AvroFieldReader
         return new Structured(name, true, structureReader);
     }
 
+    /**
+     * Factory method for constructing skipper for values of constant encoded size,
+     * which need not be decoded at all when skipping.
+     *
+     * @since 3.0
+     */
+    public static AvroFieldReader constructFixedSizeSkipper(String name, int size) {
+        return new FixedSizeSkipper(name, size);
+    }
+
     public final String getName() { return _name; }
     public final boolean isSkipper() { return _isSkipper; }
 
@@ -45,6 +56,17 @@ public abstract class AvroFieldReader
         return _typeId;
     }
 
+    /**
+     * Accessor for type of numbers this reader reads, if values are of one of
+     * Avro primitive numeric types (<code>int</code>, <code>long</code>, <code>float</code>,
+     * <code>double</code>), exposed as-is; <code>null</code> for others.
+     *
+     * @since 3.0
+     */
+    public JsonParser.NumberType getNumberType() {
+        return null;
+    }
+
     /**
      * Implementation used for non-scalar-valued (structured) fields
      */
@@ -72,4 +94,28 @@ public abstract class AvroFieldReader
             return _reader.getTypeId();
         }
     }
+
+    /**
+     * Implementation used for skipping values of constant encoded size
+     *
+     * @since 3.0
+     */
+    private final static class FixedSizeSkipper extends AvroFieldReader {
+        protected final int _size;
+
+        public FixedSizeSkipper(String name, int size) {
+            super(name, true, null);
+            _size = size;
+        }
+
+        @Override
+        public JsonToken readValue(AvroReadContext parent, AvroParserImpl parser) throws IOException {
+            throw new IllegalStateException("Can not read value of skipped field '"+_name+"'");
+        }
+
+        @Override
+        public void skipValue(AvroParserImpl parser) throws IOException {
+            parser.skipFixed(_size);
+        }
+    }
 }
@@ -3,12 +3,14 @@ package com.fasterxml.jackson.dataformat.avro.deser;
 import java.io.*;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.Arrays;
 
 import com.fasterxml.jackson.core.*;
 import com.fasterxml.jackson.core.io.IOContext;
 import com.fasterxml.jackson.core.sym.FieldNameMatcher;
 import com.fasterxml.jackson.dataformat.avro.AvroParser;
 import com.fasterxml.jackson.dataformat.avro.AvroSchema;
+import com.fasterxml.jackson.dataformat.avro.AvroSingleObjectSchema;
 
 /**
  * Implementation base class that exposes additional internal API
@@ -33,6 +35,22 @@ public abstract class AvroParserImpl
      */
     protected int _enumIndex;
 
+    /**
+     * Name of the logical type of the current scalar value, if any. This is cleared when the next token is read.
+     *
+     * @since 3.0
+     */
+    protected String _logicalType;
+
+    /**
+     * Type id of the current value, if it is a <code>decimal</code> exposed as
+     * a number (see {@link AvroParser.Feature#AVRO_DECIMALS_AS_NUMBERS}). This is
+     * cleared when the next token is read.
+     *
+     * @since 3.0
+     */
+    protected String _decimalTypeId;
+
     /**
      * Value if decoded directly as `float`.
      *<p>
@@ -41,6 +59,15 @@ public abstract class AvroParserImpl
      */
     protected float _numberFloat;
 
+    /**
+     * Size of contents (in bytes) of the Array or Map block header of which was
+     * decoded last, if known (that is, if block was written with negative item
+     * count followed by byte size); -1 if not known.
+     *
+     * @since 3.0
+     */
+    protected long _blockByteSize = -1L;
+
     /*
     /**********************************************************
     /* Life-cycle
@@ -72,11 +99,7 @@ public abstract class AvroParserImpl
     public JsonToken nextToken() throws IOException
     {
         // note: closed-ness check by context, not needed here
-        _numTypesValid = NR_UNKNOWN;
-        _tokenInputTotal = _currInputProcessed + _inputPtr;
-        _branchIndex = -1;
-        _enumIndex = -1;
-        _binaryValue = null;
+        _resetTokenState();
         JsonToken t = _avroContext.nextToken();
         _currToken = t;
         return t;
@@ -91,8 +114,39 @@ public abstract class AvroParserImpl
      * @throws IOException If there was an issue advancing through the underlying data stream
      */
     public final void skipValue() throws IOException {
+        _clearBinaryValue();
         _avroContext.skipValue(this);
     }
+
+    /**
+     * Overridden to allow skipping of contents of Records, Arrays and Maps
+     * without decoding them as tokens, using byte sizes of blocks when
+     * available.
+     */
+    @Override
+    public JsonParser skipChildren() throws IOException
+    {
+        final JsonToken t = _currToken;
+        if ((t == JsonToken.START_OBJECT) || (t == JsonToken.START_ARRAY)) {
+            if ((_avroContext instanceof AvroStructureReader)
+                    && ((AvroStructureReader) _avroContext).skipRemaining()) {
+                _currToken = (t == JsonToken.START_OBJECT) ? JsonToken.END_OBJECT : JsonToken.END_ARRAY;
+                return this;
+            }
+        }
+        return super.skipChildren();
+    }
+
+    /**
+     * Method called before advancing to the next token, to clear binary value
+     * of the current token; for parsers that decode binary values lazily, also
+     * to skip any content of the value not yet read.
+     *
+     * @since 3.0
+     */
+    protected void _clearBinaryValue() throws IOException {
+        _binaryValue = null;
+    }
     
     /*
     /**********************************************************
@@ -106,7 +160,7 @@ public abstract class AvroParserImpl
         // note: closed-ness check by context, not needed here
         _numTypesValid = NR_UNKNOWN;
         _tokenInputTotal = _currInputProcessed + _inputPtr;
-        _binaryValue = null;
+        _clearBinaryValue();
         String name = _avroContext.nextFieldName();
         if (name == null) {
             _currToken = _avroContext.currentToken();
@@ -122,7 +176,7 @@ public abstract class AvroParserImpl
         // note: closed-ness check by context, not needed here
         _numTypesValid = NR_UNKNOWN;
         _tokenInputTotal = _currInputProcessed + _inputPtr;
-        _binaryValue = null;
+        _clearBinaryValue();
         String name = _avroContext.nextFieldName();
         if (name == null) {
             _currToken = _avroContext.currentToken();
@@ -142,7 +196,7 @@ public abstract class AvroParserImpl
         // note: closed-ness check by context, not needed here
         _numTypesValid = NR_UNKNOWN;
         _tokenInputTotal = _currInputProcessed + _inputPtr;
-        _binaryValue = null;
+        _clearBinaryValue();
 
         int match = _avroContext.nextFieldName(matcher);
         // 20-Dec-2017, tatu: not sure check would be any faster
@@ -166,9 +220,134 @@ public abstract class AvroParserImpl
     @Override
     public abstract String nextTextValue() throws IOException;
 
+    /**
+     * Overridden to decode values of Record fields and Array elements that schema
+     * declares to be of Avro type <code>int</code> directly, without regular token
+     * dispatch; other values are handled as with {@link #nextToken()}.
+     */
+    @Override
+    public int nextIntValue(int defaultValue) throws IOException
+    {
+        if (_nextNumber(NumberType.INT) == JsonToken.VALUE_NUMBER_INT) {
+            return getIntValue();
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Overridden to decode values of Record fields and Array elements that schema
+     * declares to be of Avro type <code>long</code> directly, without regular token
+     * dispatch; other values are handled as with {@link #nextToken()}.
+     */
+    @Override
+    public long nextLongValue(long defaultValue) throws IOException
+    {
+        if (_nextNumber(NumberType.LONG) == JsonToken.VALUE_NUMBER_INT) {
+            return getLongValue();
+        }
+        return defaultValue;
+    }
+
+    @Override
+    public double nextDoubleValue(double defaultValue) throws IOException
+    {
+        if (_nextNumber(NumberType.DOUBLE) == JsonToken.VALUE_NUMBER_FLOAT) {
+            return getDoubleValue();
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Helper method for advancing to the next token, when caller expects it to
+     * be a number of given type: if schema indicates so, value is decoded directly
+     * by the current context; otherwise this is same as {@link #nextToken()}.
+     *
+     * @since 3.0
+     */
+    protected JsonToken _nextNumber(NumberType type) throws IOException
+    {
+        // Root-level values are left to `nextToken()`, which may need to check
+        // for end (or, for non-blocking parsers, availability) of input
+        if (_avroContext.getParent() != null) {
+            _resetTokenState();
+            JsonToken t = _avroContext.nextNumber(type);
+            if (t != null) {
+                _currToken = t;
+                return t;
+            }
+        }
+        return nextToken();
+    }
+
+    /**
+     * Helper method for clearing state related to the current token, before
+     * advancing to the next one.
+     */
+    private final void _resetTokenState()
+    {
+        _numTypesValid = NR_UNKNOWN;
+        _tokenInputTotal = _currInputProcessed + _inputPtr;
+        _branchIndex = -1;
+        _enumIndex = -1;
+        _logicalType = null;
+        _decimalTypeId = null;
+        _clearBinaryValue();
+    }
+
     @Override
     public final void _initSchema(AvroSchema schema) throws JsonProcessingException {
-        _avroContext = new RootReader(this, schema.getReader());
+        if (schema instanceof AvroSingleObjectSchema) {
+            _avroContext = new SingleObjectRootReader(this, (AvroSingleObjectSchema) schema);
+        } else if (isEnabled(AvroParser.Feature.AVRO_COMPILED_READERS)) {
+            _avroContext = new RootReader(this, schema.getCompiledReader());
+        } else {
+            _avroContext = new RootReader(this, schema.getReader());
+        }
+    }
+
+    /*
+    /**********************************************************
+    /* Bulk reading of primitive arrays
+    /**********************************************************
+     */
+
+    @Override
+    public int[] readIntArray() throws IOException {
+        if (_currToken == JsonToken.START_ARRAY && (_avroContext instanceof ArrayReader)) {
+            return _bulkRead(((ArrayReader) _avroContext).readIntArray());
+        }
+        return null;
+    }
+
+    @Override
+    public long[] readLongArray() throws IOException {
+        if (_currToken == JsonToken.START_ARRAY && (_avroContext instanceof ArrayReader)) {
+            return _bulkRead(((ArrayReader) _avroContext).readLongArray());
+        }
+        return null;
+    }
+
+    @Override
+    public float[] readFloatArray() throws IOException {
+        if (_currToken == JsonToken.START_ARRAY && (_avroContext instanceof ArrayReader)) {
+            return _bulkRead(((ArrayReader) _avroContext).readFloatArray());
+        }
+        return null;
+    }
+
+    @Override
+    public double[] readDoubleArray() throws IOException {
+        if (_currToken == JsonToken.START_ARRAY && (_avroContext instanceof ArrayReader)) {
+            return _bulkRead(((ArrayReader) _avroContext).readDoubleArray());
+        }
+        return null;
+    }
+
+    private final <T> T _bulkRead(T result) {
+        if (result != null) {
+            _currToken = JsonToken.END_ARRAY;
+        }
+        return result;
     }
 
     /*
@@ -538,6 +717,48 @@ public abstract class AvroParserImpl
 
     public abstract void skipFixed(int size) throws IOException;
 
+    /**
+     * Method for decoding value of logical type <code>decimal</code>, stored
+     * as two's-complement big-endian unscaled value in <code>bytes</code>
+     * (if <code>fixedSize</code> is negative) or <code>fixed</code>.
+     * Default implementation decodes value as binary first; sub-classes
+     * may decode it directly from input buffer.
+     *
+     * @since 3.0
+     */
+    public JsonToken decodeDecimal(int fixedSize, int scale) throws IOException
+    {
+        if (fixedSize < 0) {
+            decodeBytes();
+        } else {
+            decodeFixed(fixedSize);
+        }
+        _finishBinaryValue();
+        final byte[] b = _binaryValue;
+        _binaryValue = null;
+        return _decimalToken(b, 0, b.length, scale);
+    }
+
+    /**
+     * @since 3.0
+     */
+    protected final JsonToken _decimalToken(byte[] buf, int offset, int len, int scale)
+    {
+        // Most unscaled values fit in a long, and need no BigInteger
+        if (len <= 8) {
+            long l = (len == 0) ? 0L : buf[offset]; // sign-extended
+            for (int i = 1; i < len; ++i) {
+                l = (l << 8) | (buf[offset+i] & 0xFF);
+            }
+            return setNumber(BigDecimal.valueOf(l, scale));
+        }
+        byte[] b = buf;
+        if ((offset != 0) || (len != buf.length)) {
+            b = Arrays.copyOfRange(buf, offset, offset+len);
+        }
+        return setNumber(new BigDecimal(new BigInteger(b), scale));
+    }
+
     /*
     /**********************************************************
     /* Methods for AvroReadContext implementations: decoding Arrays
@@ -554,6 +775,30 @@ public abstract class AvroParserImpl
      */
     public abstract long skipArray() throws IOException;
 
+    /**
+     * Method for skipping contents of the Array or Map block header of which was
+     * decoded last (by {@link #decodeArrayStart}, {@link #decodeMapStart} or
+     * matching "next" method), if its byte size is known.
+     *
+     * @return True if contents of the block were skipped; false if size of the block
+     *    is not known (in which case nothing is skipped)
+     *
+     * @since 3.0
+     */
+    public boolean skipBlockContents() throws IOException
+    {
+        long size = _blockByteSize;
+        if (size < 0L) {
+            return false;
+        }
+        _blockByteSize = -1L;
+        for (; size > Integer.MAX_VALUE; size -= Integer.MAX_VALUE) {
+            skipFixed(Integer.MAX_VALUE);
+        }
+        skipFixed((int) size);
+        return true;
+    }
+
     /*
     /**********************************************************
     /* Methods for AvroReadContext implementations: decoding Maps
@@ -581,6 +826,32 @@ public abstract class AvroParserImpl
     public abstract int decodeIndex() throws IOException;
     public abstract int decodeEnum() throws IOException;
 
+    /**
+     * Method for decoding single-object encoding header (marker and fingerprint)
+     * that precedes a root value.
+     *
+     * @return Fingerprint of the writer schema
+     *
+     * @since 3.0
+     */
+    public long decodeSingleObjectHeader() throws IOException
+    {
+        decodeFixed(AvroSingleObjectSchema.HEADER_LENGTH);
+        _finishBinaryValue();
+        final byte[] b = _binaryValue;
+        _binaryValue = null;
+        if ((b[0] != AvroSingleObjectSchema.MARKER_BYTE_1)
+                || (b[1] != AvroSingleObjectSchema.MARKER_BYTE_2)) {
+            _reportError(String.format("Invalid single-object encoding marker 0x%02X 0x%02X (expected 0xC3 0x01)",
+                    b[0] & 0xFF, b[1] & 0xFF));
+        }
+        long fp = 0L;
+        for (int i = AvroSingleObjectSchema.HEADER_LENGTH; --i >= 2; ) { // little-endian
+            fp = (fp << 8) | (b[i] & 0xFF);
+        }
+        return fp;
+    }
+
     /*
     /**********************************************************
     /* Methods for AvroReadContext impls, other
@@ -595,6 +866,19 @@ public abstract class AvroParserImpl
         return _enumIndex;
     }
 
+    @Override
+    public final String currentLogicalType() {
+        return _logicalType;
+    }
+
+    @Override
+    public Object getTypeId() throws IOException {
+        if (_decimalTypeId != null) {
+            return _decimalTypeId;
+        }
+        return super.getTypeId();
+    }
+
     public final boolean isRecord() {
         return _avroContext instanceof RecordReader;
     }
@@ -639,5 +923,11 @@ public abstract class AvroParserImpl
         return JsonToken.VALUE_NUMBER_FLOAT;
     }
 
+    protected final JsonToken setNumber(BigDecimal v) {
+        _numberBigDecimal = v;
+        _numTypesValid = NR_BIGDECIMAL;
+        return JsonToken.VALUE_NUMBER_FLOAT;
+    }
+
     protected abstract JsonToken setString(String str);
 }
@@ -0,0 +1,80 @@
+package com.fasterxml.jackson.dataformat.avro.deser;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.deser.std.DelegatingDeserializer;
+import com.fasterxml.jackson.databind.deser.std.PrimitiveArrayDeserializers;
+import com.fasterxml.jackson.dataformat.avro.AvroParser;
+
+/**
+ * Deserializer for <code>int[]</code>, <code>long[]</code>, <code>float[]</code>
+ * and <code>double[]</code> that reads an Avro array as a whole, using bulk
+ * decoding methods like {@link AvroParser#readIntArray}, instead of decoding
+ * a token per element. Bulk reads are only possible if the element type of
+ * the Avro array matches the Java array exactly; if not (bulk method returning
+ * <code>null</code>), the wrapped standard deserializer reads the elements
+ * one by one, coercing as needed.
+ *<p>
+ * Merging into an existing array (with <code>@JsonMerge</code> or
+ * <code>ObjectMapper.readerForUpdating()</code>) does not use bulk reads:
+ * standard deserializer reads the elements and appends them to the existing
+ * array.
+ *
+ * @since 3.0
+ */
+public class AvroPrimitiveArrayDeserializer
+    extends DelegatingDeserializer
+{
+    private static final long serialVersionUID = 1L;
+
+    protected AvroPrimitiveArrayDeserializer(JsonDeserializer<?> std) {
+        super(std);
+    }
+
+    /**
+     * @param arrayType One of <code>int[].class</code>, <code>long[].class</code>,
+     *   <code>float[].class</code> or <code>double[].class</code>
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> JsonDeserializer<T> construct(Class<T> arrayType) {
+        JsonDeserializer<?> deser = new AvroPrimitiveArrayDeserializer(
+                PrimitiveArrayDeserializers.forType(arrayType.getComponentType()));
+        return (JsonDeserializer<T>) deser;
+    }
+
+    @Override
+    protected JsonDeserializer<?> newDelegatingInstance(JsonDeserializer<?> newDelegatee) {
+        return new AvroPrimitiveArrayDeserializer(newDelegatee);
+    }
+
+    @Override
+    public Object deserialize(JsonParser p, DeserializationContext ctxt) throws IOException
+    {
+        if ((p instanceof AvroParser) && (p.currentToken() == JsonToken.START_ARRAY)) {
+            Object result = _readBulk((AvroParser) p);
+            if (result != null) {
+                return result;
+            }
+        }
+        return _delegatee.deserialize(p, ctxt);
+    }
+
+    protected Object _readBulk(AvroParser p) throws IOException
+    {
+        final Class<?> type = handledType();
+        if (type == int[].class) {
+            return p.readIntArray();
+        }
+        if (type == long[].class) {
+            return p.readLongArray();
+        }
+        if (type == float[].class) {
+            return p.readFloatArray();
+        }
+        return p.readDoubleArray();
+    }
+}
@@ -2,6 +2,7 @@ package com.fasterxml.jackson.dataformat.avro.deser;
 
 import java.io.IOException;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.TokenStreamContext;
 import com.fasterxml.jackson.core.sym.FieldNameMatcher;
 import com.fasterxml.jackson.core.JsonToken;
@@ -11,6 +12,7 @@ import com.fasterxml.jackson.core.JsonToken;
  * Object and array records.
  */
 public abstract class AvroReadContext extends TokenStreamContext
+    implements Cloneable
 {
     protected final AvroReadContext _parent;
 
@@ -48,10 +50,42 @@ public abstract class AvroReadContext extends TokenStreamContext
 
     public abstract void skipValue(AvroParserImpl parser) throws IOException;
 
+    /**
+     * Method that may be called instead of {@link #nextToken()} when caller expects
+     * the next token to be a number of given type: if schema indicates that it is
+     * a value of matching Avro type (and not, say, a field name, end marker, or
+     * value of some other type), value is decoded directly and its token returned.
+     * Otherwise nothing is done and <code>null</code> returned, in which case caller
+     * needs to call {@link #nextToken()}.
+     *
+     * @since 3.0
+     */
+    public JsonToken nextNumber(JsonParser.NumberType type) throws IOException {
+        return null;
+    }
+
     public long getRemainingElements() {
         return -1L;
     }
 
+    /**
+     * Method for creating a copy of this context in its current state. Used by
+     * non-blocking parser to be able to continue from the state before the latest
+     * token, if the token could not be decoded due to not enough content having
+     * been fed: since decoding a token only changes state of the current context
+     * (and of child contexts it creates), that state can be restored simply by
+     * replacing the current context with the copy.
+     *
+     * @since 3.0
+     */
+    public AvroReadContext snapshot() {
+        try {
+            return (AvroReadContext) clone();
+        } catch (CloneNotSupportedException e) { // can not occur
+            throw new IllegalStateException(e);
+        }
+    }
+
     @Override
     public Object getCurrentValue() {
         return _currentValue;
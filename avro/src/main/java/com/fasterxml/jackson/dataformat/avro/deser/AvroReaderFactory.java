@@ -1,9 +1,9 @@
 package com.fasterxml.jackson.dataformat.avro.deser;
 
+import java.math.BigDecimal;
 import java.util.*;
 
 import org.apache.avro.Schema;
-import org.apache.avro.util.internal.JacksonUtils;
 
 import com.fasterxml.jackson.dataformat.avro.deser.ScalarDecoder.*;
 import com.fasterxml.jackson.dataformat.avro.schema.AvroSchemaHelper;
@@ -45,6 +45,24 @@ public abstract class AvroReaderFactory
         return new Resolving().createReader(writerSchema, readerSchema);
     }
 
+    /**
+     * Method for creating a reader that only exposes specified fields of records:
+     * other fields are skipped without exposing any tokens.
+     *
+     * @param fieldPaths Paths of fields to expose: either names of fields of the
+     *   root-level record, or dot-separated names of fields of nested records
+     *   (like <code>"address.city"</code>). Arrays, Maps and Unions are transparent
+     *   so that paths refer to fields of their element (value, branch) records.
+     *   Including a field includes all of its contents; paths that match no
+     *   fields are ignored.
+     *
+     * @since 3.0
+     */
+    public static AvroStructureReader createProjectedFor(Schema schema,
+            Collection<String> fieldPaths) {
+        return new Projecting().createReader(schema, Projecting.parsePaths(fieldPaths));
+    }
+
     /*
     /**********************************************************************
     /* Public API: factory methods
@@ -57,29 +75,38 @@ public abstract class AvroReaderFactory
         case BOOLEAN:
             return READER_BOOLEAN;
         case BYTES: 
+            if (AvroSchemaHelper.isDecimal(type)) {
+                return new DecimalDecoder(READER_BYTES, -1,
+                        AvroSchemaHelper.getDecimalScale(type), _decimalTypeId(type));
+            }
             return READER_BYTES;
         case DOUBLE: 
             return READER_DOUBLE;
         case ENUM: 
             return new EnumDecoder(AvroSchemaHelper.getFullName(type), type.getEnumSymbols());
         case FIXED: 
+            if (AvroSchemaHelper.isDecimal(type)) {
+                return new DecimalDecoder(
+                        new FixedDecoder(type.getFixedSize(), AvroSchemaHelper.getFullName(type)),
+                        type.getFixedSize(), AvroSchemaHelper.getDecimalScale(type), _decimalTypeId(type));
+            }
             return new FixedDecoder(type.getFixedSize(), AvroSchemaHelper.getFullName(type));
         case FLOAT: 
             return READER_FLOAT;
         case INT:
             if (AvroSchemaHelper.getTypeId(type) != null) {
-                return new IntReader(AvroSchemaHelper.getTypeId(type));
+                return _withLogicalType(type, new IntReader(AvroSchemaHelper.getTypeId(type)));
             }
-            return READER_INT;
+            return _withLogicalType(type, READER_INT);
         case LONG: 
-            return READER_LONG;
+            return _withLogicalType(type, READER_LONG);
         case NULL: 
             return READER_NULL;
         case STRING:
             if (AvroSchemaHelper.getTypeId(type) != null) {
-                return new StringReader(AvroSchemaHelper.getTypeId(type));
+                return _withLogicalType(type, new StringReader(AvroSchemaHelper.getTypeId(type)));
             }
-            return READER_STRING;
+            return _withLogicalType(type, READER_STRING);
         case UNION:
             /* Union is a "scalar union" if all the alternative types
              * are scalar. One common type is that of "nullable" one,
@@ -107,6 +134,30 @@ public abstract class AvroReaderFactory
         throw new IllegalStateException("Unrecognized Avro Schema type: "+type.getType());
     }
 
+    /**
+     * Helper method for wrapping given decoder so that logical type of given
+     * schema, if any, is exposed for decoded values.
+     *
+     * @since 3.0
+     */
+    protected static ScalarDecoder _withLogicalType(Schema type, ScalarDecoder decoder)
+    {
+        String logicalType = AvroSchemaHelper.getLogicalType(type);
+        return (logicalType == null) ? decoder : new LogicalTypeDecoder(decoder, logicalType);
+    }
+
+    /**
+     * Helper method for determining type id to expose for <code>decimal</code>
+     * values read as numbers.
+     *
+     * @since 3.0
+     */
+    protected static String _decimalTypeId(Schema type)
+    {
+        String typeId = type.getProp(AvroSchemaHelper.AVRO_SCHEMA_PROP_CLASS);
+        return (typeId == null) ? AvroSchemaHelper.getTypeId(BigDecimal.class) : typeId;
+    }
+
     /*
     /**********************************************************************
     /* Factory methods for non-resolving cases, shared by sub-classes
@@ -144,10 +195,7 @@ public abstract class AvroReaderFactory
         Schema elementType = schema.getElementType();
         ScalarDecoder scalar = createScalarValueDecoder(elementType);
         String typeId = AvroSchemaHelper.getTypeId(schema);
-        String elementTypeId = schema.getProp(AvroSchemaHelper.AVRO_SCHEMA_PROP_ELEMENT_CLASS);
-        if (elementTypeId == null) {
-            elementTypeId = AvroSchemaHelper.getTypeId(elementType);
-        }
+        String elementTypeId = _elementTypeId(schema);
 
         if (scalar != null) {
             // EnumSet has to know element type information up front; take advantage of the fact that the id resolver handles canonical IDs
@@ -163,12 +211,8 @@ public abstract class AvroReaderFactory
     {
         Schema elementType = schema.getValueType();
         ScalarDecoder dec = createScalarValueDecoder(elementType);
-        String typeId = AvroSchemaHelper.getTypeId(schema);
         String keyTypeId = schema.getProp(AvroSchemaHelper.AVRO_SCHEMA_PROP_KEY_CLASS);
-        // EnumMap requires value type information up front; take advantage of the fact that the id resolver handles canonical IDs
-        if (EnumMap.class.getName().equals(typeId)) {
-            typeId += "<" + keyTypeId + "," + Object.class.getName() + ">";
-        }
+        String typeId = _mapTypeId(schema, keyTypeId);
         if (dec != null) {
             String valueTypeId = AvroSchemaHelper.getTypeId(elementType);
             return MapReader.construct(dec, typeId, keyTypeId, valueTypeId);
@@ -200,6 +244,22 @@ public abstract class AvroReaderFactory
         return new UnionReader(typeReaders);
     }
 
+    protected AvroFieldReader createFieldSkipper(String name,
+            Schema writerSchema)
+    {
+        ScalarDecoder scalar = createScalarValueDecoder(writerSchema);
+        if (scalar != null) {
+            return scalar.asFieldReader(name, true);
+        }
+        // Records with constant-size contents may be skipped without decoding
+        int size = constantEncodedSize(writerSchema);
+        if (size >= 0) {
+            return AvroFieldReader.constructFixedSizeSkipper(name, size);
+        }
+        return AvroFieldReader.constructSkipper(name,
+                createReader(writerSchema));
+    }
+
     protected AvroFieldReader createFieldReader(Schema.Field field) {
         final String name = field.name();
         final Schema type = field.schema();
@@ -211,6 +271,73 @@ public abstract class AvroReaderFactory
         return AvroFieldReader.construct(name, createReader(type));
     }
 
+    protected static String _elementTypeId(Schema arraySchema)
+    {
+        String elementTypeId = arraySchema.getProp(AvroSchemaHelper.AVRO_SCHEMA_PROP_ELEMENT_CLASS);
+        if (elementTypeId == null) {
+            elementTypeId = AvroSchemaHelper.getTypeId(arraySchema.getElementType());
+        }
+        return elementTypeId;
+    }
+
+    protected static String _mapTypeId(Schema mapSchema, String keyTypeId)
+    {
+        String typeId = AvroSchemaHelper.getTypeId(mapSchema);
+        // EnumMap requires value type information up front; take advantage of the fact that the id resolver handles canonical IDs
+        if (EnumMap.class.getName().equals(typeId)) {
+            typeId += "<" + keyTypeId + "," + Object.class.getName() + ">";
+        }
+        return typeId;
+    }
+
+    /**
+     * Helper method for finding out size of encoded values of given type, if
+     * it is constant: that is the case for nulls, booleans, floating-point
+     * numbers, fixed-size binary values, as well as records that only
+     * contain such values.
+     *
+     * @return Size of encoded values in bytes, if constant; -1 if not
+     *
+     * @since 3.0
+     */
+    protected static int constantEncodedSize(Schema schema) {
+        return _constantEncodedSize(schema, 0);
+    }
+
+    private static int _constantEncodedSize(Schema schema, int depth)
+    {
+        switch (schema.getType()) {
+        case NULL:
+            return 0;
+        case BOOLEAN:
+            return 1;
+        case FLOAT:
+            return 4;
+        case DOUBLE:
+            return 8;
+        case FIXED:
+            return schema.getFixedSize();
+        case RECORD:
+            // can only be (invalidly) recursive without unions etc, but guard anyway
+            if (depth < 100) {
+                long total = 0L;
+                for (Schema.Field field : schema.getFields()) {
+                    int size = _constantEncodedSize(field.schema(), depth+1);
+                    if (size < 0) {
+                        return -1;
+                    }
+                    total += size;
+                }
+                if (total <= Integer.MAX_VALUE) {
+                    return (int) total;
+                }
+            }
+            return -1;
+        default:
+            return -1;
+        }
+    }
+
     /*
     /**********************************************************************
     /* Implementations
@@ -289,7 +416,7 @@ public abstract class AvroReaderFactory
                 String valueTypeId = readerSchema.getValueType().getProp(AvroSchemaHelper.AVRO_SCHEMA_PROP_CLASS);
                 return MapReader.construct(dec, typeId, keyTypeId, valueTypeId);
             }
-            return MapReader.construct(createReader(writerElementType, readerSchema.getElementType()), typeId, keyTypeId);
+            return MapReader.construct(createReader(writerElementType, readerSchema.getValueType()), typeId, keyTypeId);
         }
 
         protected AvroStructureReader createRecordReader(Schema writerSchema, Schema readerSchema)
@@ -344,7 +471,8 @@ public abstract class AvroReaderFactory
             if (!defaultFields.isEmpty()) {
                 for (Schema.Field defaultField : defaultFields) {
                     AvroFieldReader fr =
-                        AvroFieldDefaulters.createDefaulter(defaultField.name(), JacksonUtils.toJsonNode(defaultField.defaultVal()));
+                        AvroFieldDefaulters.createDefaulter(defaultField.name(), defaultField.schema(),
+                                AvroFieldDefaulters.fieldDefault(defaultField));
                     if (fr == null) {
                         throw new IllegalArgumentException("Unsupported default type: "+defaultField.schema().getType());
                     }
@@ -379,17 +507,6 @@ public abstract class AvroReaderFactory
                     createReader(writerSchema, readerSchema));
         }
 
-        protected AvroFieldReader createFieldSkipper(String name,
-                Schema writerSchema)
-        {
-            ScalarDecoder scalar = createScalarValueDecoder(writerSchema);
-            if (scalar != null) {
-                return scalar.asFieldReader(name, true);
-            }
-            return AvroFieldReader.constructSkipper(name,
-                    createReader(writerSchema));
-        }
-
         /**
          * Helper method that verifies that the given reader schema is compatible
          * with specified writer schema type: either directly (same type), or
@@ -430,4 +547,123 @@ public abstract class AvroReaderFactory
                     expectedType, writerSchema.getName(), actualType));
         }
     }
+
+    /**
+     * Implementation used for reading only some of the fields of records, as
+     * specified by projection; other fields are skipped.
+     *
+     * @since 3.0
+     */
+    private static class Projecting extends AvroReaderFactory
+    {
+        protected Projecting() { }
+
+        /**
+         * Method for converting paths of fields to include into a tree where
+         * each level has names of fields to include, mapped to projection of
+         * their contents (`null` meaning that all contents are included)
+         */
+        public static Map<String,Object> parsePaths(Collection<String> fieldPaths)
+        {
+            Map<String,Object> root = new HashMap<String,Object>();
+            for (String path : fieldPaths) {
+                Map<String,Object> curr = root;
+                String[] names = path.split("\\.");
+                for (int i = 0, last = names.length-1; i <= last; ++i) {
+                    String name = names[i];
+                    if (i == last) { // all contents
+                        curr.put(name, null);
+                        break;
+                    }
+                    if (curr.containsKey(name)) {
+                        Object sub = curr.get(name);
+                        if (sub == null) { // all contents already included
+                            break;
+                        }
+                        curr = _asProjection(sub);
+                    } else {
+                        Map<String,Object> sub = new HashMap<String,Object>();
+                        curr.put(name, sub);
+                        curr = sub;
+                    }
+                }
+            }
+            return root;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Map<String,Object> _asProjection(Object ob) {
+            return (Map<String,Object>) ob;
+        }
+
+        /**
+         * Method for creating a reader instance for specified type, exposing
+         * only fields included in given projection (all if `null`)
+         */
+        public AvroStructureReader createReader(Schema schema, Map<String,Object> projection)
+        {
+            // Note: projected readers are specific to their location, so they
+            // are not registered as known readers
+            if (projection == null) {
+                return createReader(schema);
+            }
+            switch (schema.getType()) {
+            case ARRAY:
+                {
+                    Schema elementType = schema.getElementType();
+                    if (createScalarValueDecoder(elementType) != null) {
+                        return createArrayReader(schema);
+                    }
+                    return ArrayReader.construct(createReader(elementType, projection),
+                            AvroSchemaHelper.getTypeId(schema), _elementTypeId(schema));
+                }
+            case MAP:
+                {
+                    Schema valueType = schema.getValueType();
+                    if (createScalarValueDecoder(valueType) != null) {
+                        return createMapReader(schema);
+                    }
+                    String keyTypeId = schema.getProp(AvroSchemaHelper.AVRO_SCHEMA_PROP_KEY_CLASS);
+                    return MapReader.construct(createReader(valueType, projection),
+                            _mapTypeId(schema, keyTypeId), keyTypeId);
+                }
+            case RECORD:
+                return createRecordReader(schema, projection);
+            case UNION:
+                {
+                    final List<Schema> types = schema.getTypes();
+                    AvroStructureReader[] typeReaders = new AvroStructureReader[types.size()];
+                    int i = 0;
+                    for (Schema type : types) {
+                        typeReaders[i++] = createReader(type, projection);
+                    }
+                    return new UnionReader(typeReaders);
+                }
+            default:
+                return createReader(schema);
+            }
+        }
+
+        protected AvroStructureReader createRecordReader(Schema schema, Map<String,Object> projection)
+        {
+            final List<Schema.Field> fields = schema.getFields();
+            AvroFieldReader[] fieldReaders = new AvroFieldReader[fields.size()];
+            int i = 0;
+            for (Schema.Field field : fields) {
+                final String name = field.name();
+                final Schema type = field.schema();
+                if (!projection.containsKey(name)) {
+                    fieldReaders[i++] = createFieldSkipper(name, type);
+                    continue;
+                }
+                ScalarDecoder scalar = createScalarValueDecoder(type);
+                fieldReaders[i++] = (scalar != null)
+                        ? scalar.asFieldReader(name, false)
+                        : AvroFieldReader.construct(name,
+                                createReader(type, _asProjection(projection.get(name))));
+            }
+            // skippers only handled by resolving reader
+            return new RecordReader.Resolving(fieldReaders, AvroSchemaHelper.getTypeId(schema));
+        }
+    }
 }
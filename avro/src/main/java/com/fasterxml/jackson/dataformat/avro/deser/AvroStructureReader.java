@@ -39,6 +39,21 @@ public abstract class AvroStructureReader
     @Override
     public abstract void skipValue(AvroParserImpl parser) throws IOException;
 
+    /**
+     * Method called by parser to skip all remaining contents of the structured
+     * value this reader reads, without exposing them as tokens. If successful,
+     * reader is left in state where it has returned matching end token, and
+     * parser context is changed to the parent context.
+     *
+     * @return True if remaining contents were skipped; false if skipping is not
+     *   supported (in which case state is not changed)
+     *
+     * @since 3.0
+     */
+    protected boolean skipRemaining() throws IOException {
+        return false;
+    }
+
     protected void throwIllegalState(int state) {
         throw new IllegalStateException("Illegal state for reader of type "
                 +getClass().getName()+": "+state);
@@ -0,0 +1,153 @@
+package com.fasterxml.jackson.dataformat.avro.deser;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.sym.FieldNameMatcher;
+import com.fasterxml.jackson.dataformat.avro.schema.AvroSchemaHelper;
+
+/**
+ * Base class for record readers generated at runtime by {@link RecordReaderCompiler}:
+ * generated sub-classes implement {@link #nextToken()} and {@link #skipValue}
+ * as unrolled sequences over fields of the record, with scalar decoding inlined
+ * where possible.
+ *<p>
+ * NOTE: needs to be public (and only expose public or protected members) since
+ * generated classes are loaded by a separate class loader.
+ *
+ * @since 3.0
+ */
+public abstract class CompiledRecordReader extends AvroStructureReader
+{
+    protected final AvroFieldReader[] _fieldReaders;
+
+    protected final AvroParserImpl _parser;
+
+    protected String _currentName;
+
+    /**
+     * Current state: 0 before START_OBJECT; after which generated code uses
+     * pairs of states for each field (name, value); followed by end and done states.
+     */
+    protected int _state;
+
+    protected CompiledRecordReader(AvroReadContext parent, AvroFieldReader[] fieldReaders,
+            AvroParserImpl parser, String typeId)
+    {
+        super(parent, TYPE_OBJECT, typeId);
+        _fieldReaders = fieldReaders;
+        _parser = parser;
+    }
+
+    @Override
+    public String currentName() { return _currentName; }
+
+    @Override
+    public String nextFieldName() throws IOException
+    {
+        if (nextToken() == JsonToken.FIELD_NAME) {
+            return _currentName;
+        }
+        return null;
+    }
+
+    @Override
+    public int nextFieldName(FieldNameMatcher matcher) throws IOException
+    {
+        JsonToken t = nextToken();
+        if (t == JsonToken.FIELD_NAME) {
+            return matcher.matchName(_currentName);
+        }
+        if (t == JsonToken.END_OBJECT) {
+            return FieldNameMatcher.MATCH_END_OBJECT;
+        }
+        return FieldNameMatcher.MATCH_ODD_TOKEN;
+    }
+
+    @Override
+    public void appendDesc(StringBuilder sb)
+    {
+        sb.append('{');
+        if (_currentName != null) {
+            sb.append('"');
+            sb.append(_currentName);
+            sb.append('"');
+        } else {
+            sb.append('?');
+        }
+        sb.append('}');
+    }
+
+    @Override
+    public String getTypeId() {
+        if (_currToken == JsonToken.END_OBJECT || _currToken == JsonToken.START_OBJECT) {
+            return super.getTypeId();
+        }
+        if (_currToken == JsonToken.FIELD_NAME) {
+            return AvroSchemaHelper.getTypeId(String.class);
+        }
+        // index already advanced past the field value belongs to
+        return _fieldReaders[_index - 1].getTypeId();
+    }
+
+    @Override
+    protected boolean skipRemaining() throws IOException
+    {
+        final int count = _fieldReaders.length;
+        final int endState = 2 * count + 1;
+        if ((_state < 1) || (_state > endState)) {
+            return false;
+        }
+        if (_state == 1) { // nothing read yet, can use generated skipping
+            skipValue(_parser);
+        } else {
+            // states 2i+1 and 2i+2 are for name and value of field i; so both mean
+            // that the value of field i has not yet been read
+            for (int i = (_state - 1) >> 1; i < count; ++i) {
+                _fieldReaders[i].skipValue(_parser);
+            }
+        }
+        _index = count;
+        _endObject(endState + 1);
+        return true;
+    }
+
+    /*
+    /**********************************************************************
+    /* Helper methods for generated code
+    /**********************************************************************
+     */
+
+    protected final JsonToken _startObject(int nextState)
+    {
+        _parser.setAvroContext(this);
+        _state = nextState;
+        return (_currToken = JsonToken.START_OBJECT);
+    }
+
+    protected final JsonToken _fieldName(String name, int nextState)
+    {
+        _currentName = name;
+        _state = nextState;
+        return (_currToken = JsonToken.FIELD_NAME);
+    }
+
+    protected final JsonToken _endObject(int doneState)
+    {
+        _state = doneState;
+        _parser.setAvroContext(getParent());
+        return (_currToken = JsonToken.END_OBJECT);
+    }
+
+    protected final JsonToken _value(JsonToken t, int fieldIndex, int nextState)
+    {
+        _index = fieldIndex + 1;
+        _state = nextState;
+        return (_currToken = t);
+    }
+
+    protected static IOException _invalidUnionIndex(int index, int count) {
+        return new IOException(String.format(
+                "Invalid Union index (%s); union only has %d types", index, count));
+    }
+}
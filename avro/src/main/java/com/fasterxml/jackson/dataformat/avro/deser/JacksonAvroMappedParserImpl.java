@@ -0,0 +1,822 @@
+package com.fasterxml.jackson.dataformat.avro.deser;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+
+import com.fasterxml.jackson.core.*;
+import com.fasterxml.jackson.core.io.IOContext;
+import com.fasterxml.jackson.dataformat.avro.AvroSchema;
+
+/**
+ * Parser implementation that uses native Jackson avro decoder, reading content
+ * directly from a memory-mapped {@link FileChannel} instead of copying it into
+ * heap buffers.
+ *<p>
+ * File is mapped in windows of (at most) {@link #MAX_WINDOW_SIZE} bytes; when
+ * a value would extend past the end of the current window, a new window is mapped
+ * starting at the current position. This means that all decoding is done
+ * with "fast path" access that only needs to check boundaries once per value,
+ * and skipping content (including whole blocks of arrays and maps) is
+ * simple pointer arithmetic without any I/O.
+ *
+ * @since 3.0
+ */
+public class JacksonAvroMappedParserImpl extends AvroParserImpl
+{
+    /**
+     * Maximum size of a single mapped region: 256 megs
+     */
+    public final static int MAX_WINDOW_SIZE = 1 << 28;
+
+    private final static int[] sUtf8UnitLengths = JacksonAvroParserImpl.sUtf8UnitLengths;
+
+    /*
+    /**********************************************************
+    /* Input source config
+    /**********************************************************
+     */
+
+    protected FileChannel _channel;
+
+    /**
+     * Length of the whole input file
+     */
+    protected final long _inputLength;
+
+    /**
+     * Size of windows to map (except for the last window)
+     */
+    protected final int _windowSize;
+
+    /**
+     * Currently mapped section of the file; with little-endian byte order,
+     * to allow reading of floating-point values directly.
+     * Note that <code>_inputPtr</code> and <code>_inputEnd</code> are relative
+     * to the start of this window, and {@link #_currInputProcessed} is the
+     * file offset of the window start.
+     */
+    protected MappedByteBuffer _inputBuffer;
+
+    /**
+     * Window that contains binary value of the current token, if one has
+     * been decoded but not yet materialized as {@link #_binaryValue}.
+     */
+    protected MappedByteBuffer _binaryBuffer;
+
+    protected int _binaryPtr;
+
+    protected int _binaryLen;
+
+    /*
+    /**********************************************************
+    /* Life-cycle
+    /**********************************************************
+     */
+
+    public JacksonAvroMappedParserImpl(ObjectReadContext readCtxt, IOContext ioCtxt,
+            int parserFeatures, int avroFeatures, AvroSchema schema,
+            FileChannel channel)
+        throws IOException
+    {
+        this(readCtxt, ioCtxt, parserFeatures, avroFeatures, schema, channel, MAX_WINDOW_SIZE);
+    }
+
+    protected JacksonAvroMappedParserImpl(ObjectReadContext readCtxt, IOContext ioCtxt,
+            int parserFeatures, int avroFeatures, AvroSchema schema,
+            FileChannel channel, int windowSize)
+        throws IOException
+    {
+        super(readCtxt, ioCtxt, parserFeatures, avroFeatures, schema);
+        _channel = channel;
+        _windowSize = windowSize;
+        _inputLength = channel.size();
+        _mapWindow(channel.position());
+    }
+
+    /*
+    /**********************************************************
+    /* Abstract method impls, i/o access
+    /**********************************************************
+     */
+
+    @Override
+    public Object getInputSource() {
+        return _channel;
+    }
+
+    @Override
+    protected void _closeInput() throws IOException {
+        if (_channel != null) {
+            if (_ioContext.isResourceManaged() || isEnabled(StreamReadFeature.AUTO_CLOSE_SOURCE)) {
+                _channel.close();
+            }
+            _channel = null;
+        }
+    }
+
+    @Override
+    protected void _releaseBuffers() throws IOException {
+        super._releaseBuffers();
+        // no way to explicitly unmap; but let GC take care of it asap
+        _inputBuffer = null;
+        _inputPtr = _inputEnd = 0;
+    }
+
+    @Override
+    public int releaseBuffered(OutputStream out) throws IOException
+    {
+        int count = _inputEnd - _inputPtr;
+        if (count < 1) {
+            return 0;
+        }
+        MappedByteBuffer buf = _inputBuffer;
+        buf.limit(_inputEnd).position(_inputPtr);
+        Channels.newChannel(out).write(buf);
+        buf.limit(buf.capacity());
+        return count;
+    }
+
+    /*
+    /**********************************************************
+    /* Abstract method impls, traversal
+    /**********************************************************
+     */
+
+    @Override
+    public String nextTextValue() throws IOException {
+        if (nextToken() == JsonToken.VALUE_STRING) {
+            return _textBuffer.contentsAsString();
+        }
+        return null;
+    }
+
+    /*
+    /**********************************************************
+    /* Abstract method impls, text
+    /**********************************************************
+     */
+
+    @Override
+    public boolean hasTextCharacters() {
+        return (_currToken == JsonToken.VALUE_STRING);
+    }
+
+    @Override
+    public String getText() throws IOException
+    {
+        JsonToken t = _currToken;
+        if (t == JsonToken.VALUE_STRING) {
+            return _textBuffer.contentsAsString();
+        }
+        if (t == JsonToken.FIELD_NAME) {
+            return _avroContext.currentName();
+        }
+        if (t != null) {
+            if (t.isNumeric()) {
+                return getNumberValue().toString();
+            }
+            return _currToken.asString();
+        }
+        return null;
+    }
+
+    @Override
+    public int getText(Writer writer) throws IOException
+    {
+        JsonToken t = _currToken;
+        if (t == JsonToken.VALUE_STRING) {
+            return _textBuffer.contentsToWriter(writer);
+        }
+        if (t == JsonToken.FIELD_NAME) {
+            String n = _avroContext.currentName();
+            writer.write(n);
+            return n.length();
+        }
+        if (t != null) {
+            if (t.isNumeric()) {
+                return _textBuffer.contentsToWriter(writer);
+            }
+            char[] ch = t.asCharArray();
+            writer.write(ch);
+            return ch.length;
+        }
+        return 0;
+    }
+
+    /*
+    /**********************************************************
+    /* Methods for AvroReadContext implementations: decoding int
+    /**********************************************************
+     */
+
+    @Override
+    public JsonToken decodeIntToken() throws IOException {
+        _numberInt = decodeInt();
+        _numTypesValid = NR_INT;
+        return JsonToken.VALUE_NUMBER_INT;
+    }
+
+    @Override
+    public final int decodeInt() throws IOException
+    {
+        if ((_inputEnd - _inputPtr) < 5) {
+            _ensureSome();
+        }
+        final MappedByteBuffer buf = _inputBuffer;
+        final int end = _inputEnd;
+        int ptr = _inputPtr;
+        int b = buf.get(ptr++);
+        int i = b & 0x7F;
+        if (b < 0) {
+            b = _byteAt(buf, ptr++, end);
+            i += ((b & 0x7F) << 7);
+            if (b < 0) {
+                b = _byteAt(buf, ptr++, end);
+                i += ((b & 0x7F) << 14);
+                if (b < 0) {
+                    b = _byteAt(buf, ptr++, end);
+                    i += ((b & 0x7F) << 21);
+                    if (b < 0) {
+                        b = _byteAt(buf, ptr++, end);
+                        if (b < 0) {
+                            _inputPtr = ptr;
+                            _reportInvalidNegative(b);
+                        }
+                        i += (b << 28);
+                    }
+                }
+            }
+        }
+        _inputPtr = ptr;
+        return (i >>> 1) ^ (-(i & 1));
+    }
+
+    @Override
+    public void skipInt() throws IOException
+    {
+        if ((_inputEnd - _inputPtr) < 5) {
+            _ensureSome();
+        }
+        final MappedByteBuffer buf = _inputBuffer;
+        final int end = _inputEnd;
+        int ptr = _inputPtr;
+        if (buf.get(ptr++) < 0) {
+            if (_byteAt(buf, ptr++, end) < 0) {
+                if (_byteAt(buf, ptr++, end) < 0) {
+                    if (_byteAt(buf, ptr++, end) < 0) {
+                        int b = _byteAt(buf, ptr++, end);
+                        if (b < 0) {
+                            _inputPtr = ptr;
+                            _reportInvalidNegative(b);
+                        }
+                    }
+                }
+            }
+        }
+        _inputPtr = ptr;
+    }
+
+    /*
+    /**********************************************************
+    /* Methods for AvroReadContext implementations: decoding long
+    /**********************************************************
+     */
+
+    @Override
+    public JsonToken decodeLongToken() throws IOException {
+        _numberLong = decodeLong();
+        _numTypesValid = NR_LONG;
+        return JsonToken.VALUE_NUMBER_INT;
+    }
+
+    @Override
+    public long decodeLong() throws IOException
+    {
+        if ((_inputEnd - _inputPtr) < 10) {
+            _ensureSome();
+        }
+        final MappedByteBuffer buf = _inputBuffer;
+        final int end = _inputEnd;
+        int ptr = _inputPtr;
+        long l = 0L;
+        int shift = 0;
+        int b;
+        do {
+            b = _byteAt(buf, ptr++, end);
+            l |= ((long) (b & 0x7F)) << shift;
+            shift += 7;
+        } while ((b < 0) && (shift < 63));
+        if (b < 0) { // 10th byte
+            b = _byteAt(buf, ptr++, end);
+            if ((b & 0xFE) != 0) {
+                _inputPtr = ptr;
+                _reportInvalidNegative(b);
+            }
+            l |= ((long) b) << 63;
+        }
+        _inputPtr = ptr;
+        return (l >>> 1) ^ (-(l & 1));
+    }
+
+    @Override
+    public void skipLong() throws IOException
+    {
+        if ((_inputEnd - _inputPtr) < 10) {
+            _ensureSome();
+        }
+        final MappedByteBuffer buf = _inputBuffer;
+        final int end = _inputEnd;
+        int ptr = _inputPtr;
+        int maxLeft = 10;
+        int b;
+        do {
+            b = _byteAt(buf, ptr++, end);
+        } while ((--maxLeft > 0) && (b < 0));
+        if (b < 0) {
+            _inputPtr = ptr;
+            _reportInvalidNegative(b);
+        }
+        _inputPtr = ptr;
+    }
+
+    /*
+    /**********************************************************
+    /* Methods for AvroReadContext implementations: decoding float/double
+    /**********************************************************
+     */
+
+    @Override
+    public JsonToken decodeFloat() throws IOException {
+        if ((_inputEnd - _inputPtr) < 4) {
+            _ensureAvailable(4);
+        }
+        final int ptr = _inputPtr;
+        _inputPtr = ptr+4;
+        _numberFloat = _inputBuffer.getFloat(ptr);
+        _numTypesValid = NR_FLOAT;
+        return JsonToken.VALUE_NUMBER_FLOAT;
+    }
+
+    @Override
+    public void skipFloat() throws IOException {
+        _skipL(4);
+    }
+
+    @Override
+    public JsonToken decodeDouble() throws IOException {
+        if ((_inputEnd - _inputPtr) < 8) {
+            _ensureAvailable(8);
+        }
+        final int ptr = _inputPtr;
+        _inputPtr = ptr+8;
+        _numberDouble = _inputBuffer.getDouble(ptr);
+        _numTypesValid = NR_DOUBLE;
+        return JsonToken.VALUE_NUMBER_FLOAT;
+    }
+
+    @Override
+    public void skipDouble() throws IOException {
+        _skipL(8);
+    }
+
+    /*
+    /**********************************************************
+    /* Methods for AvroReadContext implementations: decoding Strings
+    /**********************************************************
+     */
+
+    @Override
+    public JsonToken decodeStringToken() throws IOException {
+        decodeString();
+        return JsonToken.VALUE_STRING;
+    }
+
+    @Override
+    public void decodeString() throws IOException {
+        int len = decodeInt();
+        if (len <= 0) {
+            if (len < 0) {
+                _reportError("Invalid length indicator for String: "+len);
+            }
+            _textBuffer.resetWithEmpty();
+            return;
+        }
+        if (len > (_inputEnd - _inputPtr)) {
+            _ensureAvailable(len);
+        }
+        _decodeText(len);
+    }
+
+    @Override
+    public void skipString() throws IOException {
+        int len = decodeInt();
+        if (len <= 0) {
+            if (len < 0) {
+                _reportError("Invalid length indicator for String: "+len);
+            }
+            return;
+        }
+        _skipL(len);
+    }
+
+    private final void _decodeText(int len) throws IOException
+    {
+        char[] outBuf = _textBuffer.emptyAndGetCurrentSegment();
+        if (outBuf.length < len) {
+            outBuf = _textBuffer.expandCurrentSegment(len);
+        }
+        final MappedByteBuffer inputBuf = _inputBuffer;
+        int outPtr = 0;
+        int inPtr = _inputPtr;
+        _inputPtr += len;
+        final int end = inPtr + len;
+
+        // Tight loop for ASCII first:
+        int i;
+        while ((i = inputBuf.get(inPtr)) >= 0) {
+            outBuf[outPtr++] = (char) i;
+            if (++inPtr == end) {
+                _textBuffer.setCurrentLength(outPtr);
+                return;
+            }
+        }
+        final int[] codes = sUtf8UnitLengths;
+        do {
+            i = inputBuf.get(inPtr++) & 0xFF;
+            switch (codes[i]) {
+            case 0:
+                break;
+            case 1:
+                i = ((i & 0x1F) << 6) | (_byteAt(inputBuf, inPtr++, end) & 0x3F);
+                break;
+            case 2:
+                i = ((i & 0x0F) << 12)
+                   | ((_byteAt(inputBuf, inPtr++, end) & 0x3F) << 6)
+                   | (_byteAt(inputBuf, inPtr++, end) & 0x3F);
+                break;
+            case 3:
+                i = ((i & 0x07) << 18)
+                 | ((_byteAt(inputBuf, inPtr++, end) & 0x3F) << 12)
+                 | ((_byteAt(inputBuf, inPtr++, end) & 0x3F) << 6)
+                 | (_byteAt(inputBuf, inPtr++, end) & 0x3F);
+                // note: this is the codepoint value; need to split, too
+                i -= 0x10000;
+                outBuf[outPtr++] = (char) (0xD800 | (i >> 10));
+                i = 0xDC00 | (i & 0x3FF);
+                break;
+            default: // invalid
+                _reportError("Invalid byte "+Integer.toHexString(i)+" in Unicode text block");
+            }
+            outBuf[outPtr++] = (char) i;
+        } while (inPtr < end);
+        _textBuffer.setCurrentLength(outPtr);
+    }
+
+    /*
+    /**********************************************************
+    /* Methods for AvroReadContext implementations: decoding Bytes
+    /**********************************************************
+     */
+
+    @Override
+    public JsonToken decodeBytes() throws IOException {
+        int len = decodeInt();
+        if (len <= 0) {
+            if (len < 0) {
+                _reportError("Invalid length indicator for Bytes: "+len);
+            }
+            _binaryValue = NO_BYTES;
+        } else {
+            _decodeBinaryLazily(len);
+        }
+        return JsonToken.VALUE_EMBEDDED_OBJECT;
+    }
+
+    @Override
+    public void skipBytes() throws IOException {
+        int len = decodeInt();
+        if (len <= 0) {
+            if (len < 0) {
+                _reportError("Invalid length indicator for Bytes: "+len);
+            }
+            _binaryValue = NO_BYTES;
+        } else {
+            _skipL(len);
+        }
+    }
+
+    @Override
+    public JsonToken decodeFixed(int size) throws IOException {
+        if (size <= 0) {
+            _binaryValue = NO_BYTES;
+        } else {
+            _decodeBinaryLazily(size);
+        }
+        return JsonToken.VALUE_EMBEDDED_OBJECT;
+    }
+
+    /**
+     * Binary values are not copied when decoded, only their location within
+     * mapped window is recorded; content is copied only if accessed as
+     * <code>byte[]</code>.
+     */
+    private final void _decodeBinaryLazily(int len) throws IOException
+    {
+        if (len > (_inputEnd - _inputPtr)) {
+            _ensureAvailable(len);
+        }
+        _binaryBuffer = _inputBuffer;
+        _binaryPtr = _inputPtr;
+        _binaryLen = len;
+        _inputPtr += len;
+    }
+
+    @Override
+    protected void _finishBinaryValue() throws IOException
+    {
+        final MappedByteBuffer buf = _binaryBuffer;
+        if (buf != null) {
+            _binaryBuffer = null;
+            byte[] result = new byte[_binaryLen];
+            buf.position(_binaryPtr);
+            buf.get(result, 0, _binaryLen);
+            _binaryValue = result;
+        }
+    }
+
+    @Override
+    protected void _clearBinaryValue() {
+        _binaryValue = null;
+        _binaryBuffer = null;
+    }
+
+    /**
+     * Overridden to return view of the mapped window; since window stays mapped
+     * as long as it is referenced, buffer remains valid after parser advances.
+     */
+    @Override
+    public ByteBuffer getBinaryValueAsBuffer() throws IOException
+    {
+        if ((_binaryBuffer != null) && (_currToken == JsonToken.VALUE_EMBEDDED_OBJECT)) {
+            ByteBuffer view = _binaryBuffer.duplicate();
+            view.limit(_binaryPtr + _binaryLen);
+            view.position(_binaryPtr);
+            return view.slice().asReadOnlyBuffer();
+        }
+        return super.getBinaryValueAsBuffer();
+    }
+
+    @Override
+    public int readBinaryValue(Base64Variant b64variant, OutputStream out) throws IOException
+    {
+        if ((_binaryBuffer == null) || (_currToken != JsonToken.VALUE_EMBEDDED_OBJECT)) {
+            return super.readBinaryValue(b64variant, out);
+        }
+        final MappedByteBuffer buf = _binaryBuffer;
+        final int len = _binaryLen;
+        byte[] chunk = new byte[Math.min(len, 8000)];
+        buf.position(_binaryPtr);
+        for (int left = len; left > 0; ) {
+            int count = Math.min(left, chunk.length);
+            buf.get(chunk, 0, count);
+            out.write(chunk, 0, count);
+            left -= count;
+        }
+        return len;
+    }
+
+    @Override
+    public void skipFixed(int size) throws IOException {
+        _skipL(size);
+    }
+
+    /**
+     * Skipping is just a matter of moving the pointer (possibly mapping a new
+     * window, if skipping past the current one)
+     */
+    private final void _skipL(long len) throws IOException
+    {
+        final int ptr = _inputPtr;
+        if (len <= (_inputEnd - ptr)) {
+            _inputPtr = ptr + (int) len;
+            return;
+        }
+        final long pos = _currInputProcessed + ptr;
+        final long left = _inputLength - pos;
+        if (len > left) {
+            _inputPtr = _inputEnd;
+            _reportError("Only able to skip "+left+" bytes before end-of-input (needed "+len+")");
+        }
+        _mapWindow(pos + len);
+    }
+
+    /*
+    /**********************************************************
+    /* Methods for AvroReadContext implementations: decoding Arrays
+    /**********************************************************
+     */
+
+    @Override
+    public long decodeArrayStart() throws IOException {
+        return _decodeChunkLength();
+    }
+
+    @Override
+    public long decodeArrayNext() throws IOException {
+        return _decodeChunkLength();
+    }
+
+    @Override
+    public long skipArray() throws IOException {
+        return _skipChunkElements();
+    }
+
+    private final long _decodeChunkLength() throws IOException {
+        long result = decodeLong();
+        if (result < 0) {
+            // byte-count present: retain, to allow skipping the whole block
+            _blockByteSize = decodeLong();
+            result = -result;
+        } else {
+            _blockByteSize = -1L;
+        }
+        return result;
+    }
+
+    private long _skipChunkElements() throws IOException {
+        long result = decodeLong();
+        while (result < 0) {
+            long bytecount = decodeLong();
+            _skipL(bytecount);
+            result = decodeLong();
+        }
+        return result;
+    }
+
+    /*
+    /**********************************************************
+    /* Methods for AvroReadContext implementations: decoding Maps
+    /**********************************************************
+     */
+
+    @Override
+    public String decodeMapKey() throws IOException {
+        decodeString();
+        return _textBuffer.contentsAsString();
+    }
+
+    @Override
+    public long decodeMapStart() throws IOException {
+        return _decodeChunkLength();
+    }
+
+    @Override
+    public long decodeMapNext() throws IOException {
+        return _decodeChunkLength();
+    }
+
+    @Override
+    public long skipMap() throws IOException {
+        return _skipChunkElements();
+    }
+
+    /*
+    /**********************************************************
+    /* Methods for AvroReadContext implementations: misc
+    /**********************************************************
+     */
+
+    @Override
+    public JsonToken decodeBoolean() throws IOException {
+        if (_inputPtr >= _inputEnd) {
+            _ensureAvailable(1);
+        }
+        int b = _inputBuffer.get(_inputPtr++);
+        return (b == 1) ? JsonToken.VALUE_TRUE : JsonToken.VALUE_FALSE;
+    }
+
+    @Override
+    public void skipBoolean() throws IOException {
+        _skipL(1);
+    }
+
+    @Override
+    public int decodeIndex() throws IOException {
+        return (_branchIndex = decodeInt());
+    }
+
+    @Override
+    public int decodeEnum() throws IOException {
+        return (_enumIndex = decodeInt());
+    }
+
+    @Override
+    public boolean checkInputEnd() throws IOException {
+        if (_closed) {
+            return true;
+        }
+        if (_inputPtr < _inputEnd) {
+            return false;
+        }
+        final long pos = _currInputProcessed + _inputPtr;
+        if (pos < _inputLength) {
+            _mapWindow(pos);
+            return false;
+        }
+        _closeInput();
+        return true;
+    }
+
+    /*
+    /**********************************************************
+    /* Low-level methods: setting values from defaults
+    /**********************************************************
+     */
+
+    @Override
+    protected JsonToken setString(String str) {
+        _textBuffer.resetWithString(str);
+        return JsonToken.VALUE_STRING;
+    }
+
+    /*
+    /**********************************************************
+    /* Low-level reading: window handling
+    /**********************************************************
+     */
+
+    /**
+     * Method that maps window of file starting at given file offset
+     */
+    protected final void _mapWindow(long pos) throws IOException
+    {
+        if (_channel == null) {
+            _reportInvalidEOF();
+        }
+        int size = (int) Math.min((long) _windowSize, _inputLength - pos);
+        MappedByteBuffer buf = _channel.map(FileChannel.MapMode.READ_ONLY, pos, size);
+        buf.order(ByteOrder.LITTLE_ENDIAN);
+        _inputBuffer = buf;
+        _currInputProcessed = pos;
+        _inputPtr = 0;
+        _inputEnd = size;
+    }
+
+    /**
+     * Method called to ensure that at least given number of bytes are
+     * available in the current window, mapping a new window if necessary.
+     */
+    protected final void _ensureAvailable(int minAvailable) throws IOException
+    {
+        final long pos = _currInputProcessed + _inputPtr;
+        if ((pos + minAvailable) > _inputLength) {
+            _reportError("Needed to read %d bytes, reached end-of-input", minAvailable);
+        }
+        if (minAvailable > _windowSize) {
+            _reportError("Can not read %d bytes: exceeds maximum mapping window size of %d bytes",
+                    minAvailable, _windowSize);
+        }
+        _mapWindow(pos);
+    }
+
+    /**
+     * Method similar to {@link #_ensureAvailable} but used for variable-length
+     * values where not all bytes may be needed: maps a new window starting at
+     * the current position (unless already at the last window), and verifies
+     * there is at least one byte available.
+     */
+    protected final void _ensureSome() throws IOException
+    {
+        final long pos = _currInputProcessed + _inputPtr;
+        if ((_currInputProcessed + _inputEnd) < _inputLength) {
+            _mapWindow(pos);
+        }
+        if (_inputPtr >= _inputEnd) {
+            _reportInvalidEOF();
+        }
+    }
+
+    /**
+     * Bounds-checked access for bytes that may be past the end of input (only
+     * possible for the very last bytes of input)
+     */
+    private final byte _byteAt(MappedByteBuffer buf, int ptr, int end) throws IOException
+    {
+        if (ptr >= end) {
+            _inputPtr = end;
+            _reportInvalidEOF();
+        }
+        return buf.get(ptr);
+    }
+
+    private void _reportInvalidNegative(int v) throws IOException
+    {
+        _reportError("Invalid negative byte %x at end of VInt", v);
+    }
+}
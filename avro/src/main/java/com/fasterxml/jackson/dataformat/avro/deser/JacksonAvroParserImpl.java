@@ -4,6 +4,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 import com.fasterxml.jackson.core.*;
 import com.fasterxml.jackson.core.io.IOContext;
@@ -68,6 +70,49 @@ public class JacksonAvroParserImpl extends AvroParserImpl
      */
     protected boolean _bufferRecyclable;
 
+    /*
+    /**********************************************************
+    /* Lazily decoded binary values
+    /**********************************************************
+     */
+
+    /**
+     * No lazily decoded binary value: either current token is not binary,
+     * or value has been materialized as {@link #_binaryValue}
+     */
+    protected final static int BINARY_NONE = 0;
+
+    /**
+     * Binary value of current token is fully contained in the input buffer,
+     * starting at {@link #_binaryPtr}; input pointer already advanced past it.
+     */
+    protected final static int BINARY_BUFFERED = 1;
+
+    /**
+     * Binary value of current token was not fully contained in the input buffer,
+     * and has not yet been read: starts at the current input pointer.
+     */
+    protected final static int BINARY_PENDING = 2;
+
+    /**
+     * State of lazily decoded binary value of the current token
+     *
+     * @since 3.0
+     */
+    protected int _binaryState;
+
+    /**
+     * @since 3.0
+     */
+    protected int _binaryPtr;
+
+    /**
+     * Length of the lazily decoded binary value, in bytes
+     *
+     * @since 3.0
+     */
+    protected int _binaryLen;
+
     /*
     /**********************************************************
     /* Life-cycle
@@ -479,9 +524,10 @@ public class JacksonAvroParserImpl extends AvroParserImpl
             int maxLeft = 9;
             int b;
             do {
-                b = _nextByteGuaranteed();
+                b = buf[ptr++];
             } while ((--maxLeft > 0) && (b < 0));
             if (b < 0) {
+                _inputPtr = ptr;
                 _reportInvalidNegative(b);
             }
         }
@@ -578,6 +624,9 @@ public class JacksonAvroParserImpl extends AvroParserImpl
         }
 
         if (len > (_inputEnd - _inputPtr)) {
+            if (_inputStream == null) {
+                _handleMissingContent(len);
+            }
             // or if not, could we read?
             if (len >= _inputBuffer.length) {
                 // If not enough space, need handling similar to chunked
@@ -789,10 +838,7 @@ public class JacksonAvroParserImpl extends AvroParserImpl
             }
             _binaryValue = NO_BYTES;
         } else {
-            byte[] b = new byte[len];
-            // this is simple raw read, safe to use:
-            _read(b, 0, len);
-            _binaryValue = b;
+            _decodeBinaryLazily(len);
         }
         return JsonToken.VALUE_EMBEDDED_OBJECT;
     }
@@ -812,12 +858,136 @@ public class JacksonAvroParserImpl extends AvroParserImpl
 
     @Override
     public JsonToken decodeFixed(int size) throws IOException {
-        byte[] data = new byte[size];
-        _read(data, 0, size);
-        _binaryValue = data;
+        if (size <= 0) {
+            _binaryValue = NO_BYTES;
+        } else {
+            _decodeBinaryLazily(size);
+        }
         return JsonToken.VALUE_EMBEDDED_OBJECT;
     }
 
+    /**
+     * Overridden to decode unscaled value directly from the input buffer, if
+     * fully contained in it, without copying.
+     */
+    @Override
+    public JsonToken decodeDecimal(int fixedSize, int scale) throws IOException
+    {
+        final int len = (fixedSize < 0) ? decodeInt() : fixedSize;
+        if (len < 0) {
+            _reportError("Invalid length indicator for Bytes: "+len);
+        }
+        final int ptr = _inputPtr;
+        if (len <= (_inputEnd - ptr)) {
+            _inputPtr = ptr + len;
+            return _decimalToken(_inputBuffer, ptr, len, scale);
+        }
+        byte[] b = new byte[len];
+        _read(b, 0, len);
+        return _decimalToken(b, 0, len, scale);
+    }
+
+    /**
+     * Binary values are not copied when decoded: if fully contained in the input
+     * buffer, only location is recorded; otherwise reading is deferred until
+     * value is accessed (or skipped when advancing to the next token).
+     */
+    private final void _decodeBinaryLazily(int len) throws IOException
+    {
+        final int ptr = _inputPtr;
+        if (len <= (_inputEnd - ptr)) {
+            _binaryState = BINARY_BUFFERED;
+            _binaryPtr = ptr;
+            _inputPtr = ptr + len;
+        } else {
+            if (_inputStream == null) {
+                _handleMissingContent(len);
+            }
+            _binaryState = BINARY_PENDING;
+        }
+        _binaryLen = len;
+    }
+
+    @Override
+    protected void _finishBinaryValue() throws IOException
+    {
+        switch (_binaryState) {
+        case BINARY_BUFFERED:
+            _binaryValue = Arrays.copyOfRange(_inputBuffer, _binaryPtr, _binaryPtr + _binaryLen);
+            break;
+        case BINARY_PENDING:
+            {
+                byte[] b = new byte[_binaryLen];
+                // this is simple raw read, safe to use:
+                _read(b, 0, _binaryLen);
+                _binaryValue = b;
+            }
+            break;
+        default:
+            return;
+        }
+        _binaryState = BINARY_NONE;
+    }
+
+    @Override
+    protected void _clearBinaryValue() throws IOException
+    {
+        _binaryValue = null;
+        if (_binaryState != BINARY_NONE) {
+            if (_binaryState == BINARY_PENDING) {
+                _skip(_binaryLen);
+            }
+            _binaryState = BINARY_NONE;
+        }
+    }
+
+    @Override
+    public ByteBuffer getBinaryValueAsBuffer() throws IOException
+    {
+        if ((_binaryState == BINARY_BUFFERED) && (_currToken == JsonToken.VALUE_EMBEDDED_OBJECT)) {
+            return ByteBuffer.wrap(_inputBuffer, _binaryPtr, _binaryLen).slice().asReadOnlyBuffer();
+        }
+        return super.getBinaryValueAsBuffer();
+    }
+
+    @Override
+    public boolean canRetainBinaryValueBuffer() {
+        // buffered content only stays valid if input buffer is not reused
+        return (_binaryState != BINARY_BUFFERED) || !_bufferRecyclable;
+    }
+
+    /**
+     * Overridden to write content of binary values directly from the input
+     * buffer, reading content not yet buffered in chunks.
+     */
+    @Override
+    public int readBinaryValue(Base64Variant b64variant, OutputStream out) throws IOException
+    {
+        if ((_binaryState == BINARY_NONE) || (_currToken != JsonToken.VALUE_EMBEDDED_OBJECT)) {
+            return super.readBinaryValue(b64variant, out);
+        }
+        final int len = _binaryLen;
+        if (_binaryState == BINARY_BUFFERED) {
+            out.write(_inputBuffer, _binaryPtr, len);
+            return len;
+        }
+        int left = len;
+        while (left > 0) {
+            int avail = _inputEnd - _inputPtr;
+            if (avail <= 0) {
+                _loadMoreGuaranteed();
+                avail = _inputEnd - _inputPtr;
+            }
+            int count = Math.min(avail, left);
+            out.write(_inputBuffer, _inputPtr, count);
+            _inputPtr += count;
+            left -= count;
+        }
+        // all content consumed, can not be accessed again
+        _binaryState = BINARY_NONE;
+        return len;
+    }
+
     @Override
     public void skipFixed(int size) throws IOException {
         _skip(size);
@@ -832,6 +1002,10 @@ public class JacksonAvroParserImpl extends AvroParserImpl
             _inputPtr = ptr + len;
             return;
         }
+        if (_inputStream == null) {
+            _handleMissingContent(len);
+            _reportError("Needed to read "+len+" bytes, reached end-of-input after reading "+available);
+        }
         // only had some, copy whatever there is
         System.arraycopy(_inputBuffer, ptr, target, offset, available);
         _inputPtr = ptr + available;
@@ -857,6 +1031,9 @@ public class JacksonAvroParserImpl extends AvroParserImpl
             _inputPtr = ptr + len;
             return;
         }
+        if (_inputStream == null) {
+            _handleMissingContent(len);
+        }
         _inputPtr = _inputEnd; // mark all used, whatever it was
         if (_inputStream != null) {
             do {
@@ -881,6 +1058,9 @@ public class JacksonAvroParserImpl extends AvroParserImpl
             _inputPtr = ptr + (int)  len;
             return;
         }
+        if (_inputStream == null) {
+            _handleMissingContent(len);
+        }
         _inputPtr = _inputEnd; // mark all used, whatever it was
         if (_inputStream != null) {
             do {
@@ -921,8 +1101,11 @@ public class JacksonAvroParserImpl extends AvroParserImpl
     private final long _decodeChunkLength() throws IOException {
         long result = decodeLong();
         if (result < 0) {
-            skipLong(); // Consume byte-count if present
+            // byte-count present: retain, to allow skipping the whole block
+            _blockByteSize = decodeLong();
             result = -result;
+        } else {
+            _blockByteSize = -1L;
         }
         return result;
     }
@@ -1073,6 +1256,8 @@ public class JacksonAvroParserImpl extends AvroParserImpl
             if (count == 0) {
                 throw new IOException("InputStream.read() returned 0 characters when trying to read "+_inputBuffer.length+" bytes");
             }
+        } else {
+            _handleMissingContent((_inputEnd - _inputPtr) + 1);
         }
         return false;
     }
@@ -1083,6 +1268,9 @@ public class JacksonAvroParserImpl extends AvroParserImpl
      */
     protected final void _loadToHaveAtLeast(int minAvailable) throws IOException
     {
+        if (_inputStream == null) {
+            _handleMissingContent(minAvailable);
+        }
         // Need to move remaining data in front?
         int amount = _inputEnd - _inputPtr;
         _currInputProcessed += _inputPtr;
@@ -1116,6 +1304,20 @@ public class JacksonAvroParserImpl extends AvroParserImpl
         }
     }
 
+    /**
+     * Method called when decoding needs more content than is available in the
+     * input buffer, and there is no {@link InputStream} to read more content from.
+     * Default implementation does nothing, leaving it up to caller to report
+     * unexpected end-of-input; non-blocking parser overrides it to indicate that
+     * more content needs to be fed before decoding may continue.
+     *
+     * @param minAvailable Number of bytes needed, starting from the current
+     *    input pointer
+     *
+     * @since 3.0
+     */
+    protected void _handleMissingContent(long minAvailable) throws IOException { }
+
     private void _reportInvalidNegative(int v) throws IOException
     {
         _reportError("Invalid negative byte %x at end of VInt", v);
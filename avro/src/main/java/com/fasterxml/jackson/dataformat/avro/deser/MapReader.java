@@ -102,6 +102,64 @@ public abstract class MapReader extends AvroStructureReader
         return _valueTypeId;
     }
 
+    /*
+    /**********************************************************************
+    /* Skipping (since 3.0)
+    /**********************************************************************
+     */
+
+    @Override
+    protected boolean skipRemaining() throws IOException
+    {
+        switch (_state) {
+        case STATE_VALUE: // key of the current entry read, but not value
+            _skipEntryValue(_parser);
+            ++_index;
+            // fall through
+        case STATE_NAME:
+            // Contents of the first block may be skipped as a whole, if size known
+            if ((_currToken != JsonToken.START_OBJECT) || !_parser.skipBlockContents()) {
+                for (long l = getRemainingElements(); l > 0L; --l) {
+                    _parser.skipString();
+                    _skipEntryValue(_parser);
+                }
+            }
+            _skipBlocks(_parser);
+            // fall through
+        case STATE_END:
+            _state = STATE_DONE;
+            _parser.setAvroContext(getParent());
+            _currToken = JsonToken.END_OBJECT;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Helper method for skipping all remaining blocks of the map, starting
+     * with the header of the next block.
+     *
+     * @since 3.0
+     */
+    protected final void _skipBlocks(AvroParserImpl parser) throws IOException
+    {
+        // As per Avro spec/ref impl suggestion:
+        long l;
+        while ((l = parser.skipMap()) > 0L) {
+            while (--l >= 0) {
+                parser.skipString(); // key
+                _skipEntryValue(parser);
+            }
+        }
+    }
+
+    /**
+     * Method for skipping value of a single map entry
+     *
+     * @since 3.0
+     */
+    protected abstract void _skipEntryValue(AvroParserImpl parser) throws IOException;
+
     /*
     /**********************************************************************
     /* Implementations
@@ -154,6 +212,7 @@ public abstract class MapReader extends AvroStructureReader
                 // more stuff?
                 if (_count > 0L) {
                     _index = 0;
+                    _state = STATE_VALUE;
                     _currentName = _parser.decodeMapKey();
                     return (_currToken = JsonToken.FIELD_NAME);
                 }
@@ -175,13 +234,12 @@ public abstract class MapReader extends AvroStructureReader
 
         @Override
         public void skipValue(AvroParserImpl parser) throws IOException {
-            // As per Avro spec/ref impl suggestion:
-            long l;
-            while ((l = parser.skipMap()) > 0L) {
-                while (--l >= 0) {
-                    _scalarDecoder.skipValue(parser);
-                }
-            }
+            _skipBlocks(parser);
+        }
+
+        @Override
+        protected void _skipEntryValue(AvroParserImpl parser) throws IOException {
+            _scalarDecoder.skipValue(parser);
         }
     }
 
@@ -231,6 +289,7 @@ public abstract class MapReader extends AvroStructureReader
                 // more stuff?
                 if (_count > 0L) {
                     _index = 0;
+                    _state = STATE_VALUE;
                     _currentName = _parser.decodeMapKey();
                     return (_currToken = JsonToken.FIELD_NAME);
                 }
@@ -254,13 +313,12 @@ public abstract class MapReader extends AvroStructureReader
 
         @Override
         public void skipValue(AvroParserImpl parser) throws IOException {
-            // As per Avro spec/ref impl suggestion:
-            long l;
-            while ((l = parser.skipMap()) > 0L) {
-                while (--l >= 0) {
-                    _structureReader.skipValue(parser);
-                }
-            }
+            _skipBlocks(parser);
+        }
+
+        @Override
+        protected void _skipEntryValue(AvroParserImpl parser) throws IOException {
+            _structureReader.skipValue(parser);
         }
     }
 }
\ No newline at end of file
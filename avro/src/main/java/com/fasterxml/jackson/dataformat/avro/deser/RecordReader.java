@@ -2,6 +2,7 @@ package com.fasterxml.jackson.dataformat.avro.deser;
 
 import java.io.IOException;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.sym.FieldNameMatcher;
 import com.fasterxml.jackson.dataformat.avro.schema.AvroSchemaHelper;
@@ -43,6 +44,24 @@ abstract class RecordReader extends AvroStructureReader
         }
     }
 
+    @Override
+    protected boolean skipRemaining() throws IOException
+    {
+        switch (_state) {
+        case STATE_NAME:
+        case STATE_VALUE:
+            // note: skippers and defaulters need no special handling
+            for (final AvroFieldReader[] readers = _fieldReaders; _index < _count; ++_index) {
+                readers[_index].skipValue(_parser);
+            }
+            // fall through
+        case STATE_END:
+            _nextAtEndObject();
+            return true;
+        }
+        return false;
+    }
+
     protected final JsonToken _nextAtEndObject() throws IOException
     {
         _state = STATE_DONE;
@@ -177,6 +196,20 @@ abstract class RecordReader extends AvroStructureReader
             nextToken();
             return FieldNameMatcher.MATCH_ODD_TOKEN;
         }
+
+        @Override
+        public JsonToken nextNumber(JsonParser.NumberType type) throws IOException
+        {
+            if (_state == STATE_VALUE) {
+                AvroFieldReader field = _fieldReaders[_index];
+                if (field.getNumberType() == type) {
+                    _state = STATE_NAME;
+                    ++_index;
+                    return (_currToken = field.readValue(this, _parser));
+                }
+            }
+            return null;
+        }
     }
 
     public final static class Resolving
@@ -280,5 +313,21 @@ abstract class RecordReader extends AvroStructureReader
             nextToken();
             return FieldNameMatcher.MATCH_ODD_TOKEN;
         }
+
+        @Override
+        public JsonToken nextNumber(JsonParser.NumberType type) throws IOException
+        {
+            // skipped fields are only skipped when advancing to the next name,
+            // so reader of the current value is never a skipper
+            if (_state == STATE_VALUE) {
+                AvroFieldReader field = _fieldReaders[_index];
+                if (field.getNumberType() == type) {
+                    _state = STATE_NAME;
+                    ++_index;
+                    return (_currToken = field.readValue(this, _parser));
+                }
+            }
+            return null;
+        }
     }
 }
@@ -0,0 +1,518 @@
+package com.fasterxml.jackson.dataformat.avro.deser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Constructor;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.security.CodeSource;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.tools.*;
+
+import org.apache.avro.Schema;
+
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.dataformat.avro.schema.AvroSchemaHelper;
+
+/**
+ * Helper class that can generate specialized {@link AvroStructureReader}s for
+ * Avro records: given an interpreting {@link RecordReader}, source code for
+ * a {@link CompiledRecordReader} sub-class is generated, in which the sequence
+ * of fields is unrolled and decoding of scalar fields is inlined (when the
+ * reader does not do schema resolution); this source is then compiled using
+ * the JDK compiler ({@code javax.tools}) and loaded with a new class loader.
+ *<p>
+ * If compilation is not possible (no compiler available, as is the case when
+ * running on a JRE; or compilation fails for some other reason, such as
+ * classes not being accessible via file-system class path with "fat jar"
+ * packaging), the original interpreting reader is used instead, and the
+ * reason is logged (using {@link java.util.logging}).
+ * Compilation is done synchronously by the thread that first needs the reader.
+ *<p>
+ * Generated classes are cached by their source, so a class is usually only
+ * generated once for each distinct record structure. Cache size is bounded
+ * (cache is cleared when full); each class has its own class loader so that
+ * classes can be unloaded once no longer referenced.
+ *
+ * @since 3.0
+ */
+public class RecordReaderCompiler
+{
+    private final static String GEN_PACKAGE = "com.fasterxml.jackson.dataformat.avro.deser.gen";
+
+    private final static String CLASS_NAME_PLACEHOLDER = "$CLASS$";
+
+    private final static Logger LOG = Logger.getLogger(RecordReaderCompiler.class.getName());
+
+    /**
+     * Maximum number of generated reader classes (or failure markers) to
+     * cache; cache is cleared if exceeded.
+     */
+    protected final static int MAX_CACHED_CLASSES = 200;
+
+    /**
+     * Marker used in cache for sources that could not be compiled
+     */
+    private final static Object FAILED = new Object();
+
+    /**
+     * Cache of generated reader constructors (or failure markers), keyed by
+     * generated source (with placeholder for class name)
+     */
+    private final static ConcurrentHashMap<String, Object> _compiled = new ConcurrentHashMap<String, Object>();
+
+    private final static AtomicInteger _classCounter = new AtomicInteger();
+
+    private RecordReaderCompiler() { }
+
+    /**
+     * Main entry point: method that will try to construct a compiled equivalent
+     * of given reader, if it is a record reader; or if not, or if compilation
+     * fails, return reader as is.
+     *
+     * @param reader Reader to compile
+     * @param schema Schema that reader was constructed for, if reader reads
+     *    content without schema resolution; `null` if not known (in which case no
+     *    inlining of scalar decoders is done)
+     */
+    public static AvroStructureReader compile(AvroStructureReader reader, Schema schema)
+    {
+        if (!(reader instanceof RecordReader)) {
+            return reader;
+        }
+        final RecordReader rr = (RecordReader) reader;
+        final AvroFieldReader[] fieldReaders = rr._fieldReaders;
+        List<Schema.Field> fields = null;
+        // Only non-resolving readers have 1-to-1 mapping to fields of schema
+        if ((rr instanceof RecordReader.Std) && (schema != null)
+                && (schema.getType() == Schema.Type.RECORD)
+                && (schema.getFields().size() == fieldReaders.length)) {
+            fields = schema.getFields();
+        }
+        Constructor<?> ctor = _findConstructor(generateSource(fieldReaders, fields));
+        if (ctor != null) {
+            try {
+                return (AvroStructureReader) ctor.newInstance(null, fieldReaders, null, rr._typeId);
+            } catch (Exception e) { // should not occur but if it does, just use interpreter
+                _logFailure("Failed to instantiate generated record reader", e);
+            }
+        }
+        return reader;
+    }
+
+    /*
+    /**********************************************************************
+    /* Source generation
+    /**********************************************************************
+     */
+
+    /**
+     * Method for generating source for reader class, with placeholder for class name
+     */
+    protected static String generateSource(AvroFieldReader[] fieldReaders, List<Schema.Field> fields)
+    {
+        final int count = fieldReaders.length;
+        final int endState = 2 * count + 1;
+        final StringBuilder sb = new StringBuilder(1000 + count * 200);
+        final StringBuilder helpers = new StringBuilder();
+
+        sb.append("package ").append(GEN_PACKAGE).append(";\n\n")
+            .append("import java.io.IOException;\n")
+            .append("import com.fasterxml.jackson.core.JsonToken;\n")
+            .append("import com.fasterxml.jackson.dataformat.avro.deser.*;\n\n")
+            .append("public final class ").append(CLASS_NAME_PLACEHOLDER).append(" extends CompiledRecordReader {\n")
+            .append("  public ").append(CLASS_NAME_PLACEHOLDER)
+            .append("(AvroReadContext parent, AvroFieldReader[] fieldReaders, AvroParserImpl parser, String typeId) {\n")
+            .append("    super(parent, fieldReaders, parser, typeId);\n")
+            .append("  }\n\n")
+            .append("  @Override\n")
+            .append("  public AvroStructureReader newReader(AvroReadContext parent, AvroParserImpl parser) {\n")
+            .append("    return new ").append(CLASS_NAME_PLACEHOLDER).append("(parent, _fieldReaders, parser, _typeId);\n")
+            .append("  }\n\n");
+
+        // First, token-by-token access
+        sb.append("  @Override\n")
+            .append("  public JsonToken nextToken() throws IOException {\n")
+            .append("    final AvroParserImpl p = _parser;\n")
+            .append("    switch (_state) {\n")
+            .append("    case 0: return _startObject(").append((count > 0) ? 1 : endState).append(");\n");
+        for (int i = 0; i < count; ++i) {
+            final AvroFieldReader fr = fieldReaders[i];
+            final int nameState = 2 * i + 1;
+            sb.append("    case ").append(nameState).append(":\n");
+            if (fr.isSkipper()) { // skip, then fall through to next field (or end)
+                sb.append("      _fieldReaders[").append(i).append("].skipValue(p);\n");
+                continue;
+            }
+            sb.append("      return _fieldName(").append(_quote(fr.getName())).append(", ")
+                .append(nameState+1).append(");\n");
+            sb.append("    case ").append(nameState+1).append(":\n");
+            String decode = _decodeExpr(fields, i, helpers);
+            if (decode == null) {
+                decode = "_fieldReaders["+i+"].readValue(this, p)";
+            }
+            sb.append("      return _value(").append(decode).append(", ").append(i).append(", ")
+                .append(nameState+2).append(");\n");
+        }
+        sb.append("    case ").append(endState).append(":\n")
+            .append("      return _endObject(").append(endState+1).append(");\n")
+            .append("    default:\n")
+            .append("      throwIllegalState(_state);\n")
+            .append("      return null;\n")
+            .append("    }\n")
+            .append("  }\n\n");
+
+        // Then skipping of the whole record
+        sb.append("  @Override\n")
+            .append("  public void skipValue(AvroParserImpl p) throws IOException {\n");
+        for (int i = 0; i < count; ++i) {
+            String skip = _skipStatement(fields, i, helpers);
+            if (skip == null) {
+                skip = "_fieldReaders["+i+"].skipValue(p);";
+            }
+            sb.append("    ").append(skip).append('\n');
+        }
+        sb.append("  }\n");
+
+        sb.append(helpers);
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    private static String _decodeExpr(List<Schema.Field> fields, int index, StringBuilder helpers)
+    {
+        if (fields == null) {
+            return null;
+        }
+        final Schema type = fields.get(index).schema();
+        if (type.getType() == Schema.Type.UNION) {
+            List<Schema> branches = type.getTypes();
+            for (Schema branch : branches) {
+                if (_decodeScalarExpr(branch) == null) {
+                    return null;
+                }
+            }
+            final String method = "_decodeUnion"+index;
+            helpers.append("\n  private JsonToken ").append(method).append("(AvroParserImpl p) throws IOException {\n")
+                .append("    int ix = p.decodeIndex();\n")
+                .append("    switch (ix) {\n");
+            for (int i = 0, end = branches.size(); i < end; ++i) {
+                helpers.append("    case ").append(i).append(": return ")
+                    .append(_decodeScalarExpr(branches.get(i))).append(";\n");
+            }
+            helpers.append("    }\n")
+                .append("    throw _invalidUnionIndex(ix, ").append(branches.size()).append(");\n")
+                .append("  }\n");
+            return method+"(p)";
+        }
+        return _decodeScalarExpr(type);
+    }
+
+    private static String _skipStatement(List<Schema.Field> fields, int index, StringBuilder helpers)
+    {
+        if (fields == null) {
+            return null;
+        }
+        final Schema type = fields.get(index).schema();
+        if (type.getType() == Schema.Type.UNION) {
+            List<Schema> branches = type.getTypes();
+            for (Schema branch : branches) {
+                if (_skipScalarStatement(branch) == null) {
+                    return null;
+                }
+            }
+            final String method = "_skipUnion"+index;
+            helpers.append("\n  private void ").append(method).append("(AvroParserImpl p) throws IOException {\n")
+                .append("    int ix = p.decodeIndex();\n")
+                .append("    switch (ix) {\n");
+            for (int i = 0, end = branches.size(); i < end; ++i) {
+                helpers.append("    case ").append(i).append(": ")
+                    .append(_skipScalarStatement(branches.get(i))).append(" return;\n");
+            }
+            helpers.append("    }\n")
+                .append("    throw _invalidUnionIndex(ix, ").append(branches.size()).append(");\n")
+                .append("  }\n");
+            return method+"(p);";
+        }
+        return _skipScalarStatement(type);
+    }
+
+    /**
+     * @return Expression for decoding given scalar type, if one that can be
+     *   inlined; `null` if not
+     */
+    private static String _decodeScalarExpr(Schema type)
+    {
+        // Values with logical types need bit more work too, leave to field reader
+        if (AvroSchemaHelper.getLogicalType(type) != null) {
+            return null;
+        }
+        switch (type.getType()) {
+        case BOOLEAN:
+            return "p.decodeBoolean()";
+        case INT:
+            // Character values need bit more work, leave to field reader
+            if (Character.class.getName().equals(AvroSchemaHelper.getTypeId(type))) {
+                return null;
+            }
+            return "p.decodeIntToken()";
+        case LONG:
+            return "p.decodeLongToken()";
+        case FLOAT:
+            return "p.decodeFloat()";
+        case DOUBLE:
+            return "p.decodeDouble()";
+        case STRING:
+            return "p.decodeStringToken()";
+        case BYTES:
+            return "p.decodeBytes()";
+        case NULL:
+            return "JsonToken.VALUE_NULL";
+        default:
+            return null;
+        }
+    }
+
+    private static String _skipScalarStatement(Schema type)
+    {
+        switch (type.getType()) {
+        case BOOLEAN:
+            return "p.skipBoolean();";
+        case INT:
+            return "p.skipInt();";
+        case LONG:
+            return "p.skipLong();";
+        case FLOAT:
+            return "p.skipFloat();";
+        case DOUBLE:
+            return "p.skipDouble();";
+        case STRING:
+            return "p.skipString();";
+        case BYTES:
+            return "p.skipBytes();";
+        case NULL:
+            return ";";
+        default:
+            return null;
+        }
+    }
+
+    private static String _quote(String str)
+    {
+        StringBuilder sb = new StringBuilder(str.length() + 2);
+        sb.append('"');
+        for (int i = 0, end = str.length(); i < end; ++i) {
+            char c = str.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20 || c > 0x7E) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    /*
+    /**********************************************************************
+    /* Compilation, class loading
+    /**********************************************************************
+     */
+
+    private static Constructor<?> _findConstructor(String template)
+    {
+        Object ob = _compiled.get(template);
+        if (ob == null) {
+            ob = _compile(template);
+            if (ob == null) {
+                ob = FAILED;
+            }
+            if (_compiled.size() >= MAX_CACHED_CLASSES) {
+                _compiled.clear();
+            }
+            Object old = _compiled.putIfAbsent(template, ob);
+            if (old != null) {
+                ob = old;
+            }
+        }
+        return (ob == FAILED) ? null : (Constructor<?>) ob;
+    }
+
+    private static Constructor<?> _compile(String template)
+    {
+        final JavaCompiler compiler;
+        try {
+            compiler = ToolProvider.getSystemJavaCompiler();
+        } catch (Throwable t) { // e.g. if java.compiler module not available
+            _logFailure("No Java compiler available", t);
+            return null;
+        }
+        if (compiler == null) {
+            _logFailure("No Java compiler available (running on a JRE?)", null);
+            return null;
+        }
+        final String simpleName = "GenRecordReader"+_classCounter.incrementAndGet();
+        final String className = GEN_PACKAGE + "." + simpleName;
+        final String source = template.replace(CLASS_NAME_PLACEHOLDER, simpleName);
+
+        try {
+            DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+            MemoryFileManager fm = new MemoryFileManager(compiler.getStandardFileManager(diagnostics, null, null));
+            List<String> options = Arrays.asList("-classpath", _classPath(), "-proc:none", "-g:none");
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fm, diagnostics, options, null,
+                    Collections.singletonList(new SourceFile(className, source)));
+            if (!Boolean.TRUE.equals(task.call())) {
+                _logFailure("Compilation of "+className+" failed: "+diagnostics.getDiagnostics(), null);
+                return null;
+            }
+            byte[] bytecode = fm.bytecode(className);
+            if (bytecode == null) {
+                _logFailure("No bytecode produced for "+className, null);
+                return null;
+            }
+            Class<?> cls = new GeneratedClassLoader(RecordReaderCompiler.class.getClassLoader())
+                    .define(className, bytecode);
+            return cls.getConstructor(AvroReadContext.class, AvroFieldReader[].class,
+                    AvroParserImpl.class, String.class);
+        } catch (Exception e) {
+            _logFailure("Compilation of "+className+" failed", e);
+            return null;
+        } catch (LinkageError e) {
+            _logFailure("Loading of "+className+" failed", e);
+            return null;
+        }
+    }
+
+    private static void _logFailure(String msg, Throwable t)
+    {
+        if (LOG.isLoggable(Level.WARNING)) {
+            LOG.log(Level.WARNING, msg+"; using interpreting Avro record reader instead", t);
+        }
+    }
+
+    /**
+     * Class path to use for compilation: system class path and module path,
+     * locations of jars (or directories) that contain classes generated code
+     * refers to, and file-system locations of {@link URLClassLoader}s used
+     * to load these classes. Locations that are not directly accessible
+     * (like jars nested within other jars) can not be used.
+     */
+    private static String _classPath()
+    {
+        Set<String> paths = new LinkedHashSet<String>();
+        for (String prop : new String[] { "java.class.path", "jdk.module.path" }) {
+            String path = System.getProperty(prop);
+            if (path != null && !path.isEmpty()) {
+                paths.add(path);
+            }
+        }
+        for (Class<?> cls : new Class<?>[] { AvroStructureReader.class, JsonToken.class }) {
+            try {
+                CodeSource src = cls.getProtectionDomain().getCodeSource();
+                if (src != null && src.getLocation() != null) {
+                    _addPath(paths, src.getLocation());
+                }
+            } catch (Exception e) { } // ignore, best effort
+            for (ClassLoader cl = cls.getClassLoader(); cl != null; cl = cl.getParent()) {
+                if (cl instanceof URLClassLoader) {
+                    for (URL url : ((URLClassLoader) cl).getURLs()) {
+                        _addPath(paths, url);
+                    }
+                }
+            }
+        }
+        StringBuilder sb = new StringBuilder();
+        for (String path : paths) {
+            if (sb.length() > 0) {
+                sb.append(File.pathSeparatorChar);
+            }
+            sb.append(path);
+        }
+        return sb.toString();
+    }
+
+    private static void _addPath(Set<String> paths, URL url)
+    {
+        if ("file".equals(url.getProtocol())) {
+            try {
+                paths.add(new File(url.toURI()).getPath());
+            } catch (Exception e) { } // ignore, best effort
+        }
+    }
+
+    private final static class SourceFile extends SimpleJavaFileObject
+    {
+        private final String _source;
+
+        public SourceFile(String className, String source) {
+            super(URI.create("string:///"+className.replace('.', '/')+Kind.SOURCE.extension), Kind.SOURCE);
+            _source = source;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return _source;
+        }
+    }
+
+    private final static class ClassFile extends SimpleJavaFileObject
+    {
+        private final ByteArrayOutputStream _bytes = new ByteArrayOutputStream(4000);
+
+        public ClassFile(String className) {
+            super(URI.create("bytes:///"+className.replace('.', '/')+Kind.CLASS.extension), Kind.CLASS);
+        }
+
+        @Override
+        public OutputStream openOutputStream() {
+            return _bytes;
+        }
+
+        public byte[] bytes() {
+            return _bytes.toByteArray();
+        }
+    }
+
+    private final static class MemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager>
+    {
+        private final Map<String, ClassFile> _classes = new HashMap<String, ClassFile>();
+
+        public MemoryFileManager(StandardJavaFileManager fm) {
+            super(fm);
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className,
+                JavaFileObject.Kind kind, FileObject sibling) throws IOException
+        {
+            ClassFile f = new ClassFile(className);
+            _classes.put(className, f);
+            return f;
+        }
+
+        public byte[] bytecode(String className) {
+            ClassFile f = _classes.get(className);
+            return (f == null) ? null : f.bytes();
+        }
+    }
+
+    private final static class GeneratedClassLoader extends ClassLoader
+    {
+        public GeneratedClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        public Class<?> define(String name, byte[] bytecode) {
+            return defineClass(name, bytecode, 0, bytecode.length);
+        }
+    }
+}
@@ -3,7 +3,9 @@ package com.fasterxml.jackson.dataformat.avro.deser;
 import java.io.IOException;
 import java.util.List;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.dataformat.avro.AvroParser;
 import com.fasterxml.jackson.dataformat.avro.schema.AvroSchemaHelper;
 
 /**
@@ -100,6 +102,11 @@ public abstract class ScalarDecoder
                 return parser.decodeDouble();
             }
 
+            @Override
+            public JsonParser.NumberType getNumberType() {
+                return JsonParser.NumberType.DOUBLE;
+            }
+
             @Override
             public void skipValue(AvroParserImpl parser) throws IOException {
                 parser.skipDouble();
@@ -138,6 +145,11 @@ public abstract class ScalarDecoder
                 return parser.decodeFloat();
             }
 
+            @Override
+            public JsonParser.NumberType getNumberType() {
+                return JsonParser.NumberType.FLOAT;
+            }
+
             @Override
             public void skipValue(AvroParserImpl parser) throws IOException {
                 parser.skipFloat();
@@ -192,6 +204,11 @@ public abstract class ScalarDecoder
                 return parser.decodeIntToken();
             }
 
+            @Override
+            public JsonParser.NumberType getNumberType() {
+                return JsonParser.NumberType.INT;
+            }
+
             @Override
             public void skipValue(AvroParserImpl parser) throws IOException {
                 parser.skipInt();
@@ -231,6 +248,11 @@ public abstract class ScalarDecoder
                 return parser.decodeLongToken();
             }
 
+            @Override
+            public JsonParser.NumberType getNumberType() {
+                return JsonParser.NumberType.LONG;
+            }
+
             @Override
             public void skipValue(AvroParserImpl parser) throws IOException {
                 parser.skipLong();
@@ -546,4 +568,152 @@ public abstract class ScalarDecoder
             }
         }
     }
+
+    /**
+     * Decoder for values of logical type <code>decimal</code>: if
+     * {@link AvroParser.Feature#AVRO_DECIMALS_AS_NUMBERS} is enabled, exposed as
+     * {@link JsonToken#VALUE_NUMBER_FLOAT}s with {@link java.math.BigDecimal} value;
+     * otherwise as values of the underlying <code>bytes</code> or <code>fixed</code>
+     * type, using wrapped decoder.
+     *
+     * @since 3.0
+     */
+    protected final static class DecimalDecoder
+        extends ScalarDecoder
+    {
+        private final ScalarDecoder _raw;
+        private final int _size;
+        private final int _scale;
+        private final String _numberTypeId;
+
+        /**
+         * @param raw Decoder for the underlying type, used if decimals are not
+         *   to be exposed as numbers
+         * @param fixedSize Size of <code>fixed</code> values; -1 for <code>bytes</code>
+         * @param numberTypeId Type id to expose for values exposed as numbers
+         */
+        public DecimalDecoder(ScalarDecoder raw, int fixedSize, int scale, String numberTypeId) {
+            _raw = raw;
+            _size = fixedSize;
+            _scale = scale;
+            _numberTypeId = numberTypeId;
+        }
+
+        @Override
+        public JsonToken decodeValue(AvroParserImpl parser) throws IOException {
+            if (!parser.isEnabled(AvroParser.Feature.AVRO_DECIMALS_AS_NUMBERS)) {
+                return _raw.decodeValue(parser);
+            }
+            JsonToken t = parser.decodeDecimal(_size, _scale);
+            parser._logicalType = AvroSchemaHelper.LOGICAL_TYPE_DECIMAL;
+            parser._decimalTypeId = _numberTypeId;
+            return t;
+        }
+
+        @Override
+        protected void skipValue(AvroParserImpl parser) throws IOException {
+            _raw.skipValue(parser);
+        }
+
+        /**
+         * Type id of the underlying type; for values exposed as numbers,
+         * {@link AvroParserImpl#getTypeId()} uses number type id instead.
+         */
+        @Override
+        public String getTypeId() {
+            return _raw.getTypeId();
+        }
+
+        @Override
+        public AvroFieldReader asFieldReader(String name, boolean skipper) {
+            return new FR(name, skipper, this);
+        }
+
+        private final static class FR extends AvroFieldReader {
+            private final DecimalDecoder _decoder;
+
+            public FR(String name, boolean skipper, DecimalDecoder decoder) {
+                super(name, skipper, decoder.getTypeId());
+                _decoder = decoder;
+            }
+
+            @Override
+            public JsonToken readValue(AvroReadContext parent, AvroParserImpl parser) throws IOException {
+                return _decoder.decodeValue(parser);
+            }
+
+            @Override
+            public void skipValue(AvroParserImpl parser) throws IOException {
+                _decoder.skipValue(parser);
+            }
+        }
+    }
+
+    /**
+     * Decoder for values of other logical types (like <code>timestamp-millis</code>),
+     * which are decoded as values of their underlying type by wrapped decoder,
+     * but for which name of the logical type is also made available using
+     * {@link com.fasterxml.jackson.dataformat.avro.AvroParser#currentLogicalType()}.
+     *
+     * @since 3.0
+     */
+    protected final static class LogicalTypeDecoder
+        extends ScalarDecoder
+    {
+        private final ScalarDecoder _delegate;
+        private final String _logicalType;
+
+        public LogicalTypeDecoder(ScalarDecoder delegate, String logicalType) {
+            _delegate = delegate;
+            _logicalType = logicalType;
+        }
+
+        @Override
+        public JsonToken decodeValue(AvroParserImpl parser) throws IOException {
+            JsonToken t = _delegate.decodeValue(parser);
+            parser._logicalType = _logicalType;
+            return t;
+        }
+
+        @Override
+        protected void skipValue(AvroParserImpl parser) throws IOException {
+            _delegate.skipValue(parser);
+        }
+
+        @Override
+        public String getTypeId() {
+            return _delegate.getTypeId();
+        }
+
+        @Override
+        public AvroFieldReader asFieldReader(String name, boolean skipper) {
+            return new FR(name, skipper, this);
+        }
+
+        private final static class FR extends AvroFieldReader {
+            private final LogicalTypeDecoder _decoder;
+            private final JsonParser.NumberType _numberType;
+
+            public FR(String name, boolean skipper, LogicalTypeDecoder decoder) {
+                super(name, skipper, decoder.getTypeId());
+                _decoder = decoder;
+                _numberType = decoder._delegate.asFieldReader(name, skipper).getNumberType();
+            }
+
+            @Override
+            public JsonParser.NumberType getNumberType() {
+                return _numberType;
+            }
+
+            @Override
+            public JsonToken readValue(AvroReadContext parent, AvroParserImpl parser) throws IOException {
+                return _decoder.decodeValue(parser);
+            }
+
+            @Override
+            public void skipValue(AvroParserImpl parser) throws IOException {
+                _decoder.skipValue(parser);
+            }
+        }
+    }
 }
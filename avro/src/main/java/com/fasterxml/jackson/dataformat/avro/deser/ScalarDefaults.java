@@ -1,8 +1,10 @@
 package com.fasterxml.jackson.dataformat.avro.deser;
 
 import java.io.IOException;
+import java.math.BigDecimal;
 
 import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.dataformat.avro.AvroParser;
 import com.fasterxml.jackson.dataformat.avro.schema.AvroSchemaHelper;
 
 /**
@@ -133,6 +135,38 @@ public class ScalarDefaults
         }
     }
 
+    /**
+     * Defaults for values of logical type <code>decimal</code>: same as with
+     * decoded values, exposed as numbers only if
+     * {@link AvroParser.Feature#AVRO_DECIMALS_AS_NUMBERS} is enabled, and
+     * as bytes of the underlying type otherwise.
+     *
+     * @since 3.0
+     */
+    protected final static class DecimalDefaults extends DefaultsBase
+    {
+        protected final byte[] _bytes;
+        protected final BigDecimal _decimal;
+        protected final String _numberTypeId;
+
+        public DecimalDefaults(String name, byte[] bytes, BigDecimal v, String numberTypeId) {
+            super(name, AvroSchemaHelper.getTypeId(byte[].class));
+            _bytes = bytes;
+            _decimal = v;
+            _numberTypeId = numberTypeId;
+        }
+
+        @Override
+        public JsonToken readValue(AvroReadContext parent, AvroParserImpl parser) {
+            if (!parser.isEnabled(AvroParser.Feature.AVRO_DECIMALS_AS_NUMBERS)) {
+                return parser.setBytes(_bytes);
+            }
+            parser._logicalType = AvroSchemaHelper.LOGICAL_TYPE_DECIMAL;
+            parser._decimalTypeId = _numberTypeId;
+            return parser.setNumber(_decimal);
+        }
+    }
+
     protected final static class NullDefaults extends DefaultsBase
     {
         public NullDefaults(String name) {
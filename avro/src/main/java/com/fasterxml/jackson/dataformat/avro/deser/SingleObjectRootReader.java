@@ -0,0 +1,68 @@
+package com.fasterxml.jackson.dataformat.avro.deser;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.sym.FieldNameMatcher;
+import com.fasterxml.jackson.dataformat.avro.AvroSingleObjectSchema;
+
+/**
+ * Context used at root level for content that uses Avro single-object encoding:
+ * similar to {@link RootReader}, but decodes header of each root value
+ * to find the {@link AvroStructureReader} to use for the value.
+ *
+ * @since 3.0
+ */
+public class SingleObjectRootReader extends AvroReadContext
+{
+    private final AvroParserImpl _parser;
+    private final AvroSingleObjectSchema _schema;
+
+    /**
+     * Reader used for the latest root value, if any
+     */
+    private AvroStructureReader _valueReader;
+
+    public SingleObjectRootReader(AvroParserImpl parser, AvroSingleObjectSchema schema) {
+        super(null, null);
+        _type = TYPE_ROOT;
+        _parser = parser;
+        _schema = schema;
+    }
+
+    @Override
+    public JsonToken nextToken() throws IOException {
+        if (_parser.checkInputEnd()) {
+            return null;
+        }
+        AvroStructureReader r = _schema.findReader(_parser.decodeSingleObjectHeader());
+        _valueReader = r;
+        return r.newReader(this, _parser).nextToken();
+    }
+
+    @Override
+    public void skipValue(AvroParserImpl parser) throws IOException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void appendDesc(StringBuilder sb) {
+        sb.append("/");
+    }
+
+    @Override
+    public String nextFieldName() throws IOException {
+        return null;
+    }
+
+    @Override
+    public int nextFieldName(FieldNameMatcher matcher) throws IOException {
+        return FieldNameMatcher.MATCH_ODD_TOKEN;
+    }
+
+    @Override
+    public String getTypeId() {
+        AvroStructureReader r = _valueReader;
+        return (r == null) ? null : r.getTypeId();
+    }
+}
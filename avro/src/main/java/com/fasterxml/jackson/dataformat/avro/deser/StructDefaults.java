@@ -1,134 +1,240 @@
 package com.fasterxml.jackson.dataformat.avro.deser;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.sym.FieldNameMatcher;
 
 /**
  * Default-providing {@link AvroFieldReader} implementations for
- * structured types. Built solely based on JSON default values,
- * for now, so only two variants needed. In future may need to
- * tie to Avro type hierarchy more closely.
+ * structured types (records, maps and arrays). Default values are
+ * precompiled (by {@link AvroFieldDefaulters}) into a flat sequence of
+ * structural tokens, field names and scalar default providers, which
+ * is then replayed for each record that lacks the field: so nested
+ * defaults need not be walked, converted or resolved more than once.
  */
 public class StructDefaults
 {
-    public static AvroFieldReader createObjectDefaults(String name,
-            List<AvroFieldReader> fieldReaders) {
-        
-        return AvroFieldReader.construct(name, new ObjectDefaults(
-                null, null,
-                fieldReaders.toArray(new AvroFieldReader[fieldReaders.size()])));
-    }
+    /**
+     * Builder used for precompiling a structured default value.
+     *
+     * @since 3.0
+     */
+    protected final static class Builder
+    {
+        private final List<JsonToken> _tokens = new ArrayList<JsonToken>();
+
+        /**
+         * Value for each token: type id for start tokens, name for field names,
+         * and default provider for scalar values
+         */
+        private final List<Object> _values = new ArrayList<Object>();
+
+        /**
+         * Indexes of start tokens of structured values not yet closed
+         */
+        private final List<Integer> _open = new ArrayList<Integer>();
+
+        private final List<Integer> _ends = new ArrayList<Integer>();
+
+        public void startObject(String typeId) {
+            _start(JsonToken.START_OBJECT, typeId);
+        }
+
+        public void startArray(String typeId) {
+            _start(JsonToken.START_ARRAY, typeId);
+        }
+
+        public void fieldName(String name) {
+            _add(JsonToken.FIELD_NAME, name);
+        }
+
+        public void scalar(ScalarDefaults.DefaultsBase defaults) {
+            // actual token determined by default provider
+            _add(JsonToken.VALUE_EMBEDDED_OBJECT, defaults);
+        }
 
-    public static AvroFieldReader createArrayDefaults(String name,
-            List<AvroFieldReader> fieldReaders) {
-        
-        return AvroFieldReader.construct(name, new ArrayDefaults(
-                null, null,
-                fieldReaders.toArray(new AvroFieldReader[fieldReaders.size()])));
+        public void end(JsonToken endToken) {
+            final int start = _open.remove(_open.size()-1);
+            _add(endToken, null);
+            // index after end token, for skipping
+            _ends.set(start, _tokens.size());
+        }
+
+        public AvroFieldReader build(String name) {
+            final int len = _tokens.size();
+            int[] ends = new int[len];
+            for (int i = 0; i < len; ++i) {
+                ends[i] = _ends.get(i);
+            }
+            return AvroFieldReader.construct(name, new ReplayReader(null, null,
+                    _tokens.toArray(new JsonToken[len]), _values.toArray(), ends, 0));
+        }
+
+        private void _start(JsonToken t, String typeId) {
+            _open.add(_tokens.size());
+            _add(t, typeId);
+        }
+
+        private void _add(JsonToken t, Object value) {
+            _tokens.add(t);
+            _values.add(value);
+            _ends.add(-1);
+        }
     }
 
-    protected static class ObjectDefaults extends MapReader
+    /**
+     * Reader that replays precompiled structured default value; one instance
+     * is constructed for each structured value (Object or Array) replayed,
+     * but all share the same token sequence.
+     *
+     * @since 3.0
+     */
+    protected final static class ReplayReader extends AvroStructureReader
     {
-        protected final AvroFieldReader[] _fieldReaders;
+        private final AvroParserImpl _parser;
+
+        private final JsonToken[] _tokens;
+
+        private final Object[] _values;
+
+        /**
+         * For start tokens, index of the token following matching end token
+         */
+        private final int[] _ends;
+
+        /**
+         * Index of the start token of the value this reader replays
+         */
+        private final int _start;
+
+        /**
+         * Index of the next token to replay
+         */
+        private int _ptr;
 
-        public ObjectDefaults(AvroReadContext parent,
-                AvroParserImpl parser, AvroFieldReader[] fieldReaders)
+        private String _currentName;
+
+        ReplayReader(AvroReadContext parent, AvroParserImpl parser,
+                JsonToken[] tokens, Object[] values, int[] ends, int start)
         {
-            super(parent, parser, null, null, null);
-            _fieldReaders = fieldReaders;
+            super(parent, (tokens[start] == JsonToken.START_ARRAY) ? TYPE_ARRAY : TYPE_OBJECT,
+                    (String) values[start]);
+            _parser = parser;
+            _tokens = tokens;
+            _values = values;
+            _ends = ends;
+            _start = start;
+            _ptr = start;
+            _index = -1;
         }
 
         @Override
-        public long getRemainingElements() {
-            return _fieldReaders.length - _index;
+        public ReplayReader newReader(AvroReadContext parent, AvroParserImpl parser) {
+            return new ReplayReader(parent, parser, _tokens, _values, _ends, _start);
         }
 
         @Override
-        public MapReader newReader(AvroReadContext parent,
-                AvroParserImpl parser) {
-            return new ObjectDefaults(parent, parser, _fieldReaders);
+        public String currentName() {
+            return _currentName;
         }
 
         @Override
         public JsonToken nextToken() throws IOException
         {
-            switch (_state) {
-            case STATE_START:
-                _parser.setAvroContext(this);
-                _state = STATE_NAME;
-                return (_currToken = JsonToken.START_OBJECT);
-            case STATE_NAME:
-                if (_index < _fieldReaders.length) {
-                    _state = STATE_VALUE;
-                    _currentName = _fieldReaders[_index].getName();
-                    return (_currToken = JsonToken.FIELD_NAME);
+            final int ix = _ptr++;
+            final JsonToken t = _tokens[ix];
+            switch (t) {
+            case START_OBJECT:
+            case START_ARRAY:
+                if (ix == _start) {
+                    _parser.setAvroContext(this);
+                    return (_currToken = t);
                 }
-                final AvroReadContext parent = getParent();
-                _state = STATE_DONE;
-                _parser.setAvroContext(parent);
-                return (_currToken = JsonToken.END_OBJECT);
-            case STATE_VALUE:
-                _state = STATE_NAME;
-                AvroFieldReader r = _fieldReaders[_index++];
-                return (_currToken = r.readValue(this, _parser));
+                // nested value: replayed by new reader, after which we continue past it
+                _ptr = _ends[ix];
+                _nextIndex();
+                _currToken = t;
+                return new ReplayReader(this, _parser, _tokens, _values, _ends, ix).nextToken();
+            case FIELD_NAME:
+                _currentName = (String) _values[ix];
+                ++_index;
+                return (_currToken = t);
+            case END_OBJECT:
+            case END_ARRAY:
+                _parser.setAvroContext(getParent());
+                return (_currToken = t);
             default:
+                _nextIndex();
+                return (_currToken = ((AvroFieldReader) _values[ix]).readValue(this, _parser));
+            }
+        }
+
+        private void _nextIndex() {
+            // for Objects, index advanced by field names
+            if (_type == TYPE_ARRAY) {
+                ++_index;
             }
-            throwIllegalState(_state);
-            return null;
         }
 
         @Override
-        public void skipValue(AvroParserImpl parser) throws IOException {
-            // never called defaults
+        public String nextFieldName() throws IOException {
+            JsonToken t = nextToken();
+            if (t == JsonToken.FIELD_NAME) {
+                return _currentName;
+            }
+            return null;
         }
-    }
 
-    protected static class ArrayDefaults extends ArrayReader
-    {
-        protected final AvroFieldReader[] _valueReaders;
+        @Override
+        public int nextFieldName(FieldNameMatcher matcher) throws IOException {
+            JsonToken t = nextToken();
+            if (t == JsonToken.FIELD_NAME) {
+                return matcher.matchName(_currentName);
+            }
+            if (t == JsonToken.END_OBJECT) {
+                return FieldNameMatcher.MATCH_END_OBJECT;
+            }
+            return FieldNameMatcher.MATCH_ODD_TOKEN;
+        }
 
-        public ArrayDefaults(AvroReadContext parent,
-                AvroParserImpl parser, AvroFieldReader[] valueReaders)
-        {
-            super(parent, parser, null, null);
-            _valueReaders = valueReaders;
+        @Override
+        public void skipValue(AvroParserImpl parser) throws IOException {
+            // never called for defaults: nothing in input to skip
         }
 
         @Override
-        public ArrayReader newReader(AvroReadContext parent,
-                AvroParserImpl parser) {
-            return new ArrayDefaults(parent, parser, _valueReaders);
+        protected boolean skipRemaining() throws IOException {
+            final int end = _ends[_start];
+            _ptr = end;
+            _currToken = _tokens[end-1];
+            _parser.setAvroContext(getParent());
+            return true;
         }
 
         @Override
-        public JsonToken nextToken() throws IOException
-        {
-            switch (_state) {
-            case STATE_START:
-                _parser.setAvroContext(this);
-                _state = STATE_ELEMENTS;
-                return (_currToken = JsonToken.START_ARRAY);
-            case STATE_ELEMENTS:
-                if (_index < _valueReaders.length) {
-                    AvroFieldReader r = _valueReaders[_index++];
-                    return (_currToken = r.readValue(this, _parser));
-                }
-                final AvroReadContext parent = getParent();
-                _state = STATE_DONE;
-                _parser.setAvroContext(parent);
-                return (_currToken = JsonToken.END_ARRAY);
-            default:
+        public String getTypeId() {
+            if ((_currToken != null) && _currToken.isStructStart()) {
+                return super.getTypeId();
             }
-            throwIllegalState(_state);
             return null;
         }
 
         @Override
-        public void skipValue(AvroParserImpl parser) throws IOException {
-            // never called defaults
+        protected void appendDesc(StringBuilder sb) {
+            if (_type == TYPE_ARRAY) {
+                sb.append('[').append(getCurrentIndex()).append(']');
+                return;
+            }
+            sb.append('{');
+            if (_currentName != null) {
+                sb.append('"').append(_currentName).append('"');
+            } else {
+                sb.append('?');
+            }
+            sb.append('}');
         }
     }
-
 }
@@ -16,6 +16,19 @@ public class AvroSchemaGenerator extends VisitorFormatWrapperImpl
         super(new DefinedSchemas(), null);
     }
 
+    /**
+     * Method for enabling generation of logical types for types that have one:
+     * <code>timestamp-millis</code> for {@link java.util.Date}s (when serialized
+     * as timestamps) and <code>uuid</code> for {@link java.util.UUID}s.
+     * Disabled by default for backwards compatibility.
+     *
+     * @since 3.0
+     */
+    public AvroSchemaGenerator enableLogicalTypes() {
+        _schemas.enableLogicalTypes();
+        return this;
+    }
+
     public AvroSchema getGeneratedSchema() {
         return new AvroSchema(getAvroSchema());
     }
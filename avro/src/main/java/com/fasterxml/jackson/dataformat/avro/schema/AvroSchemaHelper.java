@@ -44,6 +44,54 @@ public abstract class AvroSchemaHelper
      */
     public static final String AVRO_SCHEMA_PROP_ELEMENT_CLASS = SpecificData.ELEMENT_PROP;
 
+    /**
+     * Name of the property native Avro Schemas use for indicating logical type
+     * of a value (like <code>"decimal"</code> or <code>"timestamp-millis"</code>).
+     *
+     * @since 3.0
+     */
+    public static final String AVRO_SCHEMA_PROP_LOGICAL_TYPE = "logicalType";
+
+    /**
+     * Logical type for arbitrary-precision decimal numbers, stored as
+     * two's-complement unscaled value in <code>bytes</code> or <code>fixed</code>
+     *
+     * @since 3.0
+     */
+    public static final String LOGICAL_TYPE_DECIMAL = "decimal";
+
+    /**
+     * @since 3.0
+     */
+    public static final String LOGICAL_TYPE_UUID = "uuid";
+
+    /**
+     * Logical type for dates, stored as days since epoch in an <code>int</code>
+     *
+     * @since 3.0
+     */
+    public static final String LOGICAL_TYPE_DATE = "date";
+
+    /**
+     * @since 3.0
+     */
+    public static final String LOGICAL_TYPE_TIME_MILLIS = "time-millis";
+
+    /**
+     * @since 3.0
+     */
+    public static final String LOGICAL_TYPE_TIME_MICROS = "time-micros";
+
+    /**
+     * @since 3.0
+     */
+    public static final String LOGICAL_TYPE_TIMESTAMP_MILLIS = "timestamp-millis";
+
+    /**
+     * @since 3.0
+     */
+    public static final String LOGICAL_TYPE_TIMESTAMP_MICROS = "timestamp-micros";
+
     /**
      * Default stringable classes
      */
@@ -283,6 +331,66 @@ public abstract class AvroSchemaHelper
         }
     }
 
+    /**
+     * Returns the name of the logical type of this schema, or {@code null} if none is present.
+     *
+     * @since 3.0
+     */
+    public static String getLogicalType(Schema schema) {
+        return schema.getProp(AVRO_SCHEMA_PROP_LOGICAL_TYPE);
+    }
+
+    /**
+     * Checks whether given schema is a <code>bytes</code> or <code>fixed</code> schema
+     * with logical type <code>decimal</code>.
+     *
+     * @since 3.0
+     */
+    public static boolean isDecimal(Schema schema) {
+        switch (schema.getType()) {
+        case BYTES:
+        case FIXED:
+            return LOGICAL_TYPE_DECIMAL.equals(getLogicalType(schema));
+        default:
+            return false;
+        }
+    }
+
+    /**
+     * Returns scale of a <code>decimal</code> schema; 0 if not specified.
+     *
+     * @since 3.0
+     */
+    public static int getDecimalScale(Schema schema) {
+        Object scale = schema.getObjectProp("scale");
+        return (scale instanceof Number) ? ((Number) scale).intValue() : 0;
+    }
+
+    /**
+     * Helper method for constructing <code>bytes</code> (if <code>fixedSize</code> is
+     * negative) or <code>fixed</code> schema with logical type <code>decimal</code>.
+     *
+     * @since 3.0
+     */
+    public static Schema decimalSchema(int precision, int scale, Schema fixedSchema) {
+        Schema schema = (fixedSchema == null) ? Schema.create(Schema.Type.BYTES) : fixedSchema;
+        schema.addProp(AVRO_SCHEMA_PROP_LOGICAL_TYPE, LOGICAL_TYPE_DECIMAL);
+        schema.addProp("precision", Integer.valueOf(precision));
+        schema.addProp("scale", Integer.valueOf(scale));
+        return schema;
+    }
+
+    /**
+     * Helper method for constructing "native" Avro Schema instance with given
+     * logical type.
+     *
+     * @since 3.0
+     */
+    public static Schema logicalTypeSchema(Schema schema, String logicalType) {
+        schema.addProp(AVRO_SCHEMA_PROP_LOGICAL_TYPE, logicalType);
+        return schema;
+    }
+
     /**
      * Returns the full name of a schema; This is similar to {@link Schema#getFullName()}, except that it properly handles namespaces for
      * nested classes. (<code>package.name.ClassName$NestedClassName</code> instead of <code>package.name.ClassName$.NestedClassName</code>)
@@ -17,6 +17,14 @@ public class DefinedSchemas
 
     protected SerializerProvider _provider;
 
+    /**
+     * Whether logical types (like <code>timestamp-millis</code>) are to be
+     * included in generated schemas for types that have one.
+     *
+     * @since 3.0
+     */
+    protected boolean _logicalTypesEnabled;
+
     /*
     /**********************************************************************
     /* Construction
@@ -33,6 +41,20 @@ public class DefinedSchemas
         return _provider;
     }
 
+    /**
+     * @since 3.0
+     */
+    public void enableLogicalTypes() {
+        _logicalTypesEnabled = true;
+    }
+
+    /**
+     * @since 3.0
+     */
+    public boolean isLogicalTypesEnabled() {
+        return _logicalTypesEnabled;
+    }
+
     /*
     /**********************************************************************
     /* API
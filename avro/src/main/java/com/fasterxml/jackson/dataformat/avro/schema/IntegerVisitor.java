@@ -5,6 +5,7 @@ import org.apache.avro.Schema;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.jsonFormatVisitors.JsonIntegerFormatVisitor;
+import com.fasterxml.jackson.databind.jsonFormatVisitors.JsonValueFormat;
 
 public class IntegerVisitor extends JsonIntegerFormatVisitor.Base
     implements SchemaBuilder
@@ -12,22 +13,50 @@ public class IntegerVisitor extends JsonIntegerFormatVisitor.Base
     protected JsonParser.NumberType _type;
     protected JavaType _hint;
 
+    /**
+     * @since 3.0
+     */
+    protected boolean _logicalTypesEnabled;
+
+    /**
+     * @since 3.0
+     */
+    protected JsonValueFormat _format;
+
     public IntegerVisitor() {}
 
     public IntegerVisitor(JavaType typeHint) {
         _hint = typeHint;
     }
 
+    /**
+     * @since 3.0
+     */
+    public IntegerVisitor(JavaType typeHint, boolean logicalTypesEnabled) {
+        _hint = typeHint;
+        _logicalTypesEnabled = logicalTypesEnabled;
+    }
+
     @Override
     public void numberType(JsonParser.NumberType type) {
         _type = type;
     }
+
+    @Override
+    public void format(JsonValueFormat format) {
+        _format = format;
+    }
     
     @Override
     public Schema builtAvroSchema() {
         if (_type == null) {
             throw new IllegalStateException("No number type indicated");
         }
-        return AvroSchemaHelper.numericAvroSchema(_type, _hint);
+        Schema schema = AvroSchemaHelper.numericAvroSchema(_type, _hint);
+        if (_logicalTypesEnabled && (_format == JsonValueFormat.UTC_MILLISEC)
+                && (_type == JsonParser.NumberType.LONG)) {
+            AvroSchemaHelper.logicalTypeSchema(schema, AvroSchemaHelper.LOGICAL_TYPE_TIMESTAMP_MILLIS);
+        }
+        return schema;
     }
 }
@@ -18,6 +18,7 @@ import com.fasterxml.jackson.databind.jsonFormatVisitors.JsonFormatVisitable;
 import com.fasterxml.jackson.databind.jsonFormatVisitors.JsonObjectFormatVisitor;
 import com.fasterxml.jackson.databind.jsontype.NamedType;
 import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.dataformat.avro.AvroDecimal;
 import com.fasterxml.jackson.dataformat.avro.AvroFixedSize;
 import com.fasterxml.jackson.dataformat.avro.ser.CustomEncodingSerializer;
 
@@ -155,7 +156,12 @@ public class RecordVisitor
             writerSchema = parser.parse(schemaOverride.value());
         } else {
             AvroFixedSize fixedSize = prop.getAnnotation(AvroFixedSize.class);
-            if (fixedSize != null) {
+            AvroDecimal decimal = prop.getAnnotation(AvroDecimal.class);
+            if (decimal != null) {
+                Schema fixedSchema = (fixedSize == null) ? null
+                        : Schema.createFixed(fixedSize.typeName(), null, fixedSize.typeNamespace(), fixedSize.size());
+                writerSchema = AvroSchemaHelper.decimalSchema(decimal.precision(), decimal.scale(), fixedSchema);
+            } else if (fixedSize != null) {
                 writerSchema = Schema.createFixed(fixedSize.typeName(), null, fixedSize.typeNamespace(), fixedSize.size());
             } else {
                 JsonSerializer<?> ser = null;
@@ -22,6 +22,11 @@ public class StringVisitor extends JsonStringFormatVisitor.Base
 
     protected Set<String> _enums;
 
+    /**
+     * @since 3.0
+     */
+    protected JsonValueFormat _format;
+
     public StringVisitor(SerializerProvider provider, DefinedSchemas schemas, JavaType t) {
         _schemas = schemas;
         _type = t;
@@ -30,7 +35,8 @@ public class StringVisitor extends JsonStringFormatVisitor.Base
     
     @Override
     public void format(JsonValueFormat format) {
-        // Ideally, we'd recognize UUIDs, Dates etc if need be, here...
+        // only UUIDs have matching logical type, but keep track of all
+        _format = format;
     }
 
     @Override
@@ -51,6 +57,9 @@ public class StringVisitor extends JsonStringFormatVisitor.Base
             return s;
         }
         Schema schema = Schema.create(Schema.Type.STRING);
+        if (_schemas.isLogicalTypesEnabled() && (_format == JsonValueFormat.UUID)) {
+            return AvroSchemaHelper.logicalTypeSchema(schema, AvroSchemaHelper.LOGICAL_TYPE_UUID);
+        }
         // Stringable classes need to include the type
         if (AvroSchemaHelper.isStringable(bean.getClassInfo()) && !_type.hasRawClass(String.class)) {
             schema.addProp(AvroSchemaHelper.AVRO_SCHEMA_PROP_CLASS, AvroSchemaHelper.getTypeId(_type));
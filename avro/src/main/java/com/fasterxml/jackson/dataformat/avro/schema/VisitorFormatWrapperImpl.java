@@ -148,7 +148,7 @@ public class VisitorFormatWrapperImpl
             _valueSchema = s;
             return null;
         }
-        IntegerVisitor v = new IntegerVisitor(type);
+        IntegerVisitor v = new IntegerVisitor(type, _schemas.isLogicalTypesEnabled());
         _builder = v;
         return v;
     }
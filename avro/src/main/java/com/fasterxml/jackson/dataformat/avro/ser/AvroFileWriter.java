@@ -0,0 +1,295 @@
+package com.fasterxml.jackson.dataformat.avro.ser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.zip.Deflater;
+
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryEncoder;
+
+/**
+ * Helper object used by {@link com.fasterxml.jackson.dataformat.avro.AvroGenerator}
+ * for writing Avro Object Container File output when
+ * {@link com.fasterxml.jackson.dataformat.avro.AvroGenerator.Feature#AVRO_FILE_OUTPUT}
+ * is enabled. File header (with schema and codec metadata) is written once,
+ * before the first value; root values are then encoded into a block buffer
+ * which is written out (compressed if a codec is configured, and followed by
+ * the sync marker) whenever it reaches configured block size, as well as
+ * when writer is closed. If no values are written, nothing (not even the
+ * header) is output.
+ *
+ * @since 3.0
+ */
+public class AvroFileWriter
+{
+    /**
+     * Default block size: same as the default sync interval of Avro lib
+     * <code>DataFileWriter</code>.
+     */
+    public final static int DEFAULT_BLOCK_SIZE = 64000;
+
+    public final static String CODEC_NULL = "null";
+
+    public final static String CODEC_DEFLATE = "deflate";
+
+    private final static byte[] MAGIC = new byte[] { 'O', 'b', 'j', 1 };
+
+    private final static String META_SCHEMA = "avro.schema";
+    private final static String META_CODEC = "avro.codec";
+
+    private final static int SYNC_SIZE = 16;
+
+    /*
+    /**********************************************************
+    /* Configuration
+    /**********************************************************
+     */
+
+    /**
+     * Encoder used for writing header and blocks to the actual output
+     */
+    protected final BinaryEncoder _encoder;
+
+    protected final Schema _schema;
+
+    protected final String _codec;
+
+    protected final int _compressionLevel;
+
+    protected final int _blockSize;
+
+    protected final boolean _flushBlocks;
+
+    protected final byte[] _sync;
+
+    /*
+    /**********************************************************
+    /* State
+    /**********************************************************
+     */
+
+    protected final BlockBuffer _block;
+
+    /**
+     * Encoder used for encoding values into the current block
+     */
+    protected final JacksonAvroEncoder _blockEncoder;
+
+    protected BlockBuffer _compressed;
+
+    protected Deflater _deflater;
+
+    /**
+     * Number of values in the current block
+     */
+    protected int _blockCount;
+
+    protected boolean _headerWritten;
+
+    protected boolean _closed;
+
+    /*
+    /**********************************************************
+    /* Life-cycle
+    /**********************************************************
+     */
+
+    /**
+     * @param encoder Encoder for writing to the actual output
+     * @param schema Schema of values to write
+     * @param codec Name of the compression codec to use: either {@link #CODEC_NULL}
+     *    or {@link #CODEC_DEFLATE}
+     * @param compressionLevel Compression level to use with deflate codec
+     * @param blockSize Minimum size (in bytes) of uncompressed content of a block,
+     *    before it is written out
+     * @param flushBlocks Whether underlying output should be flushed after
+     *    each block written
+     */
+    public AvroFileWriter(BinaryEncoder encoder, Schema schema,
+            String codec, int compressionLevel, int blockSize, boolean flushBlocks)
+    {
+        _encoder = encoder;
+        _schema = schema;
+        _codec = verifyCodec(codec);
+        _compressionLevel = compressionLevel;
+        _blockSize = blockSize;
+        _flushBlocks = flushBlocks;
+        _sync = _generateSync();
+        _block = new BlockBuffer(Math.min(blockSize + 1000, DEFAULT_BLOCK_SIZE + 1000));
+        _blockEncoder = new JacksonAvroEncoder(_block, new byte[4000]);
+    }
+
+    /**
+     * Helper method for verifying that given codec name is one supported.
+     *
+     * @return Codec name to use
+     */
+    public static String verifyCodec(String codec)
+    {
+        if ((codec == null) || CODEC_NULL.equals(codec)) {
+            return CODEC_NULL;
+        }
+        if (CODEC_DEFLATE.equals(codec)) {
+            return CODEC_DEFLATE;
+        }
+        throw new IllegalArgumentException("Unsupported Avro file codec '"+codec
+                +"': only '"+CODEC_NULL+"' and '"+CODEC_DEFLATE+"' supported");
+    }
+
+    /*
+    /**********************************************************
+    /* Public API
+    /**********************************************************
+     */
+
+    public Schema getSchema() { return _schema; }
+
+    /**
+     * Accessor for encoder to use for encoding the next root value. Will
+     * write file header if not yet written.
+     */
+    public BinaryEncoder blockEncoder() throws IOException
+    {
+        if (!_headerWritten) {
+            _writeHeader();
+        }
+        return _blockEncoder;
+    }
+
+    /**
+     * Method called after a root value has been fully encoded using
+     * {@link #blockEncoder()}: will write out the current block if it
+     * has grown big enough.
+     */
+    public void valueWritten() throws IOException
+    {
+        ++_blockCount;
+        _blockEncoder.flush();
+        if (_block.size() >= _blockSize) {
+            flushBlock();
+        }
+    }
+
+    /**
+     * Method for writing out the current block (if any values have been
+     * written), regardless of its size.
+     */
+    public void flushBlock() throws IOException
+    {
+        if (_blockCount == 0) {
+            return;
+        }
+        _blockEncoder.flush();
+        BlockBuffer data = _block;
+        if (CODEC_DEFLATE.equals(_codec)) {
+            data = _deflate(_block);
+        }
+        _encoder.writeLong(_blockCount);
+        _encoder.writeLong(data.size());
+        _encoder.writeFixed(data.buffer(), 0, data.size());
+        _encoder.writeFixed(_sync, 0, SYNC_SIZE);
+        _block.reset();
+        _blockCount = 0;
+        if (_flushBlocks) {
+            _encoder.flush();
+        }
+    }
+
+    /**
+     * Method called when no more values are to be written: writes out
+     * the last block (if any), and flushes encoder. Underlying output is not closed.
+     */
+    public void close() throws IOException
+    {
+        if (_closed) {
+            return;
+        }
+        _closed = true;
+        flushBlock();
+        _encoder.flush();
+        if (_deflater != null) {
+            _deflater.end();
+            _deflater = null;
+        }
+    }
+
+    /*
+    /**********************************************************
+    /* Internal methods
+    /**********************************************************
+     */
+
+    protected void _writeHeader() throws IOException
+    {
+        _headerWritten = true;
+        _encoder.writeFixed(MAGIC, 0, MAGIC.length);
+        _encoder.writeMapStart();
+        _encoder.setItemCount(2);
+        _encoder.startItem();
+        _encoder.writeString(META_SCHEMA);
+        _encoder.writeBytes(_schema.toString().getBytes(StandardCharsets.UTF_8));
+        _encoder.startItem();
+        _encoder.writeString(META_CODEC);
+        _encoder.writeBytes(_codec.getBytes(StandardCharsets.UTF_8));
+        _encoder.writeMapEnd();
+        _encoder.writeFixed(_sync, 0, SYNC_SIZE);
+    }
+
+    protected BlockBuffer _deflate(BlockBuffer input)
+    {
+        Deflater d = _deflater;
+        if (d == null) {
+            // Avro uses "raw" deflate, without zlib header or checksum
+            _deflater = d = new Deflater(_compressionLevel, true);
+            _compressed = new BlockBuffer(_block.buffer().length);
+        } else {
+            d.reset();
+        }
+        BlockBuffer out = _compressed;
+        out.reset();
+        d.setInput(input.buffer(), 0, input.size());
+        d.finish();
+        while (!d.finished()) {
+            out.deflateFrom(d);
+        }
+        return out;
+    }
+
+    private static byte[] _generateSync()
+    {
+        UUID uuid = UUID.randomUUID();
+        long hi = uuid.getMostSignificantBits();
+        long lo = uuid.getLeastSignificantBits();
+        byte[] sync = new byte[SYNC_SIZE];
+        for (int i = 0; i < 8; ++i) {
+            sync[i] = (byte) (hi >> (i << 3));
+            sync[i+8] = (byte) (lo >> (i << 3));
+        }
+        return sync;
+    }
+
+    /**
+     * Simple growable buffer that exposes underlying array to avoid copying
+     */
+    protected final static class BlockBuffer extends ByteArrayOutputStream
+    {
+        public BlockBuffer(int initialSize) {
+            super(initialSize);
+        }
+
+        public byte[] buffer() { return buf; }
+
+        public int size() { return count; }
+
+        public void deflateFrom(Deflater d)
+        {
+            if (count == buf.length) {
+                buf = Arrays.copyOf(buf, buf.length << 1);
+            }
+            count += d.deflate(buf, count, buf.length - count);
+        }
+    }
+}
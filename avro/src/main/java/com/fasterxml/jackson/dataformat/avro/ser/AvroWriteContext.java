@@ -67,6 +67,9 @@ public abstract class AvroWriteContext
     
     public static AvroWriteContext createRootContext(AvroGenerator generator, Schema schema,
             BinaryEncoder encoder) {
+        if (generator.isEnabled(AvroGenerator.Feature.AVRO_DIRECT_ENCODING)) {
+            return new EncodingRootContext(generator, schema, encoder);
+        }
         return new RootContext(generator, schema, encoder);
     }
 
@@ -78,21 +81,45 @@ public abstract class AvroWriteContext
         return NullContext.instance;
     }
 
-    public final AvroWriteContext createChildArrayContext() throws JsonMappingException {
+    public final AvroWriteContext createChildArrayContext() throws IOException {
         return createChildArrayContext(null);
     }
 
-    public abstract AvroWriteContext createChildArrayContext(Object currValue) throws JsonMappingException;
+    public abstract AvroWriteContext createChildArrayContext(Object currValue) throws IOException;
 
-    public final AvroWriteContext createChildObjectContext() throws JsonMappingException {
+    public final AvroWriteContext createChildObjectContext() throws IOException {
         return createChildObjectContext(null);
     }
 
-    public abstract AvroWriteContext createChildObjectContext(Object currValue) throws JsonMappingException;
+    public abstract AvroWriteContext createChildObjectContext(Object currValue) throws IOException;
 
     public void complete() throws IOException {
         throw new IllegalStateException("Can not be called on "+getClass().getName());
     }
+
+    /**
+     * Method called by generator when the Array or Object this context represents
+     * has been fully written, right before generator switches back to the parent
+     * context. Default implementation does nothing since contexts that build
+     * {@link GenericRecord}s (and other containers) link values to their parent
+     * on construction; contexts that encode content directly need to finish
+     * their output here.
+     */
+    public void writeEnd() throws IOException { }
+
+    /**
+     * Helper method called by root contexts before encoding a root value,
+     * to write single-object encoding header if one is needed.
+     *
+     * @since 3.0
+     */
+    protected void _writeSingleObjectHeader(BinaryEncoder encoder) throws IOException
+    {
+        byte[] header = _generator.getSingleObjectHeader();
+        if (header != null) {
+            encoder.writeFixed(header, 0, header.length);
+        }
+    }
     
     /*
     /**********************************************************
@@ -206,7 +233,7 @@ public abstract class AvroWriteContext
         Type type = schema.getType();
         if (type == Schema.Type.UNION) {
             try {
-                schema = resolveUnionSchema(schema, currValue);
+                schema = _resolveUnionSchema(schema, currValue);
             } catch (UnresolvedUnionException e) {
                 // couldn't find an exact match
                 schema = _recordOrMapFromUnion(schema);
@@ -219,6 +246,16 @@ public abstract class AvroWriteContext
         return new ObjectWriteContext(this, _generator, _createRecord(schema), currValue);
     }
 
+    /**
+     * Helper method for resolving the branch of given union to use for given value,
+     * using cache of the schema being written (see {@link UnionIndexCache}).
+     *
+     * @since 3.0
+     */
+    protected Schema _resolveUnionSchema(Schema unionSchema, Object datum) {
+        return _generator.getSchema().getUnionIndexCache().resolveUnionType(unionSchema, datum);
+    }
+
     protected Schema _recordOrMapFromUnion(Schema unionSchema)
     {
         Schema match = null;
@@ -276,8 +313,8 @@ public abstract class AvroWriteContext
             if (raw == CLS_GENERIC_RECORD) {
                 return _resolveRecordIndex(unionSchema, types, (GenericData.Record) datum);
             }
-            if (raw == CLS_GENERIC_ARRAY) {
-                return _resolveArrayIndex(unionSchema, types, (GenericData.Array<?>) datum);
+            if ((raw == CLS_GENERIC_ARRAY) || (datum instanceof PrimitiveArrayDatum)) {
+                return _resolveArrayIndex(unionSchema, types, datum);
             }
             if (datum instanceof Map<?,?>) {
                 return _resolveMapIndex(unionSchema, types, datum);
@@ -331,8 +368,8 @@ public abstract class AvroWriteContext
             if (raw == CLS_GENERIC_RECORD) {
                 return types.get(_resolveRecordIndex(unionSchema, types, (GenericData.Record) datum));
             }
-            if (raw == CLS_GENERIC_ARRAY) {
-                return types.get(_resolveArrayIndex(unionSchema, types, (GenericData.Array<?>) datum));
+            if ((raw == CLS_GENERIC_ARRAY) || (datum instanceof PrimitiveArrayDatum)) {
+                return types.get(_resolveArrayIndex(unionSchema, types, datum));
             }
             if (datum instanceof Map<?,?>) {
                 return types.get(_resolveMapIndex(unionSchema, types, datum));
@@ -418,15 +455,13 @@ public abstract class AvroWriteContext
 
         for (int i = 0, size = types.size(); i < size; ++i) {
             Schema schema = types.get(i);
-            Schema.Type t = schema.getType();
-
-            if (t == Type.DOUBLE) {
+            // Optimally BigDecimals go in bytes or fixed with logical type "decimal"
+            if (AvroSchemaHelper.isDecimal(schema)) {
                 return i;
             }
-            // BigDecimals can be shoved into a double, but optimally would be a String or byte[] with logical type information
-            if (t == Type.DOUBLE) {
+            // but they can also be shoved into a double
+            if ((match < 0) && (schema.getType() == Type.DOUBLE)) {
                 match = i;
-                continue;
             }
         }
         if (match < 0) {
@@ -462,7 +497,7 @@ public abstract class AvroWriteContext
     }
 
     private static int _resolveArrayIndex(Schema unionSchema, List<Schema> types,
-            GenericData.Array<?> value)
+            Object value)
     {
 //        String name = value.getSchema().getFullName();
         for (int i = 0, size = types.size(); i < size; ++i) {
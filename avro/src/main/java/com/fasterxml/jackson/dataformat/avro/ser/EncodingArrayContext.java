@@ -0,0 +1,115 @@
+package com.fasterxml.jackson.dataformat.avro.ser;
+
+import java.io.IOException;
+
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryEncoder;
+
+import com.fasterxml.jackson.dataformat.avro.AvroGenerator;
+
+/**
+ * Context for encoding Avro Array values directly: since Avro encodes arrays
+ * as blocks prefixed with element count, elements are buffered until block
+ * is large enough, at which point block is written out.
+ */
+public class EncodingArrayContext
+    extends EncodingWriteContext
+{
+    /**
+     * Size (in bytes) of buffered element data at which a block is written out.
+     */
+    protected final static int MAX_BLOCK_SIZE = 16000;
+
+    protected final Schema _elementSchema;
+
+    protected BufferedOutput _block;
+
+    /**
+     * Number of elements in the currently buffered block.
+     */
+    protected int _blockCount;
+
+    public EncodingArrayContext(AvroWriteContext parent, AvroGenerator generator,
+            Schema schema, Object currValue, Shared shared, BinaryEncoder encoder)
+    {
+        super(TYPE_ARRAY, parent, generator, schema, currValue, shared, encoder);
+        _elementSchema = schema.getElementType();
+        _index = -1;
+    }
+
+    @Override
+    public final AvroWriteContext createChildArrayContext(Object currValue) throws IOException {
+        return _createArrayContext(_elementSchema, currValue, _startElement());
+    }
+
+    @Override
+    public AvroWriteContext createChildObjectContext(Object currValue) throws IOException {
+        return _createObjectContext(_elementSchema, currValue, _startElement());
+    }
+
+    @Override
+    public void writeValue(Object value) throws IOException {
+        _writeScalar(_elementSchema, value, _startElement());
+    }
+
+    @Override
+    public void writeString(String value) throws IOException {
+        _writeScalar(_elementSchema, value, _startElement());
+    }
+
+    @Override
+    public void writeNull() throws IOException {
+        _writeScalar(_elementSchema, null, _startElement());
+    }
+
+    @Override
+    public void writeEnd() throws IOException {
+        _flushBlock();
+        if (_block != null) {
+            _shared.releaseBuffer(_block);
+            _block = null;
+        }
+        _encoder.writeArrayEnd();
+    }
+
+    @Override
+    public void appendDesc(StringBuilder sb)
+    {
+        sb.append('[');
+        sb.append(getCurrentIndex());
+        sb.append(']');
+    }
+
+    /*
+    /**********************************************************
+    /* Internal methods
+    /**********************************************************
+     */
+
+    /**
+     * Method called before writing an element: will flush the current block if it
+     * has grown big enough, and return encoder to use for writing the element.
+     */
+    protected final BinaryEncoder _startElement() throws IOException
+    {
+        BufferedOutput b = _block;
+        if (b == null) {
+            _block = b = _shared.allocBuffer();
+        } else if (b.size() >= MAX_BLOCK_SIZE) {
+            _flushBlock();
+        }
+        ++_index;
+        ++_blockCount;
+        return b.encoder;
+    }
+
+    protected void _flushBlock() throws IOException
+    {
+        if (_blockCount > 0) {
+            _block.writeBlock(_encoder, _blockCount,
+                    _generator.isEnabled(AvroGenerator.Feature.AVRO_SIZED_BLOCKS));
+            _block.reset();
+            _blockCount = 0;
+        }
+    }
+}
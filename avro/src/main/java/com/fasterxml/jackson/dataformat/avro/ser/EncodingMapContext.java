@@ -0,0 +1,138 @@
+package com.fasterxml.jackson.dataformat.avro.ser;
+
+import java.io.IOException;
+
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryEncoder;
+
+import com.fasterxml.jackson.dataformat.avro.AvroGenerator;
+
+/**
+ * Alternative to {@link EncodingRecordContext} that needs to be used with
+ * Avro Map datatype. Like {@link EncodingArrayContext}, entries are buffered
+ * and written out in blocks.
+ */
+public class EncodingMapContext
+    extends EncodingWriteContext
+{
+    protected final Schema _valueSchema;
+
+    protected String _currentName;
+
+    protected boolean _expectValue = false;
+
+    protected BufferedOutput _block;
+
+    /**
+     * Number of entries in the currently buffered block.
+     */
+    protected int _blockCount;
+
+    public EncodingMapContext(AvroWriteContext parent, AvroGenerator generator,
+            Schema schema, Object currValue, Shared shared, BinaryEncoder encoder)
+    {
+        super(TYPE_OBJECT, parent, generator, schema, currValue, shared, encoder);
+        _valueSchema = schema.getValueType();
+    }
+
+    @Override
+    public final String currentName() { return _currentName; }
+
+    @Override
+    public boolean canClose() {
+        return !_expectValue;
+    }
+
+    @Override
+    public final boolean writeFieldName(String name) throws IOException
+    {
+        _currentName = name;
+        _expectValue = true;
+        BufferedOutput b = _block;
+        if (b == null) {
+            _block = b = _shared.allocBuffer();
+        } else if (b.size() >= EncodingArrayContext.MAX_BLOCK_SIZE) {
+            _flushBlock();
+        }
+        ++_blockCount;
+        b.encoder.writeString(name);
+        return true;
+    }
+
+    @Override
+    public final AvroWriteContext createChildArrayContext(Object currValue) throws IOException {
+        _verifyValueWrite();
+        return _createArrayContext(_valueSchema, currValue, _block.encoder);
+    }
+
+    @Override
+    public final AvroWriteContext createChildObjectContext(Object currValue) throws IOException {
+        _verifyValueWrite();
+        return _createObjectContext(_valueSchema, currValue, _block.encoder);
+    }
+
+    @Override
+    public void writeValue(Object value) throws IOException {
+        _verifyValueWrite();
+        _writeScalar(_valueSchema, value, _block.encoder);
+    }
+
+    @Override
+    public void writeString(String value) throws IOException {
+        _verifyValueWrite();
+        _writeScalar(_valueSchema, value, _block.encoder);
+    }
+
+    @Override
+    public void writeNull() throws IOException {
+        _verifyValueWrite();
+        _writeScalar(_valueSchema, null, _block.encoder);
+    }
+
+    @Override
+    public void writeEnd() throws IOException {
+        _flushBlock();
+        if (_block != null) {
+            _shared.releaseBuffer(_block);
+            _block = null;
+        }
+        _encoder.writeMapEnd();
+    }
+
+    @Override
+    public final void appendDesc(StringBuilder sb)
+    {
+        sb.append('{');
+        if (_currentName != null) {
+            sb.append('"');
+            sb.append(_currentName);
+            sb.append('"');
+        } else {
+            sb.append('?');
+        }
+        sb.append('}');
+    }
+
+    /*
+    /**********************************************************
+    /* Internal methods
+    /**********************************************************
+     */
+
+    protected final void _verifyValueWrite() {
+        if (!_expectValue) {
+            throw new IllegalStateException("Expecting FIELD_NAME, not value");
+        }
+        _expectValue = false;
+    }
+
+    protected void _flushBlock() throws IOException
+    {
+        if (_blockCount > 0) {
+            _block.writeBlock(_encoder, _blockCount,
+                    _generator.isEnabled(AvroGenerator.Feature.AVRO_SIZED_BLOCKS));
+            _block.reset();
+            _blockCount = 0;
+        }
+    }
+}
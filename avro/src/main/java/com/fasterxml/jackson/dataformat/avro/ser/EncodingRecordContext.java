@@ -0,0 +1,247 @@
+package com.fasterxml.jackson.dataformat.avro.ser;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.avro.Schema;
+import org.apache.avro.Schema.Type;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.io.BinaryEncoder;
+
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.dataformat.avro.AvroGenerator;
+
+/**
+ * Context for encoding Avro Record values directly. Properties written in
+ * schema order are encoded right away; others are buffered until all
+ * preceding properties have been written. Properties not written at all
+ * are encoded as nulls (if allowed by schema) or using default values
+ * from schema.
+ */
+public class EncodingRecordContext
+    extends EncodingWriteContext
+{
+    protected final List<Schema.Field> _fields;
+
+    /**
+     * Buffered encoded values of properties written out of order, indexed
+     * by field position.
+     */
+    protected final BufferedOutput[] _buffered;
+
+    /**
+     * Position of the next field that may be written directly.
+     */
+    protected int _nextPos;
+
+    protected String _currentName;
+
+    protected boolean _expectValue = false;
+
+    /**
+     * Definition of property that is to be written next, if any;
+     * null if property is to be skipped.
+     */
+    protected Schema.Field _nextField;
+
+    /**
+     * Encoder to use for the value of {@link #_nextField}
+     */
+    protected BinaryEncoder _nextEncoder;
+
+    public EncodingRecordContext(AvroWriteContext parent, AvroGenerator generator,
+            Schema schema, Object currValue, Shared shared, BinaryEncoder encoder)
+    {
+        super(TYPE_OBJECT, parent, generator, schema, currValue, shared, encoder);
+        _fields = schema.getFields();
+        _buffered = new BufferedOutput[_fields.size()];
+    }
+
+    @Override
+    public final String currentName() { return _currentName; }
+
+    @Override
+    public boolean canClose() {
+        return !_expectValue;
+    }
+
+    @Override
+    public final boolean writeFieldName(String name) throws IOException
+    {
+        _currentName = name;
+        _expectValue = true;
+        // first things first: previous value may allow writing of buffered ones
+        _flushBuffered();
+        Schema.Field field = _schema.getField(name);
+        if (field == null) {
+            _reportUnknownField(name);
+            _nextField = null;
+            _nextEncoder = null;
+            return false;
+        }
+        final int pos = field.pos();
+        if ((pos < _nextPos) || (_buffered[pos] != null)) {
+            throw _constructError("Duplicate property '"+name+"' for Record '"
+                    +_schema.getFullName()+"'");
+        }
+        _nextField = field;
+        if (pos == _nextPos) {
+            ++_nextPos;
+            _nextEncoder = _encoder;
+        } else {
+            BufferedOutput b = _shared.allocBuffer();
+            _buffered[pos] = b;
+            _nextEncoder = b.encoder;
+        }
+        return true;
+    }
+
+    @Override
+    public final AvroWriteContext createChildArrayContext(Object currValue) throws IOException
+    {
+        _verifyValueWrite();
+        if (_nextField == null) { // unknown, to ignore
+            return new NopWriteContext(TYPE_ARRAY, this, _generator, currValue);
+        }
+        return _createArrayContext(_nextField.schema(), currValue, _nextEncoder);
+    }
+
+    @Override
+    public AvroWriteContext createChildObjectContext(Object currValue) throws IOException
+    {
+        _verifyValueWrite();
+        if (_nextField == null) { // unknown, to ignore
+            return new NopWriteContext(TYPE_OBJECT, this, _generator, currValue);
+        }
+        return _createObjectContext(_nextField.schema(), currValue, _nextEncoder);
+    }
+
+    @Override
+    public void writeValue(Object value) throws IOException {
+        _verifyValueWrite();
+        if (_nextField != null) {
+            _writeScalar(_nextField.schema(), value, _nextEncoder);
+        }
+    }
+
+    @Override
+    public void writeString(String value) throws IOException {
+        _verifyValueWrite();
+        if (_nextField != null) {
+            _writeScalar(_nextField.schema(), value, _nextEncoder);
+        }
+    }
+
+    @Override
+    public void writeNull() throws IOException {
+        _verifyValueWrite();
+        if (_nextField != null) {
+            _writeScalar(_nextField.schema(), null, _nextEncoder);
+        }
+    }
+
+    @Override
+    public void writeEnd() throws IOException
+    {
+        _flushBuffered();
+        // Anything left was either not written at all, or is buffered after missing field(s)
+        for (final int end = _fields.size(); _nextPos < end; ++_nextPos) {
+            BufferedOutput b = _buffered[_nextPos];
+            if (b != null) {
+                _buffered[_nextPos] = null;
+                b.writeTo(_encoder);
+                _shared.releaseBuffer(b);
+            } else {
+                _writeMissing(_fields.get(_nextPos));
+            }
+        }
+    }
+
+    @Override
+    public final void appendDesc(StringBuilder sb)
+    {
+        sb.append('{');
+        if (_currentName != null) {
+            sb.append('"');
+            sb.append(_currentName);
+            sb.append('"');
+        } else {
+            sb.append('?');
+        }
+        sb.append('}');
+    }
+
+    /*
+    /**********************************************************
+    /* Internal methods
+    /**********************************************************
+     */
+
+    protected final void _verifyValueWrite() {
+        if (!_expectValue) {
+            throw new IllegalStateException("Expecting FIELD_NAME, not value");
+        }
+        _expectValue = false;
+    }
+
+    /**
+     * Method for writing out buffered property values that directly follow
+     * already written ones.
+     */
+    protected void _flushBuffered() throws IOException
+    {
+        final BufferedOutput[] buffered = _buffered;
+        final int end = buffered.length;
+        while (_nextPos < end) {
+            BufferedOutput b = buffered[_nextPos];
+            if (b == null) {
+                break;
+            }
+            buffered[_nextPos++] = null;
+            b.writeTo(_encoder);
+            _shared.releaseBuffer(b);
+        }
+    }
+
+    /**
+     * Method for encoding value of a field for which no value was written:
+     * uses null if schema allows it (same as what would be written when
+     * encoding {@link GenericData.Record} with missing value), otherwise
+     * default value from schema, if any.
+     */
+    protected void _writeMissing(Schema.Field field) throws IOException
+    {
+        final Schema schema = field.schema();
+        if (_acceptsNull(schema)) {
+            _writeScalar(schema, null, _encoder);
+            return;
+        }
+        if (field.defaultVal() == null) {
+            throw _constructError("No value written for property '"+field.name()
+                    +"' of Record '"+_schema.getFullName()+"', and no default value specified");
+        }
+        _shared.datumWriter.write(schema, GenericData.get().getDefaultValue(field), _encoder);
+    }
+
+    protected void _reportUnknownField(String name) {
+        if (!_generator.isEnabled(StreamWriteFeature.IGNORE_UNKNOWN)) {
+            throw new IllegalStateException("No field named '"+name+"'");
+        }
+    }
+
+    private static boolean _acceptsNull(Schema schema)
+    {
+        Type t = schema.getType();
+        if (t == Type.NULL) {
+            return true;
+        }
+        if (t == Type.UNION) {
+            for (Schema s : schema.getTypes()) {
+                if (s.getType() == Type.NULL) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
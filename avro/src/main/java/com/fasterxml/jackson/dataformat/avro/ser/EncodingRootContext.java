@@ -0,0 +1,91 @@
+package com.fasterxml.jackson.dataformat.avro.ser;
+
+import java.io.IOException;
+
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryEncoder;
+
+import com.fasterxml.jackson.dataformat.avro.AvroGenerator;
+import com.fasterxml.jackson.dataformat.avro.AvroGenerator.Feature;
+
+/**
+ * Root context used when {@link AvroGenerator.Feature#AVRO_DIRECT_ENCODING}
+ * is enabled: root values are encoded directly using the encoder of the generator
+ * (or, for file output, encoder for the current block of {@link AvroFileWriter}).
+ */
+class EncodingRootContext
+    extends EncodingWriteContext
+{
+    /**
+     * Flag set when a root-level Array or Object is being written into
+     * file writer block.
+     */
+    protected boolean _valueOpen;
+
+    public EncodingRootContext(AvroGenerator generator, Schema schema, BinaryEncoder encoder) {
+        super(TYPE_ROOT, null, generator, schema, null,
+                new Shared(schema, generator.isEnabled(Feature.AVRO_SIZED_BLOCKS),
+                        generator.getSchema().getUnionIndexCache()),
+                encoder);
+    }
+
+    @Override
+    public final AvroWriteContext createChildArrayContext(Object currValue) throws IOException {
+        return _createArrayContext(_schema, currValue, _valueEncoder());
+    }
+
+    @Override
+    public final AvroWriteContext createChildObjectContext(Object currValue) throws IOException {
+        return _createObjectContext(_schema, currValue, _valueEncoder());
+    }
+
+    @Override
+    public void writeValue(Object value) throws IOException {
+        _writeScalar(_schema, value, _valueEncoder());
+        _valueWritten();
+    }
+
+    @Override
+    public void writeString(String value) throws IOException {
+        _writeScalar(_schema, value, _valueEncoder());
+        _valueWritten();
+    }
+
+    @Override
+    public void writeNull() throws IOException {
+        _writeScalar(_schema, null, _valueEncoder());
+        _valueWritten();
+    }
+
+    @Override
+    public void complete() throws IOException {
+        // everything already encoded; only need to push out what encoder may buffer
+        // (or, with file output, let file writer know value is complete)
+        if (_generator.isEnabled(Feature.AVRO_FILE_OUTPUT)) {
+            _valueWritten();
+            return;
+        }
+        _encoder.flush();
+    }
+
+    @Override
+    public void appendDesc(StringBuilder sb) {
+        sb.append("/");
+    }
+
+    private BinaryEncoder _valueEncoder() throws IOException {
+        if (_generator.isEnabled(Feature.AVRO_FILE_OUTPUT)) {
+            _valueOpen = true;
+            return _generator.getFileWriter().blockEncoder();
+        }
+        _writeSingleObjectHeader(_encoder);
+        return _encoder;
+    }
+
+    private void _valueWritten() throws IOException {
+        if (_valueOpen) {
+            _valueOpen = false;
+            _generator.getFileWriter().valueWritten();
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.fasterxml.jackson.dataformat.avro.ser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.avro.Schema;
+import org.apache.avro.Schema.Type;
+import org.apache.avro.UnresolvedUnionException;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.Encoder;
+import org.apache.avro.io.EncoderFactory;
+
+import com.fasterxml.jackson.core.JsonGenerationException;
+import com.fasterxml.jackson.dataformat.avro.AvroGenerator;
+
+/**
+ * Base class for {@link AvroWriteContext} implementations used when
+ * {@link AvroGenerator.Feature#AVRO_DIRECT_ENCODING} is enabled: instead of
+ * building a {@link org.apache.avro.generic.GenericRecord} tree to be written
+ * once the root value is complete, these contexts encode values as soon as they
+ * are written, only buffering content when Avro encoding requires it (Record
+ * fields written out of schema order; elements of Array and Map blocks).
+ */
+public abstract class EncodingWriteContext
+    extends AvroWriteContext
+{
+    protected final static EncoderFactory ENCODER_FACTORY = EncoderFactory.get();
+
+    /**
+     * State shared by all contexts of a single root value.
+     */
+    protected final Shared _shared;
+
+    /**
+     * Encoder to which value(s) of this context are to be written: either the
+     * encoder of the generator itself or a buffering one provided by parent.
+     */
+    protected final BinaryEncoder _encoder;
+
+    protected EncodingWriteContext(int type, AvroWriteContext parent,
+            AvroGenerator generator, Schema schema, Object currValue,
+            Shared shared, BinaryEncoder encoder)
+    {
+        super(type, parent, generator, schema, currValue);
+        _shared = shared;
+        _encoder = encoder;
+    }
+
+    /**
+     * No tree value is being built, so there is nothing to link.
+     */
+    @Override
+    public Object rawValue() { return null; }
+
+    /*
+    /**********************************************************
+    /* Helper methods for sub-classes
+    /**********************************************************
+     */
+
+    /**
+     * Helper method for encoding given scalar value (or {@link EncodedDatum})
+     * using given value schema.
+     */
+    protected void _writeScalar(Schema schema, Object value, BinaryEncoder enc) throws IOException
+    {
+        // 13-Nov-2014 josh: AvroGenerator wraps all binary values in ByteBuffers,
+        //   but avro wants FIXED; no need to re-wrap since we can just write contents
+        if ((value instanceof ByteBuffer) && (schema.getType() == Type.FIXED)) {
+            ByteBuffer bb = (ByteBuffer) value;
+            enc.writeFixed(bb.array(), bb.arrayOffset() + bb.position(), bb.remaining());
+            return;
+        }
+        _shared.datumWriter.write(schema, value, enc);
+    }
+
+    protected AvroWriteContext _createArrayContext(Schema schema, Object currValue,
+            BinaryEncoder enc) throws IOException
+    {
+        if (schema.getType() == Type.UNION) {
+            int ix = schema.getIndexNamed(Type.ARRAY.getName());
+            if (ix < 0) {
+                throw new IllegalStateException("No Array type found in union type: "+schema);
+            }
+            enc.writeIndex(ix);
+            schema = schema.getTypes().get(ix);
+        } else if (schema.getType() != Type.ARRAY) {
+            throw new IllegalStateException("Can not write START_ARRAY; schema type is "
+                    +schema.getType());
+        }
+        return new EncodingArrayContext(this, _generator, schema, currValue, _shared, enc);
+    }
+
+    protected AvroWriteContext _createObjectContext(Schema schema, Object currValue,
+            BinaryEncoder enc) throws IOException
+    {
+        if (schema.getType() == Type.UNION) {
+            final List<Schema> types = schema.getTypes();
+            Schema match = null;
+            if (currValue != null) {
+                try {
+                    match = _resolveUnionSchema(schema, currValue);
+                } catch (UnresolvedUnionException e) { }
+            }
+            if (match == null) {
+                match = _recordOrMapFromUnion(schema);
+            } else {
+                Type t = match.getType();
+                if ((t != Type.RECORD) && (t != Type.MAP)) {
+                    match = _recordOrMapFromUnion(schema);
+                }
+            }
+            for (int i = 0, len = types.size(); i < len; ++i) {
+                if (types.get(i) == match) {
+                    enc.writeIndex(i);
+                    break;
+                }
+            }
+            schema = match;
+        }
+        switch (schema.getType()) {
+        case RECORD:
+            return new EncodingRecordContext(this, _generator, schema, currValue, _shared, enc);
+        case MAP:
+            return new EncodingMapContext(this, _generator, schema, currValue, _shared, enc);
+        default:
+        }
+        throw new IllegalStateException("Can not write START_OBJECT; schema type is "
+                +schema.getType());
+    }
+
+    protected JsonGenerationException _constructError(String msg) {
+        return new JsonGenerationException(msg, _generator);
+    }
+
+    /*
+    /**********************************************************
+    /* Helper classes
+    /**********************************************************
+     */
+
+    /**
+     * Growable byte buffer used for content that can not yet be written
+     * to the actual output, along with encoder that writes into it.
+     */
+    protected final static class BufferedOutput extends ByteArrayOutputStream
+    {
+        public final BinaryEncoder encoder;
+
+        public BufferedOutput() {
+            super(256);
+            // direct (non-buffering) encoder so that content is always visible
+            encoder = ENCODER_FACTORY.directBinaryEncoder(this, null);
+        }
+
+        public int size() { return count; }
+
+        public void writeTo(Encoder out) throws IOException {
+            if (count > 0) {
+                out.writeFixed(buf, 0, count);
+            }
+        }
+
+        /**
+         * Method for writing buffered content as a single block of an Avro array
+         * or map: preceded either by just the item count, or, if sized, by negated
+         * item count and byte size of the content.
+         *
+         * @since 3.0
+         */
+        public void writeBlock(Encoder out, long itemCount, boolean sized) throws IOException {
+            if (sized) {
+                out.writeLong(-itemCount);
+                out.writeLong(count);
+            } else {
+                out.writeLong(itemCount);
+            }
+            writeTo(out);
+        }
+    }
+
+    /**
+     * Container for things shared by all contexts of a root value: datum
+     * writer for scalar values and recycled {@link BufferedOutput}s.
+     */
+    protected final static class Shared
+    {
+        public final NonBSGenericDatumWriter<Object> datumWriter;
+
+        private final ArrayList<BufferedOutput> _buffers = new ArrayList<BufferedOutput>();
+
+        public Shared(Schema rootSchema, boolean sizedBlocks, UnionIndexCache unionIndexes) {
+            datumWriter = new NonBSGenericDatumWriter<Object>(rootSchema, sizedBlocks, unionIndexes);
+        }
+
+        public BufferedOutput allocBuffer() {
+            final int size = _buffers.size();
+            if (size > 0) {
+                return _buffers.remove(size-1);
+            }
+            return new BufferedOutput();
+        }
+
+        public void releaseBuffer(BufferedOutput b) {
+            b.reset();
+            _buffers.add(b);
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package com.fasterxml.jackson.dataformat.avro.ser;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.apache.avro.io.BinaryEncoder;
+
+import com.fasterxml.jackson.core.io.IOContext;
+
+/**
+ * Jackson-native implementation of Avro {@link BinaryEncoder}: output is
+ * encoded into a buffer recycled via {@link IOContext}, and written to the
+ * underlying {@link OutputStream} when full, or when {@link #flush} is called.
+ *<p>
+ * Encoder extends Avro lib {@link BinaryEncoder} so that it can be used with
+ * Avro lib datum writers, but implements all encoding of primitive values
+ * (zig-zag variable-length ints and longs, floating-point numbers, UTF-8 encoded
+ * Strings) itself, instead of relying on per-call helper methods of Apache codec.
+ *
+ * @since 3.0
+ */
+public class JacksonAvroEncoder extends BinaryEncoder
+{
+    /**
+     * Maximum length of String (in chars) for which encoded length is
+     * guaranteed to fit in one byte (63 bytes, zig-zag encoded as 126),
+     * even if all chars take 3 bytes to encode.
+     */
+    private final static int MAX_SHORT_STRING_CHARS = 21;
+
+    protected final IOContext _ioContext;
+
+    protected final OutputStream _output;
+
+    protected byte[] _outputBuffer;
+
+    protected int _outputTail;
+
+    protected final int _outputEnd;
+
+    public JacksonAvroEncoder(IOContext ctxt, OutputStream out)
+    {
+        _ioContext = ctxt;
+        _output = out;
+        _outputBuffer = ctxt.allocWriteEncodingBuffer();
+        _outputEnd = _outputBuffer.length;
+    }
+
+    /**
+     * Constructor for encoder that uses given (non-recycled) buffer; used
+     * for secondary encoders since {@link IOContext} only has one write
+     * encoding buffer to give out.
+     */
+    public JacksonAvroEncoder(OutputStream out, byte[] buffer)
+    {
+        _ioContext = null;
+        _output = out;
+        _outputBuffer = buffer;
+        _outputEnd = buffer.length;
+    }
+
+    /**
+     * Method called when encoder is no longer needed, to release the
+     * output buffer. Any content not yet flushed will be lost.
+     */
+    public void release()
+    {
+        byte[] buf = _outputBuffer;
+        if ((buf != null) && (_ioContext != null)) {
+            _outputBuffer = null;
+            _ioContext.releaseWriteEncodingBuffer(buf);
+        }
+    }
+
+    /*
+    /**********************************************************
+    /* Encoder implementation: life-cycle
+    /**********************************************************
+     */
+
+    @Override
+    public void flush() throws IOException
+    {
+        _flushBuffer();
+        _output.flush();
+    }
+
+    @Override
+    public int bytesBuffered() {
+        return _outputTail;
+    }
+
+    /*
+    /**********************************************************
+    /* Encoder implementation: primitive values
+    /**********************************************************
+     */
+
+    @Override
+    public void writeBoolean(boolean b) throws IOException
+    {
+        if (_outputTail >= _outputEnd) {
+            _flushBuffer();
+        }
+        _outputBuffer[_outputTail++] = b ? (byte) 1 : (byte) 0;
+    }
+
+    @Override
+    public void writeInt(int n) throws IOException
+    {
+        if ((_outputTail + 5) > _outputEnd) {
+            _flushBuffer();
+        }
+        final byte[] buf = _outputBuffer;
+        int ptr = _outputTail;
+        int v = (n << 1) ^ (n >> 31); // zig-zag
+        while ((v & ~0x7F) != 0) {
+            buf[ptr++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        buf[ptr++] = (byte) v;
+        _outputTail = ptr;
+    }
+
+    @Override
+    public void writeLong(long n) throws IOException
+    {
+        if ((_outputTail + 10) > _outputEnd) {
+            _flushBuffer();
+        }
+        final byte[] buf = _outputBuffer;
+        int ptr = _outputTail;
+        long v = (n << 1) ^ (n >> 63); // zig-zag
+        while ((v & ~0x7FL) != 0L) {
+            buf[ptr++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        buf[ptr++] = (byte) v;
+        _outputTail = ptr;
+    }
+
+    @Override
+    public void writeFloat(float f) throws IOException
+    {
+        if ((_outputTail + 4) > _outputEnd) {
+            _flushBuffer();
+        }
+        final byte[] buf = _outputBuffer;
+        int ptr = _outputTail;
+        final int bits = Float.floatToRawIntBits(f);
+        // little-endian
+        buf[ptr++] = (byte) bits;
+        buf[ptr++] = (byte) (bits >> 8);
+        buf[ptr++] = (byte) (bits >> 16);
+        buf[ptr++] = (byte) (bits >> 24);
+        _outputTail = ptr;
+    }
+
+    @Override
+    public void writeDouble(double d) throws IOException
+    {
+        if ((_outputTail + 8) > _outputEnd) {
+            _flushBuffer();
+        }
+        final byte[] buf = _outputBuffer;
+        int ptr = _outputTail;
+        final long bits = Double.doubleToRawLongBits(d);
+        final int lo = (int) bits;
+        final int hi = (int) (bits >> 32);
+        // little-endian
+        buf[ptr++] = (byte) lo;
+        buf[ptr++] = (byte) (lo >> 8);
+        buf[ptr++] = (byte) (lo >> 16);
+        buf[ptr++] = (byte) (lo >> 24);
+        buf[ptr++] = (byte) hi;
+        buf[ptr++] = (byte) (hi >> 8);
+        buf[ptr++] = (byte) (hi >> 16);
+        buf[ptr++] = (byte) (hi >> 24);
+        _outputTail = ptr;
+    }
+
+    @Override
+    public void writeFixed(byte[] bytes, int start, int len) throws IOException
+    {
+        if ((_outputTail + len) > _outputEnd) {
+            _flushBuffer();
+            // Too big to buffer? Write as is
+            if (len > _outputEnd) {
+                _output.write(bytes, start, len);
+                return;
+            }
+        }
+        System.arraycopy(bytes, start, _outputBuffer, _outputTail, len);
+        _outputTail += len;
+    }
+
+    @Override
+    protected void writeZero() throws IOException
+    {
+        if (_outputTail >= _outputEnd) {
+            _flushBuffer();
+        }
+        _outputBuffer[_outputTail++] = 0;
+    }
+
+    /*
+    /**********************************************************
+    /* Encoder implementation: Strings
+    /**********************************************************
+     */
+
+    /**
+     * Overridden to encode String directly into output buffer, instead of
+     * first encoding it into a temporary byte array.
+     */
+    @Override
+    public void writeString(String str) throws IOException
+    {
+        final int len = str.length();
+        if (len == 0) {
+            writeZero();
+            return;
+        }
+        // Short Strings: reserve single byte for length, encode, then fill in length
+        if (len <= MAX_SHORT_STRING_CHARS) {
+            if ((_outputTail + 1 + (len * 3)) > _outputEnd) {
+                _flushBuffer();
+            }
+            final int lenPtr = _outputTail++;
+            final int byteLen = _encodeChars(str, 0, len);
+            _outputBuffer[lenPtr] = (byte) (byteLen << 1);
+            return;
+        }
+        // Otherwise need to calculate encoded length first
+        writeInt(_encodedLength(str, len));
+        // and then encode in chunks that are guaranteed to fit
+        final int maxChunk = (_outputEnd >> 2) - 1;
+        int i = 0;
+        while (i < len) {
+            int end = Math.min(len, i + maxChunk);
+            // never split a surrogate pair
+            if (end < len && Character.isHighSurrogate(str.charAt(end-1))) {
+                --end;
+            }
+            if ((_outputTail + ((end - i) * 3)) > _outputEnd) {
+                _flushBuffer();
+            }
+            _encodeChars(str, i, end);
+            i = end;
+        }
+    }
+
+    /*
+    /**********************************************************
+    /* Internal methods
+    /**********************************************************
+     */
+
+    protected final void _flushBuffer() throws IOException
+    {
+        if (_outputTail > 0) {
+            _output.write(_outputBuffer, 0, _outputTail);
+            _outputTail = 0;
+        }
+    }
+
+    /**
+     * Helper method for encoding given section of String as UTF-8: caller must
+     * ensure there is enough room (3 bytes per char) in the output buffer.
+     * Unpaired surrogates are replaced with question mark, similar to how
+     * {@link String#getBytes(java.nio.charset.Charset)} handles them.
+     *
+     * @return Number of bytes encoded
+     */
+    private final int _encodeChars(String str, int i, final int end)
+    {
+        final byte[] buf = _outputBuffer;
+        final int start = _outputTail;
+        int ptr = start;
+        // ASCII fast path first
+        for (; i < end; ++i) {
+            int c = str.charAt(i);
+            if (c > 0x7F) {
+                break;
+            }
+            buf[ptr++] = (byte) c;
+        }
+        for (; i < end; ++i) {
+            int c = str.charAt(i);
+            if (c <= 0x7F) {
+                buf[ptr++] = (byte) c;
+            } else if (c < 0x800) {
+                buf[ptr++] = (byte) (0xC0 | (c >> 6));
+                buf[ptr++] = (byte) (0x80 | (c & 0x3F));
+            } else if (c < 0xD800 || c > 0xDFFF) {
+                buf[ptr++] = (byte) (0xE0 | (c >> 12));
+                buf[ptr++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buf[ptr++] = (byte) (0x80 | (c & 0x3F));
+            } else if (c <= 0xDBFF && (i+1) < end
+                    && Character.isLowSurrogate(str.charAt(i+1))) { // surrogate pair
+                c = Character.toCodePoint((char) c, str.charAt(++i));
+                buf[ptr++] = (byte) (0xF0 | (c >> 18));
+                buf[ptr++] = (byte) (0x80 | ((c >> 12) & 0x3F));
+                buf[ptr++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buf[ptr++] = (byte) (0x80 | (c & 0x3F));
+            } else { // unpaired surrogate
+                buf[ptr++] = (byte) '?';
+            }
+        }
+        _outputTail = ptr;
+        return ptr - start;
+    }
+
+    private final static int _encodedLength(String str, final int len)
+    {
+        int byteLen = len;
+        for (int i = 0; i < len; ++i) {
+            int c = str.charAt(i);
+            if (c > 0x7F) {
+                if (c < 0x800) {
+                    ++byteLen;
+                } else if (c < 0xD800 || c > 0xDFFF) {
+                    byteLen += 2;
+                } else if (c <= 0xDBFF && (i+1) < len
+                        && Character.isLowSurrogate(str.charAt(i+1))) {
+                    // 2 chars, 4 bytes
+                    byteLen += 2;
+                    ++i;
+                }
+                // unpaired surrogates: single byte
+            }
+        }
+        return byteLen;
+    }
+}
@@ -3,14 +3,22 @@ package com.fasterxml.jackson.dataformat.avro.ser;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.math.RoundingMode;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
 
+import org.apache.avro.AvroTypeException;
 import org.apache.avro.Schema;
 import org.apache.avro.Schema.Type;
 import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.GenericDatumWriter;
 import org.apache.avro.io.Encoder;
 
+import com.fasterxml.jackson.dataformat.avro.schema.AvroSchemaHelper;
+import com.fasterxml.jackson.dataformat.avro.ser.EncodingWriteContext.BufferedOutput;
+
 /**
  * Need to sub-class to prevent encoder from crapping on writing an optional
  * Enum value (see [dataformat-avro#12])
@@ -26,12 +34,55 @@ public class NonBSGenericDatumWriter<D>
     private final static Class<?> CLS_BIG_DECIMAL = BigDecimal.class;
     private final static Class<?> CLS_BIG_INTEGER = BigInteger.class;
     
+    /**
+     * Whether Arrays and Maps are to be written as blocks with byte size,
+     * see {@link com.fasterxml.jackson.dataformat.avro.AvroGenerator.Feature#AVRO_SIZED_BLOCKS}.
+     *
+     * @since 3.0
+     */
+    protected final boolean _sizedBlocks;
+
+    /**
+     * Recycled buffers for contents of sized blocks, if any; one needed for
+     * each level of nesting.
+     *
+     * @since 3.0
+     */
+    protected ArrayList<BufferedOutput> _buffers;
+
+    /**
+     * Cache of union branches resolved for classes of values, if any.
+     *
+     * @since 3.0
+     */
+    protected final UnionIndexCache _unionIndexes;
+
     public NonBSGenericDatumWriter(Schema root) {
-	super(root);
+        this(root, false);
+    }
+
+    /**
+     * @since 3.0
+     */
+    public NonBSGenericDatumWriter(Schema root, boolean sizedBlocks) {
+        this(root, sizedBlocks, null);
+    }
+
+    /**
+     * @since 3.0
+     */
+    public NonBSGenericDatumWriter(Schema root, boolean sizedBlocks,
+            UnionIndexCache unionIndexes) {
+        super(root);
+        _sizedBlocks = sizedBlocks;
+        _unionIndexes = unionIndexes;
     }
 
     @Override
     public int resolveUnion(Schema union, Object datum) {
+        if (_unionIndexes != null) {
+            return _unionIndexes.resolveUnionIndex(union, datum);
+        }
         return AvroWriteContext.resolveUnionIndex(union, datum);
     }
 
@@ -77,7 +128,23 @@ public class NonBSGenericDatumWriter<D>
                 datum = ((BigDecimal) datum).doubleValue();
             }
             break;
+        case BYTES:
+            if ((datum.getClass() == CLS_BIG_DECIMAL) && AvroSchemaHelper.isDecimal(schema)) {
+                out.writeBytes(_unscaledBytes(schema, (BigDecimal) datum));
+                return;
+            }
+            break;
+        case FIXED:
+            if ((datum.getClass() == CLS_BIG_DECIMAL) && AvroSchemaHelper.isDecimal(schema)) {
+                out.writeFixed(_unscaledFixed(schema, (BigDecimal) datum));
+                return;
+            }
+            break;
         case ARRAY:
+            if (datum instanceof PrimitiveArrayDatum) {
+                _writePrimitiveArray(schema, (PrimitiveArrayDatum) datum, out);
+                return;
+            }
             if (datum.getClass() == CLS_STRING) {
                 if (schema.getElementType().getType() == Type.INT) {
                     String str = (String) datum;
@@ -101,4 +168,142 @@ public class NonBSGenericDatumWriter<D>
         super.writeWithoutConversion(schema, datum, out);
 //        super.write(schema, datum, out);
     }
+
+    /*
+    /**********************************************************
+    /* Logical type "decimal" (since 3.0)
+    /**********************************************************
+     */
+
+    /**
+     * Helper method for encoding unscaled value of given decimal number, using
+     * scale of given <code>decimal</code> schema, as two's-complement big-endian
+     * bytes.
+     */
+    protected static byte[] _unscaledBytes(Schema schema, BigDecimal value)
+    {
+        final int scale = AvroSchemaHelper.getDecimalScale(schema);
+        if (value.scale() != scale) {
+            try {
+                value = value.setScale(scale, RoundingMode.UNNECESSARY);
+            } catch (ArithmeticException e) {
+                throw new AvroTypeException("Can not write decimal value "+value
+                        +" with scale "+scale+" without rounding");
+            }
+        }
+        return value.unscaledValue().toByteArray();
+    }
+
+    /**
+     * Helper method similar to {@link #_unscaledBytes}, but that also sign-extends
+     * unscaled value to size of given <code>fixed</code> schema.
+     */
+    protected static byte[] _unscaledFixed(Schema schema, BigDecimal value)
+    {
+        final byte[] b = _unscaledBytes(schema, value);
+        final int size = schema.getFixedSize();
+        if (b.length == size) {
+            return b;
+        }
+        if (b.length > size) {
+            throw new AvroTypeException("Can not write decimal value "+value
+                    +": unscaled value needs "+b.length+" bytes, fixed size only "+size);
+        }
+        final byte[] result = new byte[size];
+        final int pad = size - b.length;
+        if (b[0] < 0) {
+            Arrays.fill(result, 0, pad, (byte) 0xFF);
+        }
+        System.arraycopy(b, 0, result, pad, b.length);
+        return result;
+    }
+
+    /*
+    /**********************************************************
+    /* Sized blocks (since 3.0)
+    /**********************************************************
+     */
+
+    @Override
+    protected void writeArray(Schema schema, Object datum, Encoder out) throws IOException
+    {
+        if (!_sizedBlocks) {
+            super.writeArray(schema, datum, out);
+            return;
+        }
+        // as with Avro lib, only Collections are accepted
+        final Collection<?> elements = (Collection<?>) datum;
+        final Schema elemSchema = schema.getElementType();
+        out.writeArrayStart();
+        if (!elements.isEmpty()) {
+            BufferedOutput b = _allocBuffer();
+            try {
+                for (Object elem : elements) {
+                    write(elemSchema, elem, b.encoder);
+                }
+                b.writeBlock(out, elements.size(), true);
+            } finally {
+                _releaseBuffer(b);
+            }
+        }
+        out.writeArrayEnd();
+    }
+
+    @Override
+    protected void writeMap(Schema schema, Object datum, Encoder out) throws IOException
+    {
+        if (!_sizedBlocks) {
+            super.writeMap(schema, datum, out);
+            return;
+        }
+        final Map<?,?> map = (Map<?,?>) datum;
+        final Schema valueSchema = schema.getValueType();
+        out.writeMapStart();
+        if (!map.isEmpty()) {
+            BufferedOutput b = _allocBuffer();
+            try {
+                for (Map.Entry<?,?> entry : map.entrySet()) {
+                    b.encoder.writeString(entry.getKey().toString());
+                    write(valueSchema, entry.getValue(), b.encoder);
+                }
+                b.writeBlock(out, map.size(), true);
+            } finally {
+                _releaseBuffer(b);
+            }
+        }
+        out.writeMapEnd();
+    }
+
+    protected void _writePrimitiveArray(Schema schema, PrimitiveArrayDatum datum, Encoder out)
+        throws IOException
+    {
+        if (!_sizedBlocks) {
+            datum.write(schema, out);
+            return;
+        }
+        BufferedOutput b = _allocBuffer();
+        try {
+            datum.write(schema, out, b);
+        } finally {
+            _releaseBuffer(b);
+        }
+    }
+
+    private BufferedOutput _allocBuffer() {
+        if (_buffers != null) {
+            final int size = _buffers.size();
+            if (size > 0) {
+                return _buffers.remove(size-1);
+            }
+        }
+        return new BufferedOutput();
+    }
+
+    private void _releaseBuffer(BufferedOutput b) {
+        b.reset();
+        if (_buffers == null) {
+            _buffers = new ArrayList<BufferedOutput>();
+        }
+        _buffers.add(b);
+    }
 }
@@ -0,0 +1,270 @@
+package com.fasterxml.jackson.dataformat.avro.ser;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.avro.Schema;
+import org.apache.avro.Schema.Type;
+import org.apache.avro.io.Encoder;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+
+/**
+ * Value wrapper used by {@link com.fasterxml.jackson.dataformat.avro.AvroGenerator}
+ * for primitive arrays (<code>int[]</code>, <code>long[]</code>,
+ * <code>double[]</code>) written using <code>writeArray()</code>: instead of
+ * boxing elements into a {@link org.apache.avro.generic.GenericArray}, the whole
+ * array is encoded as a single Avro array block when the value is written out
+ * by {@link NonBSGenericDatumWriter}.
+ *<p>
+ * Note that the array is not copied, so caller must not modify its contents
+ * before the enclosing root value has been written.
+ *
+ * @since 3.0
+ */
+public abstract class PrimitiveArrayDatum
+{
+    protected final int _offset;
+
+    protected final int _length;
+
+    protected PrimitiveArrayDatum(int offset, int length) {
+        _offset = offset;
+        _length = length;
+    }
+
+    public static PrimitiveArrayDatum of(int[] array, int offset, int length) {
+        return new Ints(array, offset, length);
+    }
+
+    public static PrimitiveArrayDatum of(long[] array, int offset, int length) {
+        return new Longs(array, offset, length);
+    }
+
+    public static PrimitiveArrayDatum of(double[] array, int offset, int length) {
+        return new Doubles(array, offset, length);
+    }
+
+    /**
+     * Method called to encode array contents as an Avro array with given schema.
+     */
+    public void write(Schema arraySchema, Encoder out) throws IOException
+    {
+        write(arraySchema, out, null);
+    }
+
+    /**
+     * Method called to encode array contents as an Avro array with given schema;
+     * if buffer is given, elements are first encoded in it so that the block
+     * can be written with its byte size.
+     *
+     * @since 3.0
+     */
+    public void write(Schema arraySchema, Encoder out, EncodingWriteContext.BufferedOutput sizedBuffer)
+        throws IOException
+    {
+        Schema elemSchema = arraySchema.getElementType();
+        int unionIndex = -1;
+        if (elemSchema.getType() == Type.UNION) {
+            List<Schema> types = elemSchema.getTypes();
+            for (int i = 0, end = types.size(); i < end; ++i) {
+                if (_canWriteAs(types.get(i).getType())) {
+                    unionIndex = i;
+                    elemSchema = types.get(i);
+                    break;
+                }
+            }
+        }
+        final Type type = elemSchema.getType();
+        if (!_canWriteAs(type)) {
+            throw new JsonMappingException(null, "Can not write "+_description()
+                +" as Avro array with elements of type "+elemSchema.getType());
+        }
+        out.writeArrayStart();
+        if ((sizedBuffer == null) || (_length == 0)) {
+            out.setItemCount(_length);
+            _writeElements(type, unionIndex, out);
+        } else {
+            _writeElements(type, unionIndex, sizedBuffer.encoder);
+            sizedBuffer.writeBlock(out, _length, true);
+        }
+        out.writeArrayEnd();
+    }
+
+    protected abstract boolean _canWriteAs(Type elemType);
+
+    protected abstract void _writeElements(Type elemType, int unionIndex, Encoder out) throws IOException;
+
+    protected abstract String _description();
+
+    protected final static void _startItem(Encoder out, int unionIndex) throws IOException {
+        out.startItem();
+        if (unionIndex >= 0) {
+            out.writeIndex(unionIndex);
+        }
+    }
+
+    /*
+    /**********************************************************
+    /* Implementations
+    /**********************************************************
+     */
+
+    protected final static class Ints extends PrimitiveArrayDatum
+    {
+        private final int[] _array;
+
+        public Ints(int[] array, int offset, int length) {
+            super(offset, length);
+            _array = array;
+        }
+
+        @Override
+        protected boolean _canWriteAs(Type elemType) {
+            switch (elemType) {
+            case INT:
+            case LONG:
+            case FLOAT:
+            case DOUBLE:
+                return true;
+            default:
+                return false;
+            }
+        }
+
+        @Override
+        protected void _writeElements(Type elemType, int unionIndex, Encoder out) throws IOException
+        {
+            final int[] arr = _array;
+            final int end = _offset + _length;
+            switch (elemType) {
+            case INT:
+                for (int i = _offset; i < end; ++i) {
+                    _startItem(out, unionIndex);
+                    out.writeInt(arr[i]);
+                }
+                break;
+            case LONG:
+                for (int i = _offset; i < end; ++i) {
+                    _startItem(out, unionIndex);
+                    out.writeLong(arr[i]);
+                }
+                break;
+            case FLOAT:
+                for (int i = _offset; i < end; ++i) {
+                    _startItem(out, unionIndex);
+                    out.writeFloat(arr[i]);
+                }
+                break;
+            default: // DOUBLE
+                for (int i = _offset; i < end; ++i) {
+                    _startItem(out, unionIndex);
+                    out.writeDouble(arr[i]);
+                }
+            }
+        }
+
+        @Override
+        protected String _description() { return "int[]"; }
+    }
+
+    protected final static class Longs extends PrimitiveArrayDatum
+    {
+        private final long[] _array;
+
+        public Longs(long[] array, int offset, int length) {
+            super(offset, length);
+            _array = array;
+        }
+
+        @Override
+        protected boolean _canWriteAs(Type elemType) {
+            switch (elemType) {
+            case INT:
+            case LONG:
+            case FLOAT:
+            case DOUBLE:
+                return true;
+            default:
+                return false;
+            }
+        }
+
+        @Override
+        protected void _writeElements(Type elemType, int unionIndex, Encoder out) throws IOException
+        {
+            final long[] arr = _array;
+            final int end = _offset + _length;
+            switch (elemType) {
+            case INT:
+                for (int i = _offset; i < end; ++i) {
+                    final long l = arr[i];
+                    final int v = (int) l;
+                    if (v != l) {
+                        throw new JsonMappingException(null, "Value "+l
+                                +" of long[] out of range for Avro int");
+                    }
+                    _startItem(out, unionIndex);
+                    out.writeInt(v);
+                }
+                break;
+            case LONG:
+                for (int i = _offset; i < end; ++i) {
+                    _startItem(out, unionIndex);
+                    out.writeLong(arr[i]);
+                }
+                break;
+            case FLOAT:
+                for (int i = _offset; i < end; ++i) {
+                    _startItem(out, unionIndex);
+                    out.writeFloat(arr[i]);
+                }
+                break;
+            default: // DOUBLE
+                for (int i = _offset; i < end; ++i) {
+                    _startItem(out, unionIndex);
+                    out.writeDouble(arr[i]);
+                }
+            }
+        }
+
+        @Override
+        protected String _description() { return "long[]"; }
+    }
+
+    protected final static class Doubles extends PrimitiveArrayDatum
+    {
+        private final double[] _array;
+
+        public Doubles(double[] array, int offset, int length) {
+            super(offset, length);
+            _array = array;
+        }
+
+        @Override
+        protected boolean _canWriteAs(Type elemType) {
+            return (elemType == Type.DOUBLE) || (elemType == Type.FLOAT);
+        }
+
+        @Override
+        protected void _writeElements(Type elemType, int unionIndex, Encoder out) throws IOException
+        {
+            final double[] arr = _array;
+            final int end = _offset + _length;
+            if (elemType == Type.DOUBLE) {
+                for (int i = _offset; i < end; ++i) {
+                    _startItem(out, unionIndex);
+                    out.writeDouble(arr[i]);
+                }
+            } else {
+                for (int i = _offset; i < end; ++i) {
+                    _startItem(out, unionIndex);
+                    out.writeFloat((float) arr[i]);
+                }
+            }
+        }
+
+        @Override
+        protected String _description() { return "double[]"; }
+    }
+}
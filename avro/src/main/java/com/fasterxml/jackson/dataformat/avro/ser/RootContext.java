@@ -1,10 +1,8 @@
 package com.fasterxml.jackson.dataformat.avro.ser;
 
 import java.io.IOException;
-import java.io.OutputStream;
 
 import org.apache.avro.Schema;
-import org.apache.avro.file.DataFileWriter;
 import org.apache.avro.generic.*;
 import org.apache.avro.io.BinaryEncoder;
 
@@ -12,8 +10,6 @@ import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.dataformat.avro.AvroGenerator;
 import com.fasterxml.jackson.dataformat.avro.AvroGenerator.Feature;
 
-import org.apache.avro.io.DatumWriter;
-
 class RootContext
     extends AvroWriteContext
 {
@@ -82,23 +78,22 @@ class RootContext
     public void writeValue(Object value) throws IOException {
         // 19-Jan-2017, tatu: Implemented to allow/support root-level scalars, esp.
         //   for Avro streams
-        _writer().write(value, _encoder);
+        _writeScalar(value);
     }
 
     @Override
     public void writeString(String value) throws IOException {
         // 19-Jan-2017, tatu: Implemented to allow/support root-level scalars, esp.
         //   for Avro streams
-        _writer().write(value, _encoder);
+        _writeScalar(value);
     }
 
     @Override
     public void writeNull() throws IOException {
         // 19-Jan-2017, tatu: ... is this even legal?
-        _writer().write(null, _encoder);
+        _writeScalar(null);
     }
 
-    @SuppressWarnings("resource")
     @Override
     public void complete() throws IOException {
         final Object rootValue = _rootValue;
@@ -107,18 +102,18 @@ class RootContext
         // 21-Feb-2017, tatu: As per [dataformats-binary#15], need to ensure schema gets
         //   written, if using "File" format (not raw "rpc" one)
         if (_generator.isEnabled(Feature.AVRO_FILE_OUTPUT)) {
-            OutputStream outputStream = (OutputStream) _generator.getOutputTarget();
-            DatumWriter<Object> datumWriter = new NonBSGenericDatumWriter<>(_schema);
-            DataFileWriter<Object> dataFileWriter = new DataFileWriter<>(datumWriter);
-
-            dataFileWriter.create(_schema, outputStream);
-            dataFileWriter.append(rootValue);
-            dataFileWriter.close();
+            // Header, blocks written by file writer, which also needs to know about values
+            if (rootValue != null) {
+                AvroFileWriter fw = _generator.getFileWriter();
+                _writer().write(rootValue, fw.blockEncoder());
+                fw.valueWritten();
+            }
             return;
         }
         // 19-Jan-2017, tatu: Gets also called for root-level scalar, in which
         //    case nothing (more) to output.
         if (rootValue != null) {
+            _writeSingleObjectHeader(_encoder);
             _writer().write(rootValue, _encoder);
         }
         _encoder.flush();
@@ -133,10 +128,23 @@ class RootContext
         throw new IllegalStateException("Can not write values directly in root context, outside of Records/Arrays");
     }
 
+    private void _writeScalar(Object value) throws IOException {
+        if (_generator.isEnabled(Feature.AVRO_FILE_OUTPUT)) {
+            AvroFileWriter fw = _generator.getFileWriter();
+            _writer().write(value, fw.blockEncoder());
+            fw.valueWritten();
+        } else {
+            _writeSingleObjectHeader(_encoder);
+            _writer().write(value, _encoder);
+        }
+    }
+
     private final NonBSGenericDatumWriter<Object> _writer() {
         NonBSGenericDatumWriter<Object> w = _writer;
         if (w == null){
-            w = new NonBSGenericDatumWriter<Object>(_schema);
+            w = new NonBSGenericDatumWriter<Object>(_schema,
+                    _generator.isEnabled(Feature.AVRO_SIZED_BLOCKS),
+                    _generator.getSchema().getUnionIndexCache());
             _writer = w;
         }
         return w;
@@ -0,0 +1,83 @@
+package com.fasterxml.jackson.dataformat.avro.ser;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericContainer;
+
+/**
+ * Cache of union branch indexes resolved for classes of values written,
+ * per union schema: for most types resolution only depends on class of
+ * the value, and as full resolution (see
+ * {@link AvroWriteContext#resolveUnionIndex(Schema, Object)}) may require
+ * scanning through types of the union and introspecting value class,
+ * doing it just once per union and class helps a lot with union-heavy
+ * schemas.
+ *<p>
+ * Instances are thread-safe, and are owned by (and shared via)
+ * {@link com.fasterxml.jackson.dataformat.avro.AvroSchema} instances.
+ *
+ * @since 3.0
+ */
+public final class UnionIndexCache
+{
+    /**
+     * Maximum number of classes to cache indexes for, per union; cache
+     * for a union is cleared if exceeded.
+     */
+    private final static int MAX_CLASSES_PER_UNION = 100;
+
+    /**
+     * Resolved indexes, keyed by union schema, then by value class. Note that
+     * {@link Schema} instances cache their hash codes and check for identity
+     * first, so lookups are cheap.
+     */
+    private final ConcurrentHashMap<Schema, ConcurrentHashMap<Class<?>, Integer>> _indexes
+        = new ConcurrentHashMap<Schema, ConcurrentHashMap<Class<?>, Integer>>();
+
+    /**
+     * Method for finding index of union branch to use for writing given value:
+     * either from cache or, if not cached, by full resolution.
+     *
+     * @throws org.apache.avro.UnresolvedUnionException if {@code unionSchema} does not have
+     *    a schema that can encode {@code datum}
+     */
+    public int resolveUnionIndex(Schema unionSchema, Object datum)
+    {
+        // Some resolution depends on value, not just its class: String (Chars, enums),
+        // Avro generic values (their schema) and pre-encoded values
+        if ((datum == null) || (datum instanceof String)
+                || (datum instanceof GenericContainer) || (datum instanceof EncodedDatum)) {
+            return AvroWriteContext.resolveUnionIndex(unionSchema, datum);
+        }
+        final Class<?> raw = datum.getClass();
+        ConcurrentHashMap<Class<?>, Integer> byClass = _indexes.get(unionSchema);
+        if (byClass == null) {
+            byClass = new ConcurrentHashMap<Class<?>, Integer>();
+            ConcurrentHashMap<Class<?>, Integer> old = _indexes.putIfAbsent(unionSchema, byClass);
+            if (old != null) {
+                byClass = old;
+            }
+        } else {
+            Integer ix = byClass.get(raw);
+            if (ix != null) {
+                return ix.intValue();
+            }
+        }
+        // NOTE: failure to resolve throws exception, so those are never cached
+        int ix = AvroWriteContext.resolveUnionIndex(unionSchema, datum);
+        if (byClass.size() >= MAX_CLASSES_PER_UNION) {
+            byClass.clear();
+        }
+        byClass.put(raw, ix);
+        return ix;
+    }
+
+    /**
+     * Method similar to {@link #resolveUnionIndex}, but returns matching
+     * type (branch) instead of its index.
+     */
+    public Schema resolveUnionType(Schema unionSchema, Object datum) {
+        return unionSchema.getTypes().get(resolveUnionIndex(unionSchema, datum));
+    }
+}
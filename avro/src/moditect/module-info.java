@@ -9,8 +9,14 @@ module com.fasterxml.jackson.dataformat.avro {
     requires jackson.core.asl;
     requires jackson.mapper.asl;
 
+    // optional, only needed for runtime-compiled readers
+    requires static java.compiler;
+    // for reporting failures to compile readers
+    requires java.logging;
+
     exports com.fasterxml.jackson.dataformat.avro;
     exports com.fasterxml.jackson.dataformat.avro.apacheimpl;
+    exports com.fasterxml.jackson.dataformat.avro.async;
     exports com.fasterxml.jackson.dataformat.avro.deser;
     exports com.fasterxml.jackson.dataformat.avro.schema;
     exports com.fasterxml.jackson.dataformat.avro.ser;
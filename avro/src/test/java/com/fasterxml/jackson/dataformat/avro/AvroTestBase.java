@@ -294,7 +294,9 @@ public abstract class AvroTestBase extends TestCase
     }
 
     protected static AvroMapper newApacheMapper() {
-        return new AvroMapper(AvroFactory.builderWithApacheDecoder().build());
+        return new AvroMapper(AvroFactory.builderWithApacheDecoder()
+                .withApacheEncoder()
+                .build());
     }
     
     protected byte[] toAvro(Employee empl) throws IOException {
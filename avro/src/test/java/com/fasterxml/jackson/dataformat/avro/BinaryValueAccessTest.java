@@ -0,0 +1,194 @@
+package com.fasterxml.jackson.dataformat.avro;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.dataformat.avro.deser.AvroByteBufferDeserializer;
+
+/**
+ * Tests for accessing Avro <code>bytes</code> and <code>fixed</code> values
+ * without copying: {@link AvroParser#getBinaryValueAsBuffer()} and
+ * {@link AvroParser#readBinaryValue}.
+ */
+public class BinaryValueAccessTest extends AvroTestBase
+{
+    private final static String SCHEMA_JSON = aposToQuotes("{'type':'record','name':'Blob','fields':["
+            +"{'name':'hash','type':{'type':'fixed','name':'Hash','size':4}},"
+            +"{'name':'data','type':'bytes'},"
+            +"{'name':'name','type':'string'}"
+            +"]}");
+
+    @JsonPropertyOrder({ "hash", "data", "name" })
+    static class Blob {
+        public byte[] hash;
+        public byte[] data;
+        public String name;
+
+        protected Blob() { }
+        public Blob(int size, String name) {
+            hash = new byte[] { 1, 2, 3, 4 };
+            data = new byte[size];
+            for (int i = 0; i < size; ++i) {
+                data[i] = (byte) (i * 7);
+            }
+            this.name = name;
+        }
+    }
+
+    @JsonPropertyOrder({ "hash", "data", "name" })
+    static class BufferBlob {
+        @JsonDeserialize(using=AvroByteBufferDeserializer.class)
+        public ByteBuffer hash;
+        @JsonDeserialize(using=AvroByteBufferDeserializer.class)
+        public ByteBuffer data;
+        public String name;
+    }
+
+    private final AvroMapper MAPPER = getMapper();
+
+    public void testBufferViewFromByteArray() throws Exception
+    {
+        AvroSchema schema = MAPPER.schemaFrom(SCHEMA_JSON);
+        Blob input = new Blob(100, "small");
+        byte[] doc = MAPPER.writer(schema).writeValueAsBytes(input);
+
+        try (AvroParser p = (AvroParser) MAPPER.createParser(doc)) {
+            p.setSchema(schema);
+            assertToken(JsonToken.START_OBJECT, p.nextToken());
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertToken(JsonToken.VALUE_EMBEDDED_OBJECT, p.nextToken());
+            ByteBuffer hash = p.getBinaryValueAsBuffer();
+            assertTrue(hash.isReadOnly());
+            assertTrue(p.canRetainBinaryValueBuffer());
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertToken(JsonToken.VALUE_EMBEDDED_OBJECT, p.nextToken());
+            ByteBuffer data = p.getBinaryValueAsBuffer();
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertToken(JsonToken.VALUE_STRING, p.nextToken());
+            assertEquals("small", p.getText());
+
+            // views over input array remain valid
+            assertEquals(ByteBuffer.wrap(input.hash), hash);
+            assertEquals(ByteBuffer.wrap(input.data), data);
+        }
+    }
+
+    public void testBufferViewFromStream() throws Exception
+    {
+        AvroSchema schema = MAPPER.schemaFrom(SCHEMA_JSON);
+        Blob input = new Blob(100, "small");
+        byte[] doc = MAPPER.writer(schema).writeValueAsBytes(input);
+
+        try (AvroParser p = (AvroParser) MAPPER.createParser(new ByteArrayInputStream(doc))) {
+            p.setSchema(schema);
+            assertToken(JsonToken.START_OBJECT, p.nextToken());
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertToken(JsonToken.VALUE_EMBEDDED_OBJECT, p.nextToken());
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertToken(JsonToken.VALUE_EMBEDDED_OBJECT, p.nextToken());
+            ByteBuffer data = p.getBinaryValueAsBuffer();
+            assertEquals(ByteBuffer.wrap(input.data), data);
+            // input buffer is recycled, so view can not be retained
+            assertFalse(p.canRetainBinaryValueBuffer());
+            // but can still access as byte[] as well
+            assertTrue(Arrays.equals(input.data, p.getBinaryValue()));
+        }
+    }
+
+    public void testStreamLargeBinary() throws Exception
+    {
+        AvroSchema schema = MAPPER.schemaFrom(SCHEMA_JSON);
+        final int SIZE = 3 * 1024 * 1024;
+        Blob input = new Blob(SIZE, "large");
+        byte[] doc = MAPPER.writer(schema).writeValueAsBytes(input);
+
+        // First: stream contents out
+        try (AvroParser p = (AvroParser) MAPPER.createParser(new ByteArrayInputStream(doc))) {
+            p.setSchema(schema);
+            assertToken(JsonToken.START_OBJECT, p.nextToken());
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertToken(JsonToken.VALUE_EMBEDDED_OBJECT, p.nextToken());
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertEquals("data", p.currentName());
+            assertToken(JsonToken.VALUE_EMBEDDED_OBJECT, p.nextToken());
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            assertEquals(SIZE, p.readBinaryValue(out));
+            assertTrue(Arrays.equals(input.data, out.toByteArray()));
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertToken(JsonToken.VALUE_STRING, p.nextToken());
+            assertEquals("large", p.getText());
+            assertToken(JsonToken.END_OBJECT, p.nextToken());
+        }
+
+        // Then: skip without accessing
+        try (AvroParser p = (AvroParser) MAPPER.createParser(new ByteArrayInputStream(doc))) {
+            p.setSchema(schema);
+            assertToken(JsonToken.START_OBJECT, p.nextToken());
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertToken(JsonToken.VALUE_EMBEDDED_OBJECT, p.nextToken());
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertToken(JsonToken.VALUE_EMBEDDED_OBJECT, p.nextToken());
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertToken(JsonToken.VALUE_STRING, p.nextToken());
+            assertEquals("large", p.getText());
+        }
+
+        // And finally regular databinding
+        Blob result = MAPPER.readerFor(Blob.class).with(schema)
+                .readValue(new ByteArrayInputStream(doc));
+        assertTrue(Arrays.equals(input.data, result.data));
+        assertEquals("large", result.name);
+    }
+
+    public void testByteBufferDeserializer() throws Exception
+    {
+        AvroSchema schema = MAPPER.schemaFrom(SCHEMA_JSON);
+        Blob input = new Blob(1000, "buffers");
+        byte[] doc = MAPPER.writer(schema).writeValueAsBytes(input);
+
+        // From byte[], no copy
+        BufferBlob result = MAPPER.readerFor(BufferBlob.class).with(schema).readValue(doc);
+        assertTrue(result.data.isReadOnly());
+        assertEquals(ByteBuffer.wrap(input.hash), result.hash);
+        assertEquals(ByteBuffer.wrap(input.data), result.data);
+        assertEquals("buffers", result.name);
+
+        // From stream, need to copy
+        result = MAPPER.readerFor(BufferBlob.class).with(schema)
+                .readValue(new ByteArrayInputStream(doc));
+        assertFalse(result.data.isReadOnly());
+        assertEquals(ByteBuffer.wrap(input.hash), result.hash);
+        assertEquals(ByteBuffer.wrap(input.data), result.data);
+        assertEquals("buffers", result.name);
+    }
+
+    public void testMappedFile() throws Exception
+    {
+        AvroSchema schema = MAPPER.schemaFrom(SCHEMA_JSON);
+        Blob input = new Blob(5000, "mapped");
+        File f = File.createTempFile("avro-binary", ".avro");
+        try {
+            Files.write(f.toPath(), MAPPER.writer(schema).writeValueAsBytes(input));
+            AvroMapper mapper = AvroMapper.builder()
+                    .enable(AvroParser.Feature.AVRO_MAPPED_FILE_INPUT)
+                    .build();
+            BufferBlob result = mapper.readerFor(BufferBlob.class).with(schema).readValue(f);
+            assertTrue(result.data.isReadOnly());
+            assertEquals(ByteBuffer.wrap(input.hash), result.hash);
+            assertEquals(ByteBuffer.wrap(input.data), result.data);
+            assertEquals("mapped", result.name);
+
+            Blob blob = mapper.readerFor(Blob.class).with(schema).readValue(f);
+            assertTrue(Arrays.equals(input.data, blob.data));
+        } finally {
+            f.delete();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.fasterxml.jackson.dataformat.avro;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.avro.deser.CompiledRecordReader;
+
+/**
+ * Tests for runtime-generated record readers, see
+ * {@link AvroParser.Feature#AVRO_COMPILED_READERS}.
+ */
+public class CompiledReaderTest extends AvroTestBase
+{
+    @JsonPropertyOrder({ "id", "count", "ratio", "score", "active", "name", "nick", "data", "child", "tags" })
+    static class Wide {
+        public long id;
+        public int count;
+        public float ratio;
+        public double score;
+        public boolean active;
+        public String name;
+        public String nick; // nullable, so union
+        public byte[] data;
+        public Point child;
+        public List<String> tags;
+
+        protected Wide() { }
+        public Wide(int index) {
+            id = -1000L * index;
+            count = index;
+            ratio = index * 0.5f;
+            score = -index * 0.25;
+            active = (index & 1) == 0;
+            name = "name"+index;
+            nick = ((index % 3) == 0) ? null : "nick"+index;
+            data = new byte[] { (byte) index, 2, 3 };
+            child = new Point(index, -index);
+            tags = Arrays.asList("a", "b"+index);
+        }
+    }
+
+    @JsonPropertyOrder({ "x", "y" })
+    static class Point {
+        public int x, y;
+
+        protected Point() { }
+        public Point(int x, int y) {
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    @JsonPropertyOrder({ "name", "id" })
+    static class Narrow {
+        public String name;
+        public long id;
+    }
+
+    private final AvroMapper MAPPER = getMapper();
+
+    public void testCompiledReaderUsed() throws Exception
+    {
+        AvroSchema schema = MAPPER.schemaFor(Wide.class);
+        assertTrue(schema.getCompiledReader() instanceof CompiledRecordReader);
+        // cached
+        assertSame(schema.getCompiledReader(), schema.getCompiledReader());
+    }
+
+    public void testReadValues() throws Exception
+    {
+        AvroSchema schema = MAPPER.schemaFor(Wide.class);
+        ObjectReader r = MAPPER.readerFor(Wide.class).with(schema)
+                .with(AvroParser.Feature.AVRO_COMPILED_READERS);
+        for (int i = 0; i < 10; ++i) {
+            Wide exp = new Wide(i);
+            byte[] doc = MAPPER.writer(schema).writeValueAsBytes(exp);
+            Wide act = r.readValue(doc);
+            assertEquals(exp.id, act.id);
+            assertEquals(exp.count, act.count);
+            assertEquals(exp.ratio, act.ratio);
+            assertEquals(exp.score, act.score);
+            assertEquals(exp.active, act.active);
+            assertEquals(exp.name, act.name);
+            assertEquals(exp.nick, act.nick);
+            assertTrue(Arrays.equals(exp.data, act.data));
+            assertEquals(exp.child.x, act.child.x);
+            assertEquals(exp.child.y, act.child.y);
+            assertEquals(exp.tags, act.tags);
+        }
+    }
+
+    public void testTokensSameAsInterpreted() throws Exception
+    {
+        AvroSchema schema = MAPPER.schemaFor(Wide.class);
+        byte[] doc = MAPPER.writer(schema).writeValueAsBytes(new Wide(4));
+        try (JsonParser p1 = _createParser(doc, schema, false);
+                JsonParser p2 = _createParser(doc, schema, true)) {
+            JsonToken t;
+            while ((t = p1.nextToken()) != null) {
+                assertToken(t, p2.nextToken());
+                assertEquals(p1.currentName(), p2.currentName());
+                if (t.isScalarValue()) {
+                    assertEquals(p1.getText(), p2.getText());
+                }
+            }
+            assertNull(p2.nextToken());
+        }
+    }
+
+    public void testSkipChildren() throws Exception
+    {
+        AvroSchema schema = MAPPER.schemaFor(Wide.class);
+        // write two records back to back, skip first one
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write(MAPPER.writer(schema).writeValueAsBytes(new Wide(1)));
+        bytes.write(MAPPER.writer(schema).writeValueAsBytes(new Wide(2)));
+        byte[] doc = bytes.toByteArray();
+        try (JsonParser p = _createParser(doc, schema, true)) {
+            assertToken(JsonToken.START_OBJECT, p.nextToken());
+            p.skipChildren();
+            assertToken(JsonToken.END_OBJECT, p.currentToken());
+            assertToken(JsonToken.START_OBJECT, p.nextToken());
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertEquals("id", p.currentName());
+            assertToken(JsonToken.VALUE_NUMBER_INT, p.nextToken());
+            assertEquals(-2000L, p.getLongValue());
+        }
+    }
+
+    public void testResolvingReader() throws Exception
+    {
+        AvroSchema writerSchema = MAPPER.schemaFor(Wide.class);
+        AvroSchema schema = writerSchema.withReaderSchema(MAPPER.schemaFor(Narrow.class));
+        assertTrue(schema.getCompiledReader() instanceof CompiledRecordReader);
+        ObjectReader r = MAPPER.readerFor(Narrow.class).with(schema)
+                .with(AvroParser.Feature.AVRO_COMPILED_READERS);
+        Narrow n = r.readValue(MAPPER.writer(writerSchema).writeValueAsBytes(new Wide(7)));
+        assertEquals("name7", n.name);
+        assertEquals(-7000L, n.id);
+    }
+
+    private JsonParser _createParser(byte[] doc, AvroSchema schema, boolean compiled) throws Exception
+    {
+        AvroParser p = (AvroParser) MAPPER.createParser(doc);
+        if (compiled) {
+            p.enable(AvroParser.Feature.AVRO_COMPILED_READERS);
+        }
+        p.setSchema(schema);
+        return p;
+    }
+}
@@ -0,0 +1,213 @@
+package com.fasterxml.jackson.dataformat.avro;
+
+import java.io.ByteArrayOutputStream;
+import java.util.*;
+
+import com.fasterxml.jackson.core.JsonGenerationException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.SequenceWriter;
+
+/**
+ * Tests to verify that {@link AvroGenerator.Feature#AVRO_DIRECT_ENCODING}
+ * produces same content as default (tree-building) encoding.
+ */
+public class DirectEncodingTest extends AvroTestBase
+{
+    private final static String DEFAULTS_SCHEMA_JSON = aposToQuotes("{\n"
+            +"'type': 'record',\n"
+            +"'name': 'Defaults',\n"
+            +"'fields': [\n"
+            +" {'name': 'id', 'type': 'int'},\n"
+            +" {'name': 'note', 'type': ['null','string']},\n"
+            +" {'name': 'count', 'type': 'int', 'default': 3},\n"
+            +" {'name': 'name', 'type': 'string'}\n"
+            +"]}");
+
+    static class Defaults {
+        public int id;
+        public String note;
+        public int count;
+        public String name;
+    }
+
+    private final AvroMapper MAPPER = getMapper();
+
+    private final AvroMapper DIRECT_MAPPER = AvroMapper.builder()
+            .enable(AvroGenerator.Feature.AVRO_DIRECT_ENCODING)
+            .build();
+
+    public void testSimpleRecord() throws Exception
+    {
+        Employee boss = new Employee("Bossman", 55, new String[] { "boss@company.com" }, null);
+        Employee empl = new Employee("Bob", 39, new String[] { "bob@company.com", "bob@home.net" }, boss);
+
+        byte[] exp = toAvro(empl);
+        byte[] act = toAvro(empl, DIRECT_MAPPER);
+        assertEquals(exp.length, act.length);
+        assertTrue(Arrays.equals(exp, act));
+    }
+
+    public void testRecordArray() throws Exception
+    {
+        AvroSchema schema = MAPPER.schemaFrom(EMPLOYEE_ARRAY_SCHEMA_JSON);
+        List<Employee> input = new ArrayList<Employee>();
+        input.add(new Employee("Bob", 39, new String[0], null));
+        input.add(new Employee("Jill", 28, new String[] { "jill@foo.com" }, null));
+
+        byte[] exp = MAPPER.writer(schema).writeValueAsBytes(input);
+        byte[] act = DIRECT_MAPPER.writer(schema).writeValueAsBytes(input);
+        assertTrue(Arrays.equals(exp, act));
+    }
+
+    // Content big enough to need multiple blocks
+    public void testLongArray() throws Exception
+    {
+        AvroSchema schema = getStringArraySchema();
+        List<String> input = new ArrayList<String>();
+        for (int i = 0; i < 5000; ++i) {
+            input.add(generateAsciiString(20 + (i % 17)));
+        }
+        byte[] bytes = DIRECT_MAPPER.writer(schema).writeValueAsBytes(input);
+        String[] result = MAPPER.readerFor(String[].class)
+                .with(schema)
+                .readValue(bytes);
+        assertEquals(input, Arrays.asList(result));
+        // and also with Apache decoder
+        result = newApacheMapper().readerFor(String[].class)
+                .with(schema)
+                .readValue(bytes);
+        assertEquals(input, Arrays.asList(result));
+    }
+
+    public void testMap() throws Exception
+    {
+        AvroSchema schema = getStringMapSchema();
+        Map<String,String> input = new LinkedHashMap<String,String>();
+        for (int i = 0; i < 2000; ++i) {
+            input.put("key"+i, generateAsciiString(15 + (i % 7)));
+        }
+        byte[] bytes = DIRECT_MAPPER.writer(schema).writeValueAsBytes(input);
+        Map<?,?> result = MAPPER.readerFor(Map.class)
+                .with(schema)
+                .readValue(bytes);
+        assertEquals(input, result);
+    }
+
+    public void testPropertiesOutOfOrder() throws Exception
+    {
+        Employee empl = new Employee("Bob", 39, new String[] { "bob@company.com" }, null);
+        byte[] exp = toAvro(empl);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonGenerator g = DIRECT_MAPPER.createGenerator(out);
+        g.setSchema(getEmployeeSchema());
+        g.writeStartObject();
+        g.writeNullField("boss");
+        g.writeFieldName("emails");
+        g.writeStartArray();
+        g.writeString("bob@company.com");
+        g.writeEndArray();
+        g.writeStringField("name", "Bob");
+        g.writeNumberField("age", 39);
+        g.writeEndObject();
+        g.close();
+
+        assertTrue(Arrays.equals(exp, out.toByteArray()));
+    }
+
+    // flush() must also push out content buffered by the encoder
+    public void testFlushPartialValue() throws Exception
+    {
+        Employee empl = new Employee("Bob", 39, new String[0], null);
+        byte[] exp = toAvro(empl);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonGenerator g = DIRECT_MAPPER.createGenerator(out);
+        g.setSchema(getEmployeeSchema());
+        g.writeStartObject();
+        g.writeStringField("name", "Bob");
+        g.writeNumberField("age", 39);
+        assertEquals(0, out.size());
+        g.flush();
+        assertTrue(out.size() > 0);
+        g.writeFieldName("emails");
+        g.writeStartArray();
+        g.writeEndArray();
+        g.writeNullField("boss");
+        g.writeEndObject();
+        g.close();
+
+        assertTrue(Arrays.equals(exp, out.toByteArray()));
+    }
+
+    public void testMissingProperties() throws Exception
+    {
+        AvroSchema schema = MAPPER.schemaFrom(DEFAULTS_SCHEMA_JSON);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonGenerator g = DIRECT_MAPPER.createGenerator(out);
+        g.setSchema(schema);
+        g.writeStartObject();
+        g.writeStringField("name", "Foo");
+        g.writeNumberField("id", 13);
+        g.writeEndObject();
+        g.close();
+
+        Defaults result = MAPPER.readerFor(Defaults.class)
+                .with(schema)
+                .readValue(out.toByteArray());
+        assertEquals(13, result.id);
+        assertNull(result.note);
+        assertEquals(3, result.count);
+        assertEquals("Foo", result.name);
+
+        // but property without default must be written
+        out = new ByteArrayOutputStream();
+        g = DIRECT_MAPPER.createGenerator(out);
+        g.setSchema(schema);
+        g.writeStartObject();
+        g.writeNumberField("id", 13);
+        try {
+            g.writeEndObject();
+            fail("Should not pass");
+        } catch (JsonGenerationException e) {
+            verifyException(e, "No value written for property 'name'");
+        }
+    }
+
+    public void testDuplicateProperty() throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonGenerator g = DIRECT_MAPPER.createGenerator(out);
+        g.setSchema(getEmployeeSchema());
+        g.writeStartObject();
+        g.writeStringField("name", "Bob");
+        try {
+            g.writeStringField("name", "Bob");
+            fail("Should not pass");
+        } catch (JsonGenerationException e) {
+            verifyException(e, "Duplicate property 'name'");
+        }
+    }
+
+    public void testRootSequence() throws Exception
+    {
+        AvroSchema schema = getEmployeeSchema();
+        ByteArrayOutputStream b = new ByteArrayOutputStream();
+        SequenceWriter w = DIRECT_MAPPER.writer(schema)
+                .writeValues(b);
+        w.write(new Employee("Bob", 39, new String[0], null));
+        w.write(new Employee("Jill", 28, new String[] { "jill@foo.com" }, null));
+        w.close();
+
+        MappingIterator<Employee> it = MAPPER.readerFor(Employee.class)
+                .with(schema)
+                .readValues(b.toByteArray());
+        assertTrue(it.hasNextValue());
+        assertEquals("Bob", it.nextValue().name);
+        assertTrue(it.hasNextValue());
+        assertEquals("jill@foo.com", it.nextValue().emails[0]);
+        assertFalse(it.hasNextValue());
+        it.close();
+    }
+}
@@ -1,5 +1,7 @@
 package com.fasterxml.jackson.dataformat.avro;
 
+import java.io.ByteArrayOutputStream;
+
 import org.apache.avro.file.DataFileReader;
 import org.apache.avro.file.SeekableByteArrayInput;
 import org.apache.avro.generic.GenericDatumReader;
@@ -7,6 +9,7 @@ import org.apache.avro.generic.GenericRecord;
 import org.apache.avro.io.DatumReader;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 
 // for [dataformats-binary#15]
 public class FileFormatTest extends AvroTestBase
@@ -43,4 +46,68 @@ public class FileFormatTest extends AvroTestBase
         assertNotNull(output);
         assertEquals(output.get("name").toString(), empl.name);
     }
+
+    public void testFileFormatSequence() throws Exception
+    {
+        // small blocks, to get multiple ones
+        AvroFactoryBuilder b = AvroFactory.builder()
+                .enable(AvroGenerator.Feature.AVRO_FILE_OUTPUT)
+                .fileBlockSize(200);
+        _testFileFormatSequence(b.build());
+        _testFileFormatSequence(b.fileCodec("deflate").build());
+        _testFileFormatSequence(b.enable(AvroGenerator.Feature.AVRO_DIRECT_ENCODING).build());
+        _testFileFormatSequence(AvroFactory.builderWithApacheEncoder()
+                .enable(AvroGenerator.Feature.AVRO_FILE_OUTPUT)
+                .fileCodec("deflate")
+                .build());
+    }
+
+    // Header is only written along with the first value
+    public void testNoOutputWithoutValues() throws Exception
+    {
+        ObjectMapper mapper = new ObjectMapper(AvroFactory.builder()
+                .enable(AvroGenerator.Feature.AVRO_FILE_OUTPUT)
+                .build());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SequenceWriter w = mapper.writer(getEmployeeSchema()).writeValues(out);
+        w.close();
+        assertEquals(0, out.size());
+    }
+
+    public void testInvalidCodec() throws Exception
+    {
+        try {
+            AvroFactory.builder().fileCodec("snappy");
+            fail("Should not pass");
+        } catch (IllegalArgumentException e) {
+            verifyException(e, "Unsupported Avro file codec 'snappy'");
+        }
+    }
+
+    private void _testFileFormatSequence(AvroFactory af) throws Exception
+    {
+        final int COUNT = 1000;
+        ObjectMapper mapper = new ObjectMapper(af);
+        AvroSchema schema = getEmployeeSchema();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SequenceWriter w = mapper.writer(schema).writeValues(out);
+        for (int i = 0; i < COUNT; ++i) {
+            w.write(new Employee("Bob#"+i, i, new String[] { "bob"+i+"@foo.com" }, null));
+        }
+        w.close();
+
+        byte[] bytes = out.toByteArray();
+        DatumReader<GenericRecord> datumReader = new GenericDatumReader<GenericRecord>(schema.getAvroSchema());
+        DataFileReader<GenericRecord> dataFileReader = new DataFileReader<GenericRecord>(new SeekableByteArrayInput(bytes),
+                datumReader);
+        int count = 0;
+        while (dataFileReader.hasNext()) {
+            GenericRecord output = dataFileReader.next();
+            assertEquals("Bob#"+count, output.get("name").toString());
+            assertEquals(count, output.get("age"));
+            ++count;
+        }
+        dataFileReader.close();
+        assertEquals(COUNT, count);
+    }
 }
@@ -0,0 +1,282 @@
+package com.fasterxml.jackson.dataformat.avro;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.UUID;
+
+import org.apache.avro.Schema;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.dataformat.avro.schema.AvroSchemaGenerator;
+
+/**
+ * Tests for handling of Avro logical types.
+ */
+public class LogicalTypesTest extends AvroTestBase
+{
+    private final static String AMOUNTS_SCHEMA_JSON = aposToQuotes("{\n"
+            +"'type': 'record',\n"
+            +"'name': 'Amounts',\n"
+            +"'fields': [\n"
+            +" {'name': 'price', 'type': {'type': 'bytes', 'logicalType': 'decimal', 'precision': 10, 'scale': 2}},\n"
+            +" {'name': 'total', 'type': {'type': 'fixed', 'name': 'Total', 'size': 12,\n"
+            +"     'logicalType': 'decimal', 'precision': 20, 'scale': 3}},\n"
+            +" {'name': 'tax', 'type': ['null', {'type': 'bytes', 'logicalType': 'decimal', 'precision': 30, 'scale': 1}]}\n"
+            +"]}");
+
+    private final static String EVENT_SCHEMA_JSON = aposToQuotes("{\n"
+            +"'type': 'record',\n"
+            +"'name': 'Event',\n"
+            +"'fields': [\n"
+            +" {'name': 'id', 'type': {'type': 'string', 'logicalType': 'uuid'}},\n"
+            +" {'name': 'at', 'type': {'type': 'long', 'logicalType': 'timestamp-micros'}},\n"
+            +" {'name': 'day', 'type': {'type': 'int', 'logicalType': 'date'}},\n"
+            +" {'name': 'time', 'type': {'type': 'int', 'logicalType': 'time-millis'}}\n"
+            +"]}");
+
+    @JsonPropertyOrder({ "price", "total", "tax" })
+    static class Amounts {
+        public BigDecimal price, total, tax;
+
+        protected Amounts() { }
+        public Amounts(String price, String total, String tax) {
+            this.price = new BigDecimal(price);
+            this.total = new BigDecimal(total);
+            this.tax = (tax == null) ? null : new BigDecimal(tax);
+        }
+    }
+
+    @JsonPropertyOrder({ "id", "at", "day", "time" })
+    static class Event {
+        public UUID id;
+        public long at;
+        public int day;
+        public int time;
+    }
+
+    static class Generated {
+        public Date created;
+        public UUID id;
+
+        @AvroDecimal(precision = 8, scale = 2)
+        public BigDecimal price;
+
+        @AvroDecimal(precision = 20, scale = 4)
+        @AvroFixedSize(typeName = "Money", size = 9)
+        public BigDecimal total;
+    }
+
+    @JsonPropertyOrder({ "price", "total", "tax" })
+    static class RawAmounts {
+        public byte[] price, total, tax;
+    }
+
+    private final AvroMapper MAPPER = getMapper();
+
+    private final AvroMapper DECIMAL_MAPPER = AvroMapper.builder()
+            .enable(AvroParser.Feature.AVRO_DECIMALS_AS_NUMBERS)
+            .build();
+
+    public void testDecimalRoundTrip() throws Exception
+    {
+        AvroSchema schema = MAPPER.schemaFrom(AMOUNTS_SCHEMA_JSON);
+        // unscaled value of last one does not fit in a long
+        Amounts input = new Amounts("12.5", "-1234567.891", "98765432109876543210.5");
+        for (AvroMapper writeMapper : new AvroMapper[] { MAPPER, _directMapper() }) {
+            byte[] doc = writeMapper.writer(schema).writeValueAsBytes(input);
+            for (AvroMapper mapper : new AvroMapper[] { MAPPER, newApacheMapper() }) {
+                Amounts result = mapper.readerFor(Amounts.class).with(schema)
+                        .with(AvroParser.Feature.AVRO_DECIMALS_AS_NUMBERS)
+                        .readValue(doc);
+                assertEquals(new BigDecimal("12.50"), result.price);
+                assertEquals(new BigDecimal("-1234567.891"), result.total);
+                assertEquals(new BigDecimal("98765432109876543210.5"), result.tax);
+            }
+            Amounts result = MAPPER.readerFor(Amounts.class).with(schema)
+                    .with(AvroParser.Feature.AVRO_COMPILED_READERS)
+                    .with(AvroParser.Feature.AVRO_DECIMALS_AS_NUMBERS)
+                    .readValue(doc);
+            assertEquals(new BigDecimal("12.50"), result.price);
+            assertEquals(new BigDecimal("-1234567.891"), result.total);
+        }
+    }
+
+    public void testDecimalTokens() throws Exception
+    {
+        AvroSchema schema = MAPPER.schemaFrom(AMOUNTS_SCHEMA_JSON);
+        byte[] doc = MAPPER.writer(schema).writeValueAsBytes(new Amounts("0.01", "-0.5", null));
+        try (JsonParser p = DECIMAL_MAPPER.createParser(doc)) {
+            p.setSchema(schema);
+            AvroParser ap = (AvroParser) p;
+            assertToken(JsonToken.START_OBJECT, p.nextToken());
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertToken(JsonToken.VALUE_NUMBER_FLOAT, p.nextToken());
+            assertEquals(JsonParser.NumberType.BIG_DECIMAL, p.getNumberType());
+            assertEquals(new BigDecimal("0.01"), p.getDecimalValue());
+            assertEquals("decimal", ap.currentLogicalType());
+            assertEquals(BigDecimal.class.getName(), p.getTypeId());
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertNull(ap.currentLogicalType());
+            assertToken(JsonToken.VALUE_NUMBER_FLOAT, p.nextToken());
+            assertEquals(new BigDecimal("-0.500"), p.getDecimalValue());
+            assertEquals(-0.5, p.getDoubleValue());
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertToken(JsonToken.VALUE_NULL, p.nextToken());
+            assertToken(JsonToken.END_OBJECT, p.nextToken());
+        }
+    }
+
+    // By default, decimals are exposed as their underlying type
+    public void testDecimalsAsBinaryByDefault() throws Exception
+    {
+        AvroSchema schema = MAPPER.schemaFrom(AMOUNTS_SCHEMA_JSON);
+        byte[] doc = MAPPER.writer(schema).writeValueAsBytes(new Amounts("0.01", "-0.5", "1.5"));
+        try (JsonParser p = MAPPER.createParser(doc)) {
+            p.setSchema(schema);
+            assertToken(JsonToken.START_OBJECT, p.nextToken());
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertToken(JsonToken.VALUE_EMBEDDED_OBJECT, p.nextToken());
+            assertNull(((AvroParser) p).currentLogicalType());
+            // unscaled value 1
+            assertTrue(Arrays.equals(new byte[] { 1 }, p.getBinaryValue()));
+        }
+        RawAmounts raw = MAPPER.readerFor(RawAmounts.class).with(schema).readValue(doc);
+        assertTrue(Arrays.equals(new byte[] { 1 }, raw.price));
+        assertEquals(12, raw.total.length);
+        assertTrue(Arrays.equals(new byte[] { 15 }, raw.tax));
+    }
+
+    public void testDecimalEncoding() throws Exception
+    {
+        AvroSchema schema = MAPPER.schemaFrom(aposToQuotes(
+                "{'type': 'bytes', 'logicalType': 'decimal', 'precision': 5, 'scale': 2}"));
+        // unscaled 123 as single byte, preceded by zigzag-encoded length
+        byte[] doc = MAPPER.writer(schema).writeValueAsBytes(new BigDecimal("1.23"));
+        assertTrue(Arrays.equals(new byte[] { 2, 123 }, doc));
+        assertEquals(new BigDecimal("1.23"),
+                DECIMAL_MAPPER.readerFor(BigDecimal.class).with(schema).readValue(doc));
+
+        try {
+            MAPPER.writer(schema).writeValueAsBytes(new BigDecimal("1.234"));
+            fail("Should not pass");
+        } catch (Exception e) {
+            verifyException(e, "without rounding");
+        }
+    }
+
+    public void testTemporalAccessors() throws Exception
+    {
+        AvroSchema schema = MAPPER.schemaFrom(EVENT_SCHEMA_JSON);
+        Event input = new Event();
+        input.id = UUID.randomUUID();
+        input.at = 1500000000123456L;
+        input.day = 17000;
+        input.time = 3723004;
+        byte[] doc = MAPPER.writer(schema).writeValueAsBytes(input);
+
+        try (JsonParser p = MAPPER.createParser(doc)) {
+            p.setSchema(schema);
+            AvroParser ap = (AvroParser) p;
+            assertToken(JsonToken.START_OBJECT, p.nextToken());
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertToken(JsonToken.VALUE_STRING, p.nextToken());
+            assertEquals("uuid", ap.currentLogicalType());
+            assertEquals(input.id.toString(), p.getText());
+
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertToken(JsonToken.VALUE_NUMBER_INT, p.nextToken());
+            assertEquals("timestamp-micros", ap.currentLogicalType());
+            assertEquals(input.at, p.getLongValue());
+            assertEquals(Instant.ofEpochSecond(1500000000L, 123456000L), ap.getInstantValue());
+
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertToken(JsonToken.VALUE_NUMBER_INT, p.nextToken());
+            assertEquals("date", ap.currentLogicalType());
+            assertEquals(LocalDate.ofEpochDay(17000), ap.getLocalDateValue());
+
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertToken(JsonToken.VALUE_NUMBER_INT, p.nextToken());
+            assertEquals("time-millis", ap.currentLogicalType());
+            assertEquals(LocalTime.of(1, 2, 3, 4000000), ap.getLocalTimeValue());
+            assertToken(JsonToken.END_OBJECT, p.nextToken());
+        }
+
+        // typed accessors work with logical types as well
+        try (JsonParser p = MAPPER.createParser(doc)) {
+            p.setSchema(schema);
+            assertToken(JsonToken.START_OBJECT, p.nextToken());
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertToken(JsonToken.VALUE_STRING, p.nextToken());
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertEquals(input.at, p.nextLongValue(-1L));
+            assertEquals("timestamp-micros", ((AvroParser) p).currentLogicalType());
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertEquals(input.day, p.nextIntValue(-1));
+            assertEquals("date", ((AvroParser) p).currentLogicalType());
+        }
+
+        // as well as regular databinding
+        Event result = MAPPER.readerFor(Event.class).with(schema).readValue(doc);
+        assertEquals(input.id, result.id);
+        assertEquals(input.at, result.at);
+        assertEquals(input.day, result.day);
+    }
+
+    public void testSchemaGeneration() throws Exception
+    {
+        AvroSchemaGenerator gen = new AvroSchemaGenerator().enableLogicalTypes();
+        MAPPER.acceptJsonFormatVisitor(Generated.class, gen);
+        Schema schema = gen.getGeneratedSchema().getAvroSchema();
+
+        Schema created = _nonNull(schema.getField("created").schema());
+        assertEquals(Schema.Type.LONG, created.getType());
+        assertEquals("timestamp-millis", created.getProp("logicalType"));
+        Schema id = _nonNull(schema.getField("id").schema());
+        assertEquals(Schema.Type.STRING, id.getType());
+        assertEquals("uuid", id.getProp("logicalType"));
+        Schema price = schema.getField("price").schema();
+        assertEquals(Schema.Type.BYTES, price.getType());
+        assertEquals("decimal", price.getProp("logicalType"));
+        assertEquals(2, price.getObjectProp("scale"));
+        Schema total = schema.getField("total").schema();
+        assertEquals(Schema.Type.FIXED, total.getType());
+        assertEquals(9, total.getFixedSize());
+        assertEquals(4, total.getObjectProp("scale"));
+
+        // but not by default
+        gen = new AvroSchemaGenerator();
+        MAPPER.acceptJsonFormatVisitor(Generated.class, gen);
+        schema = gen.getGeneratedSchema().getAvroSchema();
+        assertNull(_nonNull(schema.getField("created").schema()).getProp("logicalType"));
+        assertNull(_nonNull(schema.getField("id").schema()).getProp("logicalType"));
+    }
+
+    /*
+    /**********************************************************************
+    /* Helper methods
+    /**********************************************************************
+     */
+
+    private AvroMapper _directMapper() {
+        return AvroMapper.builder()
+                .enable(AvroGenerator.Feature.AVRO_DIRECT_ENCODING)
+                .build();
+    }
+
+    private Schema _nonNull(Schema schema) {
+        if (schema.getType() == Schema.Type.UNION) {
+            for (Schema branch : schema.getTypes()) {
+                if (branch.getType() != Schema.Type.NULL) {
+                    return branch;
+                }
+            }
+        }
+        return schema;
+    }
+}
@@ -0,0 +1,121 @@
+package com.fasterxml.jackson.dataformat.avro;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SequenceWriter;
+
+/**
+ * Tests for reading content from memory-mapped files, see
+ * {@link AvroParser.Feature#AVRO_MAPPED_FILE_INPUT}.
+ */
+public class MappedFileInputTest extends AvroTestBase
+{
+    @JsonPropertyOrder({ "i", "l", "f", "d", "b", "str", "data", "tags" })
+    static class Values {
+        public int i;
+        public long l;
+        public float f;
+        public double d;
+        public boolean b;
+        public String str;
+        public byte[] data;
+        public String[] tags;
+
+        protected Values() { }
+        public Values(int index) {
+            i = (index & 1) == 0 ? index : -index;
+            l = (index % 3 == 0) ? Long.MIN_VALUE + index : (long) index << (index % 60);
+            f = index * 0.25f;
+            d = -index * 0.5;
+            b = (index & 1) == 0;
+            str = "Value #"+index+((index % 7 == 0) ? "\u00E9\u20AC\uD83D\uDE03" : "");
+            data = new byte[index % 20];
+            Arrays.fill(data, (byte) index);
+            tags = new String[] { "a"+index, "b" };
+        }
+    }
+
+    @JsonPropertyOrder({ "l", "str" })
+    static class Projection {
+        public long l;
+        public String str;
+    }
+
+    private final AvroMapper MAPPER = getMapper();
+
+    public void testSequence() throws Exception
+    {
+        final int COUNT = 5000;
+        AvroSchema schema = MAPPER.schemaFor(Values.class);
+        File f = _writeValues(schema, COUNT);
+        try {
+            ObjectReader r = MAPPER.readerFor(Values.class)
+                    .with(schema)
+                    .with(AvroParser.Feature.AVRO_MAPPED_FILE_INPUT);
+            int count = 0;
+            try (MappingIterator<Values> it = r.readValues(f)) {
+                assertEquals("JacksonAvroMappedParserImpl", it.getParser().getClass().getSimpleName());
+                while (it.hasNextValue()) {
+                    Values exp = new Values(count++);
+                    Values act = it.nextValue();
+                    assertEquals(exp.i, act.i);
+                    assertEquals(exp.l, act.l);
+                    assertEquals(exp.f, act.f);
+                    assertEquals(exp.d, act.d);
+                    assertEquals(exp.b, act.b);
+                    assertEquals(exp.str, act.str);
+                    assertTrue(Arrays.equals(exp.data, act.data));
+                    assertTrue(Arrays.equals(exp.tags, act.tags));
+                }
+            }
+            assertEquals(COUNT, count);
+        } finally {
+            f.delete();
+        }
+    }
+
+    // Reader schema with fewer fields, to exercise skipping
+    public void testSkipping() throws Exception
+    {
+        final int COUNT = 1000;
+        AvroSchema schema = MAPPER.schemaFor(Values.class);
+        File f = _writeValues(schema, COUNT);
+        try {
+            AvroSchema readerSchema = MAPPER.schemaFor(Projection.class);
+            // need same record name for resolution to work
+            readerSchema = MAPPER.schemaFrom(readerSchema.getAvroSchema().toString()
+                    .replace("\"Projection\"", "\"Values\""));
+            ObjectReader r = MAPPER.readerFor(Projection.class)
+                    .with(schema.withReaderSchema(readerSchema))
+                    .with(AvroParser.Feature.AVRO_MAPPED_FILE_INPUT);
+            int count = 0;
+            try (MappingIterator<Projection> it = r.readValues(f)) {
+                while (it.hasNextValue()) {
+                    Values exp = new Values(count++);
+                    Projection act = it.nextValue();
+                    assertEquals(exp.l, act.l);
+                    assertEquals(exp.str, act.str);
+                }
+            }
+            assertEquals(COUNT, count);
+        } finally {
+            f.delete();
+        }
+    }
+
+    private File _writeValues(AvroSchema schema, int count) throws Exception
+    {
+        File f = File.createTempFile("avro-mapped", ".avro");
+        try (SequenceWriter w = MAPPER.writer(schema).writeValues(Files.newOutputStream(f.toPath()))) {
+            for (int i = 0; i < count; ++i) {
+                w.write(new Values(i));
+            }
+        }
+        return f;
+    }
+}
@@ -0,0 +1,121 @@
+package com.fasterxml.jackson.dataformat.avro;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+
+public class MessageWriterTest extends AvroTestBase
+{
+    static class Point {
+        public int x, y;
+
+        public Point(int x, int y) {
+            this.x = x;
+            this.y = y;
+        }
+
+        public int getZ() {
+            if (x < 0) {
+                throw new IllegalStateException("Negative x");
+            }
+            return 0;
+        }
+    }
+
+    final static String POINT_SCHEMA = aposToQuotes("{'type':'record','name':'Point','fields':["
+            +"{'name':'x','type':'int'},{'name':'y','type':'int'},{'name':'z','type':'int'}]}");
+
+    private final AvroMapper MAPPER = getMapper();
+
+    public void testEmployees() throws Exception
+    {
+        _testEmployees(MAPPER);
+        _testEmployees(newApacheMapper());
+        _testEmployees(AvroMapper.builder()
+                .enable(AvroGenerator.Feature.AVRO_DIRECT_ENCODING)
+                .build());
+    }
+
+    private void _testEmployees(AvroMapper mapper) throws Exception
+    {
+        Employee boss = new Employee("Bossman", 55, new String[] { "boss@company.com" }, null);
+        Employee peon = new Employee("Worker#1", 24, new String[] { "worker1@company.com" }, boss);
+        AvroSchema schema = getEmployeeSchema();
+
+        try (AvroMessageWriter w = mapper.messageWriterFor(Employee.class, schema)) {
+            assertSame(schema, w.getSchema());
+            for (int i = 0; i < 3; ++i) {
+                for (Employee emp : new Employee[] { boss, peon }) {
+                    byte[] exp = mapper.writer(schema).writeValueAsBytes(emp);
+                    assertArrayEquals(exp, w.writeValueAsBytes(emp));
+
+                    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                    assertEquals(exp.length, w.writeValue(bytes, emp));
+                    assertArrayEquals(exp, bytes.toByteArray());
+
+                    Employee result = mapper.readerFor(Employee.class).with(schema)
+                            .readValue(w.writeValueAsBytes(emp));
+                    assertEquals(emp.name, result.name);
+                    assertEquals(emp.age, result.age);
+                }
+            }
+        }
+    }
+
+    public void testRootScalars() throws Exception
+    {
+        AvroSchema schema = MAPPER.schemaFrom(quote("string"));
+        try (AvroMessageWriter w = AvroMessageWriter.construct(MAPPER, schema)) {
+            assertArrayEquals(MAPPER.writer(schema).writeValueAsBytes("foo"),
+                    w.writeValueAsBytes("foo"));
+            assertArrayEquals(MAPPER.writer(schema).writeValueAsBytes("abcde"),
+                    w.writeValueAsBytes("abcde"));
+        }
+    }
+
+    public void testSingleObjectEncoding() throws Exception
+    {
+        AvroMapper mapper = AvroMapper.builder()
+                .enable(AvroGenerator.Feature.AVRO_SINGLE_OBJECT_ENCODING)
+                .build();
+        AvroSchema schema = mapper.schemaFrom(POINT_SCHEMA);
+        try (AvroMessageWriter w = mapper.messageWriterFor(Point.class, schema)) {
+            for (int i = 0; i < 3; ++i) {
+                Point p = new Point(i, 2 * i);
+                assertArrayEquals(mapper.writer(schema).writeValueAsBytes(p),
+                        w.writeValueAsBytes(p));
+            }
+        }
+    }
+
+    public void testRecoveryAfterFailure() throws Exception
+    {
+        AvroSchema schema = MAPPER.schemaFrom(POINT_SCHEMA);
+        try (AvroMessageWriter w = MAPPER.messageWriterFor(Point.class, schema)) {
+            Point p = new Point(1, 2);
+            byte[] exp = MAPPER.writer(schema).writeValueAsBytes(p);
+            assertArrayEquals(exp, w.writeValueAsBytes(p));
+            try {
+                w.writeValueAsBytes(new Point(-1, 3));
+                fail("Should not pass");
+            } catch (Exception e) {
+                verifyException(e, "Negative x");
+            }
+            // should not be affected by partially written failed value
+            assertArrayEquals(exp, w.writeValueAsBytes(p));
+        }
+    }
+
+    public void testFileOutputNotAllowed() throws Exception
+    {
+        AvroMapper mapper = AvroMapper.builder()
+                .enable(AvroGenerator.Feature.AVRO_FILE_OUTPUT)
+                .build();
+        try {
+            mapper.messageWriterFor(Point.class, mapper.schemaFrom(POINT_SCHEMA));
+            fail("Should not pass");
+        } catch (IllegalArgumentException e) {
+            verifyException(e, "AVRO_FILE_OUTPUT");
+        }
+    }
+}
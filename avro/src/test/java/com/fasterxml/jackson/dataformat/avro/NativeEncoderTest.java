@@ -0,0 +1,101 @@
+package com.fasterxml.jackson.dataformat.avro;
+
+import java.util.Arrays;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * Tests to verify that Jackson native encoder produces same content
+ * as Apache Avro lib encoder.
+ */
+public class NativeEncoderTest extends AvroTestBase
+{
+    @JsonPropertyOrder({ "i", "l", "f", "d", "b", "str", "data" })
+    static class Values {
+        public int i;
+        public long l;
+        public float f;
+        public double d;
+        public boolean b;
+        public String str;
+        public byte[] data;
+
+        protected Values() { }
+        public Values(int i, long l, float f, double d, boolean b, String str, byte[] data) {
+            this.i = i;
+            this.l = l;
+            this.f = f;
+            this.d = d;
+            this.b = b;
+            this.str = str;
+            this.data = data;
+        }
+    }
+
+    private final AvroMapper NATIVE_MAPPER = new AvroMapper(AvroFactory.builderWithNativeEncoder().build());
+
+    private final AvroMapper APACHE_MAPPER = new AvroMapper(AvroFactory.builderWithApacheEncoder().build());
+
+    public void testEmployee() throws Exception
+    {
+        Employee boss = new Employee("Bossman", 55, new String[] { "boss@company.com" }, null);
+        Employee empl = new Employee("Bob", 39, new String[] { "bob@company.com", "bob@home.net" }, boss);
+        assertTrue(Arrays.equals(toAvro(empl, APACHE_MAPPER), toAvro(empl, NATIVE_MAPPER)));
+    }
+
+    public void testNumbers() throws Exception
+    {
+        _verifySame(new Values(0, 0L, 0.0f, 0.0, false, "", new byte[0]));
+        _verifySame(new Values(-1, -1L, -0.25f, -0.5, true, "x", new byte[1]));
+        _verifySame(new Values(Integer.MAX_VALUE, Long.MAX_VALUE, Float.MAX_VALUE, Double.MAX_VALUE,
+                true, "abc", new byte[] { 1, 2, 3 }));
+        _verifySame(new Values(Integer.MIN_VALUE, Long.MIN_VALUE, Float.NaN, Double.NEGATIVE_INFINITY,
+                false, "abc", new byte[] { 1, 2, 3 }));
+        _verifySame(new Values(0x7F, 0x3FFFL, Float.MIN_VALUE, Double.MIN_VALUE,
+                false, "abc", new byte[] { 1, 2, 3 }));
+    }
+
+    public void testStrings() throws Exception
+    {
+        // short and long, ascii and not
+        for (int len : new int[] { 1, 7, 21, 22, 63, 64, 200, 3000, 9000, 25000 }) {
+            _verifySame(new Values(1, 2L, 3f, 4.0, true, generateAsciiString(len), null));
+            _verifySame(new Values(1, 2L, 3f, 4.0, true, generateUnicodeString(len), null));
+        }
+        // surrogate pairs, valid and not
+        _verifySame(new Values(1, 2L, 3f, 4.0, true, "a\uD83D\uDE03b", null));
+        _verifySame(new Values(1, 2L, 3f, 4.0, true, "a\uD83Db\uDE03", null));
+        _verifySame(new Values(1, 2L, 3f, 4.0, true, "\uD83D", null));
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < 20000) {
+            sb.append("abc\uD83D\uDE03\u00E9\u20AC");
+        }
+        _verifySame(new Values(1, 2L, 3f, 4.0, true, sb.toString(), null));
+    }
+
+    public void testBinary() throws Exception
+    {
+        for (int len : new int[] { 1, 100, 7999, 8000, 8001, 50000 }) {
+            byte[] data = new byte[len];
+            for (int i = 0; i < len; ++i) {
+                data[i] = (byte) i;
+            }
+            _verifySame(new Values(1, 2L, 3f, 4.0, true, "foo", data));
+        }
+    }
+
+    private void _verifySame(Values input) throws Exception
+    {
+        AvroSchema schema = NATIVE_MAPPER.schemaFor(Values.class);
+        byte[] exp = APACHE_MAPPER.writer(schema).writeValueAsBytes(input);
+        byte[] act = NATIVE_MAPPER.writer(schema).writeValueAsBytes(input);
+        assertEquals(exp.length, act.length);
+        assertTrue(Arrays.equals(exp, act));
+
+        Values result = NATIVE_MAPPER.readerFor(Values.class)
+                .with(schema)
+                .readValue(act);
+        assertEquals(input.i, result.i);
+        assertEquals(input.l, result.l);
+    }
+}
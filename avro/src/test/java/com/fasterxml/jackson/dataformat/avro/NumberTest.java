@@ -113,4 +113,102 @@ public class NumberTest extends AvroTestBase
         assertToken(JsonToken.END_OBJECT, p.nextToken());
         p.close();
     }
+
+    public void testTypedNextValues() throws Exception
+    {
+        AvroSchema schema = MAPPER.schemaFor(Numbers.class);
+        Numbers input = new Numbers(-42, 1234567890123L, 0.125f, -3.75);
+        byte[] bytes = MAPPER.writer(schema).writeValueAsBytes(input);
+        for (AvroMapper mapper : new AvroMapper[] { MAPPER, newApacheMapper() }) {
+            AvroParser p = (AvroParser) mapper.createParser(bytes);
+            p.setSchema(schema);
+            assertToken(JsonToken.START_OBJECT, p.nextToken());
+            // not a value, so default returned
+            assertEquals(-1, p.nextIntValue(-1));
+            assertToken(JsonToken.FIELD_NAME, p.currentToken());
+            assertEquals("i", p.currentName());
+            assertEquals(input.i, p.nextIntValue(0));
+            assertToken(JsonToken.VALUE_NUMBER_INT, p.currentToken());
+            assertEquals(NumberType.INT, p.getNumberType());
+
+            assertEquals("l", p.nextFieldName());
+            assertEquals(input.l, p.nextLongValue(0L));
+            assertEquals(NumberType.LONG, p.getNumberType());
+
+            // float field accessed as double: via regular token handling
+            assertEquals("f", p.nextFieldName());
+            assertEquals((double) input.f, p.nextDoubleValue(0.0));
+            assertEquals(NumberType.FLOAT, p.getNumberType());
+
+            assertEquals("d", p.nextFieldName());
+            assertEquals(input.d, p.nextDoubleValue(0.0));
+            assertToken(JsonToken.VALUE_NUMBER_FLOAT, p.currentToken());
+
+            assertEquals(0.5, p.nextDoubleValue(0.5));
+            assertToken(JsonToken.END_OBJECT, p.currentToken());
+            assertNull(p.nextToken());
+            p.close();
+        }
+    }
+
+    public void testTypedNextValuesWithReaderSchema() throws Exception
+    {
+        AvroSchema writerSchema = MAPPER.schemaFrom(aposToQuotes("{\n"+
+                " 'type':'record',\n"+
+                " 'name':'Numbers',\n"+
+                " 'fields':[\n"+
+                "    { 'name':'i', 'type':'int' },\n"+
+                "    { 'name':'l', 'type':'long' },\n"+
+                "    { 'name':'f', 'type':'float' },\n"+
+                "    { 'name':'d', 'type':'double' }\n"+
+                " ]\n"+
+                "}\n"));
+        // drop "l" and "f", add "x" with default
+        AvroSchema readerSchema = MAPPER.schemaFrom(aposToQuotes("{\n"+
+                " 'type':'record',\n"+
+                " 'name':'Numbers',\n"+
+                " 'fields':[\n"+
+                "    { 'name':'i', 'type':'int' },\n"+
+                "    { 'name':'d', 'type':'double' },\n"+
+                "    { 'name':'x', 'type':'long', 'default':7 }\n"+
+                " ]\n"+
+                "}\n"));
+        Numbers input = new Numbers(-42, 1234567890123L, 0.125f, -3.75);
+        byte[] bytes = MAPPER.writer(writerSchema).writeValueAsBytes(input);
+        AvroParser p = (AvroParser) MAPPER.createParser(bytes);
+        p.setSchema(writerSchema.withReaderSchema(readerSchema));
+        assertToken(JsonToken.START_OBJECT, p.nextToken());
+        assertEquals("i", p.nextFieldName());
+        assertEquals(input.i, p.nextIntValue(0));
+        assertEquals(NumberType.INT, p.getNumberType());
+        // "l" and "f" skipped
+        assertEquals("d", p.nextFieldName());
+        assertEquals(input.d, p.nextDoubleValue(0.0));
+        assertToken(JsonToken.VALUE_NUMBER_FLOAT, p.currentToken());
+        // default values via regular token handling
+        assertEquals("x", p.nextFieldName());
+        assertEquals(7L, p.nextLongValue(0L));
+        assertToken(JsonToken.VALUE_NUMBER_INT, p.currentToken());
+        assertEquals(0L, p.nextLongValue(0L));
+        assertToken(JsonToken.END_OBJECT, p.currentToken());
+        assertNull(p.nextToken());
+        p.close();
+    }
+
+    public void testTypedNextValuesInArray() throws Exception
+    {
+        AvroSchema schema = MAPPER.schemaFrom(aposToQuotes("{'type':'array','items':'long'}"));
+        long[] input = new long[] { 1L, -2L, Long.MIN_VALUE };
+        byte[] bytes = MAPPER.writer(schema).writeValueAsBytes(input);
+        AvroParser p = (AvroParser) MAPPER.createParser(bytes);
+        p.setSchema(schema);
+        assertToken(JsonToken.START_ARRAY, p.nextToken());
+        for (long l : input) {
+            assertEquals(l, p.nextLongValue(0L));
+            assertToken(JsonToken.VALUE_NUMBER_INT, p.currentToken());
+        }
+        assertEquals(0L, p.nextLongValue(0L));
+        assertToken(JsonToken.END_ARRAY, p.currentToken());
+        p.close();
+    }
 }
@@ -0,0 +1,104 @@
+package com.fasterxml.jackson.dataformat.avro;
+
+import java.io.ByteArrayOutputStream;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+
+public class ParallelFileReaderTest extends AvroTestBase
+{
+    private final static int COUNT = 3000;
+
+    private final AvroMapper MAPPER = getMapper();
+
+    public void testOrderedStream() throws Exception
+    {
+        for (String codec : new String[] { "null", "deflate" }) {
+            try (AvroParallelFileReader<Employee> r = _reader(codec)) {
+                assertTrue(r.getSplitCount() > 4);
+                assertEquals(COUNT, r.getValueCount());
+                List<Employee> result = r.stream().collect(Collectors.toList());
+                _verifyOrdered(result);
+            }
+        }
+    }
+
+    public void testOrderedIterator() throws Exception
+    {
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            for (String codec : new String[] { "null", "deflate" }) {
+                try (AvroParallelFileReader<Employee> r = _reader(codec)) {
+                    List<Employee> result = new ArrayList<>();
+                    r.withPool(pool).iterator().forEachRemaining(result::add);
+                    _verifyOrdered(result);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    public void testUnordered() throws Exception
+    {
+        try (AvroParallelFileReader<Employee> r0 = _reader("deflate")) {
+            AvroParallelFileReader<Employee> r = r0.withPreserveOrder(false);
+            _verifyUnordered(r.stream().collect(Collectors.toList()));
+            List<Employee> result = new ArrayList<>();
+            r.iterator().forEachRemaining(result::add);
+            _verifyUnordered(result);
+        }
+    }
+
+    public void testInvalidFile() throws Exception
+    {
+        try {
+            AvroParallelFileReader.forBytes(MAPPER.readerFor(Employee.class), new byte[] { 1, 2, 3, 4, 5 });
+            fail("Should not pass");
+        } catch (Exception e) {
+            verifyException(e, "Not an Avro Object Container File");
+        }
+    }
+
+    private AvroParallelFileReader<Employee> _reader(String codec) throws Exception
+    {
+        ObjectMapper writerMapper = new ObjectMapper(AvroFactory.builder()
+                .enable(AvroGenerator.Feature.AVRO_FILE_OUTPUT)
+                .fileCodec(codec)
+                .fileBlockSize(500)
+                .build());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SequenceWriter w = writerMapper.writer(getEmployeeSchema()).writeValues(out);
+        for (int i = 0; i < COUNT; ++i) {
+            w.write(new Employee("Bob#"+i, i, new String[] { "bob"+i+"@foo.com" }, null));
+        }
+        w.close();
+        return AvroParallelFileReader.<Employee>forBytes(MAPPER.readerFor(Employee.class), out.toByteArray())
+                .withSplitSize(2000);
+    }
+
+    private void _verifyOrdered(List<Employee> result)
+    {
+        assertEquals(COUNT, result.size());
+        for (int i = 0; i < COUNT; ++i) {
+            Employee empl = result.get(i);
+            assertEquals("Bob#"+i, empl.name);
+            assertEquals(i, empl.age);
+            assertEquals("bob"+i+"@foo.com", empl.emails[0]);
+        }
+    }
+
+    private void _verifyUnordered(List<Employee> result)
+    {
+        assertEquals(COUNT, result.size());
+        BitSet seen = new BitSet();
+        for (Employee empl : result) {
+            assertEquals("Bob#"+empl.age, empl.name);
+            seen.set(empl.age);
+        }
+        assertEquals(COUNT, seen.cardinality());
+    }
+}
@@ -0,0 +1,154 @@
+package com.fasterxml.jackson.dataformat.avro;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonMerge;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Tests for fast paths for writing and reading primitive arrays
+ * (<code>int[]</code>, <code>long[]</code>, <code>double[]</code>).
+ */
+public class PrimitiveArrayTest extends AvroTestBase
+{
+    @JsonPropertyOrder({ "ints", "longs", "floats", "doubles", "name" })
+    static class Vectors {
+        public int[] ints;
+        public long[] longs;
+        public float[] floats;
+        public double[] doubles;
+        public String name;
+
+        protected Vectors() { }
+        public Vectors(int size) {
+            ints = new int[size];
+            longs = new long[size];
+            floats = new float[size];
+            doubles = new double[size];
+            for (int i = 0; i < size; ++i) {
+                ints[i] = (i & 1) == 0 ? i : -i;
+                longs[i] = ((long) i) << (i % 50);
+                floats[i] = i * 0.5f;
+                doubles[i] = -i / 3.0;
+            }
+            name = "v"+size;
+        }
+    }
+
+    // Schema where elements are wider than Java type
+    @JsonPropertyOrder({ "ints", "longs", "floats", "doubles", "name" })
+    static class WideVectors {
+        public long[] ints;
+        public double[] longs;
+        public double[] floats;
+        public double[] doubles;
+        public String name;
+    }
+
+    static class MergedInts {
+        @JsonMerge
+        public int[] values;
+
+        protected MergedInts() { }
+        public MergedInts(int... v) { values = v; }
+    }
+
+    private final static String DOUBLE_ARRAY_SCHEMA_JSON = aposToQuotes(
+            "{'type':'array','items':'double'}");
+
+    private final AvroMapper MAPPER = getMapper();
+
+    private final AvroMapper DIRECT_MAPPER = AvroMapper.builder()
+            .enable(AvroGenerator.Feature.AVRO_DIRECT_ENCODING)
+            .build();
+
+    public void testRoundtrip() throws Exception
+    {
+        _testRoundtrip(MAPPER, MAPPER);
+        _testRoundtrip(DIRECT_MAPPER, MAPPER);
+        _testRoundtrip(MAPPER, newApacheMapper());
+    }
+
+    private void _testRoundtrip(AvroMapper writeMapper, AvroMapper readMapper) throws Exception
+    {
+        AvroSchema schema = MAPPER.schemaFor(Vectors.class);
+        for (int size : new int[] { 0, 1, 7, 4000 }) {
+            Vectors input = new Vectors(size);
+            byte[] doc = writeMapper.writer(schema).writeValueAsBytes(input);
+            Vectors result = readMapper.readerFor(Vectors.class).with(schema).readValue(doc);
+            assertTrue(Arrays.equals(input.ints, result.ints));
+            assertTrue(Arrays.equals(input.longs, result.longs));
+            assertTrue(Arrays.equals(input.floats, result.floats));
+            assertTrue(Arrays.equals(input.doubles, result.doubles));
+            assertEquals(input.name, result.name);
+        }
+    }
+
+    public void testBulkReadWithWidening() throws Exception
+    {
+        AvroSchema schema = MAPPER.schemaFor(Vectors.class);
+        Vectors input = new Vectors(20);
+        byte[] doc = MAPPER.writer(schema).writeValueAsBytes(input);
+        WideVectors result = MAPPER.readerFor(WideVectors.class).with(schema).readValue(doc);
+        for (int i = 0; i < 20; ++i) {
+            assertEquals((long) input.ints[i], result.ints[i]);
+            assertEquals((double) input.longs[i], result.longs[i]);
+            assertEquals((double) input.floats[i], result.floats[i]);
+            assertEquals(input.doubles[i], result.doubles[i]);
+        }
+        assertEquals(input.name, result.name);
+    }
+
+    // Merging must still be handled by standard deserializer
+    public void testMergeWithExisting() throws Exception
+    {
+        AvroSchema schema = MAPPER.schemaFor(MergedInts.class);
+        byte[] doc = MAPPER.writer(schema).writeValueAsBytes(new MergedInts(3, 4));
+        MergedInts base = new MergedInts(1, 2);
+        MergedInts result = MAPPER.readerForUpdating(base).with(schema).readValue(doc);
+        assertSame(base, result);
+        assertTrue(Arrays.equals(new int[] { 1, 2, 3, 4 }, result.values));
+    }
+
+    // Bulk read must work across multiple array blocks
+    public void testBulkReadMultipleBlocks() throws Exception
+    {
+        final int COUNT = 9000;
+        AvroSchema schema = MAPPER.schemaFrom(DOUBLE_ARRAY_SCHEMA_JSON);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        // direct encoding splits arrays into blocks of limited size
+        try (JsonGenerator g = DIRECT_MAPPER.createGenerator(bytes)) {
+            g.setSchema(schema);
+            g.writeStartArray();
+            for (int i = 0; i < COUNT; ++i) {
+                g.writeNumber(i * 0.25);
+            }
+            g.writeEndArray();
+        }
+        byte[] doc = bytes.toByteArray();
+
+        try (AvroParser p = (AvroParser) MAPPER.createParser(doc)) {
+            p.setSchema(schema);
+            // not at START_ARRAY yet
+            assertNull(p.readDoubleArray());
+            assertToken(JsonToken.START_ARRAY, p.nextToken());
+            // wrong element type
+            assertNull(p.readIntArray());
+            double[] result = p.readDoubleArray();
+            assertNotNull(result);
+            assertEquals(COUNT, result.length);
+            for (int i = 0; i < COUNT; ++i) {
+                assertEquals(i * 0.25, result[i]);
+            }
+            assertToken(JsonToken.END_ARRAY, p.currentToken());
+            assertNull(p.nextToken());
+        }
+
+        List<?> list = MAPPER.readerFor(List.class).with(schema).readValue(doc);
+        assertEquals(COUNT, list.size());
+    }
+}
@@ -0,0 +1,182 @@
+package com.fasterxml.jackson.dataformat.avro;
+
+import java.util.*;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Tests for {@link AvroSchema#withProjection}.
+ */
+public class ProjectionTest extends AvroTestBase
+{
+    private final static String TEAM_SCHEMA_JSON = aposToQuotes("{\n"
+            +"'type': 'record',\n"
+            +"'name': 'Team',\n"
+            +"'fields': [\n"
+            +" {'name': 'name', 'type': 'string'},\n"
+            +" {'name': 'members', 'type': {'type': 'map', 'values': {\n"
+            +"   'type': 'record', 'name': 'Member', 'fields': [\n"
+            +"     {'name': 'id', 'type': 'int'},\n"
+            +"     {'name': 'nick', 'type': 'string'},\n"
+            +"     {'name': 'score', 'type': 'double'}\n"
+            +"   ]}}},\n"
+            +" {'name': 'size', 'type': 'int'}\n"
+            +"]}");
+
+    static class Team {
+        public String name;
+        public Map<String,Member> members;
+        public int size;
+    }
+
+    static class Member {
+        public int id;
+        public String nick;
+        public double score;
+
+        protected Member() { }
+        public Member(int id, String nick, double score) {
+            this.id = id;
+            this.nick = nick;
+            this.score = score;
+        }
+    }
+
+    private final AvroMapper MAPPER = getMapper();
+
+    public void testRootFields() throws Exception
+    {
+        AvroSchema schema = getEmployeeSchema().withProjection(_paths("name", "age"));
+        byte[] doc = toAvro(_employee());
+        assertEquals(Arrays.asList("{", "name", "VALUE_STRING", "age", "VALUE_NUMBER_INT", "}"),
+                _tokens(doc, schema));
+
+        Employee result = MAPPER.readerFor(Employee.class).with(schema).readValue(doc);
+        assertEquals("Bob", result.name);
+        assertEquals(39, result.age);
+        assertNull(result.emails);
+        assertNull(result.boss);
+    }
+
+    public void testNestedFields() throws Exception
+    {
+        AvroSchema schema = getEmployeeSchema().withProjection(_paths("boss.name", "age"));
+        byte[] doc = toAvro(_employee());
+        assertEquals(Arrays.asList("{", "age", "VALUE_NUMBER_INT",
+                "boss", "{", "name", "VALUE_STRING", "}", "}"),
+                _tokens(doc, schema));
+
+        // and with whole record included
+        schema = getEmployeeSchema().withProjection(_paths("boss", "boss.name"));
+        Employee result = MAPPER.readerFor(Employee.class).with(schema).readValue(doc);
+        assertNull(result.name);
+        assertEquals("Boss", result.boss.name);
+        assertEquals(55, result.boss.age);
+        assertEquals(1, result.boss.emails.length);
+    }
+
+    public void testArrayElements() throws Exception
+    {
+        AvroSchema schema = MAPPER.schemaFrom(EMPLOYEE_ARRAY_SCHEMA_JSON);
+        byte[] doc = MAPPER.writer(schema).writeValueAsBytes(
+                Arrays.asList(_employee(), new Employee("Jill", 28, new String[0], null)));
+        Employee[] result = MAPPER.readerFor(Employee[].class)
+                .with(schema.withProjection(_paths("age")))
+                .readValue(doc);
+        assertEquals(2, result.length);
+        assertNull(result[0].name);
+        assertEquals(39, result[0].age);
+        assertNull(result[1].name);
+        assertEquals(28, result[1].age);
+    }
+
+    public void testMapValues() throws Exception
+    {
+        AvroSchema schema = MAPPER.schemaFrom(TEAM_SCHEMA_JSON);
+        Team team = new Team();
+        team.name = "Blue";
+        team.members = new LinkedHashMap<>();
+        team.members.put("a", new Member(1, "ace", 0.5));
+        team.members.put("b", new Member(2, "bee", 0.25));
+        team.size = 2;
+        byte[] doc = MAPPER.writer(schema).writeValueAsBytes(team);
+
+        AvroSchema projected = schema.withProjection(_paths("members.nick", "size"));
+        assertEquals(Arrays.asList("{", "members", "{",
+                "a", "{", "nick", "VALUE_STRING", "}",
+                "b", "{", "nick", "VALUE_STRING", "}",
+                "}", "size", "VALUE_NUMBER_INT", "}"),
+                _tokens(doc, projected));
+        Team result = MAPPER.readerFor(Team.class).with(projected).readValue(doc);
+        assertNull(result.name);
+        assertEquals(2, result.size);
+        assertEquals("bee", result.members.get("b").nick);
+        assertEquals(0, result.members.get("b").id);
+    }
+
+    public void testCompiledReader() throws Exception
+    {
+        AvroSchema schema = getEmployeeSchema().withProjection(_paths("emails"));
+        Employee result = MAPPER.readerFor(Employee.class).with(schema)
+                .with(AvroParser.Feature.AVRO_COMPILED_READERS)
+                .readValue(toAvro(_employee()));
+        assertNull(result.name);
+        assertEquals(Arrays.asList("bob@company.com", "bob@home.net"), Arrays.asList(result.emails));
+    }
+
+    public void testCaching() throws Exception
+    {
+        AvroSchema schema = getEmployeeSchema();
+        AvroSchema projected = schema.withProjection(_paths("name", "boss.age"));
+        assertSame(projected, schema.withProjection(_paths("boss.age", "name")));
+        assertSame(projected.getReader(), projected.getReader());
+        assertNotSame(projected, schema.withProjection(_paths("name")));
+    }
+
+    public void testNotWithReaderSchema() throws Exception
+    {
+        AvroSchema schema = MAPPER.schemaFrom(POINT_LONG_SCHEMA_JSON)
+                .withReaderSchema(MAPPER.schemaFrom(POINT_DOUBLE_SCHEMA_JSON));
+        try {
+            schema.withProjection(_paths("x"));
+            fail("Should not pass");
+        } catch (UnsupportedOperationException e) {
+            verifyException(e, "reader schema");
+        }
+    }
+
+    /*
+    /**********************************************************************
+    /* Helper methods
+    /**********************************************************************
+     */
+
+    private Set<String> _paths(String... paths) {
+        return new HashSet<>(Arrays.asList(paths));
+    }
+
+    private Employee _employee() {
+        Employee boss = new Employee("Boss", 55, new String[] { "boss@company.com" }, null);
+        return new Employee("Bob", 39, new String[] { "bob@company.com", "bob@home.net" }, boss);
+    }
+
+    private List<String> _tokens(byte[] doc, AvroSchema schema) throws Exception
+    {
+        List<String> result = new ArrayList<>();
+        try (JsonParser p = MAPPER.createParser(doc)) {
+            p.setSchema(schema);
+            JsonToken t;
+            while ((t = p.nextToken()) != null) {
+                if (t == JsonToken.FIELD_NAME) {
+                    result.add(p.currentName());
+                } else if (t.isStructStart() || t.isStructEnd()) {
+                    result.add(t.asString());
+                } else {
+                    result.add(t.name());
+                }
+            }
+        }
+        return result;
+    }
+}
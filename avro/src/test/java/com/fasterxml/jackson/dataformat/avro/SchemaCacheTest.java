@@ -0,0 +1,68 @@
+package com.fasterxml.jackson.dataformat.avro;
+
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JavaType;
+
+public class SchemaCacheTest extends AvroTestBase
+{
+    public void testSchemasCached() throws Exception
+    {
+        AvroMapper mapper = newMapper();
+        assertEquals(0, mapper.cachedSchemaCount());
+        AvroSchema schema = mapper.schemaFor(Employee.class);
+        assertSame(schema, mapper.schemaFor(Employee.class));
+        assertSame(schema, mapper.schemaFor(mapper.constructType(Employee.class)));
+        assertEquals(1, mapper.cachedSchemaCount());
+
+        // different (generic) types are separate entries
+        JavaType listType = mapper.getTypeFactory().constructCollectionType(List.class, Employee.class);
+        AvroSchema listSchema = mapper.schemaFor(listType);
+        assertNotSame(schema, listSchema);
+        assertSame(listSchema, mapper.schemaFor(listType));
+        assertEquals(2, mapper.cachedSchemaCount());
+
+        mapper.clearSchemaCache();
+        assertEquals(0, mapper.cachedSchemaCount());
+        AvroSchema schema2 = mapper.schemaFor(Employee.class);
+        assertNotSame(schema, schema2);
+        assertEquals(schema, schema2);
+    }
+
+    public void testCachingDisabled() throws Exception
+    {
+        AvroMapper mapper = AvroMapper.builder()
+                .schemaCacheSize(0)
+                .build();
+        AvroSchema schema = mapper.schemaFor(Employee.class);
+        assertNotSame(schema, mapper.schemaFor(Employee.class));
+        assertEquals(schema, mapper.schemaFor(Employee.class));
+        assertEquals(0, mapper.cachedSchemaCount());
+
+        // setting retained when rebuilding
+        assertEquals(0, mapper.rebuild().schemaCacheSize());
+    }
+
+    public void testCacheNotSharedWhenRebuilt() throws Exception
+    {
+        AvroMapper mapper = newMapper();
+        AvroSchema schema = mapper.schemaFor(Employee.class);
+        AvroMapper copy = mapper.rebuild().build();
+        assertEquals(0, copy.cachedSchemaCount());
+        assertNotSame(schema, copy.schemaFor(Employee.class));
+    }
+
+    public void testPregeneration() throws Exception
+    {
+        AvroMapper mapper = newMapper();
+        mapper.pregenerateSchemas(Employee.class, PointLong.class);
+        assertEquals(2, mapper.cachedSchemaCount());
+
+        AvroSchema schema = mapper.schemaFor(Employee.class);
+        Employee empl = new Employee("Bob", 39, new String[] { "bob@foo.com" }, null);
+        byte[] avro = mapper.writer(schema).writeValueAsBytes(empl);
+        Employee result = mapper.readerFor(Employee.class).with(schema).readValue(avro);
+        assertEquals("Bob", result.name);
+        assertEquals(39, result.age);
+    }
+}
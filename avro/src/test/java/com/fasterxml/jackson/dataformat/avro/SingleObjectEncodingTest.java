@@ -0,0 +1,172 @@
+package com.fasterxml.jackson.dataformat.avro;
+
+import java.io.ByteArrayOutputStream;
+
+import org.apache.avro.SchemaNormalization;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+
+public class SingleObjectEncodingTest extends AvroTestBase
+{
+    static class PointV1 {
+        public int x, y;
+
+        protected PointV1() { }
+        public PointV1(int x, int y) {
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    static class PointV2 {
+        public int x, y;
+        public String label;
+    }
+
+    final static String POINT_V1_SCHEMA = aposToQuotes("{'type':'record','name':'Point','fields':["
+            +"{'name':'x','type':'int'},{'name':'y','type':'int'}]}");
+
+    final static String POINT_V2_SCHEMA = aposToQuotes("{'type':'record','name':'Point','fields':["
+            +"{'name':'x','type':'int'},{'name':'y','type':'int'},"
+            +"{'name':'label','type':'string','default':'none'}]}");
+
+    private final AvroMapper MAPPER = getMapper();
+
+    public void testHeader() throws Exception
+    {
+        AvroSchema schema = MAPPER.schemaFrom(POINT_V1_SCHEMA);
+        byte[] plain = MAPPER.writer(schema).writeValueAsBytes(new PointV1(1, 2));
+        byte[] encoded = MAPPER.writer(schema)
+                .with(AvroGenerator.Feature.AVRO_SINGLE_OBJECT_ENCODING)
+                .writeValueAsBytes(new PointV1(1, 2));
+        assertEquals(plain.length + 10, encoded.length);
+        assertEquals((byte) 0xC3, encoded[0]);
+        assertEquals((byte) 0x01, encoded[1]);
+        long fp = SchemaNormalization.parsingFingerprint64(schema.getAvroSchema());
+        assertEquals(fp, schema.getFingerprint());
+        for (int i = 0; i < 8; ++i) {
+            assertEquals((byte) (fp >> (i * 8)), encoded[2+i]);
+        }
+    }
+
+    public void testMixedVersions() throws Exception
+    {
+        _testMixedVersions(MAPPER, false);
+        _testMixedVersions(MAPPER, true);
+        _testMixedVersions(newApacheMapper(), false);
+    }
+
+    private void _testMixedVersions(AvroMapper mapper, boolean direct) throws Exception
+    {
+        AvroSchema v1 = mapper.schemaFrom(POINT_V1_SCHEMA);
+        AvroSchema v2 = mapper.schemaFrom(POINT_V2_SCHEMA);
+        SimpleAvroSchemaStore store = new SimpleAvroSchemaStore();
+        store.addSchema(v1);
+        store.addSchema(v2);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ObjectWriter w1 = mapper.writer(v1)
+                .with(AvroGenerator.Feature.AVRO_SINGLE_OBJECT_ENCODING);
+        ObjectWriter w2 = mapper.writer(v2)
+                .with(AvroGenerator.Feature.AVRO_SINGLE_OBJECT_ENCODING);
+        if (direct) {
+            w1 = w1.with(AvroGenerator.Feature.AVRO_DIRECT_ENCODING);
+            w2 = w2.with(AvroGenerator.Feature.AVRO_DIRECT_ENCODING);
+        }
+        for (int i = 0; i < 10; ++i) {
+            if ((i & 1) == 0) {
+                out.write(w1.writeValueAsBytes(new PointV1(i, -i)));
+            } else {
+                PointV2 p = new PointV2();
+                p.x = i;
+                p.y = -i;
+                p.label = "#"+i;
+                out.write(w2.writeValueAsBytes(p));
+            }
+        }
+
+        AvroSingleObjectSchema readSchema = new AvroSingleObjectSchema(store, v2);
+        ObjectReader r = mapper.readerFor(PointV2.class).with(readSchema);
+        int count = 0;
+        try (MappingIterator<PointV2> it = r.readValues(out.toByteArray())) {
+            while (it.hasNextValue()) {
+                PointV2 p = it.nextValue();
+                assertEquals(count, p.x);
+                assertEquals(-count, p.y);
+                assertEquals(((count & 1) == 0) ? "none" : "#"+count, p.label);
+                ++count;
+            }
+        }
+        assertEquals(10, count);
+
+        // and single value too
+        PointV2 p = r.readValue(w1.writeValueAsBytes(new PointV1(3, 4)));
+        assertEquals(3, p.x);
+        assertEquals("none", p.label);
+    }
+
+    public void testSequence() throws Exception
+    {
+        AvroSchema v1 = MAPPER.schemaFrom(POINT_V1_SCHEMA);
+        SimpleAvroSchemaStore store = new SimpleAvroSchemaStore();
+        store.addSchema(v1);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (SequenceWriter sw = MAPPER.writer(v1)
+                .with(AvroGenerator.Feature.AVRO_SINGLE_OBJECT_ENCODING)
+                .writeValues(out)) {
+            for (int i = 0; i < 100; ++i) {
+                sw.write(new PointV1(i, i * 2));
+            }
+        }
+        int count = 0;
+        try (MappingIterator<PointV1> it = MAPPER.readerFor(PointV1.class)
+                .with(new AvroSingleObjectSchema(store, v1))
+                .readValues(out.toByteArray())) {
+            while (it.hasNextValue()) {
+                PointV1 p = it.nextValue();
+                assertEquals(count, p.x);
+                assertEquals(count * 2, p.y);
+                ++count;
+            }
+        }
+        assertEquals(100, count);
+    }
+
+    public void testUnknownSchema() throws Exception
+    {
+        AvroSchema v1 = MAPPER.schemaFrom(POINT_V1_SCHEMA);
+        AvroSchema v2 = MAPPER.schemaFrom(POINT_V2_SCHEMA);
+        byte[] encoded = MAPPER.writer(v1)
+                .with(AvroGenerator.Feature.AVRO_SINGLE_OBJECT_ENCODING)
+                .writeValueAsBytes(new PointV1(1, 2));
+        try {
+            MAPPER.readerFor(PointV2.class)
+                .with(new AvroSingleObjectSchema(new SimpleAvroSchemaStore(), v2))
+                .readValue(encoded);
+            fail("Should not pass");
+        } catch (Exception e) {
+            verifyException(e, "Unknown writer schema fingerprint");
+        }
+    }
+
+    public void testInvalidMarker() throws Exception
+    {
+        AvroSchema v1 = MAPPER.schemaFrom(POINT_V1_SCHEMA);
+        SimpleAvroSchemaStore store = new SimpleAvroSchemaStore();
+        store.addSchema(v1);
+        byte[] plain = MAPPER.writer(v1).writeValueAsBytes(new PointV1(1, 2));
+        byte[] data = new byte[plain.length + 10];
+        System.arraycopy(plain, 0, data, 0, plain.length);
+        try {
+            MAPPER.readerFor(PointV1.class)
+                .with(new AvroSingleObjectSchema(store, v1))
+                .readValue(data);
+            fail("Should not pass");
+        } catch (Exception e) {
+            verifyException(e, "Invalid single-object encoding marker");
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.fasterxml.jackson.dataformat.avro;
+
+import java.io.ByteArrayOutputStream;
+import java.util.*;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Tests for {@link AvroGenerator.Feature#AVRO_SIZED_BLOCKS}, and for skipping
+ * of contents using block sizes.
+ */
+public class SizedBlocksTest extends AvroTestBase
+{
+    // note: non-nullable record so that it has constant size
+    private final static String LOCATED_SCHEMA_JSON = aposToQuotes("{\n"
+            +"'type': 'record',\n"
+            +"'name': 'Located',\n"
+            +"'fields': [\n"
+            +" {'name': 'name', 'type': 'string'},\n"
+            +" {'name': 'pos', 'type': {'type': 'record', 'name': 'Position', 'fields': [\n"
+            +"   {'name': 'x', 'type': 'double'}, {'name': 'y', 'type': 'double'}]}},\n"
+            +" {'name': 'tags', 'type': {'type': 'map', 'values': 'string'}},\n"
+            +" {'name': 'age', 'type': 'int'}\n"
+            +"]}");
+
+    @JsonPropertyOrder({ "name", "pos", "tags", "age" })
+    static class Located {
+        public String name;
+        public Position pos;
+        public Map<String,String> tags;
+        public int age;
+
+        protected Located() { }
+        public Located(String name, int age) {
+            this.name = name;
+            this.age = age;
+            pos = new Position(age * 0.5, -age);
+            tags = new LinkedHashMap<>();
+            tags.put("a", "x"+age);
+            tags.put("b", "y");
+        }
+    }
+
+    @JsonPropertyOrder({ "x", "y" })
+    static class Position {
+        public double x, y;
+
+        protected Position() { }
+        public Position(double x, double y) {
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    @JsonPropertyOrder({ "name", "age" })
+    static class NameAndAge {
+        public String name;
+        public int age;
+    }
+
+    private final AvroMapper MAPPER = getMapper();
+
+    private final AvroMapper SIZED_MAPPER = AvroMapper.builder()
+            .enable(AvroGenerator.Feature.AVRO_SIZED_BLOCKS)
+            .build();
+
+    private final AvroMapper SIZED_DIRECT_MAPPER = AvroMapper.builder()
+            .enable(AvroGenerator.Feature.AVRO_SIZED_BLOCKS)
+            .enable(AvroGenerator.Feature.AVRO_DIRECT_ENCODING)
+            .build();
+
+    public void testRoundTrip() throws Exception
+    {
+        Employee empl = _employee(3);
+        byte[] plain = toAvro(empl);
+        byte[] sized = toAvro(empl, SIZED_MAPPER);
+        // sizes add a bit of overhead
+        assertTrue(sized.length > plain.length);
+        // but are same with both encoding modes
+        assertTrue(Arrays.equals(sized, toAvro(empl, SIZED_DIRECT_MAPPER)));
+
+        for (AvroMapper mapper : new AvroMapper[] { MAPPER, newApacheMapper() }) {
+            Employee result = mapper.readerFor(Employee.class)
+                    .with(getEmployeeSchema())
+                    .readValue(sized);
+            assertEquals(empl.name, result.name);
+            assertEquals(empl.age, result.age);
+            assertEquals(Arrays.asList(empl.emails), Arrays.asList(result.emails));
+            assertEquals(empl.boss.name, result.boss.name);
+        }
+    }
+
+    public void testPrimitiveArrays() throws Exception
+    {
+        AvroSchema schema = MAPPER.schemaFor(int[].class);
+        int[] input = new int[] { 1, -200, 30000, 0, 5 };
+        byte[] sized = SIZED_MAPPER.writer(schema).writeValueAsBytes(input);
+        assertTrue(Arrays.equals(sized,
+                SIZED_DIRECT_MAPPER.writer(schema).writeValueAsBytes(input)));
+        int[] result = MAPPER.readerFor(int[].class)
+                .with(schema)
+                .readValue(sized);
+        assertTrue(Arrays.equals(input, result));
+    }
+
+    public void testSkipChildren() throws Exception
+    {
+        _testSkipChildren(MAPPER);
+        _testSkipChildren(SIZED_MAPPER);
+        _testSkipChildren(SIZED_DIRECT_MAPPER);
+    }
+
+    public void testSkipMaps() throws Exception
+    {
+        _testSkipMaps(MAPPER);
+        _testSkipMaps(SIZED_MAPPER);
+        _testSkipMaps(SIZED_DIRECT_MAPPER);
+    }
+
+    public void testSkipUnknownFields() throws Exception
+    {
+        AvroSchema writerSchema = MAPPER.schemaFrom(LOCATED_SCHEMA_JSON);
+        AvroSchema schema = writerSchema.withReaderSchema(MAPPER.schemaFor(NameAndAge.class));
+        for (AvroMapper mapper : new AvroMapper[] { MAPPER, SIZED_MAPPER }) {
+            byte[] doc = mapper.writer(writerSchema).writeValueAsBytes(new Located("Bob", 42));
+            NameAndAge result = MAPPER.readerFor(NameAndAge.class)
+                    .with(schema)
+                    .readValue(doc);
+            assertEquals("Bob", result.name);
+            assertEquals(42, result.age);
+        }
+    }
+
+    /*
+    /**********************************************************************
+    /* Helper methods
+    /**********************************************************************
+     */
+
+    private void _testSkipChildren(AvroMapper mapper) throws Exception
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write(toAvro(_employee(1), mapper));
+        bytes.write(toAvro(_employee(2), mapper));
+
+        try (JsonParser p = MAPPER.createParser(bytes.toByteArray())) {
+            p.setSchema(getEmployeeSchema());
+            // first, skip the whole first record
+            assertToken(JsonToken.START_OBJECT, p.nextToken());
+            p.skipChildren();
+            assertToken(JsonToken.END_OBJECT, p.currentToken());
+
+            // then the second one partially
+            assertToken(JsonToken.START_OBJECT, p.nextToken());
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertEquals("name", p.currentName());
+            assertToken(JsonToken.VALUE_STRING, p.nextToken());
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertToken(JsonToken.VALUE_NUMBER_INT, p.nextToken());
+            assertEquals(22, p.getIntValue());
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertEquals("emails", p.currentName());
+            assertToken(JsonToken.START_ARRAY, p.nextToken());
+            p.skipChildren();
+            assertToken(JsonToken.END_ARRAY, p.currentToken());
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertEquals("boss", p.currentName());
+            assertToken(JsonToken.START_OBJECT, p.nextToken());
+            p.skipChildren();
+            assertToken(JsonToken.END_OBJECT, p.currentToken());
+            assertToken(JsonToken.END_OBJECT, p.nextToken());
+            assertNull(p.nextToken());
+        }
+    }
+
+    private void _testSkipMaps(AvroMapper mapper) throws Exception
+    {
+        AvroSchema schema = getStringMapSchema();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (int i = 0; i < 3; ++i) {
+            Map<String,String> map = new LinkedHashMap<>();
+            map.put("first"+i, "a");
+            map.put("second", generateUnicodeString(100 + i));
+            bytes.write(mapper.writer(schema).writeValueAsBytes(map));
+        }
+        try (JsonParser p = MAPPER.createParser(bytes.toByteArray())) {
+            p.setSchema(schema);
+            assertToken(JsonToken.START_OBJECT, p.nextToken());
+            p.skipChildren();
+            assertToken(JsonToken.END_OBJECT, p.currentToken());
+
+            assertToken(JsonToken.START_OBJECT, p.nextToken());
+            p.skipChildren();
+            assertToken(JsonToken.END_OBJECT, p.currentToken());
+
+            assertToken(JsonToken.START_OBJECT, p.nextToken());
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertEquals("first2", p.currentName());
+            assertToken(JsonToken.VALUE_STRING, p.nextToken());
+            assertEquals("a", p.getText());
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertEquals("second", p.currentName());
+            assertToken(JsonToken.VALUE_STRING, p.nextToken());
+            assertEquals(generateUnicodeString(102), p.getText());
+            assertToken(JsonToken.END_OBJECT, p.nextToken());
+            assertNull(p.nextToken());
+        }
+    }
+
+    private Employee _employee(int index) {
+        Employee boss = new Employee("Boss"+index, 50,
+                new String[] { "boss@company.com" }, null);
+        return new Employee("Worker"+index, 20 + index,
+                new String[] { "a@foo.com", "b"+index+"@bar.org" }, boss);
+    }
+}
@@ -0,0 +1,103 @@
+package com.fasterxml.jackson.dataformat.avro;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.avro.reflect.Union;
+
+/**
+ * Tests to verify that caching of resolved union branches (both when
+ * writing and reading) does not mix up values of different types.
+ */
+public class UnionCachingTest extends AvroTestBase
+{
+    @Union({ Cat.class, Dog.class })
+    public interface Animal { }
+
+    static class Cat implements Animal {
+        public String color;
+
+        protected Cat() { }
+        public Cat(String c) { color = c; }
+    }
+
+    static class Dog implements Animal {
+        public int size;
+
+        protected Dog() { }
+        public Dog(int s) { size = s; }
+    }
+
+    static class Zoo {
+        public List<Animal> animals;
+
+        protected Zoo() { }
+        public Zoo(Animal... a) { animals = Arrays.asList(a); }
+    }
+
+    static class Wrapper {
+        public Object value;
+
+        protected Wrapper() { }
+        public Wrapper(Object v) { value = v; }
+    }
+
+    private final static String MIXED_SCHEMA_JSON = aposToQuotes("{\n"
+            +"'type': 'record',\n"
+            +"'name': 'Wrapper',\n"
+            +"'fields': [\n"
+            +" {'name': 'value', 'type': [ 'null', 'string', 'long', 'double' ]}\n"
+            +"]}");
+
+    private final AvroMapper MAPPER = getMapper();
+
+    public void testPolymorphicRoundTrip() throws Exception
+    {
+        AvroSchema schema = MAPPER.schemaFor(Zoo.class);
+        Zoo input = new Zoo(new Cat("tabby"), new Dog(4), new Dog(5), new Cat("calico"));
+        for (AvroMapper mapper : new AvroMapper[] { MAPPER, _directMapper() }) {
+            // twice, to use cached resolutions second time around
+            for (int i = 0; i < 2; ++i) {
+                byte[] doc = mapper.writer(schema).writeValueAsBytes(input);
+                Zoo result = MAPPER.readerFor(Zoo.class).with(schema).readValue(doc);
+                assertEquals(4, result.animals.size());
+                assertEquals("tabby", ((Cat) result.animals.get(0)).color);
+                assertEquals(4, ((Dog) result.animals.get(1)).size);
+                assertEquals(5, ((Dog) result.animals.get(2)).size);
+                assertEquals("calico", ((Cat) result.animals.get(3)).color);
+            }
+        }
+    }
+
+    public void testMixedScalars() throws Exception
+    {
+        AvroSchema schema = MAPPER.schemaFrom(MIXED_SCHEMA_JSON);
+        Object[] values = new Object[] { Long.valueOf(3L), "abc", 0.25, null, Long.valueOf(-7L), 1.5, "x" };
+        for (AvroMapper mapper : new AvroMapper[] { MAPPER, _directMapper() }) {
+            for (Object value : values) {
+                byte[] doc = mapper.writer(schema).writeValueAsBytes(new Wrapper(value));
+                Wrapper result = MAPPER.readerFor(Wrapper.class).with(schema).readValue(doc);
+                assertEquals(value, result.value);
+            }
+        }
+    }
+
+    public void testUnresolvedNotCached() throws Exception
+    {
+        AvroSchema schema = MAPPER.schemaFrom(MIXED_SCHEMA_JSON);
+        for (int i = 0; i < 2; ++i) {
+            try {
+                MAPPER.writer(schema).writeValueAsBytes(new Wrapper(Boolean.TRUE));
+                fail("Should not pass");
+            } catch (Exception e) {
+                verifyException(e, "union");
+            }
+        }
+    }
+
+    private AvroMapper _directMapper() {
+        return AvroMapper.builder()
+                .enable(AvroGenerator.Feature.AVRO_DIRECT_ENCODING)
+                .build();
+    }
+}
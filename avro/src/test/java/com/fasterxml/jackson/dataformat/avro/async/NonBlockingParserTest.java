@@ -0,0 +1,263 @@
+package com.fasterxml.jackson.dataformat.avro.async;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.dataformat.avro.AvroMapper;
+import com.fasterxml.jackson.dataformat.avro.AvroSchema;
+import com.fasterxml.jackson.dataformat.avro.AvroTestBase;
+
+public class NonBlockingParserTest extends AvroTestBase
+{
+    private final AvroMapper MAPPER = getMapper();
+
+    public void testRootSequence() throws Exception
+    {
+        byte[] doc = _employeeDoc(5);
+        List<String> exp = _tokensBlocking(doc);
+
+        assertEquals(exp, _tokensAsync(doc, 1));
+        assertEquals(exp, _tokensAsync(doc, 3));
+        assertEquals(exp, _tokensAsync(doc, 17));
+        assertEquals(exp, _tokensAsync(doc, doc.length));
+    }
+
+    public void testMapsAndLongStrings() throws Exception
+    {
+        AvroSchema schema = getStringMapSchema();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (int i = 0; i < 3; ++i) {
+            Map<String,String> map = new LinkedHashMap<>();
+            map.put("key"+i, generateUnicodeString(500 + i));
+            map.put("x", "");
+            bytes.write(MAPPER.writer(schema).writeValueAsBytes(map));
+        }
+        byte[] doc = bytes.toByteArray();
+        List<String> exp = _tokensBlocking(doc, schema);
+        assertEquals(exp, _tokensAsync(doc, schema, 1));
+        assertEquals(exp, _tokensAsync(doc, schema, 100));
+    }
+
+    public void testTokensBeforeValueComplete() throws Exception
+    {
+        byte[] doc = _employeeDoc(1);
+        NonBlockingByteArrayParser p = _createParser(getEmployeeSchema());
+        assertTrue(p.needMoreInput());
+        assertToken(JsonToken.NOT_AVAILABLE, p.nextToken());
+        assertToken(JsonToken.NOT_AVAILABLE, p.currentToken());
+        p.feedInput(doc, 0, doc.length - 1);
+        // all but the last byte fed: everything but the last token(s) available
+        assertToken(JsonToken.START_OBJECT, p.nextToken());
+        assertToken(JsonToken.FIELD_NAME, p.nextToken());
+        assertEquals("name", p.currentName());
+        assertToken(JsonToken.VALUE_STRING, p.nextToken());
+        JsonToken t;
+        while ((t = p.nextToken()) != JsonToken.NOT_AVAILABLE) {
+            assertNotNull(t);
+        }
+        assertToken(JsonToken.NOT_AVAILABLE, p.currentToken());
+        assertTrue(p.needMoreInput());
+        // still not enough
+        assertToken(JsonToken.NOT_AVAILABLE, p.nextToken());
+        p.feedInput(doc, doc.length - 1, doc.length);
+        assertFalse(p.needMoreInput());
+        JsonToken last = null;
+        while ((t = p.nextToken()) != JsonToken.NOT_AVAILABLE) {
+            last = t;
+        }
+        assertToken(JsonToken.END_OBJECT, last);
+        assertTrue(p.needMoreInput());
+        p.endOfInput();
+        assertFalse(p.needMoreInput());
+        assertNull(p.nextToken());
+        p.close();
+    }
+
+    public void testFeedWithUndecodedContent() throws Exception
+    {
+        byte[] doc = _employeeDoc(1);
+        NonBlockingByteArrayParser p = _createParser(getEmployeeSchema());
+        p.feedInput(doc, 0, doc.length);
+        assertToken(JsonToken.START_OBJECT, p.nextToken());
+        assertFalse(p.needMoreInput());
+        try {
+            p.feedInput(doc, 0, doc.length);
+            fail("Should not pass");
+        } catch (JsonParseException e) {
+            verifyException(e, "Still have");
+        }
+        p.skipChildren();
+        assertToken(JsonToken.END_OBJECT, p.currentToken());
+        assertToken(JsonToken.NOT_AVAILABLE, p.nextToken());
+        p.endOfInput();
+        try {
+            p.feedInput(doc, 0, doc.length);
+            fail("Should not pass");
+        } catch (JsonParseException e) {
+            verifyException(e, "Already closed");
+        }
+        p.close();
+    }
+
+    public void testByteBufferFeed() throws Exception
+    {
+        byte[] doc = _employeeDoc(3);
+        List<String> exp = _tokensBlocking(doc);
+        NonBlockingByteArrayParser p = _createParser(getEmployeeSchema());
+        ByteBuffer buf = ByteBuffer.wrap(doc);
+        List<String> act = new ArrayList<>();
+        int chunk = 0;
+        while (true) {
+            JsonToken t = p.nextToken();
+            if (t == JsonToken.NOT_AVAILABLE) {
+                if (!buf.hasRemaining()) {
+                    p.endOfInput();
+                } else {
+                    // feed slices of varying sizes
+                    chunk = (chunk % 13) + 1;
+                    ByteBuffer slice = buf.slice();
+                    slice.limit(Math.min(chunk, buf.remaining()));
+                    buf.position(buf.position() + slice.remaining());
+                    p.feedInput(slice);
+                    assertFalse(slice.hasRemaining());
+                }
+                continue;
+            }
+            if (t == null) {
+                break;
+            }
+            act.add(_desc(p, t));
+        }
+        p.close();
+        assertEquals(exp, act);
+    }
+
+    public void testIncompleteRootValue() throws Exception
+    {
+        byte[] doc = _employeeDoc(1);
+        NonBlockingByteArrayParser p = _createParser(getEmployeeSchema());
+        p.feedInput(doc, 0, doc.length - 2);
+        while (p.nextToken() != JsonToken.NOT_AVAILABLE) { }
+        p.endOfInput();
+        try {
+            p.nextToken();
+            fail("Should not pass");
+        } catch (JsonParseException e) {
+            verifyException(e, "end-of-input");
+        }
+        p.close();
+    }
+
+    public void testMaxValueLength() throws Exception
+    {
+        AvroSchema schema = getStringMapSchema();
+        Map<String,String> map = new LinkedHashMap<>();
+        map.put("key", generateAsciiString(20000));
+        byte[] doc = MAPPER.writer(schema).writeValueAsBytes(map);
+        NonBlockingByteArrayParser p = _createParser(schema);
+        assertEquals(NonBlockingByteArrayParser.DEFAULT_MAX_VALUE_LENGTH, p.getMaxValueLength());
+        p.setMaxValueLength(10000);
+        try {
+            for (int offset = 0; offset < doc.length; offset += 1000) {
+                p.feedInput(doc, offset, Math.min(doc.length, offset + 1000));
+                while (p.nextToken() != JsonToken.NOT_AVAILABLE) { }
+            }
+            fail("Should not pass");
+        } catch (JsonParseException e) {
+            verifyException(e, "Value too long");
+        }
+        p.close();
+    }
+
+    /*
+    /**********************************************************************
+    /* Helper methods
+    /**********************************************************************
+     */
+
+    private byte[] _employeeDoc(int count) throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (int i = 0; i < count; ++i) {
+            Employee boss = new Employee("Boss"+i, 50 + i,
+                    new String[] { "boss@company.com" }, null);
+            Employee empl = new Employee(generateUnicodeString(30 + i * 40), 20 + i,
+                    new String[] { "a"+i+"@company.com", "b@foo.org" }, boss);
+            bytes.write(toAvro(empl));
+        }
+        return bytes.toByteArray();
+    }
+
+    private NonBlockingByteArrayParser _createParser(AvroSchema schema) throws IOException
+    {
+        return (NonBlockingByteArrayParser) MAPPER.reader(schema)
+                .createNonBlockingByteArrayParser();
+    }
+
+    private List<String> _tokensBlocking(byte[] doc) throws IOException {
+        return _tokensBlocking(doc, getEmployeeSchema());
+    }
+
+    private List<String> _tokensBlocking(byte[] doc, AvroSchema schema) throws IOException
+    {
+        List<String> result = new ArrayList<>();
+        try (JsonParser p = MAPPER.createParser(doc)) {
+            p.setSchema(schema);
+            JsonToken t;
+            while ((t = p.nextToken()) != null) {
+                result.add(_desc(p, t));
+            }
+        }
+        return result;
+    }
+
+    private List<String> _tokensAsync(byte[] doc, int bytesPerFeed) throws IOException {
+        return _tokensAsync(doc, getEmployeeSchema(), bytesPerFeed);
+    }
+
+    private List<String> _tokensAsync(byte[] doc, AvroSchema schema, int bytesPerFeed) throws IOException
+    {
+        List<String> result = new ArrayList<>();
+        NonBlockingByteArrayParser p = _createParser(schema);
+        int offset = 0;
+        while (true) {
+            JsonToken t = p.nextToken();
+            if (t == JsonToken.NOT_AVAILABLE) {
+                assertTrue(p.needMoreInput());
+                int amount = Math.min(bytesPerFeed, doc.length - offset);
+                if (amount < 1) {
+                    p.endOfInput();
+                } else {
+                    p.feedInput(doc, offset, offset + amount);
+                    offset += amount;
+                }
+                continue;
+            }
+            if (t == null) {
+                break;
+            }
+            result.add(_desc(p, t));
+        }
+        p.close();
+        return result;
+    }
+
+    private String _desc(JsonParser p, JsonToken t) throws IOException
+    {
+        if (t == JsonToken.FIELD_NAME) {
+            return "F:"+p.currentName();
+        }
+        if (t.isScalarValue()) {
+            return t+":"+p.getText();
+        }
+        return t.toString();
+    }
+}
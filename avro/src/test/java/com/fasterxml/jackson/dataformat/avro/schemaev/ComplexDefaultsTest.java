@@ -1,8 +1,11 @@
 package com.fasterxml.jackson.dataformat.avro.schemaev;
 
+import java.math.BigDecimal;
 import java.util.*;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.dataformat.avro.*;
 
 public class ComplexDefaultsTest extends AvroTestBase
@@ -70,6 +73,46 @@ public class ComplexDefaultsTest extends AvroTestBase
             " ]\n"+
             "}\n");
     
+    static String SCHEMA_V2_JSON_NESTED = aposToQuotes("{\n"+
+            " 'type':'record',\n"+
+            " 'name':'RootType',\n"+
+            " 'fields':[\n"+
+            "    { 'name':'x', 'type':'int' },\n"+
+            "    { 'name':'info',\n"+
+            "      'type': { \n"+
+            "        'type':'record',\n"+
+            "        'name':'Info',\n"+
+            "        'fields':[\n"+
+            "           { 'name':'tags', 'type': { 'type':'array', 'items':'string' } },\n"+
+            "           { 'name':'counts', 'type': { 'type':'map', 'values':'long' } },\n"+
+            "           { 'name':'points', 'type': { 'type':'array', 'items': {\n"+
+            "               'type':'record', 'name':'Point', 'fields':[\n"+
+            "                 { 'name':'px', 'type':'int' },\n"+
+            "                 { 'name':'py', 'type':'double', 'default':0.5 }\n"+
+            "               ]}}},\n"+
+            "           { 'name':'version', 'type':'long', 'default':3 }\n"+
+            "        ]\n"+
+            "      },\n"+
+            "      'default' : { 'tags' : ['a', 'b'], 'counts' : { 'c' : 1, 'd' : 2 },\n"+
+            "         'points' : [ { 'px' : 1 }, { 'px' : 2, 'py' : 1 } ] }\n"+
+            "    },\n"+
+            "    { 'name':'y', 'type':'int' }\n"+
+            " ]\n"+
+            "}\n");
+
+    static String SCHEMA_V2_JSON_DECIMAL = aposToQuotes("{\n"+
+            " 'type':'record',\n"+
+            " 'name':'RootType',\n"+
+            " 'fields':[\n"+
+            "    { 'name':'x', 'type':'int' },\n"+
+            "    { 'name':'amount',\n"+
+            "      'type': { 'type':'bytes', 'logicalType':'decimal', 'precision':10, 'scale':2 },\n"+
+            "      'default' : '\\u0004\\u00D2'\n"+
+            "    },\n"+
+            "    { 'name':'y', 'type':'int' }\n"+
+            " ]\n"+
+            "}\n");
+
     @JsonInclude(JsonInclude.Include.NON_NULL)
     static class ValueWithRecord {
         public int x, y;
@@ -106,9 +149,33 @@ public class ComplexDefaultsTest extends AvroTestBase
         }
     }
     
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    static class ValueWithInfo {
+        public int x, y;
+        public Info info;
+
+        protected ValueWithInfo() { }
+        public ValueWithInfo(int x0, int y0) {
+            x = x0;
+            y = y0;
+        }
+    }
+
     static class Metadata {
         public String key, value;
     }
+
+    static class Info {
+        public List<String> tags;
+        public Map<String,Long> counts;
+        public List<Point> points;
+        public long version;
+    }
+
+    static class Point {
+        public int px;
+        public double py;
+    }
     
     private final AvroMapper MAPPER = getMapper();
 
@@ -185,4 +252,163 @@ public class ComplexDefaultsTest extends AvroTestBase
         assertEquals("Fo", result.data.get(0));
         assertEquals("obar", result.data.get(1));
     }
+
+    public void testNestedDefaults() throws Exception
+    {
+        final AvroSchema srcSchema = MAPPER.schemaFrom(SCHEMA_V1_JSON);
+        final AvroSchema xlate = srcSchema.withReaderSchema(MAPPER.schemaFrom(SCHEMA_V2_JSON_NESTED));
+        byte[] avro = MAPPER.writer(srcSchema).writeValueAsBytes(new ValueWithInfo(3, 4));
+
+        // read twice, to verify that replaying defaults leaves no state behind
+        for (int i = 0; i < 2; ++i) {
+            ValueWithInfo result = MAPPER.readerFor(ValueWithInfo.class)
+                    .with(xlate)
+                    .readValue(avro);
+            assertEquals(3, result.x);
+            assertEquals(4, result.y);
+            assertNotNull(result.info);
+            assertEquals(Arrays.asList("a", "b"), result.info.tags);
+            assertEquals(2, result.info.counts.size());
+            assertEquals(Long.valueOf(2L), result.info.counts.get("d"));
+            assertEquals(2, result.info.points.size());
+            assertEquals(1, result.info.points.get(0).px);
+            // default of field not included in default value of enclosing record
+            assertEquals(0.5, result.info.points.get(0).py);
+            assertEquals(2, result.info.points.get(1).px);
+            assertEquals(1.0, result.info.points.get(1).py);
+            assertEquals(3L, result.info.version);
+        }
+    }
+
+    public void testNestedDefaultTokens() throws Exception
+    {
+        final AvroSchema srcSchema = MAPPER.schemaFrom(SCHEMA_V1_JSON);
+        final AvroSchema xlate = srcSchema.withReaderSchema(MAPPER.schemaFrom(SCHEMA_V2_JSON_NESTED));
+        byte[] avro = MAPPER.writer(srcSchema).writeValueAsBytes(new ValueWithInfo(3, 4));
+
+        try (JsonParser p = MAPPER.createParser(avro)) {
+            p.setSchema(xlate);
+            assertToken(JsonToken.START_OBJECT, p.nextToken());
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertEquals("x", p.currentName());
+            assertToken(JsonToken.VALUE_NUMBER_INT, p.nextToken());
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertToken(JsonToken.VALUE_NUMBER_INT, p.nextToken());
+            assertEquals(4, p.getIntValue());
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertEquals("info", p.currentName());
+            assertToken(JsonToken.START_OBJECT, p.nextToken());
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertEquals("tags", p.currentName());
+            assertToken(JsonToken.START_ARRAY, p.nextToken());
+            assertToken(JsonToken.VALUE_STRING, p.nextToken());
+            assertEquals("a", p.getText());
+            assertToken(JsonToken.VALUE_STRING, p.nextToken());
+            assertToken(JsonToken.END_ARRAY, p.nextToken());
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertEquals("counts", p.currentName());
+            assertToken(JsonToken.START_OBJECT, p.nextToken());
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertEquals("c", p.currentName());
+            // typed as per schema, not as per JSON default
+            assertToken(JsonToken.VALUE_NUMBER_INT, p.nextToken());
+            assertEquals(JsonParser.NumberType.LONG, p.getNumberType());
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertEquals("d", p.currentName());
+            assertToken(JsonToken.VALUE_NUMBER_INT, p.nextToken());
+            assertEquals(2L, p.getLongValue());
+            assertToken(JsonToken.END_OBJECT, p.nextToken());
+            assertEquals("counts", p.currentName());
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertEquals("points", p.currentName());
+            assertToken(JsonToken.START_ARRAY, p.nextToken());
+            // skipping should work as well
+            p.skipChildren();
+            assertToken(JsonToken.END_ARRAY, p.currentToken());
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertEquals("version", p.currentName());
+            assertToken(JsonToken.VALUE_NUMBER_INT, p.nextToken());
+            assertEquals(JsonParser.NumberType.LONG, p.getNumberType());
+            assertEquals(3L, p.getLongValue());
+            assertToken(JsonToken.END_OBJECT, p.nextToken());
+            assertToken(JsonToken.END_OBJECT, p.nextToken());
+            assertNull(p.nextToken());
+        }
+    }
+
+    public void testDecimalDefaults() throws Exception
+    {
+        final AvroSchema srcSchema = MAPPER.schemaFrom(SCHEMA_V1_JSON);
+        final AvroSchema xlate = srcSchema.withReaderSchema(MAPPER.schemaFrom(SCHEMA_V2_JSON_DECIMAL));
+        byte[] avro = MAPPER.writer(srcSchema).writeValueAsBytes(new ValueWithRecord(1, 2));
+
+        // by default, exposed as bytes, same as decoded decimal values
+        try (JsonParser p = MAPPER.createParser(avro)) {
+            p.setSchema(xlate);
+            _skipToAmount(p);
+            assertToken(JsonToken.VALUE_EMBEDDED_OBJECT, p.nextToken());
+            assertTrue(Arrays.equals(new byte[] { 4, (byte) 0xD2 }, p.getBinaryValue()));
+            assertNull(((AvroParser) p).currentLogicalType());
+        }
+        // but as numbers if so configured
+        AvroMapper decimalMapper = AvroMapper.builder()
+                .enable(AvroParser.Feature.AVRO_DECIMALS_AS_NUMBERS)
+                .build();
+        try (JsonParser p = decimalMapper.createParser(avro)) {
+            p.setSchema(xlate);
+            _skipToAmount(p);
+            assertToken(JsonToken.VALUE_NUMBER_FLOAT, p.nextToken());
+            assertEquals(new BigDecimal("12.34"), p.getDecimalValue());
+            assertEquals("decimal", ((AvroParser) p).currentLogicalType());
+            assertEquals(BigDecimal.class.getName(), p.getTypeId());
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertNull(((AvroParser) p).currentLogicalType());
+        }
+    }
+
+    private void _skipToAmount(JsonParser p) throws Exception
+    {
+        assertToken(JsonToken.START_OBJECT, p.nextToken());
+        assertToken(JsonToken.FIELD_NAME, p.nextToken());
+        assertToken(JsonToken.VALUE_NUMBER_INT, p.nextToken());
+        assertToken(JsonToken.FIELD_NAME, p.nextToken());
+        assertToken(JsonToken.VALUE_NUMBER_INT, p.nextToken());
+        assertToken(JsonToken.FIELD_NAME, p.nextToken());
+        assertEquals("amount", p.currentName());
+    }
+
+    /*
+    /**********************************************************************
+    /* Failure tests
+    /**********************************************************************
+     */
+
+    public void testInvalidIntegralDefaults() throws Exception
+    {
+        final AvroSchema srcSchema = MAPPER.schemaFrom(SCHEMA_V1_JSON);
+        _verifyInvalidDefault(srcSchema, "int", "1.5");
+        _verifyInvalidDefault(srcSchema, "int", "3000000000");
+        _verifyInvalidDefault(srcSchema, "long", "-0.25");
+        _verifyInvalidDefault(srcSchema, "long", "9223372036854775808");
+    }
+
+    private void _verifyInvalidDefault(AvroSchema srcSchema, String type, String defaultValue)
+        throws Exception
+    {
+        AvroSchema dstSchema = MAPPER.schemaFrom(aposToQuotes("{\n"+
+                " 'type':'record',\n"+
+                " 'name':'RootType',\n"+
+                " 'fields':[\n"+
+                "    { 'name':'x', 'type':'int' },\n"+
+                "    { 'name':'z', 'type':'"+type+"', 'default':"+defaultValue+" },\n"+
+                "    { 'name':'y', 'type':'int' }\n"+
+                " ]\n"+
+                "}\n"));
+        try {
+            srcSchema.withReaderSchema(dstSchema).getReader();
+            fail("Should not pass with default of "+defaultValue+" for type "+type);
+        } catch (IllegalArgumentException e) {
+            verifyException(e, "Invalid default value for type '"+type+"'");
+        }
+    }
 }
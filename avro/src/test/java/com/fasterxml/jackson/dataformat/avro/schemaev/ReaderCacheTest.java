@@ -0,0 +1,88 @@
+package com.fasterxml.jackson.dataformat.avro.schemaev;
+
+import com.fasterxml.jackson.dataformat.avro.*;
+
+public class ReaderCacheTest extends AvroTestBase
+{
+    static class Point {
+        public int x, y;
+    }
+
+    static String SCHEMA_X_JSON = aposToQuotes("{'type':'record','name':'CachedPoint','fields':["
+            +"{'name':'x','type':'int'}]}");
+
+    static String SCHEMA_XY_JSON = aposToQuotes("{'type':'record','name':'CachedPoint','fields':["
+            +"{'name':'x','type':'int'},{'name':'y','type':'int','default':3}]}");
+
+    static String SCHEMA_XYZ_JSON = aposToQuotes("{'type':'record','name':'CachedPoint','fields':["
+            +"{'name':'x','type':'int'},{'name':'y','type':'int','default':3},"
+            +"{'name':'z','type':'int','default':4}]}");
+
+    private final AvroMapper MAPPER = getMapper();
+
+    public void testCacheHits() throws Exception
+    {
+        final AvroSchema srcSchema = MAPPER.schemaFrom(SCHEMA_X_JSON);
+        final AvroSchema dstSchema = MAPPER.schemaFrom(SCHEMA_XY_JSON);
+        AvroReaderCache cache = new AvroReaderCache(10);
+
+        AvroSchema resolved = srcSchema.withReaderSchema(dstSchema, cache);
+        assertEquals(1L, cache.getMissCount());
+        assertEquals(0L, cache.getHitCount());
+        assertEquals(1, cache.size());
+
+        // equal schemas (even if separately parsed) should find same instance
+        AvroSchema resolved2 = MAPPER.schemaFrom(SCHEMA_X_JSON)
+                .withReaderSchema(MAPPER.schemaFrom(SCHEMA_XY_JSON), cache);
+        assertSame(resolved, resolved2);
+        assertSame(resolved.getReader(), resolved2.getReader());
+        assertEquals(1L, cache.getMissCount());
+        assertEquals(1L, cache.getHitCount());
+
+        // but "unsafe" variants are separate
+        srcSchema.withUnsafeReaderSchema(dstSchema, cache);
+        assertEquals(2L, cache.getMissCount());
+        assertEquals(2, cache.size());
+
+        // and it all needs to work, too
+        byte[] avro = MAPPER.writer(srcSchema).writeValueAsBytes(new Point());
+        Point p = MAPPER.readerFor(Point.class).with(resolved2).readValue(avro);
+        assertEquals(3, p.y);
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0L, cache.getHitCount());
+        assertEquals(0L, cache.getMissCount());
+    }
+
+    public void testFlushWhenFull() throws Exception
+    {
+        final AvroSchema x = MAPPER.schemaFrom(SCHEMA_X_JSON);
+        final AvroSchema xy = MAPPER.schemaFrom(SCHEMA_XY_JSON);
+        final AvroSchema xyz = MAPPER.schemaFrom(SCHEMA_XYZ_JSON);
+        AvroReaderCache cache = new AvroReaderCache(2);
+
+        x.withReaderSchema(xy, cache);
+        x.withReaderSchema(xyz, cache);
+        x.withReaderSchema(xy, cache);
+        assertEquals(2, cache.size());
+        assertEquals(1L, cache.getHitCount());
+        // full, so all entries get flushed before adding new one
+        xy.withReaderSchema(xyz, cache);
+        assertEquals(1, cache.size());
+
+        x.withReaderSchema(xy, cache);
+        assertEquals(1L, cache.getHitCount());
+        xy.withReaderSchema(xyz, cache);
+        assertEquals(2L, cache.getHitCount());
+        assertEquals(4L, cache.getMissCount());
+        assertEquals(2, cache.size());
+    }
+
+    public void testNoCaching() throws Exception
+    {
+        final AvroSchema x = MAPPER.schemaFrom(SCHEMA_X_JSON);
+        final AvroSchema xy = MAPPER.schemaFrom(SCHEMA_XY_JSON);
+        assertNotSame(x.withReaderSchema(xy, null), x.withReaderSchema(xy, null));
+    }
+}
@@ -8,6 +8,10 @@ import org.apache.avro.io.BinaryEncoder;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import com.fasterxml.jackson.dataformat.avro.AvroGenerator;
+import com.fasterxml.jackson.dataformat.avro.AvroMapper;
 
 public final class SerPerf extends PerfBase
 {
@@ -41,11 +45,17 @@ public final class SerPerf extends PerfBase
         final GenericRecord itemRecord = itemToRecord(item);
         final ObjectWriter jsonWriter = new ObjectMapper()
             .writerFor(MediaItem.class);
+        final ObjectWriter directWriter = AvroMapper.builder()
+                .enable(AvroGenerator.Feature.AVRO_DIRECT_ENCODING)
+                .enable(SerializationFeature.WRITE_ENUMS_USING_INDEX)
+                .build()
+                .writerFor(MediaItem.class)
+                .with(itemSchema);
         
         while (true) {
 //            Thread.sleep(150L);
             ++i;
-            int round = (i % 3);
+            int round = (i % 4);
 
             // override?
             round = 0;
@@ -71,6 +81,11 @@ public final class SerPerf extends PerfBase
                 len = testObjectSer(jsonWriter, item, REPS+REPS, result);
                 sum += len;
                 break;
+            case 3:
+                msg = "Serialize, Avro/Jackson, direct";
+                len = testObjectSer(directWriter, item, REPS+REPS, result);
+                sum += len;
+                break;
             default:
                 throw new Error("Internal error");
             }
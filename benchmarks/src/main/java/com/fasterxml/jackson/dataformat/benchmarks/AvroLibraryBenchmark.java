@@ -0,0 +1,81 @@
+package com.fasterxml.jackson.dataformat.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.openjdk.jmh.annotations.*;
+
+import com.fasterxml.jackson.dataformat.avro.AvroMapper;
+import com.fasterxml.jackson.dataformat.avro.AvroSchema;
+
+/**
+ * Baseline for Avro benchmarks: reading and writing the same content
+ * (as {@link GenericRecord}s) using Apache Avro library directly, without
+ * Jackson; comparable to {@link Format#AVRO} variants of
+ * {@link ReadBenchmark#tree} and {@link WriteBenchmark#tree}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class AvroLibraryBenchmark
+{
+    private final static DecoderFactory DECODER_FACTORY = DecoderFactory.get();
+
+    private final static EncoderFactory ENCODER_FACTORY = EncoderFactory.get();
+
+    @Param
+    public BenchmarkBase.PayloadSize size;
+
+    protected GenericDatumReader<GenericRecord> reader;
+
+    protected GenericDatumWriter<GenericRecord> writer;
+
+    protected GenericRecord record;
+
+    protected byte[] doc;
+
+    // reused like Jackson reuses its buffers
+    private BinaryDecoder _decoder;
+
+    private BinaryEncoder _encoder;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        AvroMapper mapper = (AvroMapper) Format.AVRO.createMapper();
+        AvroSchema avroSchema = mapper.schemaFor(MediaItem.class);
+        Schema schema = avroSchema.getAvroSchema();
+        reader = new GenericDatumReader<GenericRecord>(schema);
+        writer = new GenericDatumWriter<GenericRecord>(schema);
+        doc = mapper.writer(avroSchema).writeValueAsBytes(MediaItem.build(size.imageCount));
+        record = read();
+    }
+
+    @Benchmark
+    public GenericRecord read() throws IOException {
+        _decoder = DECODER_FACTORY.binaryDecoder(doc, _decoder);
+        return reader.read(null, _decoder);
+    }
+
+    @Benchmark
+    public byte[] write() throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(doc.length + 16);
+        _encoder = ENCODER_FACTORY.binaryEncoder(bytes, _encoder);
+        writer.write(record, _encoder);
+        _encoder.flush();
+        return bytes.toByteArray();
+    }
+}
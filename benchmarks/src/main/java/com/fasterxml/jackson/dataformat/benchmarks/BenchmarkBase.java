@@ -0,0 +1,109 @@
+package com.fasterxml.jackson.dataformat.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.fasterxml.jackson.core.FormatSchema;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Shared state and settings for benchmarks that compare formats: each
+ * combination of {@link Format} and payload size gets its own mapper,
+ * readers and writers (constructed once), as well as encoded document to
+ * read (so that all formats read logically same content).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public abstract class BenchmarkBase
+{
+    /**
+     * Payload sizes, as number of images per item: smallest corresponds to
+     * the canonical "jvm-serializers" test item.
+     */
+    public enum PayloadSize {
+        SMALL(2), MEDIUM(20), LARGE(500);
+
+        public final int imageCount;
+
+        private PayloadSize(int imageCount) {
+            this.imageCount = imageCount;
+        }
+    }
+
+    @Param
+    public Format format;
+
+    @Param
+    public PayloadSize size;
+
+    protected ObjectMapper mapper;
+
+    protected FormatSchema schema;
+
+    protected ObjectReader itemReader;
+
+    protected ObjectWriter itemWriter;
+
+    protected ObjectReader treeReader;
+
+    protected ObjectWriter treeWriter;
+
+    protected MediaItem item;
+
+    protected JsonNode tree;
+
+    /**
+     * Encoded item, to read
+     */
+    protected byte[] doc;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        mapper = format.createMapper();
+        schema = format.schemaFor(mapper, MediaItem.class);
+        itemReader = mapper.readerFor(MediaItem.class);
+        itemWriter = mapper.writerFor(MediaItem.class);
+        treeReader = mapper.readerFor(JsonNode.class);
+        treeWriter = mapper.writer();
+        if (schema != null) {
+            itemReader = itemReader.with(schema);
+            itemWriter = itemWriter.with(schema);
+            treeReader = treeReader.with(schema);
+            treeWriter = treeWriter.with(schema);
+        }
+        item = MediaItem.build(size.imageCount);
+        doc = itemWriter.writeValueAsBytes(item);
+        tree = treeReader.readValue(doc);
+    }
+
+    protected JsonParser createParser(byte[] input) throws IOException
+    {
+        JsonParser p = mapper.createParser(input);
+        if (schema != null) {
+            p.setSchema(schema);
+        }
+        return p;
+    }
+
+    protected JsonGenerator createGenerator(ByteArrayOutputStream out) throws IOException
+    {
+        JsonGenerator g = mapper.createGenerator(out);
+        if (schema != null) {
+            g.setSchema(schema);
+        }
+        return g;
+    }
+}
@@ -0,0 +1,38 @@
+package com.fasterxml.jackson.dataformat.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Main class of benchmark jar: same as standard JMH main class, accepting
+ * same command-line options, except that GC profiler is always enabled so
+ * that allocation rate (bytes per operation) is reported for all benchmarks.
+ *<p>
+ * For example:
+ *<pre>
+ *   java -jar target/benchmarks.jar ReadBenchmark -p format=CBOR,SMILE -p size=LARGE
+ *</pre>
+ */
+public class BenchmarkRunner
+{
+    public static void main(String[] args) throws Exception
+    {
+        CommandLineOptions cmdOptions = new CommandLineOptions(args);
+        if (cmdOptions.shouldHelp()) {
+            cmdOptions.showHelp();
+            return;
+        }
+        if (cmdOptions.shouldList()) {
+            new Runner(cmdOptions).list();
+            return;
+        }
+        Options options = new OptionsBuilder()
+                .parent(cmdOptions)
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
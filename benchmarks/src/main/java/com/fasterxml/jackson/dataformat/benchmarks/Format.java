@@ -0,0 +1,103 @@
+package com.fasterxml.jackson.dataformat.benchmarks;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.FormatSchema;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.avro.AvroFactory;
+import com.fasterxml.jackson.dataformat.avro.AvroMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.ion.IonObjectMapper;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+/**
+ * Enumeration of formats (and format backend variants) benchmarked;
+ * JSON is included as the baseline to compare others against.
+ */
+public enum Format
+{
+    JSON {
+        @Override
+        public ObjectMapper createMapper() {
+            return new ObjectMapper();
+        }
+    },
+
+    CBOR {
+        @Override
+        public ObjectMapper createMapper() {
+            return new CBORMapper();
+        }
+    },
+
+    SMILE {
+        @Override
+        public ObjectMapper createMapper() {
+            return new SmileMapper();
+        }
+    },
+
+    /**
+     * Avro using Jackson native decoder and encoder
+     */
+    AVRO {
+        @Override
+        public ObjectMapper createMapper() {
+            return new AvroMapper(AvroFactory.builderWithNativeDecoder()
+                    .withNativeEncoder()
+                    .build());
+        }
+
+        @Override
+        public FormatSchema schemaFor(ObjectMapper mapper, Class<?> type) throws IOException {
+            return ((AvroMapper) mapper).schemaFor(type);
+        }
+    },
+
+    /**
+     * Avro using Apache Avro library decoder and encoder
+     */
+    AVRO_APACHE {
+        @Override
+        public ObjectMapper createMapper() {
+            return new AvroMapper(AvroFactory.builderWithApacheDecoder()
+                    .withApacheEncoder()
+                    .build());
+        }
+
+        @Override
+        public FormatSchema schemaFor(ObjectMapper mapper, Class<?> type) throws IOException {
+            return ((AvroMapper) mapper).schemaFor(type);
+        }
+    },
+
+    PROTOBUF {
+        @Override
+        public ObjectMapper createMapper() {
+            return new ProtobufMapper();
+        }
+
+        @Override
+        public FormatSchema schemaFor(ObjectMapper mapper, Class<?> type) throws IOException {
+            return ((ProtobufMapper) mapper).generateSchemaFor(type);
+        }
+    },
+
+    ION {
+        @Override
+        public ObjectMapper createMapper() {
+            return new IonObjectMapper();
+        }
+    };
+
+    public abstract ObjectMapper createMapper();
+
+    /**
+     * Method for constructing schema to use for reading and writing values
+     * of given type, for formats that require one; `null` for others.
+     */
+    public FormatSchema schemaFor(ObjectMapper mapper, Class<?> type) throws IOException {
+        return null;
+    }
+}
@@ -0,0 +1,151 @@
+package com.fasterxml.jackson.dataformat.benchmarks;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Value type used by benchmarks: same as one used by "jvm-serializers"
+ * (and perf tests of individual modules), except that number of images
+ * is variable to allow testing with different payload sizes.
+ */
+@JsonPropertyOrder({ "media", "images" })
+public class MediaItem
+{
+    public enum Size { SMALL, LARGE };
+
+    public enum Player { JAVA, FLASH; }
+
+    @JsonPropertyOrder({ "uri", "title", "width", "height", "size" })
+    public static class Image
+    {
+        public String uri;
+        public String title;
+        public int width, height;
+        public Size size;
+
+        public Image() { }
+        public Image(String uri, String title, int w, int h, Size s) {
+            this.uri = uri;
+            this.title = title;
+            width = w;
+            height = h;
+            size = s;
+        }
+    }
+
+    @JsonPropertyOrder({ "uri", "title", "width", "height", "format", "duration", "size",
+        "bitrate", "persons", "player", "copyright" })
+    public static class Media
+    {
+        public String uri;
+        public String title;
+        public int width;
+        public int height;
+        public String format;
+        public long duration;
+        public long size;
+        public int bitrate;
+        public List<String> persons;
+        public Player player;
+        public String copyright;
+
+        public Media addPerson(String p) {
+            if (persons == null) {
+                persons = new ArrayList<String>();
+            }
+            persons.add(p);
+            return this;
+        }
+    }
+
+    public Media media;
+    public List<Image> images;
+
+    public MediaItem addPhoto(Image i) {
+        if (images == null) {
+            images = new ArrayList<Image>();
+        }
+        images.add(i);
+        return this;
+    }
+
+    /**
+     * Factory method for constructing item with given number of images
+     * (and persons in media).
+     */
+    public static MediaItem build(int imageCount)
+    {
+        Media content = new Media();
+        content.player = Player.JAVA;
+        content.uri = "http://javaone.com/keynote.mpg";
+        content.title = "Javaone Keynote";
+        content.width = 640;
+        content.height = 480;
+        content.format = "video/mpeg4";
+        content.duration = 18000000L;
+        content.size = 58982400L;
+        content.bitrate = 262144;
+        content.copyright = "None";
+        content.addPerson("Bill Gates");
+        content.addPerson("Steve Jobs");
+
+        MediaItem item = new MediaItem();
+        item.media = content;
+        for (int i = 0; i < imageCount; ++i) {
+            if ((i & 1) == 0) {
+                item.addPhoto(new Image("http://javaone.com/keynote_large_"+i+".jpg", "Javaone Keynote",
+                        1024, 768, Size.LARGE));
+            } else {
+                item.addPhoto(new Image("http://javaone.com/keynote_small_"+i+".jpg", "Javaone Keynote",
+                        320, 240, Size.SMALL));
+            }
+        }
+        return item;
+    }
+
+    /**
+     * Method for writing this item using Streaming API, in same logical
+     * structure (and property order) as databinding would use.
+     */
+    public void write(JsonGenerator g) throws IOException
+    {
+        g.writeStartObject();
+        g.writeFieldName("media");
+        g.writeStartObject();
+        g.writeStringField("uri", media.uri);
+        g.writeStringField("title", media.title);
+        g.writeNumberField("width", media.width);
+        g.writeNumberField("height", media.height);
+        g.writeStringField("format", media.format);
+        g.writeNumberField("duration", media.duration);
+        g.writeNumberField("size", media.size);
+        g.writeNumberField("bitrate", media.bitrate);
+        g.writeFieldName("persons");
+        g.writeStartArray();
+        for (String person : media.persons) {
+            g.writeString(person);
+        }
+        g.writeEndArray();
+        g.writeStringField("player", media.player.name());
+        g.writeStringField("copyright", media.copyright);
+        g.writeEndObject();
+
+        g.writeFieldName("images");
+        g.writeStartArray();
+        for (Image image : images) {
+            g.writeStartObject();
+            g.writeStringField("uri", image.uri);
+            g.writeStringField("title", image.title);
+            g.writeNumberField("width", image.width);
+            g.writeNumberField("height", image.height);
+            g.writeStringField("size", image.size.name());
+            g.writeEndObject();
+        }
+        g.writeEndArray();
+        g.writeEndObject();
+    }
+}
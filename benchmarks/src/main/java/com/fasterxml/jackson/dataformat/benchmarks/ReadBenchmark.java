@@ -0,0 +1,53 @@
+package com.fasterxml.jackson.dataformat.benchmarks;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Benchmarks for reading the same encoded item using each of 3 API styles:
+ * databinding into POJO, reading as tree, and iterating over tokens with
+ * Streaming API (accessing all names and values).
+ */
+public class ReadBenchmark extends BenchmarkBase
+{
+    @Benchmark
+    public MediaItem pojo() throws IOException {
+        return itemReader.readValue(doc);
+    }
+
+    @Benchmark
+    public Object tree() throws IOException {
+        return treeReader.readValue(doc);
+    }
+
+    @Benchmark
+    public void streaming(Blackhole bh) throws IOException
+    {
+        try (JsonParser p = createParser(doc)) {
+            JsonToken t;
+            while ((t = p.nextToken()) != null) {
+                switch (t) {
+                case FIELD_NAME:
+                    bh.consume(p.currentName());
+                    break;
+                case VALUE_STRING:
+                    bh.consume(p.getText());
+                    break;
+                case VALUE_NUMBER_INT:
+                    bh.consume(p.getLongValue());
+                    break;
+                case VALUE_NUMBER_FLOAT:
+                    bh.consume(p.getDoubleValue());
+                    break;
+                default:
+                    bh.consume(t);
+                }
+            }
+        }
+    }
+}
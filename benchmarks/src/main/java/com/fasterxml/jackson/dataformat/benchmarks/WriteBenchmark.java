@@ -0,0 +1,36 @@
+package com.fasterxml.jackson.dataformat.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Benchmarks for writing the same item using each of 3 API styles:
+ * databinding from POJO, writing a tree, and writing directly using
+ * Streaming API.
+ */
+public class WriteBenchmark extends BenchmarkBase
+{
+    @Benchmark
+    public byte[] pojo() throws IOException {
+        return itemWriter.writeValueAsBytes(item);
+    }
+
+    @Benchmark
+    public byte[] tree() throws IOException {
+        return treeWriter.writeValueAsBytes(tree);
+    }
+
+    @Benchmark
+    public byte[] streaming() throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(doc.length + 16);
+        try (JsonGenerator g = createGenerator(bytes)) {
+            item.write(g);
+        }
+        return bytes.toByteArray();
+    }
+}
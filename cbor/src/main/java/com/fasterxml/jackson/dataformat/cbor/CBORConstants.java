@@ -91,6 +91,54 @@ public final class CBORConstants
     public final static int TAG_BIGNUM_NEG = 3;
     public final static int TAG_DECIMAL_FRACTION = 4;
     public final static int TAG_BIGFLOAT = 5;
+
+    /**
+     * Tag used by "stringref" extension (see
+     * <a href="http://cbor.schmorp.de/stringref">http://cbor.schmorp.de/stringref</a>)
+     * for references to Strings (or byte arrays) encoded earlier within
+     * current namespace, by index.
+     *
+     * @since 3.0
+     */
+    public final static int TAG_STRINGREF = 25;
+
+    /**
+     * Tag used by "stringref" extension to start a new namespace for string
+     * references, scoped to the tagged data item.
+     *
+     * @since 3.0
+     */
+    public final static int TAG_STRINGREF_NAMESPACE = 256;
+
+    /**
+     * First tag id of the range used by "typed arrays" (RFC 8746), for byte
+     * strings that contain packed numeric elements: tag id encodes element
+     * type (bit 4 set for floating-point, bit 3 for signed integer), byte
+     * order (bit 2 set for little-endian) and element size (bits 0 and 1).
+     *
+     * @since 3.0
+     */
+    public final static int TAG_TYPED_ARRAY_FIRST = 64;
+
+    /**
+     * Last tag id of the range used by "typed arrays" (RFC 8746).
+     *
+     * @since 3.0
+     */
+    public final static int TAG_TYPED_ARRAY_LAST = 87;
+
+    /**
+     * Typed array tags written by {@link CBORGenerator} when
+     * {@link CBORGenerator.Feature#WRITE_TYPED_ARRAYS} is enabled:
+     * little-endian signed 32- and 64-bit integers, and little-endian
+     * 32- and 64-bit floating-point numbers.
+     *
+     * @since 3.0
+     */
+    public final static int TAG_TYPED_ARRAY_SINT32_LE = 78;
+    public final static int TAG_TYPED_ARRAY_SINT64_LE = 79;
+    public final static int TAG_TYPED_ARRAY_FLOAT32_LE = 85;
+    public final static int TAG_TYPED_ARRAY_FLOAT64_LE = 86;
     
     public final static byte BYTE_TAG_BIGNUM_POS = (byte) (PREFIX_TYPE_TAG + TAG_BIGNUM_POS);
     public final static byte BYTE_TAG_BIGNUM_NEG = (byte) (PREFIX_TYPE_TAG + TAG_BIGNUM_NEG);
@@ -141,4 +189,51 @@ public final class CBORConstants
         int actual = (encoded & MASK_MAJOR_TYPE) >> 5;
         return (actual == expType);
     }
+
+    /**
+     * Helper method used with "stringref" extension to determine whether
+     * a String (or byte array) of given encoded length is to be assigned
+     * given index within current namespace: this is only done if a reference
+     * would be shorter than the String itself.
+     *
+     * @since 3.0
+     */
+    public static boolean isStringReferenceable(int byteLength, int index) {
+        if (index < 24) {
+            return byteLength >= 3;
+        }
+        if (index <= 0xFF) {
+            return byteLength >= 4;
+        }
+        if (index <= 0xFFFF) {
+            return byteLength >= 5;
+        }
+        // index always fits in 32 bits, for us
+        return byteLength >= 7;
+    }
+
+    /**
+     * Helper method for checking whether given tag id is one of "typed array"
+     * tags defined by RFC 8746 (excluding reserved id 76, which would indicate
+     * little-endian signed bytes).
+     *
+     * @since 3.0
+     */
+    public static boolean isTypedArrayTag(int tag) {
+        return (tag >= TAG_TYPED_ARRAY_FIRST) && (tag <= TAG_TYPED_ARRAY_LAST)
+                && (tag != 76);
+    }
+
+    /**
+     * Helper method for determining size of a single element, in bytes,
+     * for given "typed array" tag.
+     *
+     * @since 3.0
+     */
+    public static int typedArrayElementSize(int tag) {
+        if ((tag & 0x10) != 0) { // floating-point: 16, 32, 64 or 128 bits
+            return 2 << (tag & 0x3);
+        }
+        return 1 << (tag & 0x3);
+    }
 }
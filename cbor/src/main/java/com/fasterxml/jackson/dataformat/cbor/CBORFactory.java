@@ -10,6 +10,9 @@ import com.fasterxml.jackson.core.sym.BinaryNameMatcher;
 import com.fasterxml.jackson.core.sym.ByteQuadsCanonicalizer;
 import com.fasterxml.jackson.core.sym.FieldNameMatcher;
 import com.fasterxml.jackson.core.util.Named;
+import com.fasterxml.jackson.dataformat.cbor.async.ByteBufferFeeder;
+import com.fasterxml.jackson.dataformat.cbor.async.NonBlockingByteArrayParser;
+import com.fasterxml.jackson.dataformat.cbor.async.NonBlockingByteBufferParser;
 
 /**
  * Factory used for constructing {@link CBORParser} and {@link CBORGenerator}
@@ -154,8 +157,7 @@ public class CBORFactory
 
     @Override
     public boolean canParseAsync() {
-        // 30-Sep-2017, tatu: No async implementation exists yet
-        return false;
+        return true;
     }
 
     /*
@@ -198,6 +200,39 @@ public class CBORFactory
         return f.enabledIn(_formatWriteFeatures);
     }
 
+    /*
+    /**********************************************************
+    /* Extended API: async
+    /**********************************************************
+     */
+
+    @Override
+    public NonBlockingByteArrayParser createNonBlockingByteArrayParser(ObjectReadContext readCtxt)
+            throws IOException
+    {
+        ByteQuadsCanonicalizer can = _byteSymbolCanonicalizer.makeChild(_factoryFeatures);
+        return new NonBlockingByteArrayParser(readCtxt, _createContext(null, false),
+                readCtxt.getStreamReadFeatures(_streamReadFeatures),
+                readCtxt.getFormatReadFeatures(_formatReadFeatures),
+                can);
+    }
+
+    /**
+     * Method for constructing a non-blocking parser that is fed input
+     * as {@link java.nio.ByteBuffer}s (see {@link ByteBufferFeeder}).
+     *
+     * @since 3.0
+     */
+    public NonBlockingByteBufferParser createNonBlockingByteBufferParser(ObjectReadContext readCtxt)
+            throws IOException
+    {
+        ByteQuadsCanonicalizer can = _byteSymbolCanonicalizer.makeChild(_factoryFeatures);
+        return new NonBlockingByteBufferParser(readCtxt, _createContext(null, false),
+                readCtxt.getStreamReadFeatures(_streamReadFeatures),
+                readCtxt.getFormatReadFeatures(_formatReadFeatures),
+                can);
+    }
+
     /*
     /******************************************************
     /* Parser factory methods
@@ -4,6 +4,12 @@ import java.util.Arrays;
 import java.io.*;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
 
 import com.fasterxml.jackson.core.*;
 import com.fasterxml.jackson.core.base.GeneratorBase;
@@ -62,7 +68,41 @@ public class CBORGenerator extends GeneratorBase
          *
          * @since 2.5
          */
-        WRITE_TYPE_HEADER(false), ;
+        WRITE_TYPE_HEADER(false),
+
+        /**
+         * Feature that determines whether generator should use "stringref"
+         * extension (see
+         * <a href="http://cbor.schmorp.de/stringref">http://cbor.schmorp.de/stringref</a>)
+         * to replace repeated Strings (both Object property names and String values)
+         * with references to their first occurrence: if enabled, each root-level
+         * Array and Object is written as a separate namespace (tag 256), within
+         * which Strings long enough to benefit are fully written only once,
+         * and later occurrences as index references (tag 25).
+         * <p>
+         * Default value is <code>false</code> since not all decoders support
+         * the extension.
+         *
+         * @since 3.0
+         */
+        STRINGREF(false),
+
+        /**
+         * Feature that determines whether <code>int[]</code>, <code>long[]</code>,
+         * <code>float[]</code> and <code>double[]</code> values written using
+         * <code>writeArray()</code> methods are encoded as "typed arrays"
+         * (see <a href="https://tools.ietf.org/html/rfc8746">RFC 8746</a>):
+         * if enabled, elements are written as a single tagged byte string
+         * of packed little-endian values; if disabled, as a regular CBOR
+         * Array with one data item per element.
+         * <p>
+         * Default value is <code>false</code> since not all decoders support
+         * typed arrays.
+         *
+         * @since 3.0
+         */
+        WRITE_TYPED_ARRAYS(false),
+        ;
 
         protected final boolean _defaultState;
         protected final int _mask;
@@ -102,6 +142,26 @@ public class CBORGenerator extends GeneratorBase
         }
     }
 
+    /**
+     * Helper class used for keeping track of Strings written within
+     * current "stringref" namespace, to allow referencing them.
+     *
+     * @since 3.0
+     */
+    protected final static class SharedStringNode
+    {
+        public final String value;
+        public final int index;
+        public SharedStringNode next;
+
+        public SharedStringNode(String value, int index, SharedStringNode next)
+        {
+            this.value = value;
+            this.index = index;
+            this.next = next;
+        }
+    }
+
     /**
      * To simplify certain operations, we require output buffer length to allow
      * outputting of contiguous 256 character UTF-8 encoded String value. Length
@@ -121,6 +181,20 @@ public class CBORGenerator extends GeneratorBase
      * Special value that is use to keep tracks of arrays and maps opened with infinite length
      */
     private final static int INDEFINITE_LENGTH = -2; // just to allow -1 as marker for "one too many"
+
+    /**
+     * Initial size of the table used for detecting repeated Strings,
+     * when "stringref" extension is used
+     */
+    private final static int INITIAL_SEEN_STRINGS_SIZE = 64;
+
+    /**
+     * Maximum number of Strings to keep track of (and size of the table used)
+     * within a single "stringref" namespace: further Strings are still assigned
+     * indexes (as decoders will), but are not referenced. Chosen so that all
+     * references fit in at most 5 bytes.
+     */
+    private final static int MAX_SEEN_STRINGS = 0x10000;
     
     /*
     /**********************************************************
@@ -140,6 +214,16 @@ public class CBORGenerator extends GeneratorBase
 
     protected boolean _cfgMinimalInts;
 
+    /**
+     * @since 3.0
+     */
+    protected boolean _cfgStringRefs;
+
+    /**
+     * @since 3.0
+     */
+    protected boolean _cfgTypedArrays;
+
     /*
     /**********************************************************
     /* Output buffering
@@ -207,6 +291,24 @@ public class CBORGenerator extends GeneratorBase
      */
     protected boolean _bufferRecyclable;
 
+    /**
+     * Raw data structure used for checking whether a String (property name or
+     * String value) has already been written within current "stringref"
+     * namespace, and if so, what is its index; lazily constructed.
+     *
+     * @since 3.0
+     */
+    protected SharedStringNode[] _seenStrings;
+
+    /**
+     * Number of Strings (and byte arrays) that have been assigned an index
+     * within current "stringref" namespace, including ones not added in
+     * {@link #_seenStrings}; -1 when not within a namespace.
+     *
+     * @since 3.0
+     */
+    protected int _seenStringCount = -1;
+
     /*
     /**********************************************************
     /* Life-cycle
@@ -219,6 +321,8 @@ public class CBORGenerator extends GeneratorBase
         super(writeCtxt, generatorFeatures);
         _formatFeatures = formatFeatures;
         _cfgMinimalInts = Feature.WRITE_MINIMAL_INTS.enabledIn(formatFeatures);
+        _cfgStringRefs = Feature.STRINGREF.enabledIn(formatFeatures);
+        _cfgTypedArrays = Feature.WRITE_TYPED_ARRAYS.enabledIn(formatFeatures);
         _ioContext = ctxt;
         _out = out;
         _bufferRecyclable = true;
@@ -251,6 +355,8 @@ public class CBORGenerator extends GeneratorBase
         super(writeCtxt, generatorFeatures);
         _formatFeatures = formatFeatures;
         _cfgMinimalInts = Feature.WRITE_MINIMAL_INTS.enabledIn(formatFeatures);
+        _cfgStringRefs = Feature.STRINGREF.enabledIn(formatFeatures);
+        _cfgTypedArrays = Feature.WRITE_TYPED_ARRAYS.enabledIn(formatFeatures);
         _ioContext = ctxt;
         _out = out;
         _bufferRecyclable = bufferRecyclable;
@@ -353,6 +459,10 @@ public class CBORGenerator extends GeneratorBase
         _formatFeatures |= f.getMask();
         if (f == Feature.WRITE_MINIMAL_INTS) {
             _cfgMinimalInts = true;
+        } else if (f == Feature.STRINGREF) {
+            _cfgStringRefs = true;
+        } else if (f == Feature.WRITE_TYPED_ARRAYS) {
+            _cfgTypedArrays = true;
         }
         return this;
     }
@@ -361,6 +471,10 @@ public class CBORGenerator extends GeneratorBase
         _formatFeatures &= ~f.getMask();
         if (f == Feature.WRITE_MINIMAL_INTS) {
             _cfgMinimalInts = false;
+        } else if (f == Feature.STRINGREF) {
+            _cfgStringRefs = false;
+        } else if (f == Feature.WRITE_TYPED_ARRAYS) {
+            _cfgTypedArrays = false;
         }
         return this;
     }
@@ -409,6 +523,9 @@ public class CBORGenerator extends GeneratorBase
             _writeByte(BYTE_EMPTY_STRING);
             return;
         }
+        if ((_seenStringCount >= 0) && _writeStringRef(name.getValue(), len)) {
+            return;
+        }
         _writeLengthMarker(PREFIX_TYPE_TEXT, len);
         _writeBytes(raw, 0, len);
     }
@@ -454,14 +571,58 @@ public class CBORGenerator extends GeneratorBase
     }
 
     /**
-     * Specialize {@link JsonGenerator#copyCurrentStructure} to handle tags.
+     * Specialize {@link JsonGenerator#copyCurrentStructure} to handle tags,
+     * as well as to copy contents of Arrays and Objects as-is, without
+     * decoding and re-encoding, when reading from a (blocking) {@link CBORParser}
+     * (unless "stringref" handling is needed on either side).
      */
     @Override
     public void copyCurrentStructure(JsonParser p) throws IOException {
+        if (p instanceof CBORParser) {
+            JsonToken t = p.currentToken();
+            if (t == JsonToken.FIELD_NAME) {
+                writeFieldName(p.currentName());
+                t = p.nextToken();
+            }
+            if (((t == JsonToken.START_ARRAY) || (t == JsonToken.START_OBJECT))
+                    && _copyRawStructure((CBORParser) p)) {
+                return;
+            }
+        }
         maybeCopyTag(p);
         super.copyCurrentStructure(p);
     }
 
+    /**
+     * Helper method for copying current Array or Object of given parser
+     * as-is, if possible.
+     *
+     * @return True if contents were copied; false if not (and caller needs to
+     *    use regular copying)
+     *
+     * @since 3.0
+     */
+    protected boolean _copyRawStructure(CBORParser p) throws IOException
+    {
+        if (_cfgStringRefs || !p._canCopyRawContents()) {
+            return false;
+        }
+        final boolean isObject = p.currentToken() == JsonToken.START_OBJECT;
+        _verifyValueWrite(isObject ? "start an object" : "start an array");
+        final int tag = p.getCurrentTag();
+        if (tag != -1) {
+            _writeLengthMarker(PREFIX_TYPE_TAG, tag);
+        }
+        final int len = p.getParsingContext().getExpectedLength();
+        if (len < 0) {
+            _writeByte(isObject ? BYTE_OBJECT_INDEFINITE : BYTE_ARRAY_INDEFINITE);
+        } else {
+            _writeLengthMarker(isObject ? PREFIX_TYPE_OBJECT : PREFIX_TYPE_ARRAY, len);
+        }
+        p._copyRawContents(this);
+        return true;
+    }
+
     protected void maybeCopyTag(JsonParser p) throws IOException {
         if (p instanceof CBORParser) {
             if (p.hasCurrentToken()) {
@@ -483,6 +644,9 @@ public class CBORGenerator extends GeneratorBase
     @Override
     public final void writeStartArray() throws IOException {
         _verifyValueWrite("start an array");
+        if (_cfgStringRefs && _outputContext.inRoot()) {
+            _startStringRefNamespace();
+        }
         _outputContext = _outputContext.createChildArrayContext();
         if (_elementCountsPtr > 0) {
             _pushRemainingElements();
@@ -499,6 +663,9 @@ public class CBORGenerator extends GeneratorBase
     @Override
     public void writeStartArray(int elementsToWrite) throws IOException {
         _verifyValueWrite("start an array");
+        if (_cfgStringRefs && _outputContext.inRoot()) {
+            _startStringRefNamespace();
+        }
         _outputContext = _outputContext.createChildArrayContext();
         _pushRemainingElements();
         _currentRemainingElements = elementsToWrite;
@@ -508,6 +675,9 @@ public class CBORGenerator extends GeneratorBase
     @Override
     public void writeStartArray(Object forValue, int elementsToWrite) throws IOException {
         _verifyValueWrite("start an array");
+        if (_cfgStringRefs && _outputContext.inRoot()) {
+            _startStringRefNamespace();
+        }
         _outputContext = _outputContext.createChildArrayContext(forValue);
         _pushRemainingElements();
         _currentRemainingElements = elementsToWrite;
@@ -521,11 +691,17 @@ public class CBORGenerator extends GeneratorBase
         }
         closeComplexElement();
         _outputContext = _outputContext.getParent();
+        if ((_seenStringCount >= 0) && _outputContext.inRoot()) {
+            _seenStringCount = -1;
+        }
     }
 
     @Override
     public final void writeStartObject() throws IOException {
         _verifyValueWrite("start an object");
+        if (_cfgStringRefs && _outputContext.inRoot()) {
+            _startStringRefNamespace();
+        }
         _outputContext = _outputContext.createChildObjectContext();
         if (_elementCountsPtr > 0) {
             _pushRemainingElements();
@@ -537,6 +713,9 @@ public class CBORGenerator extends GeneratorBase
     @Override
     public final void writeStartObject(Object forValue) throws IOException {
         _verifyValueWrite("start an object");
+        if (_cfgStringRefs && _outputContext.inRoot()) {
+            _startStringRefNamespace();
+        }
         JsonWriteContext ctxt = _outputContext.createChildObjectContext(forValue);
         _outputContext = ctxt;
         if (_elementCountsPtr > 0) {
@@ -548,6 +727,9 @@ public class CBORGenerator extends GeneratorBase
 
     public final void writeStartObject(int elementsToWrite) throws IOException {
         _verifyValueWrite("start an object");
+        if (_cfgStringRefs && _outputContext.inRoot()) {
+            _startStringRefNamespace();
+        }
         _outputContext = _outputContext.createChildObjectContext();
         _pushRemainingElements();
         _currentRemainingElements = elementsToWrite;
@@ -561,6 +743,9 @@ public class CBORGenerator extends GeneratorBase
         }
         closeComplexElement();
         _outputContext = _outputContext.getParent();
+        if ((_seenStringCount >= 0) && _outputContext.inRoot()) {
+            _seenStringCount = -1;
+        }
     }
 
     @Override // since 2.8
@@ -569,6 +754,16 @@ public class CBORGenerator extends GeneratorBase
         _verifyOffsets(array.length, offset, length);
         // short-cut, do not create child array context etc
         _verifyValueWrite("write int array");
+        if (_cfgTypedArrays) {
+            _writeTypedArrayHeader(TAG_TYPED_ARRAY_SINT32_LE, length, 4);
+            for (int i = offset, end = offset+length; i < end; ) {
+                IntBuffer buf = _typedArrayChunk(end - i, 4).asIntBuffer();
+                final int count = buf.remaining();
+                buf.put(array, i, count);
+                i += count;
+            }
+            return;
+        }
         _writeLengthMarker(PREFIX_TYPE_ARRAY, length);
         for (int i = offset, end = offset+length; i < end; ++i) {
             _writeNumberNoCheck(array[i]);
@@ -581,6 +776,16 @@ public class CBORGenerator extends GeneratorBase
         _verifyOffsets(array.length, offset, length);
         // short-cut, do not create child array context etc
         _verifyValueWrite("write int array");
+        if (_cfgTypedArrays) {
+            _writeTypedArrayHeader(TAG_TYPED_ARRAY_SINT64_LE, length, 8);
+            for (int i = offset, end = offset+length; i < end; ) {
+                LongBuffer buf = _typedArrayChunk(end - i, 8).asLongBuffer();
+                final int count = buf.remaining();
+                buf.put(array, i, count);
+                i += count;
+            }
+            return;
+        }
         _writeLengthMarker(PREFIX_TYPE_ARRAY, length);
         for (int i = offset, end = offset+length; i < end; ++i) {
             _writeNumberNoCheck(array[i]);
@@ -593,6 +798,45 @@ public class CBORGenerator extends GeneratorBase
         _verifyOffsets(array.length, offset, length);
         // short-cut, do not create child array context etc
         _verifyValueWrite("write int array");
+        if (_cfgTypedArrays) {
+            _writeTypedArrayHeader(TAG_TYPED_ARRAY_FLOAT64_LE, length, 8);
+            for (int i = offset, end = offset+length; i < end; ) {
+                DoubleBuffer buf = _typedArrayChunk(end - i, 8).asDoubleBuffer();
+                final int count = buf.remaining();
+                buf.put(array, i, count);
+                i += count;
+            }
+            return;
+        }
+        _writeLengthMarker(PREFIX_TYPE_ARRAY, length);
+        for (int i = offset, end = offset+length; i < end; ++i) {
+            _writeNumberNoCheck(array[i]);
+        }
+    }
+
+    /**
+     * Method for writing given <code>float</code> values as an Array,
+     * either as a "typed array" (if {@link Feature#WRITE_TYPED_ARRAYS}
+     * is enabled) or as a regular CBOR Array of 32-bit floating-point
+     * numbers.
+     *
+     * @since 3.0
+     */
+    public void writeArray(float[] array, int offset, int length) throws IOException
+    {
+        _verifyOffsets(array.length, offset, length);
+        // short-cut, do not create child array context etc
+        _verifyValueWrite("write float array");
+        if (_cfgTypedArrays) {
+            _writeTypedArrayHeader(TAG_TYPED_ARRAY_FLOAT32_LE, length, 4);
+            for (int i = offset, end = offset+length; i < end; ) {
+                FloatBuffer buf = _typedArrayChunk(end - i, 4).asFloatBuffer();
+                final int count = buf.remaining();
+                buf.put(array, i, count);
+                i += count;
+            }
+            return;
+        }
         _writeLengthMarker(PREFIX_TYPE_ARRAY, length);
         for (int i = offset, end = offset+length; i < end; ++i) {
             _writeNumberNoCheck(array[i]);
@@ -676,6 +920,16 @@ public class CBORGenerator extends GeneratorBase
         _outputBuffer[_outputTail++] = (byte) i;
     }
 
+    private final void _writeNumberNoCheck(float f) throws IOException {
+        _ensureRoomForOutput(5);
+        int i = Float.floatToRawIntBits(f);
+        _outputBuffer[_outputTail++] = BYTE_FLOAT32;
+        _outputBuffer[_outputTail++] = (byte) (i >> 24);
+        _outputBuffer[_outputTail++] = (byte) (i >> 16);
+        _outputBuffer[_outputTail++] = (byte) (i >> 8);
+        _outputBuffer[_outputTail++] = (byte) i;
+    }
+
     private final void _writeNumberNoCheck(double d) throws IOException {
         _ensureRoomForOutput(11);
         // 17-Apr-2010, tatu: could also use 'doubleToIntBits', but it seems
@@ -697,6 +951,40 @@ public class CBORGenerator extends GeneratorBase
         _outputBuffer[_outputTail++] = (byte) i;
     }
 
+    // @since 3.0
+    private final void _writeTypedArrayHeader(int tag, int elemCount, int elemSize) throws IOException
+    {
+        if (elemCount > (Integer.MAX_VALUE / elemSize)) {
+            _reportError("Too many elements ("+elemCount+") for a typed array with "+elemSize+"-byte elements");
+        }
+        final int byteLength = elemCount * elemSize;
+        _writeLengthMarker(PREFIX_TYPE_TAG, tag);
+        if (_seenStringCount >= 0) {
+            _countStringRef(byteLength);
+        }
+        _writeLengthMarker(PREFIX_TYPE_BYTES, byteLength);
+    }
+
+    /**
+     * Helper method that returns a little-endian view of output buffer, with
+     * room for as many elements as fit (but at most <code>maxElems</code>),
+     * flushing output buffer first if necessary; caller must fill the
+     * whole view.
+     *
+     * @since 3.0
+     */
+    private final ByteBuffer _typedArrayChunk(int maxElems, int elemSize) throws IOException
+    {
+        if ((_outputTail + elemSize) > _outputEnd) {
+            _flushBuffer();
+        }
+        final int len = Math.min(maxElems, (_outputEnd - _outputTail) / elemSize) * elemSize;
+        ByteBuffer bb = ByteBuffer.wrap(_outputBuffer, _outputTail, len)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        _outputTail += len;
+        return bb;
+    }
+
     /*
     /***********************************************************
     /* Output method implementations, textual
@@ -722,6 +1010,9 @@ public class CBORGenerator extends GeneratorBase
             _writeByte(BYTE_EMPTY_STRING);
             return;
         }
+        if ((_seenStringCount >= 0) && _writeStringRef(sstr.getValue(), len)) {
+            return;
+        }
         _writeLengthMarker(PREFIX_TYPE_TEXT, len);
         _writeBytes(raw, 0, len);
     }
@@ -734,6 +1025,10 @@ public class CBORGenerator extends GeneratorBase
             _writeByte(BYTE_EMPTY_STRING);
             return;
         }
+        if (_seenStringCount >= 0) {
+            _writeString(new String(text, offset, len));
+            return;
+        }
         _writeString(text, offset, len);
     }
 
@@ -746,6 +1041,9 @@ public class CBORGenerator extends GeneratorBase
             _writeByte(BYTE_EMPTY_STRING);
             return;
         }
+        if (_seenStringCount >= 0) {
+            _countStringRef(len);
+        }
         _writeLengthMarker(PREFIX_TYPE_TEXT, len);
         _writeBytes(raw, 0, len);
     }
@@ -814,6 +1112,9 @@ public class CBORGenerator extends GeneratorBase
             return;
         }
         _verifyValueWrite("write Binary value");
+        if (_seenStringCount >= 0) {
+            _countStringRef(len);
+        }
         _writeLengthMarker(PREFIX_TYPE_BYTES, len);
         _writeBytes(data, offset, len);
     }
@@ -833,6 +1134,9 @@ public class CBORGenerator extends GeneratorBase
         _verifyValueWrite("write Binary value");
         int missing;
 
+        if (_seenStringCount >= 0) {
+            _countStringRef(dataLength);
+        }
         _writeLengthMarker(PREFIX_TYPE_BYTES, dataLength);
         missing = _writeBytes(data, dataLength);
         if (missing > 0) {
@@ -967,6 +1271,9 @@ public class CBORGenerator extends GeneratorBase
         }
         byte[] data = v.toByteArray();
         final int len = data.length;
+        if (_seenStringCount >= 0) {
+            _countStringRef(len);
+        }
         _writeLengthMarker(PREFIX_TYPE_BYTES, len);
         _writeBytes(data, 0, len);
     }
@@ -1205,6 +1512,11 @@ public class CBORGenerator extends GeneratorBase
             _writeByte(BYTE_EMPTY_STRING);
             return;
         }
+        if ((_seenStringCount >= 0)
+                // chunked Strings can not be referenced
+                && _writeStringRef(name, (len > MAX_LONG_STRING_CHARS) ? -1 : _utf8Length(name, len))) {
+            return;
+        }
         // Actually, let's not bother with copy for shortest strings
         if (len <= MAX_SHORT_STRING_CHARS) {
             _ensureSpace(MAX_SHORT_STRING_BYTES); // can afford approximate
@@ -1330,6 +1642,136 @@ public class CBORGenerator extends GeneratorBase
         _writeByte(BYTE_BREAK);
     }
 
+    /*
+    /**********************************************************
+    /* Internal methods, "stringref" handling
+    /**********************************************************
+     */
+
+    private final void _startStringRefNamespace() throws IOException
+    {
+        _writeLengthMarker(PREFIX_TYPE_TAG, TAG_STRINGREF_NAMESPACE);
+        if (_seenStrings == null) {
+            _seenStrings = new SharedStringNode[INITIAL_SEEN_STRINGS_SIZE];
+        } else {
+            Arrays.fill(_seenStrings, null);
+        }
+        _seenStringCount = 0;
+    }
+
+    /**
+     * Helper method called to check whether given String has already been
+     * written within current namespace: if so, writes reference to it and
+     * returns true; if not, adds it (if long enough to be referenced) and
+     * returns false to let caller write it.
+     *
+     * @param byteLength Length of the String in UTF-8 encoded bytes, or at least
+     *    7 if longer than that; -1 if String is not to be referenced
+     */
+    private final boolean _writeStringRef(String text, int byteLength) throws IOException
+    {
+        int ix = _findSeenString(text);
+        if (ix >= 0) {
+            _writeLengthMarker(PREFIX_TYPE_TAG, TAG_STRINGREF);
+            _writeLengthMarker(PREFIX_TYPE_INT_POS, ix);
+            return true;
+        }
+        if (byteLength >= 0) {
+            final int ref = _seenStringCount;
+            if (isStringReferenceable(byteLength, ref)) {
+                _seenStringCount = ref+1;
+                if (ref < MAX_SEEN_STRINGS) {
+                    _addSeenString(text, ref);
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Helper method called for Strings and byte arrays that can not be referenced
+     * by generator, but that decoder will assign an index to.
+     */
+    private final void _countStringRef(int byteLength)
+    {
+        if (isStringReferenceable(byteLength, _seenStringCount)) {
+            ++_seenStringCount;
+        }
+    }
+
+    private final int _findSeenString(String text)
+    {
+        int hash = text.hashCode();
+        SharedStringNode head = _seenStrings[hash & (_seenStrings.length-1)];
+        if (head != null) {
+            SharedStringNode node = head;
+            // first, identity match; assuming most of the time we get intern()ed String
+            do {
+                if (node.value == text) {
+                    return node.index;
+                }
+                node = node.next;
+            } while (node != null);
+            // and then comparison, if no match yet
+            node = head;
+            do {
+                String value = node.value;
+                if (value.hashCode() == hash && value.equals(text)) {
+                    return node.index;
+                }
+                node = node.next;
+            } while (node != null);
+        }
+        return -1;
+    }
+
+    private final void _addSeenString(String text, int ref)
+    {
+        // first: do we need to expand? Let's keep load factor at most 1.0
+        // (note: caller ensures we never need to go above MAX_SEEN_STRINGS)
+        if (ref >= _seenStrings.length) {
+            SharedStringNode[] old = _seenStrings;
+            _seenStrings = new SharedStringNode[old.length << 1];
+            final int mask = _seenStrings.length-1;
+            for (SharedStringNode node : old) {
+                while (node != null) {
+                    int ix = node.value.hashCode() & mask;
+                    SharedStringNode next = node.next;
+                    node.next = _seenStrings[ix];
+                    _seenStrings[ix] = node;
+                    node = next;
+                }
+            }
+        }
+        int ix = text.hashCode() & (_seenStrings.length-1);
+        _seenStrings[ix] = new SharedStringNode(text, ref, _seenStrings[ix]);
+    }
+
+    /**
+     * Helper method for calculating UTF-8 encoded length of a String,
+     * as far as is needed for "stringref" handling: for Strings of 7 or more
+     * characters exact length is not needed (they can always be referenced).
+     */
+    private final static int _utf8Length(String text, int len)
+    {
+        if (len >= 7) {
+            return len;
+        }
+        int bytes = 0;
+        for (int i = 0; i < len; ++i) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                ++bytes;
+            } else if (c < 0x800 || (c >= SURR1_FIRST && c <= SURR2_LAST)) {
+                // surrogate pairs take 4 bytes
+                bytes += 2;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
     /*
     /**********************************************************
     /* Internal methods, UTF-8 encoding
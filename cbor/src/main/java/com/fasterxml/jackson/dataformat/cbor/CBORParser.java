@@ -3,8 +3,13 @@ package com.fasterxml.jackson.dataformat.cbor;
 import java.io.*;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
 import java.nio.charset.Charset;
 import java.util.Arrays;
+import java.util.List;
 
 import com.fasterxml.jackson.core.*;
 import com.fasterxml.jackson.core.base.ParserMinimalBase;
@@ -258,6 +263,23 @@ public class CBORParser extends ParserMinimalBase
      */
     private int _chunkLeft, _chunkEnd;
 
+    /**
+     * Generator to pass input through to as-is, when copying encoded
+     * contents without decoding them (see {@link #_copyRawContents});
+     * null when not copying.
+     *
+     * @since 3.0
+     */
+    protected CBORGenerator _rawCopyTarget;
+
+    /**
+     * Offset of the first byte in input buffer not yet passed through
+     * to {@link #_rawCopyTarget}.
+     *
+     * @since 3.0
+     */
+    protected int _rawCopyStart;
+
     /*
     /**********************************************************
     /* Symbol handling, decoding
@@ -369,6 +391,41 @@ public class CBORParser extends ParserMinimalBase
         return _tagValue;
     }
 
+    /**
+     * Method that can be called to access contents of the current token
+     * as a primitive array, if it is a "typed array" (see
+     * <a href="https://tools.ietf.org/html/rfc8746">RFC 8746</a>): byte string
+     * tagged with one of typed array tags (see {@link CBORConstants#isTypedArrayTag}).
+     * Elements are decoded in bulk, and returned as the smallest Java primitive
+     * array type that can contain all values without loss:
+     *<ul>
+     * <li>signed 8-bit integers as <code>byte[]</code></li>
+     * <li>unsigned 8-bit and signed 16-bit integers as <code>short[]</code></li>
+     * <li>unsigned 16-bit and signed 32-bit integers as <code>int[]</code></li>
+     * <li>unsigned 32-bit and all 64-bit integers as <code>long[]</code>
+     *   (unsigned 64-bit values using two's complement representation)</li>
+     * <li>16- and 32-bit floating-point numbers as <code>float[]</code></li>
+     * <li>64-bit floating-point numbers as <code>double[]</code></li>
+     *</ul>
+     * 128-bit floating-point numbers are not supported.
+     *
+     * @return Decoded primitive array, if current token is a typed array;
+     *    null otherwise
+     *
+     * @since 3.0
+     */
+    public Object getTypedArrayValue() throws IOException
+    {
+        if ((_currToken != JsonToken.VALUE_EMBEDDED_OBJECT)
+                || !CBORConstants.isTypedArrayTag(_tagValue)) {
+            return null;
+        }
+        if (_tokenIncomplete) {
+            _finishToken();
+        }
+        return _decodeTypedArray(_tagValue, _binaryValue);
+    }
+
     /*
     /**********************************************************
     /* Abstract impls
@@ -562,6 +619,7 @@ public class CBORParser extends ParserMinimalBase
         }
         int ch = _inputBuffer[_inputPtr++];
         int type = (ch >> 5) & 0x7;
+        boolean stringRefNs = false;
 
         // One special case: need to consider tag as prefix first:
         if (type == 6) {
@@ -573,6 +631,15 @@ public class CBORParser extends ParserMinimalBase
             }
             ch = _inputBuffer[_inputPtr++];
             type = (ch >> 5) & 0x7;
+            // "stringref" namespace tag may be combined with one other tag
+            if ((type == 6) || (_tagValue == TAG_STRINGREF_NAMESPACE)) {
+                ch = _decodeStringRefNamespace(ch);
+                type = (ch >> 5) & 0x7;
+                stringRefNs = true;
+            } else if ((_tagValue == TAG_STRINGREF) && (type == 0)
+                    && (_parsingContext._stringRefs != null)) {
+                return _handleStringRef(ch & 0x1F);
+            }
         } else {
             _tagValue = -1;
         }
@@ -669,6 +736,9 @@ public class CBORParser extends ParserMinimalBase
         case 2: // byte[]
             _typeByte = ch;
             _tokenIncomplete = true;
+            if (_parsingContext._stringRefs != null) {
+                _finishAndAddStringRef();
+            }
             if (_tagValue >= 0) {
                 return _handleTaggedBinary(_tagValue);
             }
@@ -677,15 +747,24 @@ public class CBORParser extends ParserMinimalBase
         case 3: // String
             _typeByte = ch;
             _tokenIncomplete = true;
+            if (_parsingContext._stringRefs != null) {
+                _finishAndAddStringRef();
+            }
             return (_currToken = JsonToken.VALUE_STRING);
 
         case 4: // Array
             {
                 int len = _decodeExplicitLength(lowBits);
                 if (_tagValue >= 0) {
+                    if (stringRefNs) {
+                        return _handleTaggedArrayInNamespace(_tagValue, len);
+                    }
                     return _handleTaggedArray(_tagValue, len);
                 }
                 _parsingContext = _parsingContext.createChildArrayContext(len);
+                if (stringRefNs) {
+                    _parsingContext.startStringRefNamespace();
+                }
             }
             return (_currToken = JsonToken.START_ARRAY);
 
@@ -694,6 +773,9 @@ public class CBORParser extends ParserMinimalBase
             {
                 int len = _decodeExplicitLength(lowBits);
                 _parsingContext = _parsingContext.createChildObjectContext(len);
+                if (stringRefNs) {
+                    _parsingContext.startStringRefNamespace();
+                }
             }
             return _currToken;
 
@@ -792,8 +874,10 @@ public class CBORParser extends ParserMinimalBase
             return (_currToken = JsonToken.VALUE_EMBEDDED_OBJECT);
         }
 
-        // First: get the data
-        _finishToken();
+        // First: get the data (unless already decoded for "stringref" handling)
+        if (_tokenIncomplete) {
+            _finishToken();
+        }
 
         BigInteger nr = new BigInteger(_binaryValue);
         if (neg) {
@@ -927,6 +1011,7 @@ public class CBORParser extends ParserMinimalBase
                         name = _decodeShortName(lenMarker);
                         name = _addDecodedToSymbols(lenMarker, name);
                     }
+                    _addStringRef(name, lenMarker);
                 }
             } else {
                 final int actualLen = _decodeExplicitLength(lenMarker);
@@ -934,6 +1019,7 @@ public class CBORParser extends ParserMinimalBase
                     name = _decodeChunkedName();
                 } else {
                     name = _decodeLongerName(actualLen);
+                    _addStringRef(name, actualLen);
                 }
             }
             _parsingContext.setCurrentName(name);
@@ -948,7 +1034,9 @@ public class CBORParser extends ParserMinimalBase
     public boolean nextFieldName(SerializableString str) throws IOException
     {
         // Two parsing modes; can only succeed if expecting field name, so handle that first:
-        if (_parsingContext.inObject() && _currToken != JsonToken.FIELD_NAME) {
+        // (but within "stringref" namespace need to use full decoding)
+        if (_parsingContext.inObject() && _currToken != JsonToken.FIELD_NAME
+                && (_parsingContext._stringRefs == null)) {
             _numTypesValid = NR_UNKNOWN;
             if (_tokenIncomplete) {
                 _skipIncomplete();
@@ -1002,6 +1090,14 @@ public class CBORParser extends ParserMinimalBase
             nextToken();
             return FieldNameMatcher.MATCH_ODD_TOKEN;
         }
+        // Within "stringref" namespace need to use full decoding
+        if (_parsingContext._stringRefs != null) {
+            String name = nextFieldName();
+            if (name != null) {
+                return matcher.matchName(name);
+            }
+            return FieldNameMatcher.MATCH_END_OBJECT;
+        }
 
         if (_tokenIncomplete) {
             _skipIncomplete();
@@ -1278,6 +1374,7 @@ public class CBORParser extends ParserMinimalBase
         }
         int ch = _inputBuffer[_inputPtr++];
         int type = (ch >> 5) & 0x7;
+        boolean stringRefNs = false;
 
         // One special case: need to consider tag as prefix first:
         if (type == 6) {
@@ -1290,6 +1387,16 @@ public class CBORParser extends ParserMinimalBase
             }
             ch = _inputBuffer[_inputPtr++];
             type = (ch >> 5) & 0x7;
+            // "stringref" namespace tag may be combined with one other tag
+            if ((type == 6) || (_tagValue == TAG_STRINGREF_NAMESPACE)) {
+                ch = _decodeStringRefNamespace(ch);
+                type = (ch >> 5) & 0x7;
+                stringRefNs = true;
+            } else if ((_tagValue == TAG_STRINGREF) && (type == 0)
+                    && (_parsingContext._stringRefs != null)) {
+                return (_handleStringRef(ch & 0x1F) == JsonToken.VALUE_STRING)
+                        ? _textBuffer.contentsAsString() : null;
+            }
         } else {
             _tagValue = -1;
         }
@@ -1388,6 +1495,9 @@ public class CBORParser extends ParserMinimalBase
         case 2: // byte[]
             _typeByte = ch;
             _tokenIncomplete = true;
+            if (_parsingContext._stringRefs != null) {
+                _finishAndAddStringRef();
+            }
             _currToken = JsonToken.VALUE_EMBEDDED_OBJECT;
             return null;
 
@@ -1395,6 +1505,10 @@ public class CBORParser extends ParserMinimalBase
             _typeByte = ch;
             _tokenIncomplete = true;
             _currToken = JsonToken.VALUE_STRING;
+            if (_parsingContext._stringRefs != null) {
+                _finishAndAddStringRef();
+                return _textBuffer.contentsAsString();
+            }
             return _finishTextToken(ch);
 
         case 4: // Array
@@ -1402,6 +1516,9 @@ public class CBORParser extends ParserMinimalBase
             {
                 int len = _decodeExplicitLength(lowBits);
                 _parsingContext = _parsingContext.createChildArrayContext(len);
+                if (stringRefNs) {
+                    _parsingContext.startStringRefNamespace();
+                }
             }
             return null;
 
@@ -1410,6 +1527,9 @@ public class CBORParser extends ParserMinimalBase
             {
                 int len = _decodeExplicitLength(lowBits);
                 _parsingContext = _parsingContext.createChildObjectContext(len);
+                if (stringRefNs) {
+                    _parsingContext.startStringRefNamespace();
+                }
             }
             return null;
 
@@ -2517,6 +2637,7 @@ public class CBORParser extends ParserMinimalBase
                     name = _decodeShortName(lenMarker);
                     name = _addDecodedToSymbols(lenMarker, name);
                 }
+                _addStringRef(name, lenMarker);
             }
         } else {
             final int actualLen = _decodeExplicitLength(lenMarker);
@@ -2524,6 +2645,7 @@ public class CBORParser extends ParserMinimalBase
                 name = _decodeChunkedName();
             } else {
                 name = _decodeLongerName(actualLen);
+                _addStringRef(name, actualLen);
             }
         }
         _parsingContext.setCurrentName(name);
@@ -2634,9 +2756,14 @@ public class CBORParser extends ParserMinimalBase
             //  08-Sep-2014, tatu: There are codecs (f.ex. Perl module "CBOR::XS") that use Binary data...
             final int blen = _decodeExplicitLength(ch & 0x1F);
             byte[] b = _finishBytes(blen);
+            if (blen >= 0) {
+                _addStringRef(b, blen);
+            }
             // TODO: Optimize, if this becomes commonly used & bottleneck; we have
             //  more optimized UTF-8 codecs available.
             name = new String(b, UTF8);
+        } else if ((type == CBORConstants.MAJOR_TYPE_TAG) && (_parsingContext._stringRefs != null)) {
+            name = _decodeStringRefName(ch);
         } else {
             if ((ch & 0xFF) == CBORConstants.INT_BREAK) {
                 _reportUnexpectedBreak();
@@ -2877,6 +3004,133 @@ public class CBORParser extends ParserMinimalBase
         }
     }
     
+    /**
+     * Method called to check whether remaining contents of the current Array
+     * or Object may be copied as-is using {@link #_copyRawContents}: this is
+     * not possible for non-blocking parsers (since not all content may be
+     * available), or for content within "stringref" namespace (since copied
+     * content could refer to Strings outside of it).
+     *
+     * @since 3.0
+     */
+    protected boolean _canCopyRawContents()
+    {
+        return ((_currToken == JsonToken.START_ARRAY) || (_currToken == JsonToken.START_OBJECT))
+                && (_parsingContext.getStringRefs() == null)
+                && !canParseAsync();
+    }
+
+    /**
+     * Method called (when {@link #_canCopyRawContents} returns true) to pass
+     * all remaining encoded contents of the current Array or Object (entries
+     * as well as end marker of indefinite-length value), as-is, to given
+     * generator: caller is responsible for writing start marker (and tag, if any).
+     * After call, parser points to the matching END_ARRAY or END_OBJECT.
+     *
+     * @since 3.0
+     */
+    protected void _copyRawContents(CBORGenerator g) throws IOException
+    {
+        final boolean isObject = (_currToken == JsonToken.START_OBJECT);
+        _rawCopyTarget = g;
+        _rawCopyStart = _inputPtr;
+        try {
+            _skipRawContents(isObject, _parsingContext.getExpectedLength());
+            g.writeBytes(_inputBuffer, _rawCopyStart, _inputPtr - _rawCopyStart);
+        } finally {
+            _rawCopyTarget = null;
+        }
+        _tagValue = -1;
+        _parsingContext = _parsingContext.getParent();
+        _currToken = isObject ? JsonToken.END_OBJECT : JsonToken.END_ARRAY;
+    }
+
+    /**
+     * Helper method for skipping a complete data item (including tags, and
+     * for Arrays and Objects, all contained items) without decoding it.
+     *
+     * @since 3.0
+     */
+    protected void _skipRawItem() throws IOException
+    {
+        if (_inputPtr >= _inputEnd) {
+            loadMoreGuaranteed();
+        }
+        int ch = _inputBuffer[_inputPtr++] & 0xFF;
+        // Tags are just prefixes for the actual value
+        while ((ch >> 5) == CBORConstants.MAJOR_TYPE_TAG) {
+            _skipRawArgument(ch);
+            if (_inputPtr >= _inputEnd) {
+                loadMoreGuaranteed();
+            }
+            ch = _inputBuffer[_inputPtr++] & 0xFF;
+        }
+        final int type = ch >> 5;
+        final int lowBits = ch & 0x1F;
+        switch (type) {
+        case CBORConstants.MAJOR_TYPE_BYTES:
+        case CBORConstants.MAJOR_TYPE_TEXT:
+            if (lowBits == 31) {
+                _skipChunked(type);
+            } else {
+                _skipBytes(_decodeExplicitLength(lowBits));
+            }
+            break;
+        case CBORConstants.MAJOR_TYPE_ARRAY:
+        case CBORConstants.MAJOR_TYPE_OBJECT:
+            _skipRawContents(type == CBORConstants.MAJOR_TYPE_OBJECT, _decodeExplicitLength(lowBits));
+            break;
+        default: // integers, floating-point numbers, simple values
+            if (lowBits == 31) { // break marker not expected here
+                _invalidToken(ch);
+            }
+            _skipRawArgument(ch);
+        }
+    }
+
+    /**
+     * Helper method for skipping contents of an Array or Object with given
+     * number of entries (or, if negative, until end marker) without decoding.
+     *
+     * @since 3.0
+     */
+    private final void _skipRawContents(boolean isObject, int len) throws IOException
+    {
+        if (len < 0) {
+            while (true) {
+                if (_inputPtr >= _inputEnd) {
+                    loadMoreGuaranteed();
+                }
+                if (_inputBuffer[_inputPtr] == CBORConstants.BYTE_BREAK) {
+                    ++_inputPtr;
+                    return;
+                }
+                _skipRawItem();
+                if (isObject) {
+                    _skipRawItem();
+                }
+            }
+        }
+        while (--len >= 0) {
+            _skipRawItem();
+            if (isObject) {
+                _skipRawItem();
+            }
+        }
+    }
+
+    // Helper method for skipping additional bytes of the initial byte's argument
+    private final void _skipRawArgument(int ch) throws IOException
+    {
+        final int lowBits = ch & 0x1F;
+        if (lowBits > 23) {
+            if (lowBits > 27) {
+                _invalidToken(ch);
+            }
+            _skipBytes(1 << (lowBits - 24));
+        }
+    }
+
     protected void _skipBytesL(long llen) throws IOException
     {
         while (llen > MAX_INT_L) {
@@ -2899,6 +3153,245 @@ public class CBORParser extends ParserMinimalBase
         }
     }
 
+    /*
+    /**********************************************************
+    /* Internal methods, "stringref" handling
+    /**********************************************************
+     */
+
+    /**
+     * Helper method called when "stringref" namespace tag is encountered,
+     * or when value has two tags (one of which must then be namespace tag):
+     * skips namespace tag, leaving the other tag (if any) as the current tag.
+     *
+     * @return First byte of the data item itself
+     */
+    private final int _decodeStringRefNamespace(int ch) throws IOException
+    {
+        if (_tagValue == TAG_STRINGREF_NAMESPACE) {
+            _tagValue = -1;
+            if (((ch >> 5) & 0x7) != CBORConstants.MAJOR_TYPE_TAG) {
+                return ch;
+            }
+            _tagValue = _decodeTag(ch & 0x1F);
+        } else if (_decodeTag(ch & 0x1F) != TAG_STRINGREF_NAMESPACE) {
+            _reportError("Multiple tags not allowed per value (first tag: "+_tagValue+")");
+        }
+        if (_inputPtr >= _inputEnd) {
+            loadMoreGuaranteed();
+        }
+        return _inputBuffer[_inputPtr++];
+    }
+
+    private final JsonToken _handleTaggedArrayInNamespace(int tag, int len) throws IOException
+    {
+        final List<Object> refs = _parsingContext._stringRefs;
+        final int count = (refs == null) ? 0 : refs.size();
+        JsonToken t = _handleTaggedArray(tag, len);
+        if (t == JsonToken.START_ARRAY) {
+            _parsingContext.startStringRefNamespace();
+        } else if (refs != null) {
+            // Decoded as a single value (decimal fraction): contents were in
+            // their own namespace, so must not be left in the enclosing one
+            refs.subList(count, refs.size()).clear();
+        }
+        return t;
+    }
+
+    private final JsonToken _handleStringRef(int lowBits) throws IOException
+    {
+        Object ref = _findStringRef(_decodeExplicitLength(lowBits));
+        _tagValue = -1;
+        if (ref instanceof String) {
+            _textBuffer.resetWithString((String) ref);
+            return (_currToken = JsonToken.VALUE_STRING);
+        }
+        // must copy, as caller may modify contents
+        _binaryValue = ((byte[]) ref).clone();
+        return (_currToken = JsonToken.VALUE_EMBEDDED_OBJECT);
+    }
+
+    private final String _decodeStringRefName(int ch) throws IOException
+    {
+        final int tag = _decodeTag(ch & 0x1F);
+        if (_inputPtr >= _inputEnd) {
+            loadMoreGuaranteed();
+        }
+        ch = _inputBuffer[_inputPtr++];
+        if ((tag != TAG_STRINGREF) || (((ch >> 5) & 0x7) != CBORConstants.MAJOR_TYPE_INT_POS)) {
+            throw _constructError("Unsupported tagged value (tag "+tag
+                    +") for CBOR Object property name: only \"stringref\" (tag "+TAG_STRINGREF+") allowed");
+        }
+        Object ref = _findStringRef(_decodeExplicitLength(ch & 0x1F));
+        if (ref instanceof String) {
+            return (String) ref;
+        }
+        return new String((byte[]) ref, UTF8);
+    }
+
+    private final Object _findStringRef(int index) throws IOException
+    {
+        final List<Object> refs = _parsingContext._stringRefs;
+        if ((index < 0) || (index >= refs.size())) {
+            _reportError("Invalid \"stringref\" index ("+index+"): only "+refs.size()
+                    +" Strings in current namespace");
+        }
+        return refs.get(index);
+    }
+
+    /**
+     * Helper method called for String and binary values within "stringref"
+     * namespace: these need to be decoded right away (instead of lazily) so
+     * that they can be added to the namespace, if long enough.
+     */
+    private final void _finishAndAddStringRef() throws IOException
+    {
+        final int lowBits = _typeByte & 0x1F;
+        if (((_typeByte >> 5) & 0x7) == CBORConstants.MAJOR_TYPE_BYTES) {
+            _finishToken();
+            // chunked values can not be referenced
+            if (lowBits != SUFFIX_INDEFINITE) {
+                _addStringRef(_binaryValue, _binaryValue.length);
+            }
+            return;
+        }
+        if (lowBits == SUFFIX_INDEFINITE) {
+            _finishToken();
+            return;
+        }
+        // Need to know encoded length so can not use _finishToken()
+        _tokenIncomplete = false;
+        final int len = _decodeExplicitLength(lowBits);
+        if (len == 0) {
+            _textBuffer.resetWithEmpty();
+            return;
+        }
+        String text;
+        if (len > (_inputEnd - _inputPtr)) {
+            if (len >= _inputBuffer.length) {
+                _finishLongText(len);
+                text = _textBuffer.contentsAsString();
+            } else {
+                _loadToHaveAtLeast(len);
+                text = _finishShortText(len);
+            }
+        } else {
+            text = _finishShortText(len);
+        }
+        _addStringRef(text, len);
+    }
+
+    /**
+     * Helper method called for decoded Strings (and byte arrays) to add them in
+     * current "stringref" namespace, if any, if long enough to be referenced.
+     */
+    private final void _addStringRef(Object value, int byteLength)
+    {
+        final List<Object> refs = _parsingContext._stringRefs;
+        if ((refs != null) && isStringReferenceable(byteLength, refs.size())) {
+            // byte arrays are exposed to caller, so need to copy
+            if (value instanceof byte[]) {
+                value = ((byte[]) value).clone();
+            }
+            refs.add(value);
+        }
+    }
+
+    /*
+    /**********************************************************
+    /* Internal methods, typed array decoding
+    /**********************************************************
+     */
+
+    protected Object _decodeTypedArray(int tag, byte[] data) throws IOException
+    {
+        final int elemSize = CBORConstants.typedArrayElementSize(tag);
+        if ((data.length % elemSize) != 0) {
+            _reportError("Invalid typed array (tag "+tag+"): length ("+data.length
+                    +") not a multiple of element size ("+elemSize+")");
+        }
+        final int count = data.length / elemSize;
+        final ByteBuffer bb = ByteBuffer.wrap(data)
+                .order(((tag & 0x4) == 0) ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+
+        if ((tag & 0x10) != 0) { // floating-point
+            switch (elemSize) {
+            case 2:
+                {
+                    float[] result = new float[count];
+                    ShortBuffer buf = bb.asShortBuffer();
+                    for (int i = 0; i < count; ++i) {
+                        result[i] = _halfToFloat(buf.get(i) & 0xFFFF);
+                    }
+                    return result;
+                }
+            case 4:
+                {
+                    float[] result = new float[count];
+                    bb.asFloatBuffer().get(result);
+                    return result;
+                }
+            case 8:
+                {
+                    double[] result = new double[count];
+                    bb.asDoubleBuffer().get(result);
+                    return result;
+                }
+            }
+            _reportError("Unsupported typed array (tag "+tag+"): 128-bit floating-point numbers not supported");
+        }
+        if ((tag & 0x8) != 0) { // signed integers
+            switch (elemSize) {
+            case 1:
+                return data.clone();
+            case 2:
+                {
+                    short[] result = new short[count];
+                    bb.asShortBuffer().get(result);
+                    return result;
+                }
+            case 4:
+                {
+                    int[] result = new int[count];
+                    bb.asIntBuffer().get(result);
+                    return result;
+                }
+            }
+        } else { // unsigned integers need to be widened, except for 64-bit ones
+            switch (elemSize) {
+            case 1:
+                {
+                    short[] result = new short[count];
+                    for (int i = 0; i < count; ++i) {
+                        result[i] = (short) (data[i] & 0xFF);
+                    }
+                    return result;
+                }
+            case 2:
+                {
+                    int[] result = new int[count];
+                    ShortBuffer buf = bb.asShortBuffer();
+                    for (int i = 0; i < count; ++i) {
+                        result[i] = buf.get(i) & 0xFFFF;
+                    }
+                    return result;
+                }
+            case 4:
+                {
+                    long[] result = new long[count];
+                    IntBuffer buf = bb.asIntBuffer();
+                    for (int i = 0; i < count; ++i) {
+                        result[i] = buf.get(i) & 0xFFFFFFFFL;
+                    }
+                    return result;
+                }
+            }
+        }
+        long[] result = new long[count];
+        bb.asLongBuffer().get(result);
+        return result;
+    }
+
     /*
     /**********************************************************
     /* Internal methods, length/number decoding
@@ -2985,8 +3478,12 @@ public class CBORParser extends ParserMinimalBase
     
     private float _decodeHalfSizeFloat() throws IOException
     {
-        int i16 = _decode16Bits() & 0xFFFF;
+        return _halfToFloat(_decode16Bits() & 0xFFFF);
+    }
 
+    // @since 3.0
+    private final static float _halfToFloat(int i16)
+    {
         boolean neg = (i16 >> 15) != 0;
         int e = (i16 >> 10) & 0x1F;
         int f = i16 & 0x03FF;
@@ -3203,6 +3700,11 @@ public class CBORParser extends ParserMinimalBase
     {
         if (_inputStream != null) {
             _currInputProcessed += _inputEnd;
+            // If passing input through, need to do it before discarding
+            if (_rawCopyTarget != null) {
+                _rawCopyTarget.writeBytes(_inputBuffer, _rawCopyStart, _inputEnd - _rawCopyStart);
+                _rawCopyStart = 0;
+            }
 
             int count = _inputStream.read(_inputBuffer, 0, _inputBuffer.length);
             if (count > 0) {
@@ -3234,6 +3736,11 @@ public class CBORParser extends ParserMinimalBase
         if (_inputStream == null) {
             throw _constructError("Needed to read "+minAvailable+" bytes, reached end-of-input");
         }
+        // If passing input through, need to do it before moving or discarding
+        if (_rawCopyTarget != null) {
+            _rawCopyTarget.writeBytes(_inputBuffer, _rawCopyStart, _inputPtr - _rawCopyStart);
+            _rawCopyStart = 0;
+        }
         // Need to move remaining data in front?
         int amount = _inputEnd - _inputPtr;
         if (amount > 0 && _inputPtr > 0) {
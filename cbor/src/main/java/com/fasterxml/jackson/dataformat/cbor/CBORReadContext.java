@@ -1,5 +1,8 @@
 package com.fasterxml.jackson.dataformat.cbor;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import com.fasterxml.jackson.core.*;
 import com.fasterxml.jackson.core.io.CharTypes;
 import com.fasterxml.jackson.core.json.DupDetector;
@@ -24,6 +27,15 @@ public final class CBORReadContext
      * For fixed-size Arrays, Objects, this indicates expected number of entries.
      */
     protected int _expEntryCount;
+
+    /**
+     * Strings (and byte arrays) that may be referenced within "stringref"
+     * namespace this context is in, if any; shared with parent context
+     * unless this context starts a new namespace.
+     *
+     * @since 3.0
+     */
+    protected List<Object> _stringRefs;
     
     // // // Location information (minus source reference)
 
@@ -94,6 +106,7 @@ public final class CBORReadContext
         } else {
             ctxt.reset(TYPE_ARRAY, expEntryCount);
         }
+        ctxt._stringRefs = _stringRefs;
         return ctxt;
     }
 
@@ -104,9 +117,10 @@ public final class CBORReadContext
             _child = ctxt = new CBORReadContext(this,
                     (_dups == null) ? null : _dups.child(),
                     TYPE_OBJECT, expEntryCount);
-            return ctxt;
+        } else {
+            ctxt.reset(TYPE_OBJECT, expEntryCount);
         }
-        ctxt.reset(TYPE_OBJECT, expEntryCount);
+        ctxt._stringRefs = _stringRefs;
         return ctxt;
     }
 
@@ -146,6 +160,38 @@ public final class CBORReadContext
         }
         return true;
     }
+
+    /**
+     * Method that can be called to check whether all entries of a fixed-size
+     * Array or Object have been read: that is, whether {@link #expectMoreValues}
+     * would return false. Unlike that method, does not update entry count.
+     *
+     * @since 3.0
+     */
+    public boolean isExpectedLengthReached() {
+        return (_index + 1) == _expEntryCount;
+    }
+
+    /**
+     * Accessor for Strings (and byte arrays) that may be referenced within
+     * current "stringref" namespace, if within one; null if not.
+     *
+     * @since 3.0
+     */
+    public List<Object> getStringRefs() {
+        return _stringRefs;
+    }
+
+    /**
+     * Method called when this context starts a new "stringref" namespace
+     * (that is, Array or Object is tagged with namespace tag), so that
+     * Strings of enclosing namespace (if any) can not be referenced.
+     *
+     * @since 3.0
+     */
+    public void startStringRefNamespace() {
+        _stringRefs = new ArrayList<Object>();
+    }
     
     /**
      * @return Location pointing to the point where the context
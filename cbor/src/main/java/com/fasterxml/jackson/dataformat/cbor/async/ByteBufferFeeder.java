@@ -0,0 +1,30 @@
+package com.fasterxml.jackson.dataformat.cbor.async;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import com.fasterxml.jackson.core.async.NonBlockingInputFeeder;
+
+/**
+ * {@link NonBlockingInputFeeder} implementation used when feeding data
+ * as {@link ByteBuffer} contents.
+ *
+ * @since 3.0
+ */
+public interface ByteBufferFeeder extends NonBlockingInputFeeder
+{
+    /**
+     * Method that can be called to feed more data, if (and only if)
+     * {@link NonBlockingInputFeeder#needMoreInput} returns true.
+     * All remaining content of the buffer is consumed: that is, its
+     * position is advanced to its limit. Content may be decoded directly
+     * from the backing array of a heap buffer, in which case that
+     * content must not be modified until more input is needed.
+     *
+     * @param buffer Buffer that contains additional input to read
+     *
+     * @throws IOException if the state is such that this method should not be called
+     *   (has not yet consumed existing input data, or has been marked as closed)
+     */
+    public void feedInput(ByteBuffer buffer) throws IOException;
+}
@@ -0,0 +1,46 @@
+package com.fasterxml.jackson.dataformat.cbor.async;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.ObjectReadContext;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.core.io.IOContext;
+import com.fasterxml.jackson.core.sym.ByteQuadsCanonicalizer;
+
+/**
+ * Non-blocking CBOR parser that is fed input as byte arrays.
+ *
+ * @since 3.0
+ */
+public class NonBlockingByteArrayParser
+    extends NonBlockingParserBase
+    implements ByteArrayFeeder
+{
+    public NonBlockingByteArrayParser(ObjectReadContext readCtxt, IOContext ioCtxt,
+            int parserFeatures, int cborFeatures,
+            ByteQuadsCanonicalizer sym)
+    {
+        super(readCtxt, ioCtxt, parserFeatures, cborFeatures, sym);
+    }
+
+    /*
+    /**********************************************************************
+    /* AsyncInputFeeder impl
+    /**********************************************************************
+     */
+
+    @Override
+    public ByteArrayFeeder getNonBlockingInputFeeder() {
+        return this;
+    }
+
+    @Override
+    public void feedInput(byte[] buf, int start, int end) throws IOException
+    {
+        if (_startFeed(start, end)) {
+            _appendInput(buf, start, end);
+        } else {
+            _feedDirect(buf, start, end);
+        }
+    }
+}
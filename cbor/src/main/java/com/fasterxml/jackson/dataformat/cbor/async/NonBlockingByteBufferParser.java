@@ -0,0 +1,52 @@
+package com.fasterxml.jackson.dataformat.cbor.async;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import com.fasterxml.jackson.core.ObjectReadContext;
+import com.fasterxml.jackson.core.io.IOContext;
+import com.fasterxml.jackson.core.sym.ByteQuadsCanonicalizer;
+
+/**
+ * Non-blocking CBOR parser that is fed input as {@link ByteBuffer}s.
+ * Content of heap buffers is decoded directly from their backing arrays
+ * (except for tokens split across buffers); content of direct (and
+ * read-only) buffers is copied.
+ *
+ * @since 3.0
+ */
+public class NonBlockingByteBufferParser
+    extends NonBlockingParserBase
+    implements ByteBufferFeeder
+{
+    public NonBlockingByteBufferParser(ObjectReadContext readCtxt, IOContext ioCtxt,
+            int parserFeatures, int cborFeatures,
+            ByteQuadsCanonicalizer sym)
+    {
+        super(readCtxt, ioCtxt, parserFeatures, cborFeatures, sym);
+    }
+
+    /*
+    /**********************************************************************
+    /* AsyncInputFeeder impl
+    /**********************************************************************
+     */
+
+    @Override
+    public ByteBufferFeeder getNonBlockingInputFeeder() {
+        return this;
+    }
+
+    @Override
+    public void feedInput(ByteBuffer buffer) throws IOException
+    {
+        final int len = buffer.remaining();
+        if (_startFeed(0, len) || !buffer.hasArray()) {
+            _appendInput(buffer);
+        } else {
+            final int start = buffer.arrayOffset() + buffer.position();
+            _feedDirect(buffer.array(), start, start + len);
+            buffer.position(buffer.limit());
+        }
+    }
+}
@@ -0,0 +1,492 @@
+package com.fasterxml.jackson.dataformat.cbor.async;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import com.fasterxml.jackson.core.*;
+import com.fasterxml.jackson.core.io.IOContext;
+import com.fasterxml.jackson.core.sym.ByteQuadsCanonicalizer;
+import com.fasterxml.jackson.core.sym.FieldNameMatcher;
+import com.fasterxml.jackson.dataformat.cbor.CBORConstants;
+import com.fasterxml.jackson.dataformat.cbor.CBORParser;
+import com.fasterxml.jackson.dataformat.cbor.CBORReadContext;
+
+/**
+ * Intermediate base class for non-blocking CBOR parsers.
+ *<p>
+ * Unlike Smile non-blocking parser, which has a separate state machine for
+ * decoding, CBOR non-blocking parser reuses decoding of the blocking
+ * {@link CBORParser}: before decoding each token it checks (by scanning
+ * through headers and lengths, without decoding contents) that all bytes
+ * of the token are available, and if not, returns
+ * {@link JsonToken#NOT_AVAILABLE}. Since each CBOR data item is prefixed
+ * with its length, this check is cheap for all tokens except for
+ * indefinite-length ("chunked") Strings and binary values.
+ * As a result, everything supported by blocking parser -- tags (including
+ * big number and decimal fraction tags), indefinite-length values and
+ * symbol table for field names -- works the same way.
+ *<p>
+ * Bytes of an incomplete token are copied into an internal buffer, which
+ * subsequent input is appended to until the token is complete; otherwise
+ * input is decoded directly from buffers caller feeds.
+ *
+ * @since 3.0
+ */
+public abstract class NonBlockingParserBase
+    extends CBORParser
+{
+    /*
+    /**********************************************************************
+    /* Additional parsing state
+    /**********************************************************************
+     */
+
+    /**
+     * Flag that is sent when calling application indicates that there will
+     * be no more input to parse.
+     */
+    protected boolean _endOfInput = false;
+
+    /**
+     * Token that was current when {@link JsonToken#NOT_AVAILABLE} was
+     * returned; needed to restore state when decoding continues, since
+     * decoding (of field names, specifically) depends on the preceding token.
+     */
+    protected JsonToken _tokenBeforeNotAvailable;
+
+    /*
+    /**********************************************************************
+    /* Other buffering
+    /**********************************************************************
+     */
+
+    /**
+     * Buffer for holding content if input is not contiguous: contains
+     * the incomplete token (if any), followed by input fed after it.
+     */
+    protected byte[] _inputCopy;
+
+    /*
+    /**********************************************************************
+    /* Life-cycle
+    /**********************************************************************
+     */
+
+    protected NonBlockingParserBase(ObjectReadContext readCtxt, IOContext ioCtxt,
+            int parserFeatures, int cborFeatures,
+            ByteQuadsCanonicalizer sym)
+    {
+        super(readCtxt, ioCtxt, parserFeatures, cborFeatures, sym,
+                null, ioCtxt.allocReadIOBuffer(), 0, 0, false);
+        _inputCopy = _inputBuffer;
+    }
+
+    @Override
+    public boolean canParseAsync() { return true; }
+
+    @Override
+    protected void _releaseBuffers() throws IOException
+    {
+        super._releaseBuffers();
+        byte[] b = _inputCopy;
+        if (b != null) {
+            _inputCopy = null;
+            _ioContext.releaseReadIOBuffer(b);
+        }
+    }
+
+    /*
+    /**********************************************************************
+    /* Feeding of input
+    /**********************************************************************
+     */
+
+    public final boolean needMoreInput() {
+        if (_endOfInput) {
+            return false;
+        }
+        return (_inputPtr >= _inputEnd) || (_currToken == JsonToken.NOT_AVAILABLE);
+    }
+
+    public void endOfInput() {
+        _endOfInput = true;
+    }
+
+    /**
+     * Helper method called to verify that input may be fed.
+     *
+     * @return True if there is an incomplete token, and new input needs
+     *   to be appended after it; false if new input may be decoded as is
+     */
+    protected boolean _startFeed(int start, int end) throws IOException
+    {
+        final int remaining = _inputEnd - _inputPtr;
+        if ((remaining > 0) && (_currToken != JsonToken.NOT_AVAILABLE)) {
+            _reportError("Still have %d undecoded bytes, should not call 'feedInput'", remaining);
+        }
+        if (end < start) {
+            _reportError("Input end (%d) may not be before start (%d)", end, start);
+        }
+        // and shouldn't have been marked as end-of-input
+        if (_endOfInput) {
+            _reportError("Already closed, can not feed more input");
+        }
+        return (remaining > 0);
+    }
+
+    /**
+     * Method called to decode given input directly from the buffer; only
+     * called if there is no incomplete token.
+     */
+    protected void _feedDirect(byte[] buf, int start, int end)
+    {
+        // Offsets in new buffer need to be relative to the end of previous one
+        _currInputProcessed += (_inputEnd - start);
+        _inputBuffer = buf;
+        _inputPtr = start;
+        _inputEnd = end;
+    }
+
+    protected void _appendInput(byte[] buf, int start, int end)
+    {
+        final int len = end - start;
+        System.arraycopy(buf, start, _prepareAppend(len), _inputEnd, len);
+        _inputEnd += len;
+    }
+
+    protected void _appendInput(ByteBuffer buf)
+    {
+        final int len = buf.remaining();
+        buf.get(_prepareAppend(len), _inputEnd, len);
+        _inputEnd += len;
+    }
+
+    /**
+     * Helper method that moves remaining content (if any) to the beginning
+     * of the copy buffer, making sure there is room for given number of bytes
+     * after it.
+     *
+     * @return Copy buffer to append content to, at {@link #_inputEnd}
+     */
+    private byte[] _prepareAppend(int len)
+    {
+        byte[] copy = _inputCopy;
+        final int remaining = _inputEnd - _inputPtr;
+        final int needed = remaining + len;
+        if (needed > copy.length) {
+            copy = new byte[Math.max(needed, copy.length + (copy.length >> 1))];
+            _inputCopy = copy;
+        }
+        if ((_inputBuffer != copy) || (_inputPtr > 0)) {
+            if (remaining > 0) {
+                System.arraycopy(_inputBuffer, _inputPtr, copy, 0, remaining);
+            }
+            _currInputProcessed += _inputPtr;
+            _inputBuffer = copy;
+            _inputPtr = 0;
+            _inputEnd = remaining;
+        }
+        return copy;
+    }
+
+    /*
+    /**********************************************************************
+    /* Public API, traversal
+    /**********************************************************************
+     */
+
+    @Override
+    public JsonToken nextToken() throws IOException
+    {
+        if (!_prepareToken()) {
+            return JsonToken.NOT_AVAILABLE;
+        }
+        return super.nextToken();
+    }
+
+    @Override
+    public String nextFieldName() throws IOException
+    {
+        if (!_prepareToken()) {
+            return null;
+        }
+        return super.nextFieldName();
+    }
+
+    @Override
+    public boolean nextFieldName(SerializableString str) throws IOException
+    {
+        if (!_prepareToken()) {
+            return false;
+        }
+        return super.nextFieldName(str);
+    }
+
+    @Override
+    public int nextFieldName(FieldNameMatcher matcher) throws IOException
+    {
+        if (!_prepareToken()) {
+            return FieldNameMatcher.MATCH_ODD_TOKEN;
+        }
+        return super.nextFieldName(matcher);
+    }
+
+    @Override
+    public String nextTextValue() throws IOException
+    {
+        if (!_prepareToken()) {
+            return null;
+        }
+        return super.nextTextValue();
+    }
+
+    /*
+    /**********************************************************************
+    /* Internal methods, token availability
+    /**********************************************************************
+     */
+
+    /**
+     * Method called before decoding the next token, to check whether all of
+     * it is available: if not, current token is set to
+     * {@link JsonToken#NOT_AVAILABLE}, and bytes of the incomplete token are
+     * retained in the copy buffer.
+     *
+     * @return True if the next token can be decoded (or if end-of-input
+     *   has been reached and should be handled as with blocking parser)
+     */
+    protected final boolean _prepareToken() throws IOException
+    {
+        if (_currToken == JsonToken.NOT_AVAILABLE) {
+            _currToken = _tokenBeforeNotAvailable;
+            _tokenBeforeNotAvailable = null;
+        }
+        // Contents of the current token not needed any more (and are available)
+        if (_tokenIncomplete) {
+            _skipIncomplete();
+        }
+        if (_closed || _endOfInput || !_needBytesForToken()) {
+            return true;
+        }
+        if (_findTokenEnd(_inputPtr) >= 0) {
+            return true;
+        }
+        // Need more input; but first retain what we have, unless already in copy buffer
+        // (as caller is allowed to reuse its buffer once it has been consumed)
+        if ((_inputPtr < _inputEnd) && (_inputBuffer != _inputCopy)) {
+            _prepareAppend(0);
+        }
+        _tokenBeforeNotAvailable = _currToken;
+        _currToken = JsonToken.NOT_AVAILABLE;
+        return false;
+    }
+
+    /**
+     * Helper method for checking whether next token is decoded from input,
+     * instead of only closing a fixed-size Array or Object.
+     */
+    private boolean _needBytesForToken()
+    {
+        final CBORReadContext ctxt = _parsingContext;
+        if (ctxt.inRoot()) {
+            return true;
+        }
+        if (ctxt.inObject() && (_currToken == JsonToken.FIELD_NAME)) {
+            return true;
+        }
+        return !ctxt.isExpectedLengthReached();
+    }
+
+    /**
+     * Helper method for finding end of the token that starts at given offset:
+     * that is, optional tag(s) followed by the data item header, and contents
+     * of Strings and binary values (but not of Arrays and Objects).
+     * Invalid content is considered complete, to let decoding report it.
+     *
+     * @return Offset right after end of the token, if all of it is
+     *   available; -1 if not
+     */
+    private int _findTokenEnd(int ptr)
+    {
+        final byte[] buf = _inputBuffer;
+        final int end = _inputEnd;
+        if (ptr >= end) {
+            return -1;
+        }
+        int ch = buf[ptr++] & 0xFF;
+        boolean decimal = false;
+        // Usually at most one tag, but "stringref" namespace tag may be combined with another
+        while ((ch >> 5) == CBORConstants.MAJOR_TYPE_TAG) {
+            final int lowBits = ch & 0x1F;
+            final int argLen = _argumentLength(lowBits);
+            if (argLen < 0) {
+                return ptr;
+            }
+            if ((ptr + argLen) >= end) {
+                return -1;
+            }
+            if (_argument(lowBits, ptr) == CBORConstants.TAG_DECIMAL_FRACTION) {
+                decimal = true;
+            }
+            ptr += argLen;
+            ch = buf[ptr++] & 0xFF;
+        }
+        // Decimal fraction is decoded as a single token, from 2-element Array
+        if (decimal && ((ch >> 5) == CBORConstants.MAJOR_TYPE_ARRAY)) {
+            return _findItemHeaderEnd(ch, ptr, true);
+        }
+        return _findItemHeaderEnd(ch, ptr, false);
+    }
+
+    /**
+     * @param fully Whether contents of Arrays and Objects (and tagged values
+     *   they contain) need to be available as well
+     */
+    private int _findItemHeaderEnd(int ch, int ptr, boolean fully)
+    {
+        final int end = _inputEnd;
+        final int type = ch >> 5;
+        final int lowBits = ch & 0x1F;
+        if (lowBits == CBORConstants.SUFFIX_INDEFINITE) {
+            switch (type) {
+            case CBORConstants.MAJOR_TYPE_BYTES:
+            case CBORConstants.MAJOR_TYPE_TEXT:
+                return _findChunkedEnd(ptr);
+            case CBORConstants.MAJOR_TYPE_ARRAY:
+            case CBORConstants.MAJOR_TYPE_OBJECT:
+                return fully ? _findIndefiniteEnd(ptr) : ptr;
+            }
+            // break marker, or invalid content
+            return ptr;
+        }
+        final int argLen = _argumentLength(lowBits);
+        if (argLen < 0) {
+            return ptr;
+        }
+        if ((ptr + argLen) > end) {
+            return -1;
+        }
+        switch (type) {
+        case CBORConstants.MAJOR_TYPE_BYTES:
+        case CBORConstants.MAJOR_TYPE_TEXT:
+            {
+                long len = _argument(lowBits, ptr);
+                ptr += argLen;
+                return (len > (end - ptr)) ? -1 : (ptr + (int) len);
+            }
+        case CBORConstants.MAJOR_TYPE_ARRAY:
+        case CBORConstants.MAJOR_TYPE_OBJECT:
+            if (fully) {
+                long count = _argument(lowBits, ptr);
+                if (type == CBORConstants.MAJOR_TYPE_OBJECT) {
+                    count += count;
+                }
+                ptr += argLen;
+                // each item takes at least one byte, so can check quickly
+                if (count > (end - ptr)) {
+                    return -1;
+                }
+                for (int i = 0; (i < count) && (ptr >= 0); ++i) {
+                    ptr = _findItemEnd(ptr);
+                }
+                return ptr;
+            }
+            break;
+        case CBORConstants.MAJOR_TYPE_TAG:
+            if (fully) {
+                return _findItemEnd(ptr + argLen);
+            }
+            break;
+        }
+        return ptr + argLen;
+    }
+
+    private int _findItemEnd(int ptr)
+    {
+        if (ptr >= _inputEnd) {
+            return -1;
+        }
+        final int ch = _inputBuffer[ptr++] & 0xFF;
+        return _findItemHeaderEnd(ch, ptr, true);
+    }
+
+    private int _findIndefiniteEnd(int ptr)
+    {
+        while (ptr < _inputEnd) {
+            if ((_inputBuffer[ptr] & 0xFF) == CBORConstants.INT_BREAK) {
+                return ptr + 1;
+            }
+            ptr = _findItemEnd(ptr);
+            if (ptr < 0) {
+                break;
+            }
+        }
+        return -1;
+    }
+
+    private int _findChunkedEnd(int ptr)
+    {
+        final byte[] buf = _inputBuffer;
+        final int end = _inputEnd;
+        while (ptr < end) {
+            final int ch = buf[ptr++] & 0xFF;
+            if (ch == CBORConstants.INT_BREAK) {
+                return ptr;
+            }
+            final int lowBits = ch & 0x1F;
+            final int argLen = _argumentLength(lowBits);
+            if (argLen < 0) { // invalid, will be reported when decoding
+                return ptr;
+            }
+            if ((ptr + argLen) > end) {
+                break;
+            }
+            long len = _argument(lowBits, ptr);
+            ptr += argLen;
+            if (len > (end - ptr)) {
+                break;
+            }
+            ptr += (int) len;
+        }
+        return -1;
+    }
+
+    /**
+     * @return Number of bytes that follow initial byte, for argument
+     *   (length, value) of the item; -1 for invalid (or indefinite) length
+     */
+    private final static int _argumentLength(int lowBits)
+    {
+        if (lowBits <= 23) {
+            return 0;
+        }
+        switch (lowBits) {
+        case CBORConstants.SUFFIX_UINT8_ELEMENTS:
+            return 1;
+        case CBORConstants.SUFFIX_UINT16_ELEMENTS:
+            return 2;
+        case CBORConstants.SUFFIX_UINT32_ELEMENTS:
+            return 4;
+        case CBORConstants.SUFFIX_UINT64_ELEMENTS:
+            return 8;
+        }
+        return -1;
+    }
+
+    /**
+     * @return Value of (non-negative) argument; values that do not fit
+     *   in signed 64-bit long are returned as {@link Long#MAX_VALUE}
+     */
+    private final long _argument(int lowBits, int ptr)
+    {
+        if (lowBits <= 23) {
+            return lowBits;
+        }
+        final byte[] buf = _inputBuffer;
+        long l = 0L;
+        for (int i = 0, len = _argumentLength(lowBits); i < len; ++i) {
+            l = (l << 8) | (buf[ptr+i] & 0xFF);
+        }
+        return (l < 0L) ? Long.MAX_VALUE : l;
+    }
+}
@@ -0,0 +1,179 @@
+package com.fasterxml.jackson.dataformat.cbor.databind;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.Version;
+
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsonFormatVisitors.JsonFormatVisitorWrapper;
+import com.fasterxml.jackson.databind.module.SimpleDeserializers;
+import com.fasterxml.jackson.databind.module.SimpleSerializers;
+import com.fasterxml.jackson.databind.ser.std.StdArraySerializers;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.cbor.PackageVersion;
+
+/**
+ * Module that adds support for handling of CBOR-specific encodings of
+ * standard Java types:
+ *<ul>
+ * <li>Reading of "typed arrays" (RFC 8746) as <code>int[]</code>,
+ *   <code>long[]</code>, <code>float[]</code> and <code>double[]</code>
+ *  </li>
+ * <li>Writing of <code>float[]</code> using
+ *   {@link CBORGenerator#writeArray(float[], int, int)}, so that
+ *   {@link CBORGenerator.Feature#WRITE_TYPED_ARRAYS} applies to it as well
+ *   as to other primitive arrays
+ *  </li>
+ *</ul>
+ *
+ * @since 3.0
+ */
+public class CBORModule extends Module
+    implements java.io.Serializable
+{
+    private static final long serialVersionUID = 3L;
+
+    public CBORModule() { }
+
+    @Override
+    public String getModuleName() {
+        return getClass().getName();
+    }
+
+    @Override
+    public Version version() { return PackageVersion.VERSION; }
+
+    /*
+    /**********************************************************
+    /* Set up methods
+    /**********************************************************
+     */
+
+    @Override
+    public void setupModule(SetupContext context) {
+        _addDeserializers(context);
+        _addSerializers(context);
+    }
+
+    protected void _addDeserializers(SetupContext context) {
+        // Bulk decoding of typed arrays, for primitive arrays
+        SimpleDeserializers desers = new SimpleDeserializers();
+        for (Class<?> arrayType : new Class<?>[] {
+                int[].class, long[].class, float[].class, double[].class }) {
+            _addDeserializer(desers, arrayType, new CBORPrimitiveArrayDeserializer(arrayType));
+        }
+        context.addDeserializers(desers);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void _addDeserializer(SimpleDeserializers desers, Class<T> type,
+            JsonDeserializer<?> deser) {
+        desers.addDeserializer(type, (JsonDeserializer<? extends T>) deser);
+    }
+
+    protected void _addSerializers(SetupContext context) {
+        SimpleSerializers sers = new SimpleSerializers();
+        sers.addSerializer(float[].class, new FloatArraySerializer());
+        context.addSerializers(sers);
+    }
+
+    /*
+    /**********************************************************
+    /* Helper classes (as long as number is small)
+    /**********************************************************
+     */
+
+    /**
+     * Serializer for <code>float[]</code>: needed since standard databind
+     * serializer writes elements one by one, as there is no
+     * <code>JsonGenerator.writeArray()</code> variant for <code>float[]</code>.
+     * Only differs from the standard serializer when writing typed arrays
+     * (that is, with {@link CBORGenerator.Feature#WRITE_TYPED_ARRAYS} enabled);
+     * otherwise output is the same, including unwrapping of single-element
+     * arrays and handling of type information.
+     */
+    public static class FloatArraySerializer
+        extends StdArraySerializers.TypedPrimitiveArraySerializer<float[]>
+    {
+        private static final long serialVersionUID = 1L;
+
+        // Standard serializer used for schema/format introspection
+        private final static StdArraySerializers.FloatArraySerializer STD
+            = new StdArraySerializers.FloatArraySerializer();
+
+        public FloatArraySerializer() {
+            super(float[].class);
+        }
+
+        protected FloatArraySerializer(FloatArraySerializer src,
+                BeanProperty prop, Boolean unwrapSingle) {
+            super(src, prop, unwrapSingle);
+        }
+
+        @Override
+        public JsonSerializer<?> _withResolved(BeanProperty prop, Boolean unwrapSingle) {
+            return new FloatArraySerializer(this, prop, unwrapSingle);
+        }
+
+        @Override
+        public JavaType getContentType() {
+            return STD.getContentType();
+        }
+
+        @Override
+        public JsonSerializer<?> getContentSerializer() {
+            return null;
+        }
+
+        @Override
+        public boolean isEmpty(SerializerProvider prov, float[] value) {
+            return value.length == 0;
+        }
+
+        @Override
+        public boolean hasSingleElement(float[] value) {
+            return (value.length == 1);
+        }
+
+        @Override
+        public void serialize(float[] value, JsonGenerator gen, SerializerProvider provider)
+            throws IOException
+        {
+            final int len = value.length;
+            if ((len == 1) && _shouldUnwrapSingle(provider)) {
+                serializeContents(value, gen, provider);
+                return;
+            }
+            if ((gen instanceof CBORGenerator)
+                    && ((CBORGenerator) gen).isEnabled(CBORGenerator.Feature.WRITE_TYPED_ARRAYS)) {
+                ((CBORGenerator) gen).writeArray(value, 0, len);
+                return;
+            }
+            gen.writeStartArray(value, len);
+            serializeContents(value, gen, provider);
+            gen.writeEndArray();
+        }
+
+        @Override
+        public void serializeContents(float[] value, JsonGenerator gen, SerializerProvider provider)
+            throws IOException
+        {
+            for (float f : value) {
+                gen.writeNumber(f);
+            }
+        }
+
+        @Override
+        public void acceptJsonFormatVisitor(JsonFormatVisitorWrapper visitor, JavaType typeHint)
+        {
+            STD.acceptJsonFormatVisitor(visitor, typeHint);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.fasterxml.jackson.dataformat.cbor.databind;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.deser.std.DelegatingDeserializer;
+import com.fasterxml.jackson.databind.deser.std.PrimitiveArrayDeserializers;
+import com.fasterxml.jackson.dataformat.cbor.CBORParser;
+
+/**
+ * Deserializer for <code>int[]</code>, <code>long[]</code>, <code>float[]</code>
+ * and <code>double[]</code> that accepts "typed arrays" (RFC 8746), exposed by
+ * {@link CBORParser} as {@link JsonToken#VALUE_EMBEDDED_OBJECT}s and decoded
+ * with {@link CBORParser#getTypedArrayValue}, in addition to regular CBOR Arrays
+ * (which are left to the standard deserializer).
+ *<p>
+ * Element type of a typed array need not match that of the Java array:
+ * narrower types are widened, as long as no precision is lost (for example,
+ * <code>uint16</code> elements into <code>int[]</code>, or <code>float32</code>
+ * into <code>double[]</code>); other combinations are reported as unexpected
+ * tokens. When merging into an existing array (with <code>@JsonMerge</code> or
+ * <code>ObjectMapper.readerForUpdating()</code>), decoded elements are appended
+ * to it.
+ *
+ * @since 3.0
+ */
+public class CBORPrimitiveArrayDeserializer
+    extends DelegatingDeserializer
+{
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * @param arrayType One of <code>int[].class</code>, <code>long[].class</code>,
+     *   <code>float[].class</code> or <code>double[].class</code>
+     */
+    public CBORPrimitiveArrayDeserializer(Class<?> arrayType) {
+        super(PrimitiveArrayDeserializers.forType(arrayType.getComponentType()));
+    }
+
+    protected CBORPrimitiveArrayDeserializer(JsonDeserializer<?> std) {
+        super(std);
+    }
+
+    @Override
+    protected JsonDeserializer<?> newDelegatingInstance(JsonDeserializer<?> newDelegatee) {
+        return new CBORPrimitiveArrayDeserializer(newDelegatee);
+    }
+
+    @Override
+    public Object deserialize(JsonParser p, DeserializationContext ctxt) throws IOException
+    {
+        Object array = _typedArrayValue(p);
+        if (array == null) {
+            return _delegatee.deserialize(p, ctxt);
+        }
+        Object result = _convert(array);
+        if (result == null) {
+            return ctxt.handleUnexpectedToken(handledType(), p);
+        }
+        return result;
+    }
+
+    /**
+     * Overridden to append contents of typed array to the existing array,
+     * same as the standard deserializer does with contents of regular Arrays.
+     */
+    @Override
+    public Object deserialize(JsonParser p, DeserializationContext ctxt, Object intoValue)
+        throws IOException
+    {
+        Object array = _typedArrayValue(p);
+        if (array == null) {
+            return super.deserialize(p, ctxt, intoValue);
+        }
+        Object result = _convert(array);
+        if (result == null) {
+            return ctxt.handleUnexpectedToken(handledType(), p);
+        }
+        return _concat(intoValue, result);
+    }
+
+    /**
+     * Helper method for accessing decoded typed array, if parser points to one.
+     *
+     * @return Decoded typed array, if current token is one; null otherwise
+     */
+    protected Object _typedArrayValue(JsonParser p) throws IOException
+    {
+        if ((p instanceof CBORParser) && (p.currentToken() == JsonToken.VALUE_EMBEDDED_OBJECT)) {
+            return ((CBORParser) p).getTypedArrayValue();
+        }
+        return null;
+    }
+
+    /**
+     * Helper method for converting decoded typed array into type this
+     * deserializer handles, if this is possible without losing precision.
+     *
+     * @return Converted array, if conversion possible; null if not
+     */
+    protected Object _convert(Object src)
+    {
+        final Class<?> type = handledType();
+        if (src.getClass() == type) {
+            return src;
+        }
+        final boolean narrowInt = (src instanceof byte[]) || (src instanceof short[]);
+        boolean widen;
+        if (type == int[].class || type == float[].class) {
+            widen = narrowInt;
+        } else if (type == long[].class) {
+            widen = narrowInt || (src instanceof int[]);
+        } else { // double[]
+            widen = narrowInt || (src instanceof int[]) || (src instanceof float[]);
+        }
+        if (!widen) {
+            return null;
+        }
+        // not the fastest way, but only needed if types differ
+        final int len = Array.getLength(src);
+        Object result = Array.newInstance(type.getComponentType(), len);
+        for (int i = 0; i < len; ++i) {
+            Array.set(result, i, Array.get(src, i));
+        }
+        return result;
+    }
+
+    protected Object _concat(Object oldValue, Object newValue)
+    {
+        final int len1 = Array.getLength(oldValue);
+        if (len1 == 0) {
+            return newValue;
+        }
+        final int len2 = Array.getLength(newValue);
+        if (len2 == 0) {
+            return oldValue;
+        }
+        Object result = Array.newInstance(handledType().getComponentType(), len1 + len2);
+        System.arraycopy(oldValue, 0, result, 0, len1);
+        System.arraycopy(newValue, 0, result, len1, len2);
+        return result;
+    }
+}
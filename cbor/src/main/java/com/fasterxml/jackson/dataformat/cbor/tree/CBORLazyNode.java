@@ -0,0 +1,776 @@
+package com.fasterxml.jackson.dataformat.cbor.tree;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.fasterxml.jackson.core.*;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORConstants;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORParser;
+
+/**
+ * Read-only tree representation of a CBOR data item contained in a byte array,
+ * decoded lazily: construction only decodes the initial header of the item,
+ * and Arrays and Objects only locate their entries (by skipping over encoded
+ * items using length information, without decoding them) when first accessed.
+ * Scalar values are decoded when accessed, and not cached.
+ * This makes it much cheaper than building a full {@link JsonNode} tree when
+ * only a small part of the content is needed, for example when extracting
+ * a few properties with {@link #at(JsonPointer)}.
+ *<p>
+ * Conversion into standard tree model is possible with {@link #toJsonNode},
+ * and into any other type by reading from {@link #traverse}.
+ *<p>
+ * Limitations: "stringref" references (tag 25) are not supported (since
+ * resolving them would require decoding all preceding content), and
+ * instances are not thread-safe.
+ *
+ * @since 3.0
+ */
+public class CBORLazyNode
+{
+    private final static CBORFactory DEFAULT_FACTORY = new CBORFactory();
+
+    private final static int[] NO_OFFSETS = new int[0];
+
+    /*
+    /**********************************************************
+    /* Location of the data item
+    /**********************************************************
+     */
+
+    protected final byte[] _data;
+
+    /**
+     * Offset of the first byte of the data item (including its tags, if any)
+     */
+    protected final int _start;
+
+    /**
+     * Offset after the last byte of the data item, if known; -1 if not yet
+     * determined.
+     */
+    protected int _end;
+
+    /**
+     * Offset after the last byte of the buffer content the data item is
+     * contained in.
+     */
+    protected final int _limit;
+
+    /*
+    /**********************************************************
+    /* Decoded header
+    /**********************************************************
+     */
+
+    /**
+     * Innermost tag of the data item, if any; -1 if none.
+     */
+    protected final int _tag;
+
+    /**
+     * Initial byte of the data item (after tags), containing major type
+     */
+    protected final int _typeByte;
+
+    /**
+     * Value of the argument of the initial byte: length for Strings, byte
+     * strings, Arrays and Objects, or -1 for indefinite length; value for integers.
+     */
+    protected final long _argument;
+
+    /**
+     * Offset of the first byte of content following initial byte and its argument
+     */
+    protected final int _contentStart;
+
+    /**
+     * For Arrays and Objects, offsets of entries (for Objects, names and values
+     * alternating), once located; followed by offset after the last entry.
+     */
+    protected int[] _entryOffsets;
+
+    /*
+    /**********************************************************
+    /* Life-cycle
+    /**********************************************************
+     */
+
+    protected CBORLazyNode(byte[] data, int start, int end, int limit) throws IOException
+    {
+        _data = data;
+        _start = start;
+        _end = end;
+        _limit = limit;
+
+        int ptr = start;
+        int tag = -1;
+        int ch = _byteAt(ptr++);
+        while ((ch >> 5) == CBORConstants.MAJOR_TYPE_TAG) {
+            final int argLen = _argumentLength(ch, ptr);
+            long value = _readArgument(ch, ptr, argLen);
+            if (value == CBORConstants.TAG_STRINGREF) {
+                throw _constructError("\"stringref\" references (tag 25) not supported", ptr-1);
+            }
+            tag = (value > Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int) value;
+            ptr += argLen;
+            ch = _byteAt(ptr++);
+        }
+        _tag = tag;
+        _typeByte = ch;
+
+        final int type = ch >> 5;
+        final int lowBits = ch & 0x1F;
+        if (lowBits == 31) {
+            if ((type < CBORConstants.MAJOR_TYPE_BYTES) || (type > CBORConstants.MAJOR_TYPE_OBJECT)) {
+                throw _constructError("Unexpected indefinite-length marker (0x"
+                        +Integer.toHexString(ch)+")", ptr-1);
+            }
+            _argument = -1L;
+        } else {
+            if (type == CBORConstants.MAJOR_TYPE_MISC) {
+                // same as with parser, only booleans, nulls and floating-point numbers allowed
+                if ((lowBits < 20) || (lowBits == 24) || (lowBits > 27)) {
+                    throw _constructError("Invalid CBOR value token (first byte): 0x"
+                            +Integer.toHexString(ch), ptr-1);
+                }
+            }
+            final int argLen = _argumentLength(ch, ptr);
+            if ((type >= CBORConstants.MAJOR_TYPE_BYTES) && (type <= CBORConstants.MAJOR_TYPE_OBJECT)) {
+                _argument = _readLength(ch, ptr, argLen);
+            } else {
+                _argument = _readArgument(ch, ptr, argLen);
+            }
+            ptr += argLen;
+        }
+        _contentStart = ptr;
+    }
+
+    /**
+     * Factory method for constructing a node for the data item that starts
+     * at the beginning of given content.
+     */
+    public static CBORLazyNode construct(byte[] data) throws IOException {
+        return construct(data, 0, data.length);
+    }
+
+    /**
+     * Factory method for constructing a node for the data item that starts at
+     * given offset: content after the item (within given length) is ignored.
+     */
+    public static CBORLazyNode construct(byte[] data, int offset, int len) throws IOException {
+        return new CBORLazyNode(data, offset, -1, offset+len);
+    }
+
+    /*
+    /**********************************************************
+    /* Type information
+    /**********************************************************
+     */
+
+    /**
+     * Method for accessing the token that {@link CBORParser} would return
+     * as the first token for this data item.
+     */
+    public JsonToken asToken()
+    {
+        switch (_typeByte >> 5) {
+        case CBORConstants.MAJOR_TYPE_INT_POS:
+        case CBORConstants.MAJOR_TYPE_INT_NEG:
+            return JsonToken.VALUE_NUMBER_INT;
+        case CBORConstants.MAJOR_TYPE_BYTES:
+            if ((_tag == CBORConstants.TAG_BIGNUM_POS) || (_tag == CBORConstants.TAG_BIGNUM_NEG)) {
+                return JsonToken.VALUE_NUMBER_INT;
+            }
+            return JsonToken.VALUE_EMBEDDED_OBJECT;
+        case CBORConstants.MAJOR_TYPE_TEXT:
+            return JsonToken.VALUE_STRING;
+        case CBORConstants.MAJOR_TYPE_ARRAY:
+            if (_tag == CBORConstants.TAG_DECIMAL_FRACTION) {
+                return JsonToken.VALUE_NUMBER_FLOAT;
+            }
+            return JsonToken.START_ARRAY;
+        case CBORConstants.MAJOR_TYPE_OBJECT:
+            return JsonToken.START_OBJECT;
+        }
+        switch (_typeByte & 0x1F) {
+        case 20:
+            return JsonToken.VALUE_FALSE;
+        case 21:
+            return JsonToken.VALUE_TRUE;
+        case 22:
+        case 23: // "undefined" exposed as null, as with parser
+            return JsonToken.VALUE_NULL;
+        }
+        return JsonToken.VALUE_NUMBER_FLOAT;
+    }
+
+    public boolean isArray() { return asToken() == JsonToken.START_ARRAY; }
+
+    public boolean isObject() { return asToken() == JsonToken.START_OBJECT; }
+
+    public boolean isContainerNode() {
+        JsonToken t = asToken();
+        return (t == JsonToken.START_ARRAY) || (t == JsonToken.START_OBJECT);
+    }
+
+    public boolean isValueNode() { return !isContainerNode(); }
+
+    public boolean isTextual() { return asToken() == JsonToken.VALUE_STRING; }
+
+    public boolean isNumber() { return asToken().isNumeric(); }
+
+    public boolean isBoolean() { return asToken().isBoolean(); }
+
+    public boolean isNull() { return asToken() == JsonToken.VALUE_NULL; }
+
+    /**
+     * Accessor for the tag associated with this data item, if any (innermost
+     * one, if there are multiple); -1 if none.
+     */
+    public int getTag() { return _tag; }
+
+    /*
+    /**********************************************************
+    /* Container access
+    /**********************************************************
+     */
+
+    /**
+     * Method for finding number of entries of an Array or Object; 0 for
+     * other nodes.
+     */
+    public int size() throws IOException
+    {
+        if (!isContainerNode()) {
+            return 0;
+        }
+        if (_argument >= 0L) { // known from header
+            return (int) _argument;
+        }
+        int count = _entryOffsets().length - 1;
+        return isObject() ? (count >> 1) : count;
+    }
+
+    /**
+     * Method for accessing element of an Array with given index.
+     *
+     * @return Element node, if this is an Array and has element with given index;
+     *    null otherwise
+     */
+    public CBORLazyNode get(int index) throws IOException
+    {
+        if (!isArray() || (index < 0)) {
+            return null;
+        }
+        final int[] offsets = _entryOffsets;
+        if (offsets != null) {
+            if (index >= (offsets.length - 1)) {
+                return null;
+            }
+            return new CBORLazyNode(_data, offsets[index], offsets[index+1], _limit);
+        }
+        // Entries not yet located: only skip entries up to the one requested
+        final boolean indefinite = (_argument < 0L);
+        if (!indefinite && (index >= _argument)) {
+            return null;
+        }
+        int ptr = _contentStart;
+        for (int i = 0; ; ++i) {
+            if (indefinite && (_byteAt(ptr) == CBORConstants.INT_BREAK)) {
+                return null;
+            }
+            if (i == index) {
+                return new CBORLazyNode(_data, ptr, -1, _limit);
+            }
+            ptr = _skipItem(ptr);
+        }
+    }
+
+    /**
+     * Method for accessing value of Object property with given name. If
+     * entries of this Object have not yet been located, entries are only
+     * skipped until the property is found.
+     *
+     * @return Property value node, if this is an Object and has property with
+     *    given name; null otherwise
+     */
+    public CBORLazyNode get(String name) throws IOException
+    {
+        if (!isObject()) {
+            return null;
+        }
+        final byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        if (_entryOffsets != null) {
+            final int[] offsets = _entryOffsets;
+            for (int i = 0, end = offsets.length - 1; i < end; i += 2) {
+                if (_nameMatches(offsets[i], name, nameBytes)) {
+                    return new CBORLazyNode(_data, offsets[i+1], offsets[i+2], _limit);
+                }
+            }
+            return null;
+        }
+        long left = _argument;
+        int ptr = _contentStart;
+        while (true) {
+            if (left < 0L) { // indefinite
+                if (_byteAt(ptr) == CBORConstants.INT_BREAK) {
+                    break;
+                }
+            } else if (--left < 0L) {
+                break;
+            }
+            final boolean match = _nameMatches(ptr, name, nameBytes);
+            ptr = _skipItem(ptr);
+            final int valueEnd = _skipItem(ptr);
+            if (match) {
+                return new CBORLazyNode(_data, ptr, valueEnd, _limit);
+            }
+            ptr = valueEnd;
+        }
+        return null;
+    }
+
+    /**
+     * Method for names of all properties of an Object, in document order;
+     * empty List for other nodes.
+     */
+    public List<String> fieldNames() throws IOException
+    {
+        if (!isObject()) {
+            return new ArrayList<String>();
+        }
+        final int[] offsets = _entryOffsets();
+        List<String> names = new ArrayList<String>(offsets.length >> 1);
+        for (int i = 0, end = offsets.length - 1; i < end; i += 2) {
+            names.add(_decodeName(offsets[i], offsets[i+1]));
+        }
+        return names;
+    }
+
+    /**
+     * Method for locating node that given JSON Pointer expression points to,
+     * starting from this node. Entries of Arrays and Objects along the path
+     * are skipped over, without decoding, until the match is found.
+     *
+     * @return Node matching the expression, if any; null if none
+     */
+    public CBORLazyNode at(JsonPointer ptr) throws IOException
+    {
+        CBORLazyNode n = this;
+        while ((n != null) && !ptr.matches()) {
+            if (n.isObject()) {
+                n = n.get(ptr.getMatchingProperty());
+            } else {
+                n = n.get(ptr.getMatchingIndex());
+            }
+            ptr = ptr.tail();
+        }
+        return n;
+    }
+
+    /**
+     * Convenience method equivalent to:
+     *<pre>
+     *   at(JsonPointer.compile(ptrExpr));
+     *</pre>
+     */
+    public CBORLazyNode at(String ptrExpr) throws IOException {
+        return at(JsonPointer.compile(ptrExpr));
+    }
+
+    /*
+    /**********************************************************
+    /* Value access
+    /**********************************************************
+     */
+
+    /**
+     * Method for accessing value of a String node; null for other nodes.
+     */
+    public String textValue() throws IOException
+    {
+        if (!isTextual()) {
+            return null;
+        }
+        if (_argument < 0L) { // chunked, let parser handle
+            try (CBORParser p = _parser()) {
+                return p.getText();
+            }
+        }
+        final int len = (int) _argument;
+        _checkAvailable(_contentStart, len);
+        return new String(_data, _contentStart, len, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Method for accessing value of a binary (byte string) node; null for other nodes.
+     */
+    public byte[] binaryValue() throws IOException
+    {
+        if (asToken() != JsonToken.VALUE_EMBEDDED_OBJECT) {
+            return null;
+        }
+        if (_argument < 0L) { // chunked, let parser handle
+            try (CBORParser p = _parser()) {
+                return p.getBinaryValue();
+            }
+        }
+        final int len = (int) _argument;
+        _checkAvailable(_contentStart, len);
+        return Arrays.copyOfRange(_data, _contentStart, _contentStart + len);
+    }
+
+    /**
+     * Method for accessing value of a boolean node; false for other nodes.
+     */
+    public boolean booleanValue() {
+        return asToken() == JsonToken.VALUE_TRUE;
+    }
+
+    /**
+     * Method for accessing value of a numeric node, using type that
+     * {@link CBORParser#getNumberValue()} would use; null for other nodes.
+     */
+    public Number numberValue() throws IOException
+    {
+        final JsonToken t = asToken();
+        if (!t.isNumeric()) {
+            return null;
+        }
+        if (_tag < 0) { // fast path for common types
+            switch (_typeByte) {
+            case (CBORConstants.PREFIX_TYPE_MISC + 26):
+                return Float.intBitsToFloat((int) _argument);
+            case (CBORConstants.PREFIX_TYPE_MISC + 27):
+                return Double.longBitsToDouble(_argument);
+            }
+            final int type = _typeByte >> 5;
+            // can use 'int' or 'long' unless unsigned 64-bit value too big
+            if ((type <= CBORConstants.MAJOR_TYPE_INT_NEG) && (_argument >= 0L)) {
+                final long l = (type == CBORConstants.MAJOR_TYPE_INT_POS) ? _argument : (-_argument - 1L);
+                if ((int) l == l) {
+                    return Integer.valueOf((int) l);
+                }
+                return Long.valueOf(l);
+            }
+        }
+        try (CBORParser p = _parser()) {
+            return p.getNumberValue();
+        }
+    }
+
+    public int intValue() throws IOException {
+        Number n = numberValue();
+        return (n == null) ? 0 : n.intValue();
+    }
+
+    public long longValue() throws IOException {
+        Number n = numberValue();
+        return (n == null) ? 0L : n.longValue();
+    }
+
+    public double doubleValue() throws IOException {
+        Number n = numberValue();
+        return (n == null) ? 0.0 : n.doubleValue();
+    }
+
+    /*
+    /**********************************************************
+    /* Conversions
+    /**********************************************************
+     */
+
+    /**
+     * Method for constructing a parser for reading the data item this node
+     * represents (and nothing else).
+     */
+    public CBORParser traverse(ObjectReadContext readCtxt, CBORFactory f) throws IOException {
+        return (CBORParser) f.createParser(readCtxt, _data, _start, _end() - _start);
+    }
+
+    /**
+     * Method for fully decoding data item this node represents into a standard
+     * {@link JsonNode} tree, using given mapper.
+     */
+    public JsonNode toJsonNode(ObjectMapper mapper) throws IOException {
+        return mapper.readValue(_data, _start, _end() - _start, JsonNode.class);
+    }
+
+    /**
+     * Accessor for offset of the first byte of this data item (including
+     * tags, if any) within the underlying content.
+     */
+    public int getStartOffset() {
+        return _start;
+    }
+
+    /**
+     * Accessor for offset after the last byte of this data item within
+     * the underlying content; determined (by skipping over contents) if
+     * not yet known.
+     */
+    public int getEndOffset() throws IOException {
+        return _end();
+    }
+
+    /**
+     * Method for getting a copy of the encoded data item this node represents.
+     */
+    public byte[] toByteArray() throws IOException {
+        return Arrays.copyOfRange(_data, _start, _end());
+    }
+
+    @Override
+    public String toString() {
+        return "[CBORLazyNode "+asToken()+" at "+_start+"]";
+    }
+
+    /*
+    /**********************************************************
+    /* Internal methods, entries
+    /**********************************************************
+     */
+
+    protected final int _end() throws IOException {
+        if (_end < 0) {
+            _end = _skipItem(_start);
+        }
+        return _end;
+    }
+
+    protected int[] _entryOffsets() throws IOException
+    {
+        int[] offsets = _entryOffsets;
+        if (offsets == null) {
+            final boolean isObject = isObject();
+            long left = _argument;
+            if (isObject && (left > 0L)) {
+                left += left;
+            }
+            // every entry takes at least one byte: verify before allocating
+            if (left > (_limit - _contentStart)) {
+                throw _constructError("Unexpected end-of-input: need at least "+left
+                        +" bytes for entries", _contentStart);
+            }
+            offsets = (left >= 0L) ? new int[(int) left + 1] : NO_OFFSETS;
+            int count = 0;
+            int ptr = _contentStart;
+            while (true) {
+                if (left < 0L) { // indefinite
+                    if (_byteAt(ptr) == CBORConstants.INT_BREAK) {
+                        if (isObject && ((count & 1) != 0)) {
+                            throw _constructError("Unexpected end-of-Object marker after property name", ptr);
+                        }
+                        offsets = Arrays.copyOf(offsets, count+1);
+                        offsets[count] = ptr;
+                        _end = ptr+1;
+                        break;
+                    }
+                    if ((count + 1) >= offsets.length) {
+                        offsets = Arrays.copyOf(offsets, Math.max(16, count + (count >> 1)));
+                    }
+                } else if (count == (offsets.length - 1)) {
+                    offsets[count] = ptr;
+                    _end = ptr;
+                    break;
+                }
+                offsets[count++] = ptr;
+                ptr = _skipItem(ptr);
+            }
+            _entryOffsets = offsets;
+        }
+        return offsets;
+    }
+
+    protected boolean _nameMatches(int ptr, String name, byte[] nameBytes) throws IOException
+    {
+        final int ch = _byteAt(ptr);
+        // Fast path: non-chunked Strings compared as bytes
+        if ((ch >> 5) == CBORConstants.MAJOR_TYPE_TEXT) {
+            final int lowBits = ch & 0x1F;
+            if (lowBits != 31) {
+                final int argLen = _argumentLength(ch, ptr+1);
+                final long len = _readArgument(ch, ptr+1, argLen);
+                if (len != nameBytes.length) {
+                    return false;
+                }
+                final int start = ptr + 1 + argLen;
+                _checkAvailable(start, nameBytes.length);
+                for (int i = 0; i < nameBytes.length; ++i) {
+                    if (_data[start+i] != nameBytes[i]) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return name.equals(_decodeName(ptr, -1));
+    }
+
+    protected String _decodeName(int ptr, int end) throws IOException
+    {
+        CBORLazyNode n = new CBORLazyNode(_data, ptr, end, _limit);
+        switch (n._typeByte >> 5) {
+        case CBORConstants.MAJOR_TYPE_TEXT:
+            return n.textValue();
+        case CBORConstants.MAJOR_TYPE_INT_POS:
+        case CBORConstants.MAJOR_TYPE_INT_NEG:
+            // same as parser, which exposes integer keys as Strings
+            return String.valueOf(n.numberValue());
+        }
+        throw _constructError("Unsupported major type ("+(n._typeByte >> 5)
+                +") for CBOR Object property name", ptr);
+    }
+
+    /*
+    /**********************************************************
+    /* Internal methods, skipping
+    /**********************************************************
+     */
+
+    /**
+     * Helper method for skipping complete data item (including tags, and for
+     * Arrays and Objects, all contained items), using length information
+     * but without decoding content.
+     *
+     * @return Offset after the data item
+     */
+    protected int _skipItem(int ptr) throws IOException
+    {
+        int ch = _byteAt(ptr++);
+        while ((ch >> 5) == CBORConstants.MAJOR_TYPE_TAG) {
+            ptr += _argumentLength(ch, ptr);
+            ch = _byteAt(ptr++);
+        }
+        final int type = ch >> 5;
+        if ((ch & 0x1F) == 31) { // indefinite length
+            switch (type) {
+            case CBORConstants.MAJOR_TYPE_BYTES:
+            case CBORConstants.MAJOR_TYPE_TEXT:
+            case CBORConstants.MAJOR_TYPE_ARRAY:
+            case CBORConstants.MAJOR_TYPE_OBJECT:
+                while (_byteAt(ptr) != CBORConstants.INT_BREAK) {
+                    ptr = _skipItem(ptr);
+                }
+                return ptr+1;
+            }
+            throw _constructError("Unexpected break marker", ptr-1);
+        }
+        final int argLen = _argumentLength(ch, ptr);
+        switch (type) {
+        case CBORConstants.MAJOR_TYPE_BYTES:
+        case CBORConstants.MAJOR_TYPE_TEXT:
+            {
+                final int len = _readLength(ch, ptr, argLen);
+                ptr += argLen;
+                _checkAvailable(ptr, len);
+                return ptr + len;
+            }
+        case CBORConstants.MAJOR_TYPE_ARRAY:
+        case CBORConstants.MAJOR_TYPE_OBJECT:
+            {
+                long count = _readLength(ch, ptr, argLen);
+                ptr += argLen;
+                if (type == CBORConstants.MAJOR_TYPE_OBJECT) {
+                    count += count;
+                }
+                while (--count >= 0L) {
+                    ptr = _skipItem(ptr);
+                }
+                return ptr;
+            }
+        }
+        // integers, floating-point numbers, simple values
+        return ptr + argLen;
+    }
+
+    /*
+    /**********************************************************
+    /* Internal methods, low-level decoding
+    /**********************************************************
+     */
+
+    /**
+     * Helper method for determining number of bytes the argument of given
+     * initial byte takes (not including initial byte itself); 0 if argument
+     * value is included in the initial byte (or length is indefinite).
+     */
+    protected int _argumentLength(int ch, int ptr) throws IOException
+    {
+        final int lowBits = ch & 0x1F;
+        if (lowBits < 24) {
+            return 0;
+        }
+        if (lowBits <= 27) {
+            final int len = 1 << (lowBits - 24);
+            _checkAvailable(ptr, len);
+            return len;
+        }
+        if (lowBits == 31) {
+            return 0;
+        }
+        throw _constructError("Invalid argument of initial byte 0x"+Integer.toHexString(ch), ptr-1);
+    }
+
+    protected long _readArgument(int ch, int ptr, int argLen)
+    {
+        if (argLen == 0) {
+            return ch & 0x1F;
+        }
+        long l = 0L;
+        for (int end = ptr + argLen; ptr < end; ++ptr) {
+            l = (l << 8) | (_data[ptr] & 0xFF);
+        }
+        return l;
+    }
+
+    /**
+     * Helper method for reading length (or entry count) argument of a String,
+     * binary, Array or Object, verifying that it is not negative (which would
+     * be the case for 64-bit values above {@link Long#MAX_VALUE}) nor
+     * above {@link Integer#MAX_VALUE}.
+     *
+     * @param ptr Offset of the argument, right after the initial byte
+     */
+    protected int _readLength(int ch, int ptr, int argLen) throws IOException
+    {
+        final long len = _readArgument(ch, ptr, argLen);
+        if ((len < 0L) || (len > Integer.MAX_VALUE)) {
+            throw _constructError("Illegal length ("+Long.toUnsignedString(len)+")", ptr-1);
+        }
+        return (int) len;
+    }
+
+    protected final int _byteAt(int ptr) throws IOException
+    {
+        if (ptr >= _limit) {
+            throw _constructError("Unexpected end-of-input", ptr);
+        }
+        return _data[ptr] & 0xFF;
+    }
+
+    protected final void _checkAvailable(int ptr, int len) throws IOException
+    {
+        if (len > (_limit - ptr)) {
+            throw _constructError("Unexpected end-of-input: need "+len+" bytes", ptr);
+        }
+    }
+
+    protected CBORParser _parser() throws IOException
+    {
+        CBORParser p = traverse(ObjectReadContext.empty(), DEFAULT_FACTORY);
+        p.nextToken();
+        return p;
+    }
+
+    protected JsonParseException _constructError(String msg, int ptr) {
+        return new JsonParseException(null, msg+" (at offset "+ptr+")");
+    }
+}
@@ -5,6 +5,7 @@ module com.fasterxml.jackson.dataformat.cbor {
 
     exports com.fasterxml.jackson.dataformat.cbor;
     exports com.fasterxml.jackson.dataformat.cbor.databind;
+    exports com.fasterxml.jackson.dataformat.cbor.tree;
 
     provides com.fasterxml.jackson.core.TokenStreamFactory with
         com.fasterxml.jackson.dataformat.cbor.CBORFactory;
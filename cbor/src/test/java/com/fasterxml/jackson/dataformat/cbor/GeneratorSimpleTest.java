@@ -8,6 +8,8 @@ import java.util.*;
 import org.junit.Assert;
 
 import com.fasterxml.jackson.core.JsonGenerationException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.ObjectWriteContext;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 public class GeneratorSimpleTest extends CBORTestBase
@@ -448,4 +450,98 @@ public class GeneratorSimpleTest extends CBORTestBase
             sourceBytes.toByteArray(),
             targetBytes.toByteArray());
     }
+
+    public void testCopyCurrentStructureAsIs() throws Exception {
+        final byte[] doc = _copySourceDoc();
+
+        // use stream to ensure copied content spans multiple input buffers
+        final ByteArrayOutputStream targetBytes = new ByteArrayOutputStream();
+        final CBORGenerator gen = cborGenerator(targetBytes);
+        final CBORParser cborParser = cborParser(new ByteArrayInputStream(doc));
+        assertToken(JsonToken.START_ARRAY, cborParser.nextToken());
+        gen.copyCurrentStructure(cborParser);
+        assertToken(JsonToken.END_ARRAY, cborParser.currentToken());
+        assertNull(cborParser.nextToken());
+        gen.close();
+        cborParser.close();
+
+        Assert.assertArrayEquals(doc, targetBytes.toByteArray());
+    }
+
+    public void testCopyCurrentStructureOfProperty() throws Exception {
+        final ByteArrayOutputStream sourceBytes = new ByteArrayOutputStream();
+        final CBORGenerator sourceGen = cborGenerator(sourceBytes);
+        sourceGen.writeStartObject();
+        sourceGen.writeFieldName("a");
+        sourceGen.writeArray(new int[] { 1, 2, 3 }, 0, 3);
+        sourceGen.writeFieldName("b");
+        sourceGen.writeStartObject();
+        sourceGen.writeStringField("c", "d");
+        sourceGen.writeEndObject();
+        sourceGen.writeNumberField("e", 5);
+        sourceGen.writeEndObject();
+        sourceGen.close();
+
+        final ByteArrayOutputStream targetBytes = new ByteArrayOutputStream();
+        final CBORGenerator gen = cborGenerator(targetBytes);
+        final CBORParser cborParser = cborParser(sourceBytes);
+        assertToken(JsonToken.START_OBJECT, cborParser.nextToken());
+        gen.writeStartObject();
+        while (cborParser.nextToken() == JsonToken.FIELD_NAME) {
+            gen.copyCurrentStructure(cborParser);
+        }
+        assertToken(JsonToken.END_OBJECT, cborParser.currentToken());
+        gen.writeEndObject();
+        gen.close();
+        cborParser.close();
+
+        Assert.assertArrayEquals(sourceBytes.toByteArray(), targetBytes.toByteArray());
+    }
+
+    public void testCopyCurrentStructureWithStringRefs() throws Exception {
+        final byte[] doc = _copySourceDoc();
+        CBORFactory f = CBORFactory.builder()
+                .enable(CBORGenerator.Feature.STRINGREF)
+                .build();
+
+        // can not copy as-is, but should get equivalent content
+        final ByteArrayOutputStream targetBytes = new ByteArrayOutputStream();
+        final CBORGenerator gen = (CBORGenerator) f.createGenerator(ObjectWriteContext.empty(), targetBytes);
+        final CBORParser cborParser = cborParser(doc);
+        cborParser.nextToken();
+        gen.copyCurrentStructure(cborParser);
+        gen.close();
+        cborParser.close();
+
+        final byte[] result = targetBytes.toByteArray();
+        // starts with "stringref" namespace tag (256)
+        Assert.assertArrayEquals(new byte[] { (byte) 0xD9, 0x01, 0x00 }, Arrays.copyOf(result, 3));
+        assertEquals(MAPPER.readTree(doc), MAPPER.readTree(result));
+    }
+
+    private byte[] _copySourceDoc() throws Exception {
+        final ByteArrayOutputStream sourceBytes = new ByteArrayOutputStream();
+        final CBORGenerator sourceGen = cborGenerator(sourceBytes);
+        sourceGen.writeStartArray();
+        sourceGen.writeStartObject();
+        sourceGen.writeStringField("name", generateLongAsciiString(20000));
+        sourceGen.writeFieldName("values");
+        sourceGen.writeStartArray(4);
+        sourceGen.writeNumber(1);
+        sourceGen.writeNumber(-2.5);
+        sourceGen.writeNumber(new BigInteger("123456789012345678901234567890"));
+        sourceGen.writeNumber(new BigDecimal("0.25"));
+        sourceGen.writeEndArray();
+        sourceGen.writeFieldName("bin");
+        sourceGen.writeBinary(new byte[5000]);
+        sourceGen.writeFieldName("flag");
+        sourceGen.writeBoolean(true);
+        sourceGen.writeEndObject();
+        // chunked String
+        sourceGen.writeBytes(new byte[] { 0x7F, 0x61, 'a', 0x62, 'b', 'c', (byte) 0xFF }, 0, 7);
+        sourceGen.writeNull();
+        sourceGen.writeEndArray();
+        sourceGen.close();
+        return sourceBytes.toByteArray();
+    }
 }
@@ -0,0 +1,230 @@
+package com.fasterxml.jackson.dataformat.cbor;
+
+import java.io.ByteArrayOutputStream;
+import java.util.*;
+
+import com.fasterxml.jackson.core.*;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * Tests for "stringref" extension (tags 25 and 256), see
+ * <a href="http://cbor.schmorp.de/stringref">http://cbor.schmorp.de/stringref</a>
+ */
+public class StringRefTest extends CBORTestBase
+{
+    static class Point {
+        public String label;
+        public int x, y;
+
+        protected Point() { }
+        public Point(String label, int x, int y) {
+            this.label = label;
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    // Example from the specification
+    private final static String[] SPEC_STRINGS = new String[] {
+        "1", "222", "333", "4", "555", "666", "777", "888", "999",
+        "aaa", "bbb", "ccc", "ddd", "eee", "fff", "ggg", "hhh", "iii",
+        "jjj", "kkk", "lll", "mmm", "nnn", "ooo", "ppp", "qqq", "rrr",
+        "333", "ssss", "qqq", "rrr", "ssss"
+    };
+
+    private final CBORFactory STRINGREF_F = CBORFactory.builder()
+            .enable(CBORGenerator.Feature.STRINGREF)
+            .build();
+
+    private final ObjectMapper MAPPER = cborMapper();
+
+    private final ObjectMapper STRINGREF_MAPPER = new CBORMapper(STRINGREF_F);
+
+    public void testSpecExample() throws Exception
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CBORGenerator g = (CBORGenerator) STRINGREF_F.createGenerator(ObjectWriteContext.empty(), bytes);
+        assertTrue(g.isEnabled(CBORGenerator.Feature.STRINGREF));
+        g.writeStartArray(SPEC_STRINGS.length);
+        for (String str : SPEC_STRINGS) {
+            g.writeString(str);
+        }
+        g.writeEndArray();
+        g.close();
+
+        ByteArrayOutputStream exp = new ByteArrayOutputStream();
+        exp.write(new byte[] { (byte) 0xD9, 0x01, 0x00, (byte) 0x98, 0x20 });
+        for (int i = 0; i < 27; ++i) { // all but last 5 written as is
+            _writeText(exp, SPEC_STRINGS[i]);
+        }
+        exp.write(new byte[] { (byte) 0xD8, 0x19, 0x01 }); // "333"
+        _writeText(exp, "ssss");
+        exp.write(new byte[] { (byte) 0xD8, 0x19, 0x17 }); // "qqq"
+        _writeText(exp, "rrr"); // too short to be added with index 24
+        exp.write(new byte[] { (byte) 0xD8, 0x19, 0x18, 0x18 }); // "ssss"
+        assertArrayEquals(exp.toByteArray(), bytes.toByteArray());
+
+        // and parser should resolve references, with or without feature
+        for (byte[] doc : new byte[][] { bytes.toByteArray(), exp.toByteArray() }) {
+            try (JsonParser p = cborParser(doc)) {
+                assertToken(JsonToken.START_ARRAY, p.nextToken());
+                for (String str : SPEC_STRINGS) {
+                    assertToken(JsonToken.VALUE_STRING, p.nextToken());
+                    assertEquals(str, p.getText());
+                    assertEquals(-1, ((CBORParser) p).getCurrentTag());
+                }
+                assertToken(JsonToken.END_ARRAY, p.nextToken());
+                assertNull(p.nextToken());
+            }
+            // as well as when not accessing text, or using nextTextValue()
+            try (JsonParser p = cborParser(doc)) {
+                assertToken(JsonToken.START_ARRAY, p.nextToken());
+                for (int i = 0; i < SPEC_STRINGS.length; ++i) {
+                    if ((i % 3) == 0) {
+                        assertEquals(SPEC_STRINGS[i], p.nextTextValue());
+                    } else {
+                        assertToken(JsonToken.VALUE_STRING, p.nextToken());
+                    }
+                }
+                assertToken(JsonToken.END_ARRAY, p.nextToken());
+            }
+        }
+    }
+
+    public void testNestedNamespaces() throws Exception
+    {
+        // 256(["aaa", 256({"aaa": "bbb", 25(1): 25(0)}), 25(0)])
+        byte[] doc = new byte[] {
+                (byte) 0xD9, 0x01, 0x00, (byte) 0x83,
+                  0x63, 'a', 'a', 'a',
+                  (byte) 0xD9, 0x01, 0x00, (byte) 0xA2,
+                    0x63, 'a', 'a', 'a', 0x63, 'b', 'b', 'b',
+                    (byte) 0xD8, 0x19, 0x01, (byte) 0xD8, 0x19, 0x00,
+                  (byte) 0xD8, 0x19, 0x00
+        };
+        JsonNode exp = JSON_MAPPER.readTree(aposToQuotes("['aaa',{'aaa':'bbb','bbb':'aaa'},'aaa']"));
+        assertEquals(exp, MAPPER.readTree(doc));
+
+        try (JsonParser p = cborParser(doc)) {
+            assertToken(JsonToken.START_ARRAY, p.nextToken());
+            assertEquals("aaa", p.nextTextValue());
+            assertToken(JsonToken.START_OBJECT, p.nextToken());
+            assertTrue(p.nextFieldName(new SerializedString("aaa")));
+            assertEquals("bbb", p.nextTextValue());
+            assertEquals("bbb", p.nextFieldName());
+            assertEquals("aaa", p.nextTextValue());
+            assertToken(JsonToken.END_OBJECT, p.nextToken());
+            assertToken(JsonToken.VALUE_STRING, p.nextToken());
+            assertEquals("aaa", p.getText());
+            assertToken(JsonToken.END_ARRAY, p.nextToken());
+        }
+    }
+
+    public void testBinaryAndOtherTags() throws Exception
+    {
+        final byte[] data = new byte[] { 1, 2, 3, 4 };
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CBORGenerator g = (CBORGenerator) STRINGREF_F.createGenerator(ObjectWriteContext.empty(), bytes);
+        g.writeTag(CBORConstants.TAG_ID_SELF_DESCRIBE);
+        g.writeStartArray();
+        g.writeBinary(data);
+        g.writeString("abcd");
+        g.writeBinary(data);
+        g.writeString("abcd");
+        g.writeNumber(new java.math.BigInteger("123456789012345678901234567890"));
+        g.writeString("abcd");
+        g.writeEndArray();
+        g.close();
+
+        try (CBORParser p = cborParser(bytes.toByteArray())) {
+            assertToken(JsonToken.START_ARRAY, p.nextToken());
+            assertEquals(CBORConstants.TAG_ID_SELF_DESCRIBE, p.getCurrentTag());
+            for (int i = 0; i < 2; ++i) {
+                assertToken(JsonToken.VALUE_EMBEDDED_OBJECT, p.nextToken());
+                assertArrayEquals(data, p.getBinaryValue());
+                assertToken(JsonToken.VALUE_STRING, p.nextToken());
+                assertEquals("abcd", p.getText());
+            }
+            assertToken(JsonToken.VALUE_NUMBER_INT, p.nextToken());
+            assertEquals("123456789012345678901234567890", p.getBigIntegerValue().toString());
+            assertToken(JsonToken.VALUE_STRING, p.nextToken());
+            assertEquals("abcd", p.getText());
+            assertToken(JsonToken.END_ARRAY, p.nextToken());
+        }
+    }
+
+    public void testRoundTripWithRepeatedNames() throws Exception
+    {
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < 1000; ++i) {
+            points.add(new Point("label-"+(i % 10), i, -i));
+        }
+        byte[] plain = MAPPER.writeValueAsBytes(points);
+        byte[] shared = STRINGREF_MAPPER.writeValueAsBytes(points);
+        assertTrue("Expected 'stringref' encoding to be smaller: "+shared.length+" vs "+plain.length,
+                shared.length < (plain.length / 2));
+
+        // no need for feature to read
+        Point[] result = MAPPER.readValue(shared, Point[].class);
+        assertEquals(points.size(), result.length);
+        for (int i = 0; i < result.length; ++i) {
+            assertEquals(points.get(i).label, result[i].label);
+            assertEquals(points.get(i).x, result[i].x);
+            assertEquals(points.get(i).y, result[i].y);
+        }
+        assertEquals(MAPPER.readTree(plain), MAPPER.readTree(shared));
+
+        // and multiple root values are each in separate namespace
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (JsonGenerator g = STRINGREF_MAPPER.createGenerator(bytes)) {
+            STRINGREF_MAPPER.writeValue(g, points.get(0));
+            STRINGREF_MAPPER.writeValue(g, points.get(1));
+        }
+        try (JsonParser p = MAPPER.createParser(bytes.toByteArray())) {
+            assertEquals("label-0", MAPPER.readValue(p, Point.class).label);
+            assertEquals("label-1", MAPPER.readValue(p, Point.class).label);
+        }
+    }
+
+    public void testSampleDoc() throws Exception
+    {
+        byte[] doc = cborDoc(STRINGREF_MAPPER, SAMPLE_DOC_JSON_SPEC);
+        assertEquals(JSON_MAPPER.readTree(SAMPLE_DOC_JSON_SPEC), MAPPER.readTree(doc));
+        byte[] unicode = cborDoc(STRINGREF_MAPPER, "[\""+generateUnicodeString(5000)
+                +"\",{\"été\":\"été\",\"x\":\"été\"}]");
+        assertEquals(MAPPER.readTree(cborDoc(MAPPER, "[\""+generateUnicodeString(5000)
+                +"\",{\"été\":\"été\",\"x\":\"été\"}]")),
+                MAPPER.readTree(unicode));
+    }
+
+    public void testInvalidReference() throws Exception
+    {
+        // 256(["abc", 25(1)])
+        byte[] doc = new byte[] {
+                (byte) 0xD9, 0x01, 0x00, (byte) 0x82,
+                0x63, 'a', 'b', 'c', (byte) 0xD8, 0x19, 0x01
+        };
+        try (JsonParser p = cborParser(doc)) {
+            assertToken(JsonToken.START_ARRAY, p.nextToken());
+            assertToken(JsonToken.VALUE_STRING, p.nextToken());
+            try {
+                p.nextToken();
+                fail("Should not pass");
+            } catch (JsonParseException e) {
+                verifyException(e, "Invalid \"stringref\" index (1)");
+            }
+        }
+    }
+
+    private static void _writeText(ByteArrayOutputStream out, String str) {
+        out.write(CBORConstants.PREFIX_TYPE_TEXT + str.length());
+        for (int i = 0; i < str.length(); ++i) {
+            out.write(str.charAt(i));
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package com.fasterxml.jackson.dataformat.cbor;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonMerge;
+import com.fasterxml.jackson.core.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * Tests for "typed arrays" (RFC 8746), written with
+ * {@link CBORGenerator.Feature#WRITE_TYPED_ARRAYS} and read using
+ * {@link CBORParser#getTypedArrayValue}.
+ */
+public class TypedArrayTest extends CBORTestBase
+{
+    static class Readings {
+        public int[] ints;
+        public long[] longs;
+        public float[] floats;
+        public double[] doubles;
+    }
+
+    static class Annotated {
+        @JsonMerge
+        public int[] merged;
+
+        @JsonFormat(with = JsonFormat.Feature.ACCEPT_SINGLE_VALUE_AS_ARRAY)
+        public long[] single;
+    }
+
+    static class Floats {
+        @JsonFormat(with = JsonFormat.Feature.WRITE_SINGLE_ELEM_ARRAYS_UNWRAPPED)
+        public float[] single;
+
+        public float[] values;
+    }
+
+    private final CBORFactory TYPED_F = CBORFactory.builder()
+            .enable(CBORGenerator.Feature.WRITE_TYPED_ARRAYS)
+            .build();
+
+    private final ObjectMapper MAPPER = cborMapper();
+
+    private final ObjectMapper TYPED_MAPPER = new CBORMapper(TYPED_F);
+
+    public void testWriteIntArray() throws Exception
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CBORGenerator g = (CBORGenerator) TYPED_F.createGenerator(ObjectWriteContext.empty(), bytes);
+        g.writeArray(new int[] { 0, 1, 2, -1 }, 1, 3);
+        g.close();
+        _verifyBytes(bytes.toByteArray(),
+                (byte) 0xD8, (byte) TAG_SINT32_LE, (byte) 0x4C,
+                1, 0, 0, 0,
+                2, 0, 0, 0,
+                (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF);
+    }
+
+    public void testRoundTripViaParser() throws Exception
+    {
+        // big enough to span multiple output buffers
+        final int[] ints = new int[20000];
+        final long[] longs = new long[7000];
+        final float[] floats = new float[9000];
+        final double[] doubles = new double[5000];
+        for (int i = 0; i < ints.length; ++i) {
+            ints[i] = i * 13 - 1000;
+        }
+        for (int i = 0; i < longs.length; ++i) {
+            longs[i] = (i * 0x12345678901L) - 7;
+        }
+        for (int i = 0; i < floats.length; ++i) {
+            floats[i] = i * 0.25f - 3.5f;
+        }
+        for (int i = 0; i < doubles.length; ++i) {
+            doubles[i] = i / 3.0;
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CBORGenerator g = (CBORGenerator) TYPED_F.createGenerator(ObjectWriteContext.empty(), bytes);
+        g.writeStartArray();
+        g.writeArray(ints, 0, ints.length);
+        g.writeArray(longs, 0, longs.length);
+        g.writeArray(floats, 0, floats.length);
+        g.writeArray(doubles, 0, doubles.length);
+        g.writeEndArray();
+        g.close();
+        byte[] doc = bytes.toByteArray();
+        // 2 bytes for tag, 3 or 5 for length (per array), 1 for outer Array
+        assertEquals(1 + 7 + 5 + 5 + 5 + (ints.length * 4) + (longs.length * 8)
+                + (floats.length * 4) + (doubles.length * 8), doc.length);
+
+        try (CBORParser p = cborParser(doc)) {
+            assertToken(JsonToken.START_ARRAY, p.nextToken());
+            assertNull(p.getTypedArrayValue());
+            assertToken(JsonToken.VALUE_EMBEDDED_OBJECT, p.nextToken());
+            assertEquals(TAG_SINT32_LE, p.getCurrentTag());
+            assertArrayEquals(ints, (int[]) p.getTypedArrayValue());
+            assertToken(JsonToken.VALUE_EMBEDDED_OBJECT, p.nextToken());
+            assertArrayEquals(longs, (long[]) p.getTypedArrayValue());
+            assertToken(JsonToken.VALUE_EMBEDDED_OBJECT, p.nextToken());
+            assertArrayEquals(floats, (float[]) p.getTypedArrayValue(), 0f);
+            assertToken(JsonToken.VALUE_EMBEDDED_OBJECT, p.nextToken());
+            assertArrayEquals(doubles, (double[]) p.getTypedArrayValue(), 0.0);
+            assertToken(JsonToken.END_ARRAY, p.nextToken());
+        }
+    }
+
+    public void testReadOtherElementTypes() throws Exception
+    {
+        // big-endian unsigned 16-bit
+        _verifyTyped(65, new byte[] { 0x00, 0x01, (byte) 0xFF, (byte) 0xFE },
+                new int[] { 1, 0xFFFE });
+        // unsigned 8-bit
+        _verifyTyped(64, new byte[] { 0x01, (byte) 0xFF },
+                new short[] { 1, 0xFF });
+        // signed 8-bit
+        _verifyTyped(72, new byte[] { 0x01, (byte) 0xFF },
+                new byte[] { 1, -1 });
+        // little-endian signed 16-bit
+        _verifyTyped(77, new byte[] { 0x02, 0x01, (byte) 0xFF, (byte) 0xFF },
+                new short[] { 0x0102, -1 });
+        // little-endian unsigned 32-bit
+        _verifyTyped(70, new byte[] { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF },
+                new long[] { 0xFFFFFFFFL });
+        // big-endian 16-bit floating-point: 1.0, -2.0, 0.5
+        _verifyTyped(80, new byte[] { 0x3C, 0x00, (byte) 0xC0, 0x00, 0x38, 0x00 },
+                new float[] { 1.0f, -2.0f, 0.5f });
+        // big-endian 64-bit floating-point
+        ByteBuffer bb = ByteBuffer.allocate(16).order(ByteOrder.BIG_ENDIAN);
+        bb.putDouble(0.125).putDouble(-1e300);
+        _verifyTyped(82, bb.array(), new double[] { 0.125, -1e300 });
+    }
+
+    public void testInvalidTypedArrays() throws Exception
+    {
+        // length not multiple of element size
+        try (CBORParser p = cborParser(_typedArray(78, new byte[] { 1, 2, 3 }))) {
+            assertToken(JsonToken.VALUE_EMBEDDED_OBJECT, p.nextToken());
+            p.getTypedArrayValue();
+            fail("Should not pass");
+        } catch (JsonParseException e) {
+            verifyException(e, "not a multiple of element size (4)");
+        }
+        // 128-bit floats not supported
+        try (CBORParser p = cborParser(_typedArray(83, new byte[16]))) {
+            assertToken(JsonToken.VALUE_EMBEDDED_OBJECT, p.nextToken());
+            p.getTypedArrayValue();
+            fail("Should not pass");
+        } catch (JsonParseException e) {
+            verifyException(e, "128-bit floating-point");
+        }
+        // other tags are not typed arrays
+        try (CBORParser p = cborParser(_typedArray(76, new byte[] { 1 }))) {
+            assertToken(JsonToken.VALUE_EMBEDDED_OBJECT, p.nextToken());
+            assertNull(p.getTypedArrayValue());
+            assertArrayEquals(new byte[] { 1 }, p.getBinaryValue());
+        }
+    }
+
+    public void testMapperRoundTrip() throws Exception
+    {
+        Readings input = new Readings();
+        input.ints = new int[] { 1, -2, 3 };
+        input.longs = new long[] { Long.MIN_VALUE, 0L, Long.MAX_VALUE };
+        input.floats = new float[] { 0.5f, -0.25f, Float.NaN };
+        input.doubles = new double[] { 1e-10, 2.0 };
+
+        byte[] plain = MAPPER.writeValueAsBytes(input);
+        byte[] typed = TYPED_MAPPER.writeValueAsBytes(input);
+        assertTrue(typed.length != plain.length);
+
+        for (byte[] doc : new byte[][] { plain, typed }) {
+            Readings result = MAPPER.readValue(doc, Readings.class);
+            assertArrayEquals(input.ints, result.ints);
+            assertArrayEquals(input.longs, result.longs);
+            assertArrayEquals(input.floats, result.floats, 0f);
+            assertArrayEquals(input.doubles, result.doubles, 0.0);
+        }
+
+        // also: lossless widening of narrower element types
+        assertArrayEquals(new double[] { 0.5, -0.25 },
+                MAPPER.readValue(_typedArray(85, _floatsLE(0.5f, -0.25f)), double[].class), 0.0);
+        assertArrayEquals(new long[] { 1L, 0xFFFEL },
+                MAPPER.readValue(_typedArray(65, new byte[] { 0x00, 0x01, (byte) 0xFF, (byte) 0xFE }),
+                        long[].class));
+        // but not lossy ones
+        try {
+            MAPPER.readValue(_typedArray(85, _floatsLE(0.5f)), int[].class);
+            fail("Should not pass");
+        } catch (JsonProcessingException e) {
+            verifyException(e, "int[]");
+        }
+    }
+
+    // Standard handling (merging, per-property features) must still work
+    public void testAnnotatedArrays() throws Exception
+    {
+        Annotated base = new Annotated();
+        base.merged = new int[] { 1, 2 };
+        byte[] doc = cborDoc("{\"merged\":[3,4],\"single\":5}");
+        Annotated result = MAPPER.readerForUpdating(base).readValue(doc);
+        assertSame(base, result);
+        assertArrayEquals(new int[] { 1, 2, 3, 4 }, result.merged);
+        assertArrayEquals(new long[] { 5L }, result.single);
+    }
+
+    public void testMergeTypedArray() throws Exception
+    {
+        Annotated input = new Annotated();
+        input.merged = new int[] { 3, 4, 5 };
+        byte[] doc = TYPED_MAPPER.writeValueAsBytes(input);
+        // verify it is written as typed array
+        try (CBORParser p = cborParser(doc)) {
+            assertToken(JsonToken.START_OBJECT, p.nextToken());
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertEquals("merged", p.currentName());
+            assertToken(JsonToken.VALUE_EMBEDDED_OBJECT, p.nextToken());
+            assertArrayEquals(input.merged, (int[]) p.getTypedArrayValue());
+        }
+
+        Annotated base = new Annotated();
+        base.merged = new int[] { 1, 2 };
+        Annotated result = MAPPER.readerForUpdating(base).readValue(doc);
+        assertSame(base, result);
+        assertArrayEquals(new int[] { 1, 2, 3, 4, 5 }, result.merged);
+
+        // and with nothing to merge with
+        base = new Annotated();
+        base.merged = new int[0];
+        result = MAPPER.readerForUpdating(base).readValue(doc);
+        assertArrayEquals(input.merged, result.merged);
+    }
+
+    public void testFloatArrayFormat() throws Exception
+    {
+        Floats input = new Floats();
+        input.single = new float[] { 0.5f };
+        input.values = new float[] { 1.0f, -2.5f };
+        byte[] doc = TYPED_MAPPER.writeValueAsBytes(input);
+        try (CBORParser p = cborParser(doc)) {
+            assertToken(JsonToken.START_OBJECT, p.nextToken());
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            // per-property format must be honored: unwrapped, not typed array
+            assertToken(JsonToken.VALUE_NUMBER_FLOAT, p.nextToken());
+            assertEquals(0.5f, p.getFloatValue());
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertToken(JsonToken.VALUE_EMBEDDED_OBJECT, p.nextToken());
+            assertArrayEquals(input.values, (float[]) p.getTypedArrayValue(), 0f);
+            assertToken(JsonToken.END_OBJECT, p.nextToken());
+        }
+        // and without typed arrays, same as with the standard serializer
+        try (CBORParser p = cborParser(MAPPER.writeValueAsBytes(input))) {
+            assertToken(JsonToken.START_OBJECT, p.nextToken());
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertToken(JsonToken.VALUE_NUMBER_FLOAT, p.nextToken());
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertToken(JsonToken.START_ARRAY, p.nextToken());
+        }
+        Floats result = MAPPER.readValue(doc, Floats.class);
+        assertArrayEquals(input.values, result.values, 0f);
+    }
+
+    /*
+    /**********************************************************
+    /* Helper methods
+    /**********************************************************
+     */
+
+    private final static int TAG_SINT32_LE = CBORConstants.TAG_TYPED_ARRAY_SINT32_LE;
+
+    private void _verifyTyped(int tag, byte[] data, Object exp) throws Exception
+    {
+        try (CBORParser p = cborParser(_typedArray(tag, data))) {
+            assertToken(JsonToken.VALUE_EMBEDDED_OBJECT, p.nextToken());
+            assertEquals(tag, p.getCurrentTag());
+            Object act = p.getTypedArrayValue();
+            assertNotNull(act);
+            assertEquals(exp.getClass(), act.getClass());
+            if (exp instanceof byte[]) {
+                assertArrayEquals((byte[]) exp, (byte[]) act);
+            } else if (exp instanceof short[]) {
+                assertArrayEquals((short[]) exp, (short[]) act);
+            } else if (exp instanceof int[]) {
+                assertArrayEquals((int[]) exp, (int[]) act);
+            } else if (exp instanceof long[]) {
+                assertArrayEquals((long[]) exp, (long[]) act);
+            } else if (exp instanceof float[]) {
+                assertArrayEquals((float[]) exp, (float[]) act, 0f);
+            } else {
+                assertArrayEquals((double[]) exp, (double[]) act, 0.0);
+            }
+        }
+    }
+
+    private static byte[] _typedArray(int tag, byte[] data) throws Exception
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write((byte) 0xD8);
+        bytes.write((byte) tag);
+        bytes.write((byte) (CBORConstants.PREFIX_TYPE_BYTES + data.length));
+        bytes.write(data);
+        return bytes.toByteArray();
+    }
+
+    private static byte[] _floatsLE(float... values)
+    {
+        ByteBuffer bb = ByteBuffer.allocate(values.length * 4).order(ByteOrder.LITTLE_ENDIAN);
+        for (float f : values) {
+            bb.putFloat(f);
+        }
+        return bb.array();
+    }
+}
@@ -0,0 +1,317 @@
+package com.fasterxml.jackson.dataformat.cbor.async;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import com.fasterxml.jackson.core.*;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.dataformat.cbor.CBORConstants;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.cbor.CBORParser;
+import com.fasterxml.jackson.dataformat.cbor.CBORTestBase;
+
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * Tests that verify that non-blocking parser produces same tokens as
+ * blocking parser, regardless of how input is split into chunks.
+ */
+public class AsyncParserTest extends CBORTestBase
+{
+    private final CBORFactory F = cborFactory();
+
+    private final static int[] CHUNK_SIZES = new int[] { 1, 2, 3, 7, 100, Integer.MAX_VALUE };
+
+    public void testCanParseAsync() throws Exception
+    {
+        assertTrue(F.canParseAsync());
+        JsonParser p = F.createNonBlockingByteArrayParser(ObjectReadContext.empty());
+        assertTrue(p.canParseAsync());
+        assertToken(JsonToken.NOT_AVAILABLE, p.nextToken());
+        p.close();
+    }
+
+    public void testSimpleDocs() throws Exception
+    {
+        _verifyAll(cborDoc(SAMPLE_DOC_JSON_SPEC));
+        _verifyAll(cborDoc("[1, -2, 3.25, true, false, null, \"abc\", [], {}]"));
+        _verifyAll(cborDoc("{\"a\":{\"b\":[{\"c\":\"\"}]},\"long-ish name\":[1234567890123, -1]}"));
+        // multiple root values
+        _verifyAll(_concat(cborDoc("{\"a\":1}"), cborDoc("[true]"), cborDoc("\"x\"")));
+    }
+
+    public void testLongStringsAndNames() throws Exception
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CBORGenerator g = cborGenerator(bytes);
+        g.writeStartObject();
+        g.writeStringField(generateUnicodeString(300), generateLongAsciiString(5000));
+        g.writeStringField("x", generateUnicodeString(70000));
+        g.writeFieldName("bin");
+        byte[] data = new byte[3000];
+        Arrays.fill(data, (byte) 0x7F);
+        g.writeBinary(data);
+        g.writeEndObject();
+        g.close();
+        _verifyAll(bytes.toByteArray());
+    }
+
+    public void testIndefiniteLengthValues() throws Exception
+    {
+        // {_ "ab": [_ "c" "de"(_ chunked), h'01'(_ chunked)], "f": [_ ] }
+        byte[] doc = new byte[] {
+                (byte) 0xBF,
+                0x62, 'a', 'b',
+                (byte) 0x9F,
+                    0x7F, 0x61, 'c', 0x62, 'd', 'e', (byte) 0xFF,
+                    0x5F, 0x41, 0x01, 0x40, (byte) 0xFF,
+                (byte) 0xFF,
+                0x7F, 0x61, 'f', (byte) 0xFF,
+                (byte) 0x9F, (byte) 0xFF,
+                (byte) 0xFF
+        };
+        _verifyAll(doc);
+    }
+
+    public void testTagsAndBigNumbers() throws Exception
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CBORGenerator g = cborGenerator(bytes);
+        g.writeStartArray();
+        g.writeNumber(new BigInteger("123456789012345678901234567890"));
+        g.writeNumber(new BigInteger("-123456789012345678901234567890"));
+        g.writeNumber(new BigDecimal("1234567890.12345678901234567890"));
+        g.writeNumber(new BigDecimal("-0.25"));
+        g.writeTag(CBORConstants.TAG_ID_SELF_DESCRIBE);
+        g.writeString("tagged");
+        g.writeTag(1);
+        g.writeNumber(1500000000L);
+        g.writeEndArray();
+        g.close();
+        _verifyAll(bytes.toByteArray());
+    }
+
+    public void testStringRefs() throws Exception
+    {
+        CBORFactory f = CBORFactory.builder()
+                .enable(CBORGenerator.Feature.STRINGREF)
+                .build();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CBORGenerator g = (CBORGenerator) f.createGenerator(ObjectWriteContext.empty(), bytes);
+        g.writeStartArray();
+        for (int i = 0; i < 30; ++i) {
+            g.writeStartObject();
+            g.writeStringField("name", "value-"+(i % 3));
+            g.writeStringField("other", generateUnicodeString(20));
+            g.writeEndObject();
+        }
+        g.writeEndArray();
+        g.close();
+        _verifyAll(bytes.toByteArray());
+    }
+
+    public void testNextFieldNameAndTextValue() throws Exception
+    {
+        byte[] doc = cborDoc("{\"name\":\"value\",\"other\":\"abc\"}");
+        SerializableString name = new SerializedString("name");
+        for (int chunk : CHUNK_SIZES) {
+            Feeder f = new Feeder(F.createNonBlockingByteArrayParser(ObjectReadContext.empty()), doc, chunk);
+            assertToken(JsonToken.START_OBJECT, f.next());
+            boolean matched;
+            while (!(matched = f.parser.nextFieldName(name))
+                    && (f.parser.currentToken() == JsonToken.NOT_AVAILABLE)) {
+                f.feed();
+            }
+            assertTrue(matched);
+            String text;
+            while (((text = f.parser.nextTextValue()) == null)
+                    && (f.parser.currentToken() == JsonToken.NOT_AVAILABLE)) {
+                f.feed();
+            }
+            assertEquals("value", text);
+            String n;
+            while (((n = f.parser.nextFieldName()) == null)
+                    && (f.parser.currentToken() == JsonToken.NOT_AVAILABLE)) {
+                f.feed();
+            }
+            assertEquals("other", n);
+            assertToken(JsonToken.VALUE_STRING, f.next());
+            assertEquals("abc", f.parser.getText());
+            assertToken(JsonToken.END_OBJECT, f.next());
+            assertNull(f.next());
+            f.parser.close();
+        }
+    }
+
+    public void testFeedingBeforeConsumed() throws Exception
+    {
+        byte[] doc = cborDoc("[1,2]");
+        NonBlockingByteArrayParser p = F.createNonBlockingByteArrayParser(ObjectReadContext.empty());
+        assertTrue(p.needMoreInput());
+        p.feedInput(doc, 0, doc.length);
+        assertFalse(p.needMoreInput());
+        try {
+            p.feedInput(doc, 0, doc.length);
+            fail("Should not pass");
+        } catch (JsonParseException e) {
+            verifyException(e, "Still have 3 undecoded bytes");
+        }
+        p.close();
+    }
+
+    public void testTruncatedInput() throws Exception
+    {
+        byte[] doc = cborDoc("{\"abc\":\"def\"}");
+        NonBlockingByteArrayParser p = F.createNonBlockingByteArrayParser(ObjectReadContext.empty());
+        p.feedInput(doc, 0, doc.length - 2);
+        assertToken(JsonToken.START_OBJECT, p.nextToken());
+        assertToken(JsonToken.FIELD_NAME, p.nextToken());
+        assertToken(JsonToken.NOT_AVAILABLE, p.nextToken());
+        assertTrue(p.needMoreInput());
+        p.endOfInput();
+        assertFalse(p.needMoreInput());
+        // as with blocking parser, String contents only decoded when accessed
+        assertToken(JsonToken.VALUE_STRING, p.nextToken());
+        try {
+            p.getText();
+            fail("Should not pass");
+        } catch (JsonParseException e) {
+            verifyException(e, "end-of-input");
+        }
+        p.close();
+    }
+
+    /*
+    /**********************************************************************
+    /* Helper methods
+    /**********************************************************************
+     */
+
+    private void _verifyAll(byte[] doc) throws IOException
+    {
+        for (int chunk : CHUNK_SIZES) {
+            _verify(doc, new Feeder(F.createNonBlockingByteArrayParser(ObjectReadContext.empty()),
+                    doc, chunk));
+            _verify(doc, new Feeder(F.createNonBlockingByteBufferParser(ObjectReadContext.empty()),
+                    doc, chunk, false));
+            _verify(doc, new Feeder(F.createNonBlockingByteBufferParser(ObjectReadContext.empty()),
+                    doc, chunk, true));
+        }
+    }
+
+    private void _verify(byte[] doc, Feeder async) throws IOException
+    {
+        CBORParser exp = cborParser(doc);
+        CBORParser act = async.parser;
+        JsonToken t;
+        while ((t = exp.nextToken()) != null) {
+            assertToken(t, async.next());
+            assertEquals(exp.getCurrentTag(), act.getCurrentTag());
+            assertEquals(exp.getTokenLocation().getByteOffset(), act.getTokenLocation().getByteOffset());
+            switch (t) {
+            case FIELD_NAME:
+                assertEquals(exp.currentName(), act.currentName());
+                break;
+            case VALUE_STRING:
+                assertEquals(exp.getText(), act.getText());
+                break;
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                assertEquals(exp.getNumberType(), act.getNumberType());
+                assertEquals(exp.getNumberValue(), act.getNumberValue());
+                break;
+            case VALUE_EMBEDDED_OBJECT:
+                assertArrayEquals(exp.getBinaryValue(), act.getBinaryValue());
+                break;
+            default:
+            }
+        }
+        assertNull(async.next());
+        assertTrue(act.isClosed());
+        exp.close();
+    }
+
+    private static byte[] _concat(byte[]... docs) throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (byte[] doc : docs) {
+            bytes.write(doc);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Helper class that feeds document in chunks of given size, using a
+     * new buffer for each chunk (and clearing previous one) to catch any
+     * references retained to fed buffers.
+     */
+    static class Feeder
+    {
+        final CBORParser parser;
+        final byte[] doc;
+        final int chunkSize;
+        final boolean direct;
+
+        int offset;
+        byte[] prevChunk;
+
+        Feeder(CBORParser p, byte[] doc, int chunkSize) {
+            this(p, doc, chunkSize, false);
+        }
+
+        Feeder(CBORParser p, byte[] doc, int chunkSize, boolean direct) {
+            parser = p;
+            this.doc = doc;
+            this.chunkSize = chunkSize;
+            this.direct = direct;
+        }
+
+        public JsonToken next() throws IOException
+        {
+            JsonToken t;
+            while ((t = parser.nextToken()) == JsonToken.NOT_AVAILABLE) {
+                feed();
+            }
+            return t;
+        }
+
+        public void feed() throws IOException
+        {
+            assertTrue(parser.getNonBlockingInputFeeder().needMoreInput());
+            if (prevChunk != null) {
+                Arrays.fill(prevChunk, (byte) 0);
+            }
+            int amount = Math.min(chunkSize, doc.length - offset);
+            if (amount < 1) {
+                parser.getNonBlockingInputFeeder().endOfInput();
+                return;
+            }
+            // add some padding, to verify offsets are handled
+            byte[] chunk = new byte[amount + 4];
+            System.arraycopy(doc, offset, chunk, 2, amount);
+            offset += amount;
+            prevChunk = chunk;
+            if (parser instanceof NonBlockingByteBufferParser) {
+                ByteBuffer bb;
+                if (direct) {
+                    bb = ByteBuffer.allocateDirect(chunk.length);
+                    bb.put(chunk);
+                    bb.flip();
+                } else {
+                    bb = ByteBuffer.wrap(chunk);
+                }
+                bb.position(2);
+                bb.limit(2 + amount);
+                ((NonBlockingByteBufferParser) parser).feedInput(bb);
+                assertFalse(bb.hasRemaining());
+            } else {
+                ((NonBlockingByteArrayParser) parser).feedInput(chunk, 2, 2 + amount);
+            }
+        }
+    }
+}
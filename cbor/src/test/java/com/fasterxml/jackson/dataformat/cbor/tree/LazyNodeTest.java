@@ -0,0 +1,280 @@
+package com.fasterxml.jackson.dataformat.cbor.tree;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+
+import com.fasterxml.jackson.core.*;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.cbor.CBORParser;
+import com.fasterxml.jackson.dataformat.cbor.CBORTestBase;
+
+import static org.junit.Assert.assertArrayEquals;
+
+public class LazyNodeTest extends CBORTestBase
+{
+    private final ObjectMapper MAPPER = cborMapper();
+
+    public void testSampleDocPointers() throws Exception
+    {
+        byte[] doc = cborDoc(SAMPLE_DOC_JSON_SPEC);
+        CBORLazyNode root = CBORLazyNode.construct(doc);
+        assertTrue(root.isObject());
+        assertEquals(1, root.size());
+
+        assertEquals(SAMPLE_SPEC_VALUE_WIDTH, root.at("/Image/Width").intValue());
+        assertEquals(SAMPLE_SPEC_VALUE_TITLE, root.at("/Image/Title").textValue());
+        assertEquals(SAMPLE_SPEC_VALUE_TN_URL, root.at("/Image/Thumbnail/Url").textValue());
+        assertEquals(""+SAMPLE_SPEC_VALUE_TN_WIDTH, root.at("/Image/Thumbnail/Width").textValue());
+        assertEquals(SAMPLE_SPEC_VALUE_TN_ID4, root.at("/Image/IDs/3").longValue());
+        assertNull(root.at("/Image/IDs/4"));
+        assertNull(root.at("/Image/Depth"));
+        assertNull(root.at("/Image/Width/x"));
+
+        CBORLazyNode image = root.get("Image");
+        assertEquals(Arrays.asList("Width", "Height", "Title", "Thumbnail", "IDs"),
+                image.fieldNames());
+        // once entries are located, lookups should still work the same
+        assertEquals(SAMPLE_SPEC_VALUE_HEIGHT, image.get("Height").intValue());
+        assertEquals(4, image.get("IDs").size());
+        assertEquals(doc.length, root.getEndOffset());
+
+        assertEquals(JSON_MAPPER.readTree(SAMPLE_DOC_JSON_SPEC), root.toJsonNode(MAPPER));
+        assertEquals(JSON_MAPPER.readTree(SAMPLE_DOC_JSON_SPEC).get("Image").get("Thumbnail"),
+                root.at("/Image/Thumbnail").toJsonNode(MAPPER));
+        _verifySame(MAPPER.readTree(doc), root);
+    }
+
+    public void testDefiniteAndIndefiniteLengths() throws Exception
+    {
+        for (boolean definite : new boolean[] { false, true }) {
+            byte[] doc = _mixedDoc(definite);
+            CBORLazyNode root = CBORLazyNode.construct(doc);
+            _verifySame(MAPPER.readTree(doc), root);
+            assertEquals(doc.length, root.getEndOffset());
+
+            assertEquals(new BigInteger("123456789012345678901234567890"),
+                    root.at("/nums/0").numberValue());
+            assertEquals(new BigDecimal("0.25"), root.at("/nums/1").numberValue());
+            assertEquals(JsonToken.VALUE_NUMBER_FLOAT, root.at("/nums/1").asToken());
+            assertEquals(Long.MAX_VALUE, root.at("/nums/2").longValue());
+            assertEquals(-2.5f, root.at("/nums/3").numberValue());
+            assertEquals(0.1, root.at("/nums/4").doubleValue());
+            assertTrue(root.at("/flags/0").booleanValue());
+            assertTrue(root.at("/flags/2").isNull());
+            assertArrayEquals(new byte[] { 1, 2, 3 }, root.get("bin").binaryValue());
+            assertEquals(generateLongAsciiString(300), root.get("long").textValue());
+            assertEquals(0, root.get("empty").size());
+            assertTrue(root.get("empty").isArray());
+        }
+    }
+
+    public void testSpecialEncodings() throws Exception
+    {
+        // {_ "ab"(_ chunked): 1, 7: [_ "c"(_ chunked), f16 1.5], "x": 2 }
+        byte[] doc = new byte[] {
+                (byte) 0xBF,
+                0x7F, 0x61, 'a', 0x61, 'b', (byte) 0xFF, 0x01,
+                0x07, (byte) 0x9F, 0x7F, 0x61, 'c', (byte) 0xFF, (byte) 0xF9, 0x3E, 0x00, (byte) 0xFF,
+                0x61, 'x', 0x02,
+                (byte) 0xFF
+        };
+        CBORLazyNode root = CBORLazyNode.construct(doc);
+        assertEquals(1, root.get("ab").intValue());
+        assertEquals("c", root.at("/7/0").textValue());
+        assertEquals(1.5, root.at("/7/1").doubleValue());
+        assertEquals(2, root.get("x").intValue());
+        assertEquals(Arrays.asList("ab", "7", "x"), root.fieldNames());
+        assertEquals(3, root.size());
+        _verifySame(MAPPER.readTree(doc), root);
+
+        // content following the item is ignored
+        CBORLazyNode n = CBORLazyNode.construct(new byte[] { 0x01, 0x02 });
+        assertEquals(1, n.intValue());
+        assertEquals(1, n.getEndOffset());
+        // and item in the middle can be accessed directly
+        n = CBORLazyNode.construct(doc, 8, doc.length - 8);
+        assertTrue(n.isArray());
+        assertEquals(2, n.size());
+    }
+
+    public void testRawAccessAndParser() throws Exception
+    {
+        byte[] doc = cborDoc("{\"a\":[1,{\"b\":\"c\"}],\"d\":true}");
+        CBORLazyNode a = CBORLazyNode.construct(doc).get("a");
+        byte[] raw = a.toByteArray();
+        assertEquals(JSON_MAPPER.readTree("[1,{\"b\":\"c\"}]"), MAPPER.readTree(raw));
+        try (CBORParser p = a.traverse(ObjectReadContext.empty(), cborFactory())) {
+            assertToken(JsonToken.START_ARRAY, p.nextToken());
+            assertToken(JsonToken.VALUE_NUMBER_INT, p.nextToken());
+            assertToken(JsonToken.START_OBJECT, p.nextToken());
+            assertToken(JsonToken.FIELD_NAME, p.nextToken());
+            assertToken(JsonToken.VALUE_STRING, p.nextToken());
+            assertToken(JsonToken.END_OBJECT, p.nextToken());
+            assertToken(JsonToken.END_ARRAY, p.nextToken());
+            assertNull(p.nextToken());
+        }
+    }
+
+    public void testInvalidContent() throws Exception
+    {
+        byte[] doc = cborDoc("{\"abc\":[1,2,3],\"def\":\"ghi\"}");
+        CBORLazyNode root = CBORLazyNode.construct(Arrays.copyOf(doc, doc.length - 3));
+        assertEquals(3, root.at("/abc").size());
+        try {
+            root.get("def").textValue();
+            fail("Should not pass");
+        } catch (JsonParseException e) {
+            verifyException(e, "end-of-input");
+        }
+
+        // "stringref" references are not supported
+        CBORFactory f = CBORFactory.builder()
+                .enable(CBORGenerator.Feature.STRINGREF)
+                .build();
+        doc = cborDoc(f, "[\"abcd\",\"abcd\"]");
+        root = CBORLazyNode.construct(doc);
+        assertEquals("abcd", root.get(0).textValue());
+        try {
+            root.get(1);
+            fail("Should not pass");
+        } catch (JsonParseException e) {
+            verifyException(e, "\"stringref\" references");
+        }
+    }
+
+    public void testIllegalLengths() throws Exception
+    {
+        final byte FF = (byte) 0xFF;
+        // String with 64-bit length above Long.MAX_VALUE, as second element
+        CBORLazyNode root = CBORLazyNode.construct(new byte[] {
+                (byte) 0x82, 0x01, 0x7B, FF, FF, FF, FF, FF, FF, FF, FF, 0x01
+        });
+        assertEquals(1, root.get(0).intValue());
+        _verifyIllegalLength(root, 1);
+        // and same for nested Array with entry count above Integer.MAX_VALUE
+        root = CBORLazyNode.construct(new byte[] {
+                (byte) 0x82, 0x01, (byte) 0x9B, 0, 0, 0, 1, 0, 0, 0, 0, 0x01
+        });
+        _verifyIllegalLength(root, 1);
+    }
+
+    // Accessing an element should not require later elements to be valid
+    public void testElementAccessStopsAtIndex() throws Exception
+    {
+        // [1, 2, <invalid initial byte>]
+        CBORLazyNode root = CBORLazyNode.construct(new byte[] {
+                (byte) 0x83, 0x01, 0x02, (byte) 0xFC
+        });
+        assertEquals(1, root.get(0).intValue());
+        assertEquals(2, root.get(1).intValue());
+        assertNull(root.get(3));
+        try {
+            root.get(2);
+            fail("Should not pass");
+        } catch (JsonParseException e) {
+            verifyException(e, "Invalid");
+        }
+    }
+
+    private void _verifyIllegalLength(CBORLazyNode root, int index) throws Exception
+    {
+        try {
+            root.get(index);
+            fail("Should not pass");
+        } catch (JsonParseException e) {
+            verifyException(e, "Illegal length");
+        }
+        try {
+            root.getEndOffset();
+            fail("Should not pass");
+        } catch (JsonParseException e) {
+            verifyException(e, "Illegal length");
+        }
+    }
+
+    /*
+    /**********************************************************
+    /* Helper methods
+    /**********************************************************
+     */
+
+    private byte[] _mixedDoc(boolean definite) throws Exception
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CBORGenerator g = cborGenerator(bytes);
+        if (definite) {
+            g.writeStartObject(5);
+        } else {
+            g.writeStartObject();
+        }
+        g.writeFieldName("nums");
+        if (definite) {
+            g.writeStartArray(5);
+        } else {
+            g.writeStartArray();
+        }
+        g.writeNumber(new BigInteger("123456789012345678901234567890"));
+        g.writeNumber(new BigDecimal("0.25"));
+        g.writeNumber(Long.MAX_VALUE);
+        g.writeNumber(-2.5f);
+        g.writeNumber(0.1);
+        g.writeEndArray();
+        g.writeFieldName("flags");
+        if (definite) {
+            g.writeStartArray(3);
+        } else {
+            g.writeStartArray();
+        }
+        g.writeBoolean(true);
+        g.writeBoolean(false);
+        g.writeNull();
+        g.writeEndArray();
+        g.writeFieldName("bin");
+        g.writeBinary(new byte[] { 1, 2, 3 });
+        g.writeStringField("long", generateLongAsciiString(300));
+        g.writeFieldName("empty");
+        g.writeStartArray(0);
+        g.writeEndArray();
+        g.writeEndObject();
+        g.close();
+        return bytes.toByteArray();
+    }
+
+    private void _verifySame(JsonNode exp, CBORLazyNode act) throws Exception
+    {
+        assertNotNull(act);
+        assertEquals(exp.asToken(), act.asToken());
+        if (exp.isObject()) {
+            assertEquals(exp.size(), act.size());
+            List<String> names = new ArrayList<String>();
+            for (Iterator<String> it = exp.fieldNames(); it.hasNext(); ) {
+                String name = it.next();
+                names.add(name);
+                _verifySame(exp.get(name), act.get(name));
+            }
+            assertEquals(names, act.fieldNames());
+        } else if (exp.isArray()) {
+            assertEquals(exp.size(), act.size());
+            for (int i = 0; i < exp.size(); ++i) {
+                _verifySame(exp.get(i), act.get(i));
+            }
+            assertNull(act.get(exp.size()));
+        } else if (exp.isTextual()) {
+            assertEquals(exp.textValue(), act.textValue());
+        } else if (exp.isFloatingPointNumber()) {
+            // 32-bit floats may be bound as either Float or Double nodes
+            assertEquals(exp.doubleValue(), act.doubleValue());
+        } else if (exp.isNumber()) {
+            assertEquals(exp.numberValue(), act.numberValue());
+        } else if (exp.isBinary()) {
+            assertArrayEquals(exp.binaryValue(), act.binaryValue());
+        } else {
+            assertEquals(exp.booleanValue(), act.booleanValue());
+        }
+    }
+}